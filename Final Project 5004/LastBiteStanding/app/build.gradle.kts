@@ -49,6 +49,10 @@ android {
     buildFeatures {
         compose = true
     }
+    androidResources {
+        // The offline dataset is memory-mapped straight out of the APK
+        noCompress += "bin"
+    }
     composeOptions {
         kotlinCompilerExtensionVersion = "1.5.1"
     }
@@ -60,6 +64,7 @@ android {
 }
 
 dependencies {
+    implementation(project(":core"))
     implementation(libs.androidx.appcompat)
     implementation(libs.material)
     implementation(libs.play.services.location)
@@ -73,6 +78,7 @@ dependencies {
 
     implementation(libs.androidx.cardview)
     implementation(libs.androidx.recyclerview)
+    implementation(libs.androidx.lifecycle.viewmodel)
     implementation(libs.androidx.cardview)
     testImplementation(libs.junit)
     testImplementation(libs.androidx.junit)
@@ -10,11 +10,32 @@
  * - Veto system implementation
  * - Final restaurant selection
  * - Google Maps integration
+ *
+ * The game itself lives in a {@link GameSessionViewModel}, so rotating the device keeps the deck
+ * and any lookups still in flight. After process death the session is restored from a
+ * {@link GameSessionSnapshot} saved in the instance state instead of being fetched again.
+ *
+ * The player roster is handed over through the {@link RosterStore}, with only its id in the
+ * intent, so a party of a hundred players never passes through a Binder transaction. The roster
+ * is kept in the instance state as well, since the store does not survive process death.
+ *
+ * The activity times when the first restaurant card is bound and when the complete deck has
+ * been laid out for the {@link PerfTracer}. In debuggable builds, long-pressing the header
+ * shows a HUD with every stage's timings and the {@link PhotoLoader}'s memory use; tapping the
+ * HUD saves the timings to a report file.
+ *
+ * Swiping a card away cancels its photo load before the veto is applied, so a vetoed
+ * restaurant's download or decode never competes with the cards still on screen.
  */
 package com.lastbite.app;
 
+import android.content.pm.ApplicationInfo;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.graphics.Canvas;
+import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.annotation.NonNull;
@@ -22,20 +43,19 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
-import com.google.android.libraries.places.api.Places;
-import com.google.android.libraries.places.api.net.PlacesClient;
+import androidx.lifecycle.ViewModelProvider;
+import com.lastbite.app.game.GameSessionSnapshot;
+import com.lastbite.app.game.GameSessionViewModel;
+import com.lastbite.app.game.RosterStore;
+import com.lastbite.app.photos.PhotoLoader;
+import com.lastbite.app.places.PlacesGateway;
+import com.lastbite.app.places.RestaurantPrefetcher;
+import com.lastbite.app.trace.PerfTracer;
+import com.lastbite.core.trace.TraceStage;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import android.util.Log;
-import com.google.android.gms.maps.model.LatLng;
-import com.google.android.libraries.places.api.model.AutocompletePrediction;
-import com.google.android.libraries.places.api.model.Place;
-import com.google.android.libraries.places.api.model.RectangularBounds;
-import com.google.android.libraries.places.api.net.FindAutocompletePredictionsRequest;
-import com.google.android.libraries.places.api.net.FetchPlaceRequest;
-import java.util.*;
-import java.util.stream.Collectors;
-import java.util.concurrent.atomic.AtomicInteger;
 import android.content.Intent;
 import android.net.Uri;
 import android.widget.Button;
@@ -44,24 +64,37 @@ import android.content.res.ColorStateList;
 import android.graphics.Color;
 
 
-public class GameActivity extends AppCompatActivity {
+public class GameActivity extends AppCompatActivity
+        implements GameSessionViewModel.SessionListener, RestaurantAdapter.BindListener {
+    /** Intent extra: id of the player roster in the {@link RosterStore} */
+    public static final String EXTRA_ROSTER_ID = "rosterId";
+
+    /** Key of the session snapshot in the saved instance state */
+    private static final String STATE_SESSION = "session";
+
+    /** Key of the player roster in the saved instance state */
+    private static final String STATE_PLAYERS = "players";
+
+    /** How often the performance HUD is refreshed while it is shown */
+    private static final long HUD_REFRESH_MS = 500;
+
     private RecyclerView recyclerView;
     private RestaurantAdapter adapter;
     private List<RestaurantCard> restaurants;
     private List<PlayerPreference> players;
     private TextView currentPlayerText;
-    private int currentPlayerIndex = 0;
-    private int vetosRemaining;
-    private PlacesClient placesClient;
-    private double latitude;
-    private double longitude;
+    private GameSessionViewModel session;
+    private boolean finalResultShown;
+    private TextView perfHud;
+    private final Handler hudHandler = new Handler(Looper.getMainLooper());
+    private final Runnable hudRefresh = this::refreshPerfHud;
 
 
     /**
      * Initializes the game activity and sets up the necessary components for gameplay.
-     * This method handles the initialization of Google Places API, retrieves player preferences
-     * and location data from the intent, and sets up the UI components including the RecyclerView
-     * for restaurant cards.
+     * This method retrieves player preferences and location data from the intent, attaches to the
+     * game session (starting it, or restoring it from the saved snapshot after process death),
+     * and sets up the UI components including the RecyclerView for restaurant cards.
      *
      * @param savedInstanceState Bundle containing the activity's previously saved state, if any
      */
@@ -70,20 +103,121 @@ public class GameActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_game);
 
-        latitude = getIntent().getDoubleExtra("latitude", 0);
-        longitude = getIntent().getDoubleExtra("longitude", 0);
-        players = getIntent().getParcelableArrayListExtra("players");
-        vetosRemaining = players.size();
-
-        if (!Places.isInitialized()) {
-            Places.initialize(getApplicationContext(), getString(R.string.google_maps_key));
+        session = new ViewModelProvider(this).get(GameSessionViewModel.class);
+        session.setListener(this);
+        if (!session.isStarted()) {
+            double latitude = getIntent().getDoubleExtra("latitude", 0);
+            double longitude = getIntent().getDoubleExtra("longitude", 0);
+            List<PlayerPreference> roster =
+                    RosterStore.getInstance().take(getIntent().getLongExtra(EXTRA_ROSTER_ID, 0));
+            if (roster == null && savedInstanceState != null) {
+                roster = savedInstanceState.getParcelableArrayList(STATE_PLAYERS);
+            }
+            GameSessionSnapshot snapshot = savedInstanceState != null
+                    ? savedInstanceState.getParcelable(STATE_SESSION)
+                    : null;
+            if (snapshot != null) {
+                session.restore(roster, latitude, longitude, snapshot);
+            } else {
+                session.start(roster, latitude, longitude);
+            }
         }
-        placesClient = Places.createClient(this);
+        players = session.getPlayers();
 
         initializeViews();
         setupRecyclerView();
-        fetchRestaurants();
-        updateCurrentPlayerText();
+        updateGameState();
+    }
+
+    /**
+     * Saves the roster and a compact snapshot of the game so both can be restored after
+     * process death.
+     *
+     * @param outState Bundle in which to place the saved state
+     */
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putParcelableArrayList(STATE_PLAYERS, new ArrayList<>(players));
+        outState.putParcelable(STATE_SESSION, session.snapshot());
+    }
+
+    /**
+     * Detaches from the game session so it does not call back into a destroyed activity.
+     */
+    @Override
+    protected void onDestroy() {
+        session.setListener(null);
+        adapter.setBindListener(null);
+        hudHandler.removeCallbacks(hudRefresh);
+        super.onDestroy();
+    }
+
+    /**
+     * Hands the session's updated deck to the adapter, which animates only the changed rows.
+     */
+    @Override
+    public void onRestaurantsChanged() {
+        adapter.submitList(session.getRestaurants());
+        updateGameState();
+    }
+
+    /**
+     * Lets the first player start vetoing once the deck is complete or the fetch deadline passed.
+     */
+    @Override
+    public void onGameReady() {
+        updateGameState();
+    }
+
+    /**
+     * Records the first restaurant card of the game reaching the screen.
+     *
+     * @param card The bound card
+     */
+    @Override
+    public void onCardBound(RestaurantCard card) {
+        if (!card.isPlaceholder()) {
+            PerfTracer.getInstance().markSinceGameStart(TraceStage.FIRST_BIND);
+        }
+    }
+
+    /**
+     * Once the applied deck is complete, records the next layout pass, which binds its cards.
+     */
+    @Override
+    public void onDeckApplied() {
+        PerfTracer tracer = PerfTracer.getInstance();
+        if (!session.isFetchComplete() || tracer.isMarked(TraceStage.ALL_BOUND)) {
+            return;
+        }
+        for (RestaurantCard card : session.getRestaurants()) {
+            if (card.isPlaceholder()) {
+                return;
+            }
+        }
+        recyclerView.getViewTreeObserver().addOnGlobalLayoutListener(
+                new ViewTreeObserver.OnGlobalLayoutListener() {
+                    @Override
+                    public void onGlobalLayout() {
+                        recyclerView.getViewTreeObserver().removeOnGlobalLayoutListener(this);
+                        tracer.markSinceGameStart(TraceStage.ALL_BOUND);
+                    }
+                });
+    }
+
+    /**
+     * Updates the header to match the session: loading, whose turn it is, or the final result.
+     * A removed placeholder can use up the last veto, so this also runs after deck changes.
+     */
+    private void updateGameState() {
+        if (!session.isReady()) {
+            currentPlayerText.setText("Finding restaurants…");
+        } else if (session.getVetosRemaining() > 0) {
+            updateCurrentPlayerText();
+        } else {
+            showFinalResult();
+        }
     }
 
     /**
@@ -93,6 +227,52 @@ public class GameActivity extends AppCompatActivity {
     private void initializeViews() {
         currentPlayerText = findViewById(R.id.currentPlayerText);
         recyclerView = findViewById(R.id.restaurantsRecyclerView);
+        perfHud = findViewById(R.id.perfHud);
+
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            currentPlayerText.setOnLongClickListener(v -> {
+                togglePerfHud();
+                return true;
+            });
+            perfHud.setOnClickListener(v -> dumpPerfReport());
+        }
+    }
+
+    /**
+     * Shows or hides the performance HUD. While shown it is refreshed periodically.
+     */
+    private void togglePerfHud() {
+        if (perfHud.getVisibility() == View.VISIBLE) {
+            perfHud.setVisibility(View.GONE);
+            hudHandler.removeCallbacks(hudRefresh);
+        } else {
+            perfHud.setVisibility(View.VISIBLE);
+            refreshPerfHud();
+        }
+    }
+
+    /**
+     * Shows the current stage timings, Places gateway, photo cache and prefetch statistics in
+     * the HUD and schedules the next refresh.
+     */
+    private void refreshPerfHud() {
+        perfHud.setText(PerfTracer.getInstance().getTimings().formatReport()
+                + PlacesGateway.getInstance(this).formatStats()
+                + PhotoLoader.getInstance(this).formatStats()
+                + RestaurantPrefetcher.getInstance().formatStats());
+        hudHandler.postDelayed(hudRefresh, HUD_REFRESH_MS);
+    }
+
+    /**
+     * Saves the stage timings to a report file and tells the user where it is.
+     */
+    private void dumpPerfReport() {
+        try {
+            File report = PerfTracer.getInstance().dump(this);
+            Toast.makeText(this, "Saved " + report.getAbsolutePath(), Toast.LENGTH_LONG).show();
+        } catch (IOException e) {
+            Toast.makeText(this, "Could not save report: " + e.getMessage(), Toast.LENGTH_LONG).show();
+        }
     }
 
     /**
@@ -101,8 +281,9 @@ public class GameActivity extends AppCompatActivity {
      * The swipe callback includes visual feedback and handles the veto logic for removing restaurants.
      */
     private void setupRecyclerView() {
-        restaurants = new ArrayList<>();
+        restaurants = new ArrayList<>(session.getRestaurants());
         adapter = new RestaurantAdapter(restaurants);
+        adapter.setBindListener(this);
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
         recyclerView.setAdapter(adapter);
 
@@ -114,20 +295,25 @@ public class GameActivity extends AppCompatActivity {
                 return false;
             }
 
+            @Override
+            public int getSwipeDirs(@NonNull RecyclerView recyclerView,
+                                    @NonNull RecyclerView.ViewHolder viewHolder) {
+                return session.isReady() ? super.getSwipeDirs(recyclerView, viewHolder) : 0;
+            }
+
             @Override
             public void onSwiped(@NonNull RecyclerView.ViewHolder viewHolder, int direction) {
                 int position = viewHolder.getAdapterPosition();
+                if (position == RecyclerView.NO_POSITION) {
+                    return;
+                }
+                adapter.cancelPhoto((RestaurantAdapter.RestaurantViewHolder) viewHolder);
 
-                if (vetosRemaining > 0) {
+                if (session.veto(adapter.getCard(position))) {
                     adapter.removeItem(position);
-                    vetosRemaining--;
-
-                    if (vetosRemaining > 0) {
-                        currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
-                        updateCurrentPlayerText();
-                    } else {
-                        showFinalResult();
-                    }
+                    updateGameState();
+                } else {
+                    adapter.notifyItemChanged(position);
                 }
             }
 
@@ -152,8 +338,8 @@ public class GameActivity extends AppCompatActivity {
      * The swipe callback includes visual feedback and handles the veto logic for removing restaurants.
      */
     private void updateCurrentPlayerText() {
-        if (vetosRemaining > 0) {
-            PlayerPreference currentPlayer = players.get(currentPlayerIndex);
+        if (session.getVetosRemaining() > 0) {
+            PlayerPreference currentPlayer = players.get(session.getCurrentPlayerIndex());
             currentPlayerText.setText(currentPlayer.name + "'s turn to veto");
         }
     }
@@ -165,223 +351,53 @@ public class GameActivity extends AppCompatActivity {
      * - View the result
      * - Open the restaurant in Google Maps
      * - Start a new game
+     * If the remaining card is still a placeholder, the result is shown once it arrives;
+     * if no restaurant could be found at all, only the replay button is offered.
      */
     private void showFinalResult() {
-        if (restaurants.size() == 1) {
-            RestaurantCard finalChoice = restaurants.get(0);
+        if (finalResultShown) {
+            return;
+        }
+        List<RestaurantCard> deck = session.getRestaurants();
+        if (deck.isEmpty()) {
+            finalResultShown = true;
+            currentPlayerText.setText("No restaurants found nearby");
+            showReplayButton();
+        } else if (deck.size() == 1 && deck.get(0).isPlaceholder()) {
+            currentPlayerText.setText("Final Selection: still on its way…");
+        } else if (deck.size() == 1) {
+            finalResultShown = true;
+            RestaurantCard finalChoice = deck.get(0);
             currentPlayerText.setText("Final Selection: " + finalChoice.getName());
-
-            Button replayButton = new Button(this);
-            replayButton.setText("Play Again");
-            replayButton.setBackgroundTintList(ColorStateList.valueOf(getResources().getColor(R.color.dark_green)));
-            replayButton.setTextColor(Color.WHITE);
-
-            LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(
-                    LinearLayout.LayoutParams.MATCH_PARENT,
-                    LinearLayout.LayoutParams.WRAP_CONTENT
-            );
-            params.setMargins(32, 32, 32, 32);
-            replayButton.setLayoutParams(params);
-
-            LinearLayout parentLayout = findViewById(R.id.gameLayout);
-            parentLayout.addView(replayButton);
-
-            replayButton.setOnClickListener(v -> restartGame());
+            showReplayButton();
 
             Toast.makeText(this, "Tap the restaurant card to open in Maps!",
                     Toast.LENGTH_LONG).show();
         }
     }
 
-
-    /**
-     * Interface for handling asynchronous restaurant fetching operations.
-     * Provides a callback method to be executed when a restaurant has been successfully fetched.
-     */
-    private interface RestaurantFetchCallback {
-        void onRestaurantFetched();
-    }
-
     /**
-     * Initiates the process of fetching restaurants based on player preferences.
-     * Creates a geographical bound for the search area and fetches restaurants for each player's
-     * preferred cuisine. Once all player-preferred restaurants are fetched, it proceeds to fetch
-     * an additional high-rated restaurant as a bonus option.
+     * Adds a "Play Again" button below the restaurant list that restarts the game.
      */
-    private void fetchRestaurants() {
-        double radiusInDegrees = 0.02; // Aproxx 2km
-        final RectangularBounds searchBounds = RectangularBounds.newInstance(
-                new LatLng(latitude - radiusInDegrees, longitude - radiusInDegrees),
-                new LatLng(latitude + radiusInDegrees, longitude + radiusInDegrees)
+    private void showReplayButton() {
+        Button replayButton = new Button(this);
+        replayButton.setText("Play Again");
+        replayButton.setBackgroundTintList(ColorStateList.valueOf(getResources().getColor(R.color.dark_green)));
+        replayButton.setTextColor(Color.WHITE);
+
+        LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(
+                LinearLayout.LayoutParams.MATCH_PARENT,
+                LinearLayout.LayoutParams.WRAP_CONTENT
         );
+        params.setMargins(32, 32, 32, 32);
+        replayButton.setLayoutParams(params);
 
-        final AtomicInteger restaurantsFetched = new AtomicInteger(0);
-
-        for (PlayerPreference player : players) {
-            findRestaurantForCuisine(player.cuisine, player.name, searchBounds, new RestaurantFetchCallback() {
-                /**
-                 * Called when a restaurant has been successfully fetched from the Places API.
-                 */
+        LinearLayout parentLayout = findViewById(R.id.gameLayout);
+        parentLayout.addView(replayButton);
 
-                @Override
-                public void onRestaurantFetched() {
-                    int fetched = restaurantsFetched.incrementAndGet();
-                    if (fetched == players.size()) {
-                        findRandomHighRatedRestaurant(searchBounds);
-                    }
-                }
-            });
-        }
+        replayButton.setOnClickListener(v -> restartGame());
     }
 
-    /**
-     * Searches for and fetches a restaurant matching the specified cuisine within the given bounds.
-     * Uses the Google Places API to find restaurants and adds them to the list when found.
-     *
-     * @param cuisine The type of cuisine to search for
-     * @param playerName The name of the player who preferred this cuisine
-     * @param bounds The geographical bounds to search within
-     * @param callback Callback to execute after the restaurant is fetched
-     */
-    private void findRestaurantForCuisine(String cuisine, String playerName,
-                                          RectangularBounds bounds,
-                                          RestaurantFetchCallback callback) {
-        String query = cuisine + " restaurant";
-
-        FindAutocompletePredictionsRequest request = FindAutocompletePredictionsRequest.builder()
-                .setLocationBias(bounds)
-                .setQuery(query)
-                .setTypesFilter(Arrays.asList("restaurant"))
-                .build();
-
-        placesClient.findAutocompletePredictions(request)
-                .addOnSuccessListener(response -> {
-                    if (!response.getAutocompletePredictions().isEmpty()) {
-                        AutocompletePrediction prediction = response.getAutocompletePredictions().get(0);
-
-                        List<Place.Field> placeFields = Arrays.asList(
-                                Place.Field.NAME,
-                                Place.Field.RATING,
-                                Place.Field.ADDRESS,
-                                Place.Field.TYPES
-                        );
-
-                        FetchPlaceRequest placeRequest = FetchPlaceRequest.builder(
-                                prediction.getPlaceId(), placeFields).build();
-
-                        placesClient.fetchPlace(placeRequest)
-                                .addOnSuccessListener(placeResponse -> {
-                                    Place place = placeResponse.getPlace();
-                                    restaurants.add(new RestaurantCard(
-                                            place.getName(),
-                                            cuisine,
-                                            place.getRating() != null ? place.getRating() + " ★" : "Rating N/A",
-                                            place.getAddress(),
-                                            playerName
-                                    ));
-                                    adapter.notifyDataSetChanged();
-                                    callback.onRestaurantFetched();
-                                })
-                                .addOnFailureListener(exception -> {
-                                    Log.e("Places", "Place details fetch failed: " + exception.getMessage());
-                                    callback.onRestaurantFetched();
-                                });
-                    } else {
-                        callback.onRestaurantFetched();
-                    }
-                })
-                .addOnFailureListener(exception -> {
-                    Log.e("Places", "Place prediction failed: " + exception.getMessage());
-                    callback.onRestaurantFetched();
-                });
-    }
-
-    /**
-     * Finds a random highly-rated restaurant of a cuisine different from player preferences.
-     * Filters out cuisines already chosen by players and selects a random available cuisine
-     * for the search.
-     *
-     * @param bounds The geographical bounds to search within
-     */
-    private void findRandomHighRatedRestaurant(RectangularBounds bounds) {
-        String[] randomCuisines = {"Italian", "Mexican", "Chinese", "Thai", "Indian", "Japanese",
-                "Mediterranean", "French", "Korean", "Vietnamese", "Middle Eastern"};
-
-        List<String> playerCuisines = players.stream()
-                .map(p -> p.cuisine.toLowerCase())
-                .collect(Collectors.toList());
-
-        List<String> availableCuisines = Arrays.stream(randomCuisines)
-                .filter(cuisine -> !playerCuisines.contains(cuisine.toLowerCase()))
-                .collect(Collectors.toList());
-
-        if (availableCuisines.isEmpty()) {
-            findHighRatedRestaurant(bounds, "highly rated restaurant");
-        } else {
-            Random random = new Random();
-            String randomCuisine = availableCuisines.get(random.nextInt(availableCuisines.size()));
-            findHighRatedRestaurant(bounds, randomCuisine + " restaurant");
-        }
-    }
-
-    /**
-     * Searches for a highly-rated restaurant matching the specified query within given bounds.
-     * Uses the Google Places API to find restaurants with ratings of 4.0 or higher.
-     *
-     * @param bounds The geographical bounds to search within
-     * @param query The search query string for finding restaurants
-     */
-    private void findHighRatedRestaurant(RectangularBounds bounds, String query) {
-        FindAutocompletePredictionsRequest request = FindAutocompletePredictionsRequest.builder()
-                .setLocationBias(bounds)
-                .setQuery(query + " rating:4")
-                .setTypesFilter(Arrays.asList("restaurant"))
-                .build();
-
-        placesClient.findAutocompletePredictions(request)
-                .addOnSuccessListener(response -> {
-                    if (!response.getAutocompletePredictions().isEmpty()) {
-                        Random random = new Random();
-                        AutocompletePrediction prediction =
-                                response.getAutocompletePredictions().get(
-                                        random.nextInt(response.getAutocompletePredictions().size())
-                                );
-
-                        List<Place.Field> placeFields = Arrays.asList(
-                                Place.Field.NAME,
-                                Place.Field.RATING,
-                                Place.Field.ADDRESS,
-                                Place.Field.TYPES
-                        );
-
-                        FetchPlaceRequest placeRequest = FetchPlaceRequest.builder(
-                                prediction.getPlaceId(), placeFields).build();
-
-                        placesClient.fetchPlace(placeRequest)
-                                .addOnSuccessListener(placeResponse -> {
-                                    Place place = placeResponse.getPlace();
-                                    if (place.getRating() != null && place.getRating() >= 4.0) {
-                                        restaurants.add(new RestaurantCard(
-                                                place.getName(),
-                                                "Our Special Pick",
-                                                place.getRating() + " ★",
-                                                place.getAddress(),
-                                                "Game's Recommendation"
-                                        ));
-                                        adapter.notifyDataSetChanged();
-                                    } else {
-                                        findHighRatedRestaurant(bounds, query);
-                                    }
-                                })
-                                .addOnFailureListener(exception -> {
-                                    Log.e("Places", "Place details fetch failed: " + exception.getMessage());
-                                });
-                    }
-                })
-                .addOnFailureListener(exception -> {
-                    Log.e("Places", "Place prediction failed: " + exception.getMessage());
-                });
-    }
 
     /**
      * Opens the selected restaurant in Google Maps application for navigation and additional details.
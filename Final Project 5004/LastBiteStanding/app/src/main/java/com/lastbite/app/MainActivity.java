@@ -37,6 +37,8 @@ import com.google.android.libraries.places.widget.listener.PlaceSelectionListene
 import com.lastbite.app.managers.LocationManager;
 import com.lastbite.app.services.GoogleLocationService;
 import com.lastbite.app.services.LocationCallback;
+import com.lastbite.app.services.LocationFixes;
+import com.lastbite.core.geo.LocationFixPolicy;
 import java.util.Arrays;
 import android.content.Intent;
 import android.view.View;
@@ -55,6 +57,9 @@ public class MainActivity extends AppCompatActivity implements OnMapReadyCallbac
     private MapView mapView;
     private LocationManager locationManager;
     private Button useCurrentLocationBtn;
+
+    /** Whether the game location is the device's location, which the map then follows */
+    private boolean followingDevice;
     /**
      * Initializes the activity, sets up the UI components, and initializes required services.
      * This includes initializing the Places SDK, location services, map view, and places autocomplete.
@@ -67,10 +72,11 @@ public class MainActivity extends AppCompatActivity implements OnMapReadyCallbac
         setContentView(R.layout.activity_main);
 
         if (!Places.isInitialized()) {
-            Places.initialize(getApplicationContext(), getString(R.string.google_maps_key));
+            Places.initializeWithNewPlacesApiEnabled(getApplicationContext(), getString(R.string.google_maps_key));
         }
 
-        locationManager = new LocationManager(new GoogleLocationService(this));
+        LocationFixPolicy locationPolicy = LocationFixes.policyFrom(getResources());
+        locationManager = new LocationManager(new GoogleLocationService(this, locationPolicy), locationPolicy);
 
         initializeViews(savedInstanceState);
         setupPlacesAutocomplete();
@@ -134,6 +140,8 @@ public class MainActivity extends AppCompatActivity implements OnMapReadyCallbac
                     LatLng latLng = place.getLatLng();
 
                     if (latLng != null) {
+                        followingDevice = false;
+                        locationManager.unsubscribe();
                         updateMapLocation(latLng);
                         Toast.makeText(MainActivity.this,
                                 "Selected: " + placeName, Toast.LENGTH_SHORT).show();
@@ -154,6 +162,7 @@ public class MainActivity extends AppCompatActivity implements OnMapReadyCallbac
      * Handles the process of retrieving the user's current location.
      * Checks for location permissions and requests them if not granted.
      * When permissions are available, retrieves the current location and updates the UI.
+     * Player setup starts with the first usable fix; later refinements only move the marker.
      */
     private void handleGetCurrentLocation() {
         if (!checkLocationPermission()) {
@@ -166,15 +175,23 @@ public class MainActivity extends AppCompatActivity implements OnMapReadyCallbac
             @Override
             public void onLocationReceived(Location location) {
                 useCurrentLocationBtn.setEnabled(true);
+                followingDevice = true;
                 LatLng latLng = new LatLng(location.getLatitude(), location.getLongitude());
                 updateMapLocation(latLng);
                 proceedToPlayerSetup(latLng);
             }
 
+            @Override
+            public void onLocationRefined(Location location) {
+                updateMapLocation(new LatLng(location.getLatitude(), location.getLongitude()));
+            }
+
             @Override
             public void onLocationError(String error) {
                 useCurrentLocationBtn.setEnabled(true);
-                showError(error);
+                if (!isFinishing() && !isChangingConfigurations()) {
+                    showError(error);
+                }
             }
         });
     }
@@ -214,9 +231,28 @@ public class MainActivity extends AppCompatActivity implements OnMapReadyCallbac
         }
     }
 
+    /**
+     * Moves the map along with the device while the game location is the device's location.
+     * The subscription ends by itself when the activity stops.
+     */
+    private void followDevice() {
+        Location start = locationManager.getLastKnownLocation();
+        if (!followingDevice || start == null || !checkLocationPermission()) {
+            return;
+        }
+        locationManager.subscribe(this, start.getLatitude(), start.getLongitude(),
+                new LocationManager.MovementListener() {
+                    @Override
+                    public void onMoved(Location location) {
+                        updateMapLocation(new LatLng(location.getLatitude(), location.getLongitude()));
+                    }
+                });
+    }
+
     /**
      * Navigates to the PlayerSetupActivity with the selected location.
-     * Passes the latitude and longitude as extras in the intent.
+     * Passes the latitude and longitude as extras in the intent, and whether the location
+     * is the device's own, in which case player setup follows the device as well.
      *
      * @param location The selected LatLng location to pass to the next activity
      */
@@ -224,6 +260,7 @@ public class MainActivity extends AppCompatActivity implements OnMapReadyCallbac
         Intent intent = new Intent(this, PlayerSetupActivity.class);
         intent.putExtra("latitude", location.latitude);
         intent.putExtra("longitude", location.longitude);
+        intent.putExtra(PlayerSetupActivity.EXTRA_FOLLOW_DEVICE, followingDevice);
         startActivity(intent);
     }
 
@@ -273,6 +310,16 @@ public class MainActivity extends AppCompatActivity implements OnMapReadyCallbac
         }
     }
 
+    /**
+     * Called when the activity becomes visible.
+     * Resumes following the device if the game location is the device's location.
+     */
+    @Override
+    protected void onStart() {
+        super.onStart();
+        followDevice();
+    }
+
     /**
      * Called when the activity resumes.
      * Ensures proper MapView lifecycle management.
@@ -295,10 +342,11 @@ public class MainActivity extends AppCompatActivity implements OnMapReadyCallbac
 
     /**
      * Called when the activity is destroyed.
-     * Ensures proper cleanup of the MapView.
+     * Cancels any pending location request and ensures proper cleanup of the MapView.
      */
     @Override
     protected void onDestroy() {
+        locationManager.stopLocationUpdates();
         mapView.onDestroy();
         super.onDestroy();
     }
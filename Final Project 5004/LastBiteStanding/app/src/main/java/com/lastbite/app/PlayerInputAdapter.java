@@ -0,0 +1,226 @@
+/**
+ * A RecyclerView adapter for the player rows on the setup screen, each with a name input, a
+ * first and an optional second cuisine choice and a check box per dietary constraint.
+ *
+ * <p>A party can have a hundred players, so rows are recycled instead of inflated up front: only
+ * the rows on screen have views, and all spinners share two cuisine adapters. The entered values
+ * live in a list of {@link PlayerPreference} drafts, one per player, which the adapter updates as
+ * the user types and picks, so nothing is lost when a row scrolls off screen and its view is
+ * reused for another player.</p>
+ */
+package com.lastbite.app;
+
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.AdapterView;
+import android.widget.ArrayAdapter;
+import android.widget.CheckBox;
+import android.widget.EditText;
+import android.widget.Spinner;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import com.lastbite.core.cuisine.Cuisine;
+import com.lastbite.core.cuisine.CuisinePreferences;
+import com.lastbite.core.cuisine.DietaryFlag;
+import java.util.Arrays;
+import java.util.List;
+
+public class PlayerInputAdapter extends RecyclerView.Adapter<PlayerInputAdapter.PlayerViewHolder> {
+
+    /** First entry of the second choice spinner, leaving the second choice empty */
+    public static final String NO_SECOND_CHOICE = "No second choice";
+
+    /**
+     * Told when a player picks a different cuisine.
+     */
+    public interface CuisineListener {
+        /**
+         * Called after a player's draft cuisine changed.
+         */
+        void onCuisineChanged();
+    }
+
+    /** One draft per player, updated in place as the rows are edited */
+    private final List<PlayerPreference> drafts;
+
+    /** The first choice cuisines, shared by every row's first spinner */
+    private final ArrayAdapter<String> cuisineAdapter;
+
+    /** {@link #NO_SECOND_CHOICE} and the cuisines, shared by every row's second spinner */
+    private final ArrayAdapter<String> secondCuisineAdapter;
+
+    /** Told about cuisine changes */
+    private final CuisineListener cuisineListener;
+
+    /**
+     * Constructs a new PlayerInputAdapter.
+     *
+     * @param drafts               One draft per player. The adapter writes entered names, picked
+     *                             cuisines and dietary constraints into it.
+     * @param cuisineAdapter       The first choice cuisines, shared by every row's spinner
+     * @param secondCuisineAdapter {@link #NO_SECOND_CHOICE} followed by the cuisines
+     * @param cuisineListener      Told when a player picks a different cuisine
+     */
+    public PlayerInputAdapter(List<PlayerPreference> drafts, ArrayAdapter<String> cuisineAdapter,
+                              ArrayAdapter<String> secondCuisineAdapter, CuisineListener cuisineListener) {
+        this.drafts = drafts;
+        this.cuisineAdapter = cuisineAdapter;
+        this.secondCuisineAdapter = secondCuisineAdapter;
+        this.cuisineListener = cuisineListener;
+    }
+
+    /**
+     * Creates a player row and wires its inputs to whichever draft the row is bound to.
+     *
+     * @param parent   The ViewGroup into which the new View will be added
+     * @param viewType The view type of the new View (not used in this implementation)
+     * @return A new PlayerViewHolder
+     */
+    @NonNull
+    @Override
+    public PlayerViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.player_input_item, parent, false);
+        PlayerViewHolder holder = new PlayerViewHolder(view);
+        holder.cuisineSpinner.setAdapter(cuisineAdapter);
+        holder.secondCuisineSpinner.setAdapter(secondCuisineAdapter);
+
+        holder.playerNameInput.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                int position = holder.getBindingAdapterPosition();
+                if (!holder.binding && position != RecyclerView.NO_POSITION) {
+                    drafts.get(position).name = s.toString();
+                }
+            }
+        });
+        AdapterView.OnItemSelectedListener cuisineSelected = new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int index, long id) {
+                updatePreferences(holder);
+            }
+
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {
+            }
+        };
+        holder.cuisineSpinner.setOnItemSelectedListener(cuisineSelected);
+        holder.secondCuisineSpinner.setOnItemSelectedListener(cuisineSelected);
+        for (CheckBox check : holder.dietaryChecks) {
+            check.setOnCheckedChangeListener((button, checked) -> updatePreferences(holder));
+        }
+        return holder;
+    }
+
+    /**
+     * Shows a player's draft in a row.
+     *
+     * @param holder   The row to fill
+     * @param position The player's position in the roster
+     */
+    @Override
+    public void onBindViewHolder(@NonNull PlayerViewHolder holder, int position) {
+        PlayerPreference draft = drafts.get(position);
+        CuisinePreferences preferences = draft.preferences;
+        holder.binding = true;
+        holder.playerNameInput.setHint("Player " + (position + 1) + " name");
+        holder.playerNameInput.setText(draft.name);
+        Cuisine first = preferences.getPrimary();
+        holder.cuisineSpinner.setSelection(first == null ? 0
+                : Math.max(0, cuisineAdapter.getPosition(first.getName())), false);
+        Cuisine second = preferences.get(1);
+        holder.secondCuisineSpinner.setSelection(second == null ? 0
+                : Math.max(0, secondCuisineAdapter.getPosition(second.getName())), false);
+        for (DietaryFlag flag : DietaryFlag.values()) {
+            holder.dietaryChecks[flag.ordinal()].setChecked(preferences.has(flag));
+        }
+        holder.binding = false;
+    }
+
+    /**
+     * Returns the number of players.
+     *
+     * @return The number of drafts
+     */
+    @Override
+    public int getItemCount() {
+        return drafts.size();
+    }
+
+    /**
+     * Writes a row's cuisine choices and dietary constraints into its draft, and tells the
+     * listener if they changed.
+     *
+     * @param holder The edited row
+     */
+    private void updatePreferences(PlayerViewHolder holder) {
+        int position = holder.getBindingAdapterPosition();
+        if (holder.binding || position == RecyclerView.NO_POSITION) {
+            return;
+        }
+        Cuisine first = Cuisine.of((String) holder.cuisineSpinner.getSelectedItem());
+        Cuisine second = Cuisine.of((String) holder.secondCuisineSpinner.getSelectedItem());
+        int flags = 0;
+        for (DietaryFlag flag : DietaryFlag.values()) {
+            if (holder.dietaryChecks[flag.ordinal()].isChecked()) {
+                flags |= flag.bit();
+            }
+        }
+
+        PlayerPreference draft = drafts.get(position);
+        CuisinePreferences preferences = CuisinePreferences.of(Arrays.asList(first, second), flags);
+        if (!preferences.equals(draft.preferences)) {
+            draft.preferences = preferences;
+            cuisineListener.onCuisineChanged();
+        }
+    }
+
+    /**
+     * ViewHolder class that contains references to the inputs of a player row.
+     */
+    static class PlayerViewHolder extends RecyclerView.ViewHolder {
+        /** EditText for the player's name */
+        EditText playerNameInput;
+
+        /** Spinner for the player's first choice cuisine */
+        Spinner cuisineSpinner;
+
+        /** Spinner for the player's optional second choice cuisine */
+        Spinner secondCuisineSpinner;
+
+        /** One check box per {@link DietaryFlag}, indexed by ordinal */
+        CheckBox[] dietaryChecks;
+
+        /** True while the row is being bound, so the row's own updates are not taken as edits */
+        boolean binding;
+
+        /**
+         * Constructs a new PlayerViewHolder and finds the row's inputs.
+         *
+         * @param itemView The View that contains the player row layout
+         */
+        PlayerViewHolder(View itemView) {
+            super(itemView);
+            playerNameInput = itemView.findViewById(R.id.playerNameInput);
+            cuisineSpinner = itemView.findViewById(R.id.cuisineSpinner);
+            secondCuisineSpinner = itemView.findViewById(R.id.secondCuisineSpinner);
+            dietaryChecks = new CheckBox[] {
+                    itemView.findViewById(R.id.vegetarianCheck),
+                    itemView.findViewById(R.id.veganCheck),
+                    itemView.findViewById(R.id.halalCheck),
+                    itemView.findViewById(R.id.kosherCheck)
+            };
+        }
+    }
+}
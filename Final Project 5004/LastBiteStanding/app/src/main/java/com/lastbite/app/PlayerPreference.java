@@ -1,33 +1,61 @@
 /**
- * Represents a player's preferences for the LastBite application, including their name and preferred cuisine.
+ * Represents a player's preferences for the LastBite application, including their name, ranked
+ * cuisines and dietary constraints.
  * This class implements the Parcelable interface to allow efficient data transfer between Android components.
  *
  * <p>The class stores basic user preference information and provides functionality to serialize/deserialize
  * this data using Android's Parcelable system. This makes it suitable for passing player preferences
  * between different Activities, Services, or other Android components.</p>
+ *
+ * <p>The cuisines and constraints are held as {@link CuisinePreferences}, which pack into a
+ * single {@code long}, so a parcelled player is the name, eight bytes and an empty custom
+ * cuisine instead of the name and a cuisine string.</p>
  */
 package com.lastbite.app;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import com.lastbite.core.cuisine.CuisinePreferences;
 
 
 public class PlayerPreference implements Parcelable {
     /** The name of the player */
     public String name;
 
-    /** The player's preferred cuisine type */
-    public String cuisine;
+    /** The player's ranked cuisines and dietary constraints */
+    public CuisinePreferences preferences;
 
     /**
      * Constructs a new PlayerPreference with specified name and cuisine preference.
      *
      * @param name    The name of the player
-     * @param cuisine The player's preferred cuisine type
+     * @param cuisine The player's preferred cuisine label, e.g. "Thai" or "Vegan Thai"
      */
     public PlayerPreference(String name, String cuisine) {
+        this(name, CuisinePreferences.parse(cuisine));
+    }
+
+    /**
+     * Constructs a new PlayerPreference with ranked cuisines and dietary constraints. Private so
+     * that {@code new PlayerPreference(name, null)} keeps meaning a null cuisine label.
+     *
+     * @param name        The name of the player
+     * @param preferences The player's ranked cuisines and dietary constraints
+     */
+    private PlayerPreference(String name, CuisinePreferences preferences) {
         this.name = name;
-        this.cuisine = cuisine;
+        this.preferences = preferences;
+    }
+
+    /**
+     * Creates a PlayerPreference with ranked cuisines and dietary constraints.
+     *
+     * @param name        The name of the player
+     * @param preferences The player's ranked cuisines and dietary constraints
+     * @return The new PlayerPreference
+     */
+    public static PlayerPreference of(String name, CuisinePreferences preferences) {
+        return new PlayerPreference(name, preferences);
     }
 
     /**
@@ -38,7 +66,17 @@ public class PlayerPreference implements Parcelable {
      */
     protected PlayerPreference(Parcel in) {
         name = in.readString();
-        cuisine = in.readString();
+        long packed = in.readLong();
+        preferences = CuisinePreferences.fromPacked(packed, in.readString());
+    }
+
+    /**
+     * Returns the label the player's cuisine is searched and shown under.
+     *
+     * @return The label, e.g. "Vegan Thai"
+     */
+    public String getCuisine() {
+        return preferences.getLabel();
     }
 
     /**
@@ -52,7 +90,8 @@ public class PlayerPreference implements Parcelable {
     @Override
     public void writeToParcel(Parcel dest, int flags) {
         dest.writeString(name);
-        dest.writeString(cuisine);
+        dest.writeLong(preferences.getPacked());
+        dest.writeString(preferences.getCustomCuisine());
     }
 
     /**
@@ -4,36 +4,72 @@
  * including names and preferred cuisine types, before starting the game.
  *
  * <p>The activity receives location coordinates from the previous screen and forwards
- * them along with player preferences to the GameActivity. It supports between 2 to 10
+ * them along with player preferences to the GameActivity. It supports between 2 to 100
  * players and offers a selection of cuisine types from the Google Places API.</p>
+ *
+ * <p>Each player picks a first and an optional second choice cuisine and any dietary
+ * constraints; dietary constraints are separate from cuisines, so "Thai + Vegan" is one
+ * player's choice rather than two.</p>
+ *
+ * <p>Player rows are recycled by a {@link PlayerInputAdapter}, which keeps the entered values in
+ * drafts rather than in the row views, so a party of a hundred inflates only the rows on screen.
+ * The roster goes to the game through the {@link RosterStore}; the intent carries only its id.</p>
+ *
+ * <p>As soon as a cuisine is picked in a player row, its restaurant search is started through
+ * the {@link RestaurantPrefetcher}, so results are usually ready when the game screen opens.</p>
+ *
+ * <p>When the location is the device's own, the screen follows the group while they walk:
+ * once the device leaves the search cell, the game location moves with it and the
+ * prefetched searches are restarted there. Smaller moves change nothing.</p>
  */
 package com.lastbite.app;
 
 import android.content.Intent;
+import android.location.Location;
 import android.os.Bundle;
-import android.os.Parcelable;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 import android.view.View;
 import android.widget.Button;
 import android.widget.EditText;
-import android.widget.LinearLayout;
-import android.widget.Spinner;
 import android.widget.ArrayAdapter;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 import android.widget.Toast;
 import com.google.android.material.textfield.TextInputLayout;
+import com.lastbite.app.game.RosterStore;
+import com.lastbite.app.managers.LocationManager;
+import com.lastbite.app.places.RestaurantPrefetcher;
+import com.lastbite.app.places.SearchBackendFactory;
+import com.lastbite.app.services.GoogleLocationService;
+import com.lastbite.core.cuisine.CuisineTaxonomy;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 public class PlayerSetupActivity extends AppCompatActivity {
+    /** Intent extra: true if the location is the device's own and should follow it */
+    public static final String EXTRA_FOLLOW_DEVICE = "followDevice";
+
+    /** Smallest number of players in a game */
+    static final int MIN_PLAYERS = 2;
+
+    /** Largest number of players in a game */
+    static final int MAX_PLAYERS = 100;
+
     /** EditText for inputting the number of players */
     private EditText numPlayersInput;
 
     /** Button to confirm the number of players and generate input fields */
     private Button confirmPlayersBtn;
 
-    /** Container for dynamically generated player input fields */
-    private LinearLayout playerInputsContainer;
+    /** Recycled list of player input rows */
+    private RecyclerView playerInputsContainer;
+
+    /** Binds player drafts to the rows of {@link #playerInputsContainer} */
+    private PlayerInputAdapter playerInputAdapter;
 
     /** Button to start the game after player information is entered */
     private Button startGameBtn;
@@ -47,18 +83,29 @@ public class PlayerSetupActivity extends AppCompatActivity {
     /** Longitude coordinate received from previous activity */
     private double longitude;
 
-    /** ArrayList to store PlayerPreference objects for each player */
+    /** One draft PlayerPreference per player, edited in place by the player rows */
     private ArrayList<PlayerPreference> playersList;
 
+    /** Starts restaurant searches for selected cuisines before the game begins */
+    private RestaurantPrefetcher prefetcher;
+
+    /** Follows the device while the location is the device's own, null otherwise */
+    private LocationManager locationManager;
+
+    /** Handler used to debounce prefetch updates while spinners settle */
+    private final Handler prefetchHandler = new Handler(Looper.getMainLooper());
+
+    /** Delay before a cuisine selection change triggers a prefetch update */
+    private static final long PREFETCH_DEBOUNCE_MS = 300;
+
+    /** Pushes the currently selected cuisines to the prefetcher */
+    private final Runnable prefetchUpdate = this::updatePrefetch;
+
     /**
-     * Array of cuisine types available for selection, sourced from Google Places API.
+     * Array of cuisine types available for selection, taken from {@link CuisineTaxonomy#SELECTABLE}.
      * These options are presented to each player in a dropdown spinner.
      */
-    private final String[] cuisineTypes = {
-            "American", "Chinese", "French", "Greek", "Indian", "Italian", "Japanese",
-            "Korean", "Mexican", "Mediterranean", "Thai", "Vietnamese", "BBQ",
-            "Seafood", "Pizza", "Vegetarian", "Vegan", "Halal", "Kosher"
-    };
+    private final String[] cuisineTypes = CuisineTaxonomy.SELECTABLE.toArray(new String[0]);
 
     /**
      * Initializes the activity, sets up view listeners, and retrieves location data
@@ -79,6 +126,13 @@ public class PlayerSetupActivity extends AppCompatActivity {
         // Initialize views
         initializeViews();
 
+        // Start warming restaurant searches for this location
+        prefetcher = RestaurantPrefetcher.getInstance();
+        prefetcher.start(SearchBackendFactory.create(this), latitude, longitude);
+        if (getIntent().getBooleanExtra(EXTRA_FOLLOW_DEVICE, false)) {
+            locationManager = new LocationManager(new GoogleLocationService(this));
+        }
+
         confirmPlayersBtn.setOnClickListener(v -> createPlayerInputs());
         startGameBtn.setOnClickListener(v -> validateAndProceed());
     }
@@ -94,12 +148,31 @@ public class PlayerSetupActivity extends AppCompatActivity {
         startGameBtn = findViewById(R.id.startGameBtn);
         playerPreferences = new ArrayList<>();
         playersList = new ArrayList<>();
+
+        ArrayAdapter<String> cuisineAdapter = new ArrayAdapter<>(
+                this,
+                android.R.layout.simple_spinner_dropdown_item,
+                cuisineTypes
+        );
+        List<String> secondChoices = new ArrayList<>(cuisineTypes.length + 1);
+        secondChoices.add(PlayerInputAdapter.NO_SECOND_CHOICE);
+        secondChoices.addAll(Arrays.asList(cuisineTypes));
+        ArrayAdapter<String> secondCuisineAdapter = new ArrayAdapter<>(
+                this,
+                android.R.layout.simple_spinner_dropdown_item,
+                secondChoices
+        );
+        playerInputAdapter = new PlayerInputAdapter(playersList, cuisineAdapter, secondCuisineAdapter,
+                this::schedulePrefetchUpdate);
+        playerInputsContainer.setLayoutManager(new LinearLayoutManager(this));
+        playerInputsContainer.setAdapter(playerInputAdapter);
     }
 
     /**
-     * Dynamically creates input fields for each player based on the number entered.
-     * Validates that the number of players is between 2 and 10, then creates a name
-     * input field and cuisine type spinner for each player.
+     * Creates one draft and input row for each player based on the number entered.
+     * Validates that the number of players is between 2 and 100, then shows a name
+     * input field and cuisine type spinner for each player, every player starting with the
+     * first cuisine.
      *
      * <p>If validation fails, displays an error message using Toast.</p>
      */
@@ -111,71 +184,120 @@ public class PlayerSetupActivity extends AppCompatActivity {
         }
 
         int numPlayers = Integer.parseInt(numPlayersStr);
-        if (numPlayers < 2 || numPlayers > 10) {
-            showError("Number of players must be between 2 and 10");
+        if (numPlayers < MIN_PLAYERS || numPlayers > MAX_PLAYERS) {
+            showError("Number of players must be between " + MIN_PLAYERS + " and " + MAX_PLAYERS);
             return;
         }
 
-        playerInputsContainer.removeAllViews();
         playerPreferences.clear();
-
+        playersList.clear();
         for (int i = 0; i < numPlayers; i++) {
-            View playerView = getLayoutInflater().inflate(R.layout.player_input_item, null);
-
-            EditText playerNameInput = playerView.findViewById(R.id.playerNameInput);
-            Spinner cuisineSpinner = playerView.findViewById(R.id.cuisineSpinner);
-
-            playerNameInput.setHint("Player " + (i + 1) + " name");
-
-            ArrayAdapter<String> adapter = new ArrayAdapter<>(
-                    this,
-                    android.R.layout.simple_spinner_dropdown_item,
-                    cuisineTypes
-            );
-            cuisineSpinner.setAdapter(adapter);
-
-            playerInputsContainer.addView(playerView);
+            playersList.add(new PlayerPreference("", cuisineTypes[0]));
         }
+        playerInputAdapter.notifyDataSetChanged();
+        playerInputsContainer.scrollToPosition(0);
+        schedulePrefetchUpdate();
 
         startGameBtn.setVisibility(View.VISIBLE);
     }
 
     /**
      * Validates all player inputs and proceeds to the GameActivity if validation passes.
-     * Creates PlayerPreference objects for each player and passes them along with
-     * location data to the GameActivity.
+     * Creates PlayerPreference objects for each player, puts them into the {@link RosterStore}
+     * and passes the roster id along with location data to the GameActivity.
      *
      * <p>Validation ensures that all player names are non-empty. If validation fails,
-     * displays an error message using Toast.</p>
+     * displays an error message using Toast and scrolls to the first unnamed player.</p>
      */
     private void validateAndProceed() {
-        boolean isValid = true;
-        playersList.clear();
-
-        for (int i = 0; i < playerInputsContainer.getChildCount(); i++) {
-            View playerView = playerInputsContainer.getChildAt(i);
-            EditText playerNameInput = playerView.findViewById(R.id.playerNameInput);
-            Spinner cuisineSpinner = playerView.findViewById(R.id.cuisineSpinner);
-
-            String name = playerNameInput.getText().toString().trim();
-            String cuisine = cuisineSpinner.getSelectedItem().toString();
-
+        ArrayList<PlayerPreference> roster = new ArrayList<>(playersList.size());
+        for (int i = 0; i < playersList.size(); i++) {
+            PlayerPreference draft = playersList.get(i);
+            String name = draft.name.trim();
             if (name.isEmpty()) {
-                isValid = false;
                 showError("Please enter all player names");
-                break;
+                playerInputsContainer.scrollToPosition(i);
+                return;
             }
+            roster.add(PlayerPreference.of(name, draft.preferences));
+        }
 
-            playersList.add(new PlayerPreference(name, cuisine));
+        prefetchHandler.removeCallbacks(prefetchUpdate);
+        updatePrefetch();
+
+        Intent intent = new Intent(this, GameActivity.class);
+        intent.putExtra("latitude", latitude);
+        intent.putExtra("longitude", longitude);
+        intent.putExtra(GameActivity.EXTRA_ROSTER_ID, RosterStore.getInstance().put(roster));
+        startActivity(intent);
+    }
+
+    /**
+     * Schedules a prefetch update after a short delay, so that a burst of spinner
+     * selections (for example when the rows are first created) results in one update.
+     */
+    private void schedulePrefetchUpdate() {
+        prefetchHandler.removeCallbacks(prefetchUpdate);
+        prefetchHandler.postDelayed(prefetchUpdate, PREFETCH_DEBOUNCE_MS);
+    }
+
+    /**
+     * Collects the cuisine selected by every player and passes them to the prefetcher,
+     * which starts searches for new cuisines and cancels searches for deselected ones.
+     */
+    private void updatePrefetch() {
+        List<String> selectedCuisines = new ArrayList<>(playersList.size());
+        for (PlayerPreference draft : playersList) {
+            selectedCuisines.add(draft.getCuisine());
+        }
+        prefetcher.updateSelectedCuisines(selectedCuisines);
+    }
+
+    /**
+     * Starts following the device, if the location is the device's own. The subscription
+     * ends by itself when the activity stops, for example when the game starts.
+     */
+    @Override
+    protected void onStart() {
+        super.onStart();
+        if (locationManager == null || !locationManager.hasLocationPermission()) {
+            return;
         }
+        locationManager.subscribe(this, latitude, longitude, new LocationManager.MovementListener() {
+            @Override
+            public void onSearchCellChanged(Location location) {
+                moveSearchLocation(location.getLatitude(), location.getLongitude());
+            }
+        });
+    }
 
-        if (isValid) {
-            Intent intent = new Intent(this, GameActivity.class);
-            intent.putExtra("latitude", latitude);
-            intent.putExtra("longitude", longitude);
-            intent.putParcelableArrayListExtra("players", (ArrayList<? extends Parcelable>) playersList);
-            startActivity(intent);
+    /**
+     * Moves the game location and restarts the prefetched searches there. The searches for
+     * the old location are cancelled by the prefetcher.
+     *
+     * @param newLatitude  Latitude of the new location
+     * @param newLongitude Longitude of the new location
+     */
+    private void moveSearchLocation(double newLatitude, double newLongitude) {
+        Log.d("Places", "Search location moved, restarting prefetches");
+        latitude = newLatitude;
+        longitude = newLongitude;
+        prefetcher.start(SearchBackendFactory.create(this), latitude, longitude);
+        prefetchHandler.removeCallbacks(prefetchUpdate);
+        updatePrefetch();
+    }
+
+    /**
+     * Cancels outstanding prefetches when the player leaves the setup screen without starting
+     * a game.
+     */
+    @Override
+    protected void onDestroy() {
+        prefetchHandler.removeCallbacks(prefetchUpdate);
+        if (isFinishing()) {
+            prefetcher.cancelAll();
         }
+        super.onDestroy();
     }
 
     /**
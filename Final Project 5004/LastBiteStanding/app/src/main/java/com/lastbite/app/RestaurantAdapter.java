@@ -5,30 +5,152 @@
  *
  * <p>The adapter works with {@link RestaurantCard} objects and displays their information
  * in a card-based layout defined in R.layout.restaurant_card.</p>
+ *
+ * <p>New decks are handed over with {@link #submitList}. The difference to the current deck is
+ * computed with {@link DiffUtil} on a background thread and dispatched as fine-grained
+ * insert/remove/change events, so a newly arrived card animates in as a single row instead of
+ * rebinding every visible card. Items have stable ids derived from the restaurant's identity,
+ * and a card whose rating alone changed is rebound with a payload that only touches the rating.</p>
+ *
+ * <p>Every full bind runs in a "bind card" trace section, and a {@link BindListener} can
+ * follow binds and applied decks to time when cards reach the screen.</p>
+ *
+ * <p>A card with a place id shows the restaurant's photo. The photo is requested from the
+ * {@link PhotoLoader} only when the card's view is attached, i.e. on screen, at the exact size
+ * of its image view, and the load is cancelled when the view is detached, recycled or swiped
+ * away, so scrolling past a card or vetoing it stops its download and decode.</p>
  */
 package com.lastbite.app;
 
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Trace;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.core.view.OneShotPreDrawListener;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
+import com.lastbite.app.photos.PhotoLoader;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 
 public class RestaurantAdapter extends RecyclerView.Adapter<RestaurantAdapter.RestaurantViewHolder> {
 
+    /**
+     * Follows what the adapter puts on screen.
+     */
+    public interface BindListener {
+        /**
+         * Called after a card was fully bound to a view.
+         *
+         * @param card The bound card
+         */
+        void onCardBound(RestaurantCard card);
+
+        /**
+         * Called after a submitted deck was applied and its changes dispatched to the RecyclerView.
+         */
+        void onDeckApplied();
+    }
+
+    /** Change payload telling a bound card that only its rating text changed */
+    static final Object PAYLOAD_RATING = new Object();
+
+    /** Background thread shared by all adapters for computing list differences */
+    private static final Executor DIFF_EXECUTOR = Executors.newSingleThreadExecutor();
+
     /** List of RestaurantCard objects to be displayed in the RecyclerView */
     private List<RestaurantCard> restaurants;
 
+    /** Main thread handler used to apply computed differences */
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /** The most recently submitted deck that has not been applied yet, or null */
+    private List<RestaurantCard> pendingList;
+
+    /** Incremented on every change so outdated difference results can be discarded */
+    private int generation;
+
+    /** Told about binds and applied decks, or null */
+    private BindListener bindListener;
+
     /**
      * Constructs a new RestaurantAdapter with the provided list of restaurants.
+     * The adapter takes ownership of the list and updates it in place.
      *
      * @param restaurants The list of RestaurantCard objects to display
      */
     public RestaurantAdapter(List<RestaurantCard> restaurants) {
         this.restaurants = restaurants;
+        setHasStableIds(true);
+    }
+
+    /**
+     * Sets the listener told about binds and applied decks. Pass null to detach.
+     *
+     * @param bindListener The listener, or null
+     */
+    public void setBindListener(BindListener bindListener) {
+        this.bindListener = bindListener;
+    }
+
+    /**
+     * Replaces the displayed deck with a new one. The difference between the current and the
+     * new deck is computed in the background and applied on the main thread, so only the rows
+     * that actually changed are inserted, removed or rebound. Submitting again before an earlier
+     * submission was applied supersedes it.
+     *
+     * @param newList The new deck. A copy is taken, so the caller may keep modifying it.
+     */
+    public void submitList(List<RestaurantCard> newList) {
+        pendingList = new ArrayList<>(newList);
+        computeDiff();
+    }
+
+    /**
+     * Computes the difference between the current deck and {@link #pendingList} in the
+     * background and applies it if nothing changed in the meantime.
+     */
+    private void computeDiff() {
+        final int runGeneration = ++generation;
+        final List<RestaurantCard> oldList = new ArrayList<>(restaurants);
+        final List<RestaurantCard> newList = pendingList;
+
+        DIFF_EXECUTOR.execute(() -> {
+            DiffUtil.DiffResult result = DiffUtil.calculateDiff(new CardDiffCallback(oldList, newList));
+            mainHandler.post(() -> {
+                if (runGeneration != generation) {
+                    return;
+                }
+                pendingList = null;
+                restaurants.clear();
+                restaurants.addAll(newList);
+                result.dispatchUpdatesTo(this);
+                if (bindListener != null) {
+                    bindListener.onDeckApplied();
+                }
+            });
+        });
+    }
+
+    /**
+     * Returns a stable id for the card at the given position, derived from the restaurant's
+     * name and address and the player it was suggested for.
+     *
+     * @param position The position of the card
+     * @return The card's stable id
+     */
+    @Override
+    public long getItemId(int position) {
+        return stableIdOf(restaurants.get(position));
     }
 
     /**
@@ -52,7 +174,7 @@ public class RestaurantAdapter extends RecyclerView.Adapter<RestaurantAdapter.Re
             int position = holder.getAdapterPosition();
             if (position != RecyclerView.NO_POSITION) {
                 RestaurantCard restaurant = restaurants.get(position);
-                if (v.getContext() instanceof GameActivity) {
+                if (!restaurant.isPlaceholder() && v.getContext() instanceof GameActivity) {
                     ((GameActivity) v.getContext()).openInMaps(restaurant);
                 }
             }
@@ -61,6 +183,26 @@ public class RestaurantAdapter extends RecyclerView.Adapter<RestaurantAdapter.Re
         return holder;
     }
 
+    /**
+     * Binds restaurant data to the views within the ViewHolder, using change payloads to
+     * update only the views that changed. Falls back to a full bind without payloads.
+     *
+     * @param holder The ViewHolder which should be updated with restaurant data
+     * @param position The position of the restaurant in the data set
+     * @param payloads The change payloads, empty for a full bind
+     */
+    @Override
+    public void onBindViewHolder(@NonNull RestaurantViewHolder holder, int position,
+                                 @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        if (payloads.contains(PAYLOAD_RATING)) {
+            holder.rating.setText(restaurants.get(position).getRating());
+        }
+    }
+
     /**
      * Binds restaurant data to the views within the ViewHolder.
      * Updates all text views with the corresponding restaurant information.
@@ -70,12 +212,124 @@ public class RestaurantAdapter extends RecyclerView.Adapter<RestaurantAdapter.Re
      */
     @Override
     public void onBindViewHolder(@NonNull RestaurantViewHolder holder, int position) {
-        RestaurantCard restaurant = restaurants.get(position);
+        Trace.beginSection("bind card");
+        try {
+            bind(holder, restaurants.get(position));
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * Fills a card view and tells the bind listener, if any.
+     *
+     * @param holder The ViewHolder to fill
+     * @param restaurant The card to show
+     */
+    private void bind(RestaurantViewHolder holder, RestaurantCard restaurant) {
         holder.restaurantName.setText(restaurant.getName());
         holder.cuisineType.setText(restaurant.getCuisine());
         holder.rating.setText(restaurant.getRating());
         holder.address.setText(restaurant.getAddress());
+        if (restaurant.hasDistance()) {
+            holder.distance.setText(restaurant.getDistanceText());
+            holder.distance.setVisibility(View.VISIBLE);
+        } else {
+            holder.distance.setVisibility(View.GONE);
+        }
         holder.suggestedFor.setText("Suggested for: " + restaurant.getSuggestedFor());
+
+        cancelPhoto(holder);
+        holder.photo.setImageDrawable(null);
+        holder.placeId = restaurant.isPlaceholder() ? null : restaurant.getPlaceId();
+        holder.photo.setVisibility(holder.placeId != null ? View.VISIBLE : View.GONE);
+        if (holder.photo.isAttachedToWindow()) {
+            loadPhoto(holder);
+        }
+        if (bindListener != null) {
+            bindListener.onCardBound(restaurant);
+        }
+    }
+
+    /**
+     * Starts loading the photo of a card that has just come on screen.
+     *
+     * @param holder The attached ViewHolder
+     */
+    @Override
+    public void onViewAttachedToWindow(@NonNull RestaurantViewHolder holder) {
+        loadPhoto(holder);
+    }
+
+    /**
+     * Cancels the photo load of a card that has left the screen.
+     *
+     * @param holder The detached ViewHolder
+     */
+    @Override
+    public void onViewDetachedFromWindow(@NonNull RestaurantViewHolder holder) {
+        cancelPhoto(holder);
+    }
+
+    /**
+     * Cancels the photo load of a recycled card and lets go of its bitmap.
+     *
+     * @param holder The recycled ViewHolder
+     */
+    @Override
+    public void onViewRecycled(@NonNull RestaurantViewHolder holder) {
+        cancelPhoto(holder);
+        holder.photo.setImageDrawable(null);
+    }
+
+    /**
+     * Cancels the photo load of a card, e.g. when it is swiped away.
+     *
+     * @param holder The card's ViewHolder
+     */
+    public void cancelPhoto(RestaurantViewHolder holder) {
+        if (holder.photoRequest != null) {
+            holder.photoRequest.cancel();
+            holder.photoRequest = null;
+        }
+    }
+
+    /**
+     * Requests the photo of a bound card at the size of its image view. Waits for the view to
+     * be laid out if its size is not known yet.
+     *
+     * @param holder The card's ViewHolder
+     */
+    private void loadPhoto(RestaurantViewHolder holder) {
+        if (holder.placeId == null || holder.photoRequest != null) {
+            return;
+        }
+        ImageView photo = holder.photo;
+        if (photo.getWidth() == 0 || photo.getHeight() == 0) {
+            String placeId = holder.placeId;
+            OneShotPreDrawListener.add(photo, () -> {
+                if (placeId.equals(holder.placeId) && photo.isAttachedToWindow()) {
+                    loadPhoto(holder);
+                }
+            });
+            return;
+        }
+        holder.photoRequest = PhotoLoader.getInstance(photo.getContext())
+                .load(holder.placeId, photo.getWidth(), photo.getHeight(), bitmap -> {
+                    holder.photoRequest = null;
+                    photo.setImageBitmap(bitmap);
+                });
+    }
+
+    /**
+     * Returns the card shown at the given position. While a submitted deck is still being
+     * applied this is the card on screen, not the one at that position in the new deck.
+     *
+     * @param position The position of the card
+     * @return The card
+     */
+    public RestaurantCard getCard(int position) {
+        return restaurants.get(position);
     }
 
     /**
@@ -91,19 +345,117 @@ public class RestaurantAdapter extends RecyclerView.Adapter<RestaurantAdapter.Re
     /**
      * Removes a restaurant card from the specified position in the list.
      * Notifies the RecyclerView that an item has been removed to trigger appropriate animations.
+     * The removal is applied immediately, so a swiped card never reappears; a deck submitted
+     * earlier but not applied yet is recomputed without the removed card.
      *
      * @param position The position of the restaurant to remove
      */
     public void removeItem(int position) {
-        restaurants.remove(position);
+        RestaurantCard removed = restaurants.remove(position);
         notifyItemRemoved(position);
+
+        if (pendingList != null) {
+            pendingList.remove(removed);
+            computeDiff();
+        }
+    }
+
+    /**
+     * Derives a stable id from the identity of a restaurant card: its place id, or its name
+     * and address for an offline card without one, or the fetch slot for a placeholder card.
+     * A restaurant is in the deck at most once, so the place id alone tells cards apart.
+     * Uses a 64-bit FNV-1a hash to keep collisions unlikely.
+     *
+     * @param card The card
+     * @return The stable id
+     */
+    static long stableIdOf(RestaurantCard card) {
+        String key;
+        if (card.isPlaceholder()) {
+            key = "\u0001" + card.getPlaceholderSlot();
+        } else if (card.getPlaceId() != null) {
+            key = "\u0002" + card.getPlaceId();
+        } else {
+            key = card.getName() + "\u0000" + card.getAddress();
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Compares two decks for {@link DiffUtil}. Cards are the same item when their stable
+     * identity matches; a change limited to the rating produces {@link #PAYLOAD_RATING}.
+     */
+    static class CardDiffCallback extends DiffUtil.Callback {
+        private final List<RestaurantCard> oldList;
+        private final List<RestaurantCard> newList;
+
+        /**
+         * Constructs a callback comparing two decks.
+         *
+         * @param oldList The deck currently displayed
+         * @param newList The deck to display
+         */
+        CardDiffCallback(List<RestaurantCard> oldList, List<RestaurantCard> newList) {
+            this.oldList = oldList;
+            this.newList = newList;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldList.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newList.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            return stableIdOf(oldList.get(oldItemPosition)) == stableIdOf(newList.get(newItemPosition));
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            RestaurantCard oldCard = oldList.get(oldItemPosition);
+            RestaurantCard newCard = newList.get(newItemPosition);
+            return sameExceptRating(oldCard, newCard)
+                    && Float.compare(oldCard.getRatingValue(), newCard.getRatingValue()) == 0;
+        }
+
+        @Override
+        public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+            if (sameExceptRating(oldList.get(oldItemPosition), newList.get(newItemPosition))) {
+                return PAYLOAD_RATING;
+            }
+            return null;
+        }
+
+        /**
+         * Compares everything a card holds apart from its rating.
+         *
+         * @param oldCard The card currently displayed
+         * @param newCard The card to display
+         * @return true if only the rating may differ
+         */
+        private static boolean sameExceptRating(RestaurantCard oldCard, RestaurantCard newCard) {
+            return Objects.equals(oldCard.getPlaceId(), newCard.getPlaceId())
+                    && Objects.equals(oldCard.getCuisine(), newCard.getCuisine())
+                    && oldCard.getPriceLevel() == newCard.getPriceLevel()
+                    && Double.compare(oldCard.getDistanceMeters(), newCard.getDistanceMeters()) == 0;
+        }
     }
 
     /**
      * ViewHolder class that contains references to all views within a restaurant card.
      * This class caches view references to avoid repeated calls to findViewById.
      */
-    static class RestaurantViewHolder extends RecyclerView.ViewHolder {
+    public static class RestaurantViewHolder extends RecyclerView.ViewHolder {
         /** TextView displaying the restaurant's name */
         TextView restaurantName;
 
@@ -116,9 +468,21 @@ public class RestaurantAdapter extends RecyclerView.Adapter<RestaurantAdapter.Re
         /** TextView displaying the restaurant's address */
         TextView address;
 
+        /** TextView displaying the restaurant's distance, hidden when it is unknown */
+        TextView distance;
+
         /** TextView displaying which player(s) the restaurant is suggested for */
         TextView suggestedFor;
 
+        /** ImageView displaying the restaurant's photo, hidden for cards without a place id */
+        ImageView photo;
+
+        /** Place id of the bound card's photo, or null if it has none */
+        String placeId;
+
+        /** The photo load in flight, or null */
+        PhotoLoader.PhotoRequest photoRequest;
+
         /**
          * Constructs a new RestaurantViewHolder and finds all required views
          * within the provided item view.
@@ -131,7 +495,9 @@ public class RestaurantAdapter extends RecyclerView.Adapter<RestaurantAdapter.Re
             cuisineType = itemView.findViewById(R.id.cuisineType);
             rating = itemView.findViewById(R.id.rating);
             address = itemView.findViewById(R.id.address);
+            distance = itemView.findViewById(R.id.distance);
             suggestedFor = itemView.findViewById(R.id.suggestedFor);
+            photo = itemView.findViewById(R.id.photo);
         }
     }
 }
\ No newline at end of file
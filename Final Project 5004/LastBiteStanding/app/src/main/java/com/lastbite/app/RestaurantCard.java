@@ -6,40 +6,180 @@
  * <p>This class serves as a data model for displaying restaurant information
  * in the application's user interface, particularly within the RecyclerView
  * managed by {@link RestaurantAdapter}.</p>
+ *
+ * <p>Cards are immutable and keep the restaurant's values typed: the rating as a number, the
+ * price level, a {@link com.lastbite.core.cuisine.Cuisine} mask of the cuisines it serves, its
+ * coordinates and distance from the location the game was started at, and the Google Places
+ * id it is deduplicated and its photo looked up by. As a {@link DeckEntry} a deck of cards can
+ * be sorted and filtered with {@link com.lastbite.core.deck.DeckOrder} and
+ * {@link com.lastbite.core.deck.DeckFilter} without reading any display text. The rating and
+ * distance texts are derived when first shown and then kept, so rebinding a card formats
+ * nothing.</p>
+ *
+ * <p>A card can also be a placeholder that stands in for a restaurant lookup which has not
+ * finished yet. Placeholders are shown as skeleton cards and are replaced by the real card
+ * once it arrives.</p>
  */
 package com.lastbite.app;
 
-public class RestaurantCard {
+import com.lastbite.core.deck.DeckEntry;
+import com.lastbite.core.deck.RatingLabel;
+import com.lastbite.core.geo.GeoMath;
+
+public final class RestaurantCard implements DeckEntry {
     /** The name of the restaurant */
-    private String name;
+    private final String name;
 
     /** The type of cuisine served at the restaurant */
-    private String cuisine;
+    private final String cuisine;
 
-    /** The rating of the restaurant (typically from Google Places) */
-    private String rating;
+    /** The rating of the restaurant (typically from Google Places), or NaN if it has none */
+    private final float rating;
+
+    /** The price level of the restaurant, or {@link DeckEntry#PRICE_UNKNOWN} */
+    private final int priceLevel;
+
+    /** The cuisines the restaurant serves as a cuisine mask, 0 if unknown */
+    private final long cuisineMask;
 
     /** The physical address of the restaurant */
-    private String address;
+    private final String address;
 
     /** Names of players for whom this restaurant is suggested based on their preferences */
-    private String suggestedFor;
+    private final String suggestedFor;
+
+    /** Latitude of the restaurant, or NaN if unknown */
+    private final double latitude;
+
+    /** Longitude of the restaurant, or NaN if unknown */
+    private final double longitude;
+
+    /** Distance from the game's search location in metres, or NaN if unknown */
+    private final double distanceMeters;
+
+    /** The Google Places id of the restaurant, or null if unknown */
+    private final String placeId;
+
+    /** The fetch slot this placeholder stands in for, or -1 for a real restaurant */
+    private final int placeholderSlot;
+
+    /** Whether the rating text was given rather than derived from the rating */
+    private final boolean ratingTextGiven;
+
+    /** The rating text once given or derived; strings are immutable, so a racy first read is safe */
+    private String ratingText;
+
+    /** The distance text once derived */
+    private String distanceText;
 
     /**
      * Constructs a new RestaurantCard with all required information.
      *
      * @param name         The name of the restaurant
      * @param cuisine      The type of cuisine served at the restaurant
-     * @param rating      The restaurant's rating
+     * @param rating      The restaurant's rating text, e.g. "4.3 ★"
      * @param address     The physical address of the restaurant
      * @param suggestedFor The names of players for whom this restaurant is suggested
      */
     public RestaurantCard(String name, String cuisine, String rating, String address, String suggestedFor) {
+        this(name, cuisine, rating, address, suggestedFor, Double.NaN, Double.NaN, Double.NaN);
+    }
+
+    /**
+     * Constructs a new RestaurantCard for a restaurant with a known location.
+     *
+     * @param name           The name of the restaurant
+     * @param cuisine        The type of cuisine served at the restaurant
+     * @param rating         The restaurant's rating text, e.g. "4.3 ★"
+     * @param address        The physical address of the restaurant
+     * @param suggestedFor   The names of players for whom this restaurant is suggested
+     * @param latitude       Latitude of the restaurant, or NaN if unknown
+     * @param longitude      Longitude of the restaurant, or NaN if unknown
+     * @param distanceMeters Distance from the game's search location, or NaN if unknown
+     */
+    public RestaurantCard(String name, String cuisine, String rating, String address, String suggestedFor,
+                          double latitude, double longitude, double distanceMeters) {
+        this(name, cuisine, rating, address, suggestedFor, latitude, longitude, distanceMeters, null);
+    }
+
+    /**
+     * Constructs a new RestaurantCard from a rating text, which is shown as given and read for
+     * its number. Prefer the typed constructor for new cards.
+     *
+     * @param name           The name of the restaurant
+     * @param cuisine        The type of cuisine served at the restaurant
+     * @param rating         The restaurant's rating text, e.g. "4.3 ★"
+     * @param address        The physical address of the restaurant
+     * @param suggestedFor   The names of players for whom this restaurant is suggested
+     * @param latitude       Latitude of the restaurant, or NaN if unknown
+     * @param longitude      Longitude of the restaurant, or NaN if unknown
+     * @param distanceMeters Distance from the game's search location, or NaN if unknown
+     * @param placeId        The Google Places id of the restaurant, or null if unknown
+     */
+    public RestaurantCard(String name, String cuisine, String rating, String address, String suggestedFor,
+                          double latitude, double longitude, double distanceMeters, String placeId) {
+        this(name, cuisine, RatingLabel.parse(rating), PRICE_UNKNOWN, 0, address, suggestedFor,
+                latitude, longitude, distanceMeters, placeId, -1, true, rating);
+    }
+
+    /**
+     * Constructs a new RestaurantCard from typed values.
+     *
+     * @param name           The name of the restaurant
+     * @param cuisine        The type of cuisine served at the restaurant
+     * @param rating         The restaurant's rating, or {@link DeckEntry#UNRATED}
+     * @param priceLevel     The restaurant's price level, or {@link DeckEntry#PRICE_UNKNOWN}
+     * @param cuisineMask    The cuisines the restaurant serves, 0 if unknown
+     * @param address        The physical address of the restaurant
+     * @param suggestedFor   The names of players for whom this restaurant is suggested
+     * @param latitude       Latitude of the restaurant, or NaN if unknown
+     * @param longitude      Longitude of the restaurant, or NaN if unknown
+     * @param distanceMeters Distance from the game's search location, or NaN if unknown
+     * @param placeId        The Google Places id of the restaurant, or null if unknown
+     */
+    public RestaurantCard(String name, String cuisine, float rating, int priceLevel, long cuisineMask,
+                          String address, String suggestedFor,
+                          double latitude, double longitude, double distanceMeters, String placeId) {
+        this(name, cuisine, rating, priceLevel, cuisineMask, address, suggestedFor,
+                latitude, longitude, distanceMeters, placeId, -1, false, null);
+    }
+
+    /**
+     * Constructs a card from every field.
+     *
+     * @param name            The name of the restaurant
+     * @param cuisine         The type of cuisine served at the restaurant
+     * @param rating          The restaurant's rating, or NaN
+     * @param priceLevel      The restaurant's price level, or {@link DeckEntry#PRICE_UNKNOWN}
+     * @param cuisineMask     The cuisines the restaurant serves
+     * @param address         The physical address of the restaurant
+     * @param suggestedFor    The names of players for whom this restaurant is suggested
+     * @param latitude        Latitude of the restaurant, or NaN if unknown
+     * @param longitude       Longitude of the restaurant, or NaN if unknown
+     * @param distanceMeters  Distance from the game's search location, or NaN if unknown
+     * @param placeId         The Google Places id of the restaurant, or null if unknown
+     * @param placeholderSlot The fetch slot of a placeholder, or -1
+     * @param ratingTextGiven Whether {@code ratingText} is shown instead of a derived text
+     * @param ratingText      The rating text to show, if given
+     */
+    private RestaurantCard(String name, String cuisine, float rating, int priceLevel, long cuisineMask,
+                           String address, String suggestedFor,
+                           double latitude, double longitude, double distanceMeters, String placeId,
+                           int placeholderSlot, boolean ratingTextGiven, String ratingText) {
         this.name = name;
         this.cuisine = cuisine;
         this.rating = rating;
+        this.priceLevel = priceLevel;
+        this.cuisineMask = cuisineMask;
         this.address = address;
         this.suggestedFor = suggestedFor;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.distanceMeters = distanceMeters;
+        this.placeId = placeId;
+        this.placeholderSlot = placeholderSlot;
+        this.ratingTextGiven = ratingTextGiven;
+        this.ratingText = ratingText;
     }
 
     /**
@@ -56,12 +196,43 @@ public class RestaurantCard {
      */
     public String getCuisine() { return cuisine; }
 
+    /**
+     * Returns the rating text of the restaurant, derived from its rating on first use.
+     *
+     * @return The restaurant's rating text, e.g. "4.3 ★" or "Rating N/A"
+     */
+    public String getRating() {
+        String text = ratingText;
+        if (text == null && !ratingTextGiven) {
+            text = RatingLabel.format(rating);
+            ratingText = text;
+        }
+        return text;
+    }
+
     /**
      * Returns the rating of the restaurant.
      *
-     * @return The restaurant's rating
+     * @return The rating, or NaN if it has none
      */
-    public String getRating() { return rating; }
+    @Override
+    public float getRatingValue() { return rating; }
+
+    /**
+     * Returns the price level of the restaurant.
+     *
+     * @return 0 to {@link DeckEntry#MAX_PRICE_LEVEL}, or {@link DeckEntry#PRICE_UNKNOWN}
+     */
+    @Override
+    public int getPriceLevel() { return priceLevel; }
+
+    /**
+     * Returns the cuisines the restaurant serves.
+     *
+     * @return The cuisine mask, 0 if unknown
+     */
+    @Override
+    public long getCuisineMask() { return cuisineMask; }
 
     /**
      * Returns the physical address of the restaurant.
@@ -77,4 +248,98 @@ public class RestaurantCard {
      * @return A string containing the names of players for whom this restaurant is suggested
      */
     public String getSuggestedFor() { return suggestedFor; }
-}
\ No newline at end of file
+
+    /**
+     * Returns the latitude of the restaurant.
+     *
+     * @return The latitude, or NaN if unknown
+     */
+    public double getLatitude() { return latitude; }
+
+    /**
+     * Returns the longitude of the restaurant.
+     *
+     * @return The longitude, or NaN if unknown
+     */
+    public double getLongitude() { return longitude; }
+
+    /**
+     * Returns the distance of the restaurant from the game's search location.
+     *
+     * @return The distance in metres, or NaN if unknown
+     */
+    @Override
+    public double getDistanceMeters() { return distanceMeters; }
+
+    /**
+     * Returns whether the distance of the restaurant is known.
+     *
+     * @return true if {@link #getDistanceMeters()} is a number
+     */
+    public boolean hasDistance() { return !Double.isNaN(distanceMeters); }
+
+    /**
+     * Returns the distance text of the restaurant, derived on first use.
+     *
+     * @return The text, e.g. "1.2 km away", or null if the distance is unknown
+     */
+    public String getDistanceText() {
+        String text = distanceText;
+        if (text == null && hasDistance()) {
+            text = GeoMath.formatDistance(distanceMeters) + " away";
+            distanceText = text;
+        }
+        return text;
+    }
+
+    /**
+     * Returns the Google Places id of the restaurant, used to deduplicate it and to look up
+     * its photo.
+     *
+     * @return The place id, or null if unknown
+     */
+    public String getPlaceId() { return placeId; }
+
+    /**
+     * Returns whether this card is a placeholder for a restaurant that is still being looked up.
+     *
+     * @return true for a placeholder card
+     */
+    public boolean isPlaceholder() { return placeholderSlot >= 0; }
+
+    /**
+     * Returns the fetch slot this placeholder stands in for.
+     *
+     * @return The slot index, or -1 if this is a real restaurant
+     */
+    public int getPlaceholderSlot() { return placeholderSlot; }
+
+    /**
+     * Returns a copy of this card shown for another cuisine and player, e.g. a cached card
+     * dealt to a new game. The derived texts are shared.
+     *
+     * @param cuisine      The cuisine shown on the copy
+     * @param suggestedFor The player the copy is suggested for
+     * @return The copy
+     */
+    public RestaurantCard withSuggestion(String cuisine, String suggestedFor) {
+        RestaurantCard copy = new RestaurantCard(name, cuisine, rating, priceLevel, cuisineMask, address,
+                suggestedFor, latitude, longitude, distanceMeters, placeId, placeholderSlot,
+                ratingTextGiven, ratingText);
+        copy.distanceText = distanceText;
+        return copy;
+    }
+
+    /**
+     * Creates a placeholder card for a restaurant lookup that has not finished yet.
+     *
+     * @param slot         The fetch slot the placeholder stands in for, starting at 0
+     * @param cuisine      The cuisine being looked up
+     * @param suggestedFor The player the restaurant will be suggested for
+     * @return A new placeholder card
+     */
+    public static RestaurantCard placeholder(int slot, String cuisine, String suggestedFor) {
+        return new RestaurantCard("Finding a restaurant…", cuisine, UNRATED, PRICE_UNKNOWN, 0, "",
+                suggestedFor, Double.NaN, Double.NaN, Double.NaN, null, slot, true, "");
+    }
+}
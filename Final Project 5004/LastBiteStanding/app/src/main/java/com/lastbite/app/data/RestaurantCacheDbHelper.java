@@ -0,0 +1,94 @@
+/**
+ * SQLite helper that owns the on-device restaurant cache database.
+ *
+ * <p>The database holds a single table of restaurant cards keyed by the geohash cell the search
+ * was started in, a normalised cuisine key and the card's rank within that search. Only the
+ * fields shown on a {@link com.lastbite.app.RestaurantCard}, the restaurant's coordinates and its
+ * place id are stored, with the rating, price level and cuisine mask as numbers, together with
+ * the time the entry was fetched so that {@link RestaurantRepository} can apply its TTL
+ * rules.</p>
+ */
+package com.lastbite.app.data;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+public class RestaurantCacheDbHelper extends SQLiteOpenHelper {
+    /** File name of the cache database */
+    private static final String DATABASE_NAME = "restaurant_cache.db";
+
+    /** Current schema version */
+    private static final int DATABASE_VERSION = 4;
+
+    static final String TABLE_RESTAURANTS = "restaurants";
+    static final String COLUMN_CELL = "cell";
+    static final String COLUMN_CUISINE_KEY = "cuisine_key";
+    static final String COLUMN_RANK = "rank";
+    static final String COLUMN_NAME = "name";
+    static final String COLUMN_RATING = "rating";
+    static final String COLUMN_ADDRESS = "address";
+    static final String COLUMN_LATITUDE = "latitude";
+    static final String COLUMN_LONGITUDE = "longitude";
+    static final String COLUMN_PLACE_ID = "place_id";
+    static final String COLUMN_PRICE_LEVEL = "price_level";
+    static final String COLUMN_CUISINE_MASK = "cuisine_mask";
+    static final String COLUMN_FETCHED_AT = "fetched_at";
+
+    /**
+     * Constructs a new helper for the restaurant cache database.
+     *
+     * @param context The context used to locate the database file
+     */
+    public RestaurantCacheDbHelper(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    /**
+     * Constructs a helper for a database with another name, e.g. an in-memory one for tests.
+     *
+     * @param context The context used to locate the database file
+     * @param name    The database file name, or null for an in-memory database
+     */
+    RestaurantCacheDbHelper(Context context, String name) {
+        super(context, name, null, DATABASE_VERSION);
+    }
+
+    /**
+     * Creates the restaurant table and the index used for TTL and size-cap eviction.
+     *
+     * @param db The database being created
+     */
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_RESTAURANTS + " ("
+                + COLUMN_CELL + " TEXT NOT NULL, "
+                + COLUMN_CUISINE_KEY + " TEXT NOT NULL, "
+                + COLUMN_RANK + " INTEGER NOT NULL, "
+                + COLUMN_NAME + " TEXT, "
+                + COLUMN_RATING + " REAL, "
+                + COLUMN_ADDRESS + " TEXT, "
+                + COLUMN_LATITUDE + " REAL, "
+                + COLUMN_LONGITUDE + " REAL, "
+                + COLUMN_PLACE_ID + " TEXT, "
+                + COLUMN_PRICE_LEVEL + " INTEGER, "
+                + COLUMN_CUISINE_MASK + " INTEGER NOT NULL DEFAULT 0, "
+                + COLUMN_FETCHED_AT + " INTEGER NOT NULL, "
+                + "PRIMARY KEY (" + COLUMN_CELL + ", " + COLUMN_CUISINE_KEY + ", " + COLUMN_RANK + "))");
+        db.execSQL("CREATE INDEX idx_" + TABLE_RESTAURANTS + "_" + COLUMN_FETCHED_AT
+                + " ON " + TABLE_RESTAURANTS + " (" + COLUMN_FETCHED_AT + ")");
+    }
+
+    /**
+     * The cache can always be rebuilt from the network, so upgrades simply drop the old table.
+     *
+     * @param db         The database being upgraded
+     * @param oldVersion The old schema version
+     * @param newVersion The new schema version
+     */
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_RESTAURANTS);
+        onCreate(db);
+    }
+}
@@ -0,0 +1,286 @@
+/**
+ * A persistent, location-keyed cache of restaurant cards backed by an on-device SQLite store.
+ *
+ * <p>Entries are keyed by the geohash cell of the search location, a normalised cuisine key and
+ * the card's rank within that cuisine (so two players who pick the same cuisine get two distinct
+ * cached cards). Lookups follow a stale-while-revalidate policy:</p>
+ * <ul>
+ *   <li>Entries younger than {@link #FRESH_TTL_MS} are served as fresh</li>
+ *   <li>Entries younger than {@link #MAX_AGE_MS} are served immediately but marked stale,
+ *       so the caller can refresh them in the background</li>
+ *   <li>Older entries are evicted and never served</li>
+ * </ul>
+ *
+ * <p>The table is also capped at {@link #MAX_ENTRIES} rows; the oldest rows are evicted first.
+ * All database work runs on a single background thread and results are delivered on the
+ * main thread.</p>
+ *
+ * <p>The lookup contract is the core module's {@link CardStore}, so game logic can be
+ * exercised against an in-memory store on a plain JVM.</p>
+ */
+package com.lastbite.app.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import com.lastbite.app.RestaurantCard;
+import com.lastbite.core.cache.CardStore;
+import com.lastbite.core.cuisine.CuisineTaxonomy;
+import com.lastbite.core.deck.DeckEntry;
+import com.lastbite.core.geo.GeoMath;
+import com.lastbite.core.geo.Geohash;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
+
+public class RestaurantRepository implements CardStore<RestaurantCard> {
+    /** Geohash precision of a cache cell, roughly 1.2km x 0.6km */
+    public static final int CELL_PRECISION = 6;
+
+    /** Age after which a cached entry is refreshed in the background */
+    public static final long FRESH_TTL_MS = 24L * 60 * 60 * 1000;
+
+    /** Age after which a cached entry is evicted and no longer served */
+    public static final long MAX_AGE_MS = 7L * 24 * 60 * 60 * 1000;
+
+    /** Maximum number of cached cards kept on the device */
+    public static final int MAX_ENTRIES = 500;
+
+    /** Columns read back for a cached card */
+    private static final String[] CARD_COLUMNS = {
+            RestaurantCacheDbHelper.COLUMN_RANK,
+            RestaurantCacheDbHelper.COLUMN_NAME,
+            RestaurantCacheDbHelper.COLUMN_RATING,
+            RestaurantCacheDbHelper.COLUMN_ADDRESS,
+            RestaurantCacheDbHelper.COLUMN_LATITUDE,
+            RestaurantCacheDbHelper.COLUMN_LONGITUDE,
+            RestaurantCacheDbHelper.COLUMN_PLACE_ID,
+            RestaurantCacheDbHelper.COLUMN_PRICE_LEVEL,
+            RestaurantCacheDbHelper.COLUMN_CUISINE_MASK,
+            RestaurantCacheDbHelper.COLUMN_FETCHED_AT
+    };
+
+    private static RestaurantRepository instance;
+
+    private final RestaurantCacheDbHelper dbHelper;
+    private final Executor executor;
+    private final LongSupplier clock;
+    private final Handler mainHandler;
+
+    /**
+     * Returns the process-wide repository, creating it on first use.
+     *
+     * @param context Any context; only its application context is retained
+     * @return The shared repository
+     */
+    public static synchronized RestaurantRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new RestaurantRepository(new RestaurantCacheDbHelper(context.getApplicationContext()));
+        }
+        return instance;
+    }
+
+    /**
+     * Constructs a repository on top of the given database helper.
+     *
+     * @param dbHelper The helper owning the cache database
+     */
+    RestaurantRepository(RestaurantCacheDbHelper dbHelper) {
+        this(dbHelper, Executors.newSingleThreadExecutor(), System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs a repository with its own database thread and clock, so tests can run the
+     * database work inline and move time forward.
+     *
+     * @param dbHelper The helper owning the cache database
+     * @param executor Runs the database work
+     * @param clock    Returns the current time in milliseconds
+     */
+    RestaurantRepository(RestaurantCacheDbHelper dbHelper, Executor executor, LongSupplier clock) {
+        this.dbHelper = dbHelper;
+        this.executor = executor;
+        this.clock = clock;
+        this.mainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Looks up a cached card for a cuisine near the given location. The card's distance is
+     * measured from the given location rather than from wherever the card was first fetched.
+     *
+     * @param latitude  Latitude of the search location
+     * @param longitude Longitude of the search location
+     * @param cuisine   The cuisine that was searched for
+     * @param rank      The card's rank among players sharing the cuisine, starting at 0
+     * @param callback  Receives the result on the main thread
+     */
+    @Override
+    public void getCachedCard(double latitude, double longitude, String cuisine, int rank,
+                              Callback<RestaurantCard> callback) {
+        queryRanks(latitude, longitude, cuisine, rank, 1,
+                (cards, stale) -> callback.onCacheResult(cards.get(0), stale[0]));
+    }
+
+    /**
+     * Looks up the cached cards of ranks 0 to {@code count - 1} for a cuisine near the given
+     * location in a single query, so a cuisine shared by many players costs one database
+     * round trip. Distances are measured from the given location.
+     *
+     * @param latitude  Latitude of the search location
+     * @param longitude Longitude of the search location
+     * @param cuisine   The cuisine that was searched for
+     * @param count     The number of ranks to look up
+     * @param callback  Receives the results on the main thread
+     */
+    @Override
+    public void getCachedCards(double latitude, double longitude, String cuisine, int count,
+                               BatchCallback<RestaurantCard> callback) {
+        queryRanks(latitude, longitude, cuisine, 0, count, callback);
+    }
+
+    /**
+     * Looks up the cached cards of a run of ranks in a single query.
+     *
+     * @param latitude  Latitude of the search location
+     * @param longitude Longitude of the search location
+     * @param cuisine   The cuisine that was searched for
+     * @param firstRank The first rank to look up
+     * @param count     The number of ranks to look up
+     * @param callback  Receives the results on the main thread, indexed from {@code firstRank}
+     */
+    private void queryRanks(double latitude, double longitude, String cuisine, int firstRank, int count,
+                            BatchCallback<RestaurantCard> callback) {
+        final String cell = Geohash.encode(latitude, longitude, CELL_PRECISION);
+        final String cuisineKey = CuisineTaxonomy.key(cuisine);
+
+        executor.execute(() -> {
+            List<RestaurantCard> cards = new ArrayList<>(Collections.nCopies(count, null));
+            boolean[] stale = new boolean[count];
+            long now = clock.getAsLong();
+
+            try {
+                SQLiteDatabase db = dbHelper.getReadableDatabase();
+                try (Cursor cursor = db.query(RestaurantCacheDbHelper.TABLE_RESTAURANTS, CARD_COLUMNS,
+                        RestaurantCacheDbHelper.COLUMN_CELL + " = ? AND "
+                                + RestaurantCacheDbHelper.COLUMN_CUISINE_KEY + " = ? AND "
+                                + RestaurantCacheDbHelper.COLUMN_RANK + " >= ? AND "
+                                + RestaurantCacheDbHelper.COLUMN_RANK + " < ? AND "
+                                + RestaurantCacheDbHelper.COLUMN_FETCHED_AT + " > ?",
+                        new String[]{cell, cuisineKey, String.valueOf(firstRank),
+                                String.valueOf(firstRank + count), String.valueOf(now - MAX_AGE_MS)},
+                        null, null, null)) {
+                    int rankColumn = cursor.getColumnIndexOrThrow(RestaurantCacheDbHelper.COLUMN_RANK);
+                    int fetchedAtColumn = cursor.getColumnIndexOrThrow(RestaurantCacheDbHelper.COLUMN_FETCHED_AT);
+                    while (cursor.moveToNext()) {
+                        int index = cursor.getInt(rankColumn) - firstRank;
+                        cards.set(index, readCard(cursor, cuisine, latitude, longitude));
+                        stale[index] = now - cursor.getLong(fetchedAtColumn) > FRESH_TTL_MS;
+                    }
+                }
+            } catch (RuntimeException e) {
+                Log.e("RestaurantCache", "Cache lookup failed: " + e.getMessage());
+            }
+
+            mainHandler.post(() -> callback.onCacheResults(cards, stale));
+        });
+    }
+
+    /**
+     * Builds a card from the current row of a cursor over {@link #CARD_COLUMNS}.
+     *
+     * @param cursor    The cursor, positioned on a row
+     * @param cuisine   The cuisine that was searched for
+     * @param latitude  Latitude of the search location, which the distance is measured from
+     * @param longitude Longitude of the search location
+     * @return The card
+     */
+    private static RestaurantCard readCard(Cursor cursor, String cuisine, double latitude, double longitude) {
+        int ratingColumn = cursor.getColumnIndexOrThrow(RestaurantCacheDbHelper.COLUMN_RATING);
+        int priceColumn = cursor.getColumnIndexOrThrow(RestaurantCacheDbHelper.COLUMN_PRICE_LEVEL);
+        int latitudeColumn = cursor.getColumnIndexOrThrow(RestaurantCacheDbHelper.COLUMN_LATITUDE);
+        int longitudeColumn = cursor.getColumnIndexOrThrow(RestaurantCacheDbHelper.COLUMN_LONGITUDE);
+        double placeLatitude = cursor.isNull(latitudeColumn) ? Double.NaN : cursor.getDouble(latitudeColumn);
+        double placeLongitude = cursor.isNull(longitudeColumn) ? Double.NaN : cursor.getDouble(longitudeColumn);
+        return new RestaurantCard(
+                cursor.getString(cursor.getColumnIndexOrThrow(RestaurantCacheDbHelper.COLUMN_NAME)),
+                cuisine,
+                cursor.isNull(ratingColumn) ? DeckEntry.UNRATED : cursor.getFloat(ratingColumn),
+                cursor.isNull(priceColumn) ? DeckEntry.PRICE_UNKNOWN : cursor.getInt(priceColumn),
+                cursor.getLong(cursor.getColumnIndexOrThrow(RestaurantCacheDbHelper.COLUMN_CUISINE_MASK)),
+                cursor.getString(cursor.getColumnIndexOrThrow(RestaurantCacheDbHelper.COLUMN_ADDRESS)),
+                null,
+                placeLatitude,
+                placeLongitude,
+                GeoMath.distanceMeters(latitude, longitude, placeLatitude, placeLongitude),
+                cursor.getString(cursor.getColumnIndexOrThrow(RestaurantCacheDbHelper.COLUMN_PLACE_ID))
+        );
+    }
+
+    /**
+     * Stores a card fetched from the network, replacing any earlier entry with the same key,
+     * then applies TTL and size-cap eviction.
+     *
+     * @param latitude  Latitude of the search location
+     * @param longitude Longitude of the search location
+     * @param cuisine   The cuisine that was searched for
+     * @param rank      The card's rank among players sharing the cuisine, starting at 0
+     * @param card      The card to store
+     */
+    @Override
+    public void saveCard(double latitude, double longitude, String cuisine, int rank, RestaurantCard card) {
+        final ContentValues values = new ContentValues();
+        values.put(RestaurantCacheDbHelper.COLUMN_CELL, Geohash.encode(latitude, longitude, CELL_PRECISION));
+        values.put(RestaurantCacheDbHelper.COLUMN_CUISINE_KEY, CuisineTaxonomy.key(cuisine));
+        values.put(RestaurantCacheDbHelper.COLUMN_RANK, rank);
+        values.put(RestaurantCacheDbHelper.COLUMN_NAME, card.getName());
+        if (!Float.isNaN(card.getRatingValue())) {
+            values.put(RestaurantCacheDbHelper.COLUMN_RATING, card.getRatingValue());
+        }
+        if (card.getPriceLevel() != DeckEntry.PRICE_UNKNOWN) {
+            values.put(RestaurantCacheDbHelper.COLUMN_PRICE_LEVEL, card.getPriceLevel());
+        }
+        values.put(RestaurantCacheDbHelper.COLUMN_CUISINE_MASK, card.getCuisineMask());
+        values.put(RestaurantCacheDbHelper.COLUMN_ADDRESS, card.getAddress());
+        if (!Double.isNaN(card.getLatitude()) && !Double.isNaN(card.getLongitude())) {
+            values.put(RestaurantCacheDbHelper.COLUMN_LATITUDE, card.getLatitude());
+            values.put(RestaurantCacheDbHelper.COLUMN_LONGITUDE, card.getLongitude());
+        }
+        values.put(RestaurantCacheDbHelper.COLUMN_PLACE_ID, card.getPlaceId());
+        values.put(RestaurantCacheDbHelper.COLUMN_FETCHED_AT, clock.getAsLong());
+
+        executor.execute(() -> {
+            try {
+                SQLiteDatabase db = dbHelper.getWritableDatabase();
+                db.insertWithOnConflict(RestaurantCacheDbHelper.TABLE_RESTAURANTS, null, values,
+                        SQLiteDatabase.CONFLICT_REPLACE);
+                evict(db);
+            } catch (RuntimeException e) {
+                Log.e("RestaurantCache", "Cache write failed: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Removes entries older than {@link #MAX_AGE_MS} and, if the table is still larger than
+     * {@link #MAX_ENTRIES}, the oldest entries beyond the cap.
+     *
+     * @param db A writable database
+     */
+    private void evict(SQLiteDatabase db) {
+        db.delete(RestaurantCacheDbHelper.TABLE_RESTAURANTS,
+                RestaurantCacheDbHelper.COLUMN_FETCHED_AT + " < ?",
+                new String[]{String.valueOf(clock.getAsLong() - MAX_AGE_MS)});
+
+        db.execSQL("DELETE FROM " + RestaurantCacheDbHelper.TABLE_RESTAURANTS
+                + " WHERE rowid IN (SELECT rowid FROM " + RestaurantCacheDbHelper.TABLE_RESTAURANTS
+                + " ORDER BY " + RestaurantCacheDbHelper.COLUMN_FETCHED_AT + " DESC"
+                + " LIMIT -1 OFFSET " + MAX_ENTRIES + ")");
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * A compact, parcelable snapshot of a game session, written into the activity's saved
+ * instance state so that a game can be restored after process death without refetching.
+ *
+ * <p>Cards are stored as parallel arrays rather than as individual parcelable objects, which
+ * keeps the saved state small; ratings, price levels and cuisine masks are stored as numbers
+ * and their display text is derived again when a restored card is shown. Players and the
+ * search location are not part of the snapshot because they are already carried by the
+ * activity's intent. Placeholder cards are left out; their slots are not completed and are
+ * looked up again on restore.</p>
+ */
+package com.lastbite.app.game;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import com.lastbite.app.RestaurantCard;
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameSessionSnapshot implements Parcelable {
+    /** Restaurant names, one entry per card */
+    final String[] names;
+
+    /** Cuisine labels, one entry per card */
+    final String[] cuisines;
+
+    /** Ratings, one entry per card, NaN where unrated */
+    final float[] ratings;
+
+    /** Price levels, one entry per card */
+    final int[] priceLevels;
+
+    /** Cuisine masks, one entry per card */
+    final long[] cuisineMasks;
+
+    /** Addresses, one entry per card */
+    final String[] addresses;
+
+    /** "Suggested for" labels, one entry per card */
+    final String[] suggestedFor;
+
+    /** Google Places ids, one entry per card, null where unknown */
+    final String[] placeIds;
+
+    /** Restaurant coordinates and distances, three entries per card */
+    final double[] locations;
+
+    /** Index of the player whose turn it is */
+    final int currentPlayerIndex;
+
+    /** Number of vetoes left in the game */
+    final int vetosRemaining;
+
+    /** Which fetch slots (one per player plus the special pick) have finished */
+    final boolean[] completedSlots;
+
+    /**
+     * Creates a snapshot of the given session state.
+     *
+     * @param restaurants        The cards currently in the deck, placeholders are skipped
+     * @param currentPlayerIndex Index of the player whose turn it is
+     * @param vetosRemaining     Number of vetoes left
+     * @param completedSlots     Which fetch slots have finished
+     */
+    GameSessionSnapshot(List<RestaurantCard> restaurants, int currentPlayerIndex,
+                        int vetosRemaining, boolean[] completedSlots) {
+        List<RestaurantCard> cards = new ArrayList<>(restaurants.size());
+        for (RestaurantCard card : restaurants) {
+            if (!card.isPlaceholder()) {
+                cards.add(card);
+            }
+        }
+        int size = cards.size();
+        names = new String[size];
+        cuisines = new String[size];
+        ratings = new float[size];
+        priceLevels = new int[size];
+        cuisineMasks = new long[size];
+        addresses = new String[size];
+        suggestedFor = new String[size];
+        placeIds = new String[size];
+        locations = new double[size * 3];
+        for (int i = 0; i < size; i++) {
+            RestaurantCard card = cards.get(i);
+            names[i] = card.getName();
+            cuisines[i] = card.getCuisine();
+            ratings[i] = card.getRatingValue();
+            priceLevels[i] = card.getPriceLevel();
+            cuisineMasks[i] = card.getCuisineMask();
+            addresses[i] = card.getAddress();
+            suggestedFor[i] = card.getSuggestedFor();
+            placeIds[i] = card.getPlaceId();
+            locations[i * 3] = card.getLatitude();
+            locations[i * 3 + 1] = card.getLongitude();
+            locations[i * 3 + 2] = card.getDistanceMeters();
+        }
+        this.currentPlayerIndex = currentPlayerIndex;
+        this.vetosRemaining = vetosRemaining;
+        this.completedSlots = completedSlots.clone();
+    }
+
+    /**
+     * Constructor used by Parcelable to recreate a snapshot from a Parcel.
+     * Reads the values in the order they were written in {@link #writeToParcel}.
+     *
+     * @param in The Parcel containing the snapshot data
+     */
+    protected GameSessionSnapshot(Parcel in) {
+        names = in.createStringArray();
+        cuisines = in.createStringArray();
+        ratings = in.createFloatArray();
+        priceLevels = in.createIntArray();
+        cuisineMasks = in.createLongArray();
+        addresses = in.createStringArray();
+        suggestedFor = in.createStringArray();
+        placeIds = in.createStringArray();
+        locations = in.createDoubleArray();
+        currentPlayerIndex = in.readInt();
+        vetosRemaining = in.readInt();
+        completedSlots = in.createBooleanArray();
+    }
+
+    /**
+     * Rebuilds the cards stored in this snapshot.
+     *
+     * @return A new list holding the restored cards in deck order
+     */
+    List<RestaurantCard> toRestaurants() {
+        List<RestaurantCard> restaurants = new ArrayList<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            restaurants.add(new RestaurantCard(names[i], cuisines[i], ratings[i], priceLevels[i],
+                    cuisineMasks[i], addresses[i], suggestedFor[i],
+                    locations[i * 3], locations[i * 3 + 1], locations[i * 3 + 2], placeIds[i]));
+        }
+        return restaurants;
+    }
+
+    /**
+     * Writes the snapshot to a Parcel.
+     *
+     * @param dest  The Parcel in which the snapshot should be written
+     * @param flags Additional flags about how the object should be written
+     */
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeStringArray(names);
+        dest.writeStringArray(cuisines);
+        dest.writeFloatArray(ratings);
+        dest.writeIntArray(priceLevels);
+        dest.writeLongArray(cuisineMasks);
+        dest.writeStringArray(addresses);
+        dest.writeStringArray(suggestedFor);
+        dest.writeStringArray(placeIds);
+        dest.writeDoubleArray(locations);
+        dest.writeInt(currentPlayerIndex);
+        dest.writeInt(vetosRemaining);
+        dest.writeBooleanArray(completedSlots);
+    }
+
+    /**
+     * Describes the kinds of special objects contained in this Parcelable instance.
+     *
+     * @return 0, indicating no special objects are contained within this class
+     */
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    /**
+     * Creator for the Parcelable interface that creates snapshots from a Parcel.
+     */
+    public static final Creator<GameSessionSnapshot> CREATOR = new Creator<GameSessionSnapshot>() {
+        @Override
+        public GameSessionSnapshot createFromParcel(Parcel in) {
+            return new GameSessionSnapshot(in);
+        }
+
+        @Override
+        public GameSessionSnapshot[] newArray(int size) {
+            return new GameSessionSnapshot[size];
+        }
+    };
+}
@@ -0,0 +1,950 @@
+/**
+ * Holds the state of one LastBite game: the restaurant deck, the turn order, the vetoes left
+ * and the restaurant lookups that fill the deck.
+ *
+ * <p>Because this is a {@link AndroidViewModel}, it survives configuration changes such as
+ * rotation. A recreated {@link com.lastbite.app.GameActivity} simply re-attaches to the running
+ * session; in-flight lookups keep going and deliver their cards to the new activity through the
+ * {@link SessionListener}. For process death the session can be written into a compact
+ * {@link GameSessionSnapshot} and restored from it, and only lookups that had not finished
+ * before the process died are started again.</p>
+ *
+ * <p>Each fetch slot (one per player plus the special pick) is shown as a placeholder card
+ * until its restaurant arrives. Vetoing is allowed once every slot has finished or the fetch
+ * deadline ({@code R.integer.game_fetch_deadline_ms}) has passed, whichever comes first, so
+ * the time until players can start is bounded however slow the network is. Late arrivals
+ * follow one rule: a restaurant replaces its slot's placeholder if the placeholder is still
+ * in the deck and is dropped if the placeholder was vetoed. A slot that finishes without a
+ * restaurant removes its placeholder, and the vetoes are capped so that one card always
+ * remains as the final choice.</p>
+ *
+ * <p>Searches start at a two kilometre radius and grow through
+ * {@link AdaptiveRadiusSearch#RADII_METERS} until each cuisine has a candidate for every
+ * player who picked it. The number of expansion rounds is logged once the deck is complete,
+ * and every card shows its distance from the search location.</p>
+ *
+ * <p>Every Places request of the session carries one cancellation token. When the session is
+ * cleared, for example after "Play Again" or the back button, the token is cancelled, results
+ * that still arrive are dropped without touching the deck, and the number of cancelled and
+ * wasted requests is logged.</p>
+ *
+ * <p>Each search asks for up to {@link PlacesRequestCoalescer#DEFAULT_CANDIDATES_PER_QUERY}
+ * candidates, and the core module's {@link RankingEngine} scores every candidate against every
+ * player's preference by preference match, rating, distance and variety. The players sharing a
+ * cuisine take the top candidates of one bounded top-k selection, best first, skipping
+ * restaurants already in the deck; the special pick is the best-ranked highly rated candidate
+ * of its cuisine.</p>
+ *
+ * <p>The players who picked the same cuisine are looked up together as a {@link CuisineBatch}:
+ * one cache query, one search and one ranking pass per distinct cuisine, and one deck update
+ * per batch, so a party of a hundred costs about as many lookups as there are cuisines.</p>
+ *
+ * <p>Each cuisine's lookup and the special pick are timed as the {@link TraceStage#CUISINE_CARDS}
+ * and {@link TraceStage#SPECIAL_PICK} stages of the {@link PerfTracer}, and starting a game
+ * starts the clock for the bind stages measured by the activity.</p>
+ *
+ * <p>The turn and veto rules themselves live in the core module's {@link VetoEngine}, and the
+ * placeholder rules in its {@link SlotDeck}; this class ties them to the lookups and the Android
+ * lifecycle.</p>
+ *
+ * <p>All methods must be called on the main thread.</p>
+ */
+package com.lastbite.app.game;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import com.google.android.gms.tasks.CancellationTokenSource;
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.libraries.places.api.model.Place;
+import com.lastbite.app.PlayerPreference;
+import com.lastbite.app.R;
+import com.lastbite.app.RestaurantCard;
+import com.lastbite.app.data.RestaurantRepository;
+import com.lastbite.app.places.AdaptiveRadiusSearch;
+import com.lastbite.app.places.CandidateEvaluator;
+import com.lastbite.app.places.PlaceDetailsCache;
+import com.lastbite.app.places.PlacesRequestCoalescer;
+import com.lastbite.app.places.RestaurantPrefetcher;
+import com.lastbite.app.places.SearchBackendFactory;
+import com.lastbite.app.trace.PerfTracer;
+import com.lastbite.core.cache.CardStore;
+import com.lastbite.core.cuisine.Cuisine;
+import com.lastbite.core.cuisine.CuisineBatch;
+import com.lastbite.core.cuisine.CuisinePreferences;
+import com.lastbite.core.cuisine.CuisineTaxonomy;
+import com.lastbite.core.cuisine.DietaryFlag;
+import com.lastbite.core.deck.DeckEntry;
+import com.lastbite.core.fetch.RestaurantFetchScheduler;
+import com.lastbite.core.game.SlotDeck;
+import com.lastbite.core.game.VetoEngine;
+import com.lastbite.core.ranking.Candidate;
+import com.lastbite.core.ranking.RankingEngine;
+import com.lastbite.core.trace.TraceStage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+public class GameSessionViewModel extends AndroidViewModel {
+
+    /**
+     * Receives deck changes made by the session. Implemented by the activity currently
+     * showing the game.
+     */
+    public interface SessionListener {
+        /**
+         * Called after cards arrived, were updated in place, or placeholders were removed.
+         * Removals made through {@link #veto} are not reported.
+         */
+        void onRestaurantsChanged();
+
+        /**
+         * Called once vetoing may start, either because every lookup has finished or
+         * because the fetch deadline has passed.
+         */
+        void onGameReady();
+    }
+
+    /**
+     * Interface for handling asynchronous restaurant fetching operations.
+     * Provides a callback method to be executed when a restaurant has been successfully fetched.
+     */
+    private interface RestaurantFetchCallback {
+        void onRestaurantFetched();
+    }
+
+    /**
+     * Interface for receiving the candidates of a cuisine search.
+     * The result is null when the search failed or the session has ended.
+     */
+    private interface CandidatesCallback {
+        void onCandidates(AdaptiveRadiusSearch.Result result);
+    }
+
+    private List<PlayerPreference> players;
+    private double latitude;
+    private double longitude;
+    private VetoEngine vetoEngine;
+    private SlotDeck<RestaurantCard> slotDeck;
+    private boolean started;
+    private boolean fetchComplete;
+
+    /** Starts the game with partial results once the fetch deadline has passed */
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable deadline = this::onFetchDeadline;
+    private SessionListener listener;
+
+    /** Cancels every Places request of this session once the session ends */
+    private final CancellationTokenSource sessionCancellation = new CancellationTokenSource();
+    private boolean ended;
+    private int cancelledRequests;
+    private int wastedResults;
+
+    private PlacesRequestCoalescer placesCoalescer;
+    private AdaptiveRadiusSearch radiusSearch;
+    private int expansionRounds;
+    private CardStore<RestaurantCard> restaurantRepository;
+    private CandidateEvaluator candidateEvaluator;
+    private RankingEngine rankingEngine;
+
+    /** Number of players per cuisine key, the k of each cuisine's top-k selection */
+    private final Map<String, Integer> playersPerCuisine = new HashMap<>();
+
+    /** Top-k selections keyed by cuisine key and search radius, shared by the players of a cuisine */
+    private final Map<String, List<Candidate<Place>>> rankedCandidates = new HashMap<>();
+
+    /**
+     * Constructs a new, not yet started session.
+     *
+     * @param application The application, used for the Places client and the restaurant cache
+     */
+    public GameSessionViewModel(@NonNull Application application) {
+        super(application);
+    }
+
+    /**
+     * Returns whether the session has already been started or restored.
+     *
+     * @return true if the session holds a game
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Starts a new game and begins fetching restaurants.
+     *
+     * @param players   The players taking part
+     * @param latitude  Latitude of the search location
+     * @param longitude Longitude of the search location
+     */
+    public void start(List<PlayerPreference> players, double latitude, double longitude) {
+        PerfTracer.getInstance().beginGame();
+        init(players, latitude, longitude);
+        vetoEngine = new VetoEngine(players.size());
+        slotDeck = new SlotDeck<>(Collections.emptyList(), vetoEngine, players.size() + 1);
+        addPlaceholders();
+        fetchRestaurants();
+        handler.postDelayed(deadline,
+                getApplication().getResources().getInteger(R.integer.game_fetch_deadline_ms));
+    }
+
+    /**
+     * Restores a game from a snapshot. Only lookups that had not finished when the snapshot
+     * was taken are started again; a finished deck is restored without any network call.
+     * The players have already seen the deck, so vetoing may continue right away.
+     *
+     * @param players   The players taking part
+     * @param latitude  Latitude of the search location
+     * @param longitude Longitude of the search location
+     * @param snapshot  The snapshot to restore
+     */
+    public void restore(List<PlayerPreference> players, double latitude, double longitude,
+                        GameSessionSnapshot snapshot) {
+        init(players, latitude, longitude);
+        List<RestaurantCard> restaurants = snapshot.toRestaurants();
+        for (RestaurantCard card : restaurants) {
+            markChosen(card, card.getCuisine());
+        }
+        vetoEngine = new VetoEngine(players.size(),
+                snapshot.currentPlayerIndex < players.size() ? snapshot.currentPlayerIndex : 0,
+                snapshot.vetosRemaining);
+        slotDeck = snapshot.completedSlots.length == players.size() + 1
+                ? new SlotDeck<>(restaurants, vetoEngine, snapshot.completedSlots)
+                : new SlotDeck<>(restaurants, vetoEngine, players.size() + 1);
+        slotDeck.markReady();
+        addPlaceholders();
+        slotDeck.capVetos();
+        fetchRestaurants();
+    }
+
+    /**
+     * Captures the current session state in a compact snapshot.
+     *
+     * @return The snapshot
+     */
+    public GameSessionSnapshot snapshot() {
+        return new GameSessionSnapshot(getRestaurants(), vetoEngine.getCurrentPlayerIndex(),
+                vetoEngine.getVetosRemaining(), slotDeck.getCompletedSlots());
+    }
+
+    /**
+     * Sets the listener that is told about deck changes. Pass null to detach.
+     *
+     * @param listener The listener, or null
+     */
+    public void setListener(SessionListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the deck. The list is a read-only view owned by the session; the adapter takes a
+     * copy of it.
+     *
+     * @return The restaurant cards
+     */
+    public List<RestaurantCard> getRestaurants() {
+        return slotDeck != null ? slotDeck.getCards() : Collections.emptyList();
+    }
+
+    /**
+     * Returns the players taking part.
+     *
+     * @return The players
+     */
+    public List<PlayerPreference> getPlayers() {
+        return players;
+    }
+
+    /**
+     * Returns the index of the player whose turn it is.
+     *
+     * @return The current player index
+     */
+    public int getCurrentPlayerIndex() {
+        return vetoEngine.getCurrentPlayerIndex();
+    }
+
+    /**
+     * Returns the number of vetoes left.
+     *
+     * @return The vetoes remaining
+     */
+    public int getVetosRemaining() {
+        return vetoEngine.getVetosRemaining();
+    }
+
+    /**
+     * Returns whether vetoing may start.
+     *
+     * @return true once every lookup has finished or the fetch deadline has passed
+     */
+    public boolean isReady() {
+        return slotDeck.isReady();
+    }
+
+    /**
+     * Returns whether every restaurant lookup has finished.
+     *
+     * @return true once the deck is complete
+     */
+    public boolean isFetchComplete() {
+        return fetchComplete;
+    }
+
+    /**
+     * Applies the current player's veto: removes the card and passes the turn on.
+     * Vetoing a placeholder gives up on its slot, so its restaurant is dropped if it arrives later.
+     *
+     * <p>The card is looked up by identity rather than by position, because the deck on screen
+     * may still lag behind the session's deck while a new one is being applied.</p>
+     *
+     * @param card The vetoed card, as shown on screen
+     * @return true if the veto was applied, false if the game is not ready, no vetoes were left
+     *         or the card is no longer in the deck
+     */
+    public boolean veto(RestaurantCard card) {
+        return slotDeck.veto(card);
+    }
+
+    /**
+     * Returns how many times a search radius had to grow, summed over every lookup of the session.
+     *
+     * @return The number of expansion rounds
+     */
+    public int getExpansionRounds() {
+        return expansionRounds;
+    }
+
+    /**
+     * Returns how many searches were still running when the session ended and were cancelled.
+     *
+     * @return The number of cancelled requests
+     */
+    public int getCancelledRequestCount() {
+        return cancelledRequests;
+    }
+
+    /**
+     * Returns how many results arrived after the session ended and were dropped.
+     *
+     * @return The number of wasted results
+     */
+    public int getWastedResultCount() {
+        return wastedResults;
+    }
+
+    /**
+     * Ends the session once it is discarded: cancels every outstanding Places request and
+     * stops delivering results to the activity.
+     */
+    @Override
+    protected void onCleared() {
+        ended = true;
+        listener = null;
+        handler.removeCallbacks(deadline);
+        if (placesCoalescer != null) {
+            cancelledRequests += placesCoalescer.getPendingSearchCount();
+        }
+        sessionCancellation.cancel();
+        Log.d("Places", "Game session ended (cancelled requests: " + cancelledRequests
+                + ", wasted results: " + wastedResults + ")");
+        super.onCleared();
+    }
+
+    /**
+     * Checks whether a result arrived after the session ended. Such results are counted
+     * as wasted and must be dropped by the caller.
+     *
+     * @return true if the result must be dropped
+     */
+    private boolean dropIfEnded() {
+        if (ended) {
+            wastedResults++;
+        }
+        return ended;
+    }
+
+    /**
+     * Stores the game parameters and creates the lookup helpers.
+     *
+     * @param players   The players taking part
+     * @param latitude  Latitude of the search location
+     * @param longitude Longitude of the search location
+     */
+    private void init(List<PlayerPreference> players, double latitude, double longitude) {
+        Application application = getApplication();
+        this.players = players;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.started = true;
+
+        placesCoalescer = new PlacesRequestCoalescer(
+                SearchBackendFactory.create(application),
+                PlacesRequestCoalescer.DEFAULT_CANDIDATES_PER_QUERY,
+                sessionCancellation.getToken());
+        radiusSearch = new AdaptiveRadiusSearch(placesCoalescer, latitude, longitude);
+        restaurantRepository = RestaurantRepository.getInstance(application);
+        candidateEvaluator = new CandidateEvaluator();
+
+        CuisinePreferences[] preferences = new CuisinePreferences[players.size()];
+        for (int i = 0; i < preferences.length; i++) {
+            preferences[i] = players.get(i).preferences;
+            playersPerCuisine.merge(CuisineTaxonomy.key(players.get(i).getCuisine()), 1, Integer::sum);
+        }
+        rankingEngine = new RankingEngine(preferences).addDefaultStrategies(
+                AdaptiveRadiusSearch.RADII_METERS[AdaptiveRadiusSearch.RADII_METERS.length - 1]);
+    }
+
+    /**
+     * Adds a placeholder card for every slot that has not finished yet.
+     */
+    private void addPlaceholders() {
+        for (int slot = 0; slot <= players.size(); slot++) {
+            if (slotDeck.isCompleted(slot)) {
+                continue;
+            }
+            slotDeck.addPlaceholder(slot, slot < players.size()
+                    ? RestaurantCard.placeholder(slot, players.get(slot).getCuisine(), players.get(slot).name)
+                    : RestaurantCard.placeholder(slot, "Our Special Pick", "Game's Recommendation"));
+        }
+    }
+
+    /**
+     * Puts a fetched card in place of its slot's placeholder and notifies the listener.
+     * The card is dropped if the placeholder has already been vetoed.
+     *
+     * @param slot The fetch slot the card belongs to
+     * @param card The card to add
+     */
+    private void addRestaurant(int slot, RestaurantCard card) {
+        if (!slotDeck.fill(slot, card)) {
+            Log.d("Places", "Dropped late restaurant for a vetoed slot: " + card.getName());
+            return;
+        }
+        notifyRestaurantsChanged();
+    }
+
+    /**
+     * Puts the fetched cards of a cuisine batch in place of their placeholders and notifies the
+     * listener once. Cards whose placeholders have already been vetoed are dropped.
+     *
+     * @param batch The players sharing a cuisine
+     * @param cards The card for each rank, null where none was found
+     */
+    private void addRestaurants(CuisineBatch batch, RestaurantCard[] cards) {
+        int arrived = 0;
+        for (RestaurantCard card : cards) {
+            if (card != null) {
+                arrived++;
+            }
+        }
+        int placed = slotDeck.fill(batch, cards);
+        if (placed < arrived) {
+            Log.d("Places", "Dropped " + (arrived - placed) + " late restaurants for vetoed slots");
+        }
+        if (placed > 0) {
+            notifyRestaurantsChanged();
+        }
+    }
+
+    /**
+     * Marks every slot of a cuisine batch as finished. The placeholders of slots that did not
+     * get a restaurant are removed in one pass, the vetoes are capped to the smaller deck and
+     * the listener is notified once.
+     *
+     * @param batch The players sharing a cuisine
+     */
+    private void finishSlots(CuisineBatch batch) {
+        if (slotDeck.finish(batch)) {
+            notifyRestaurantsChanged();
+        }
+    }
+
+    /**
+     * Marks a slot as finished. If the slot's lookup did not produce a restaurant, its
+     * placeholder is removed and the vetoes are capped to the smaller deck.
+     *
+     * @param slot The fetch slot that finished
+     */
+    private void finishSlot(int slot) {
+        if (slotDeck.finish(slot)) {
+            notifyRestaurantsChanged();
+        }
+    }
+
+    /**
+     * Lets vetoing start, once.
+     */
+    private void markReady() {
+        if (!slotDeck.markReady()) {
+            return;
+        }
+        handler.removeCallbacks(deadline);
+        if (listener != null) {
+            listener.onGameReady();
+        }
+    }
+
+    /**
+     * Starts the game with the cards that have arrived when the fetch deadline passes.
+     */
+    private void onFetchDeadline() {
+        Log.d("Places", "Fetch deadline passed with " + slotDeck.getPendingCount()
+                + " lookups still pending");
+        markReady();
+    }
+
+    /**
+     * Replaces a card still in the deck with a refreshed copy of the same restaurant, leaving
+     * it to the caller to notify the listener. Does nothing if the card has been vetoed in the
+     * meantime or the refresh found a different restaurant.
+     *
+     * @param card      The card currently in the deck
+     * @param refreshed The refreshed card
+     * @return true if the card was replaced
+     */
+    private boolean replaceRestaurant(RestaurantCard card, RestaurantCard refreshed) {
+        return Objects.equals(card.getName(), refreshed.getName())
+                && Objects.equals(card.getAddress(), refreshed.getAddress())
+                && slotDeck.replace(card, refreshed);
+    }
+
+    /**
+     * Tells the listener, if any, that the deck changed.
+     */
+    private void notifyRestaurantsChanged() {
+        if (listener != null) {
+            listener.onRestaurantsChanged();
+        }
+    }
+
+    /**
+     * Initiates the process of fetching restaurants based on player preferences.
+     * Schedules one lookup per distinct cuisine, shared by every player who picked it, together
+     * with the bonus high-rated pick, skipping slots that already finished. Searches already
+     * started by the {@link RestaurantPrefetcher} during player setup are reused. None of these
+     * lookups depend on each other, so the scheduler runs them all at once and the deck is
+     * complete after roughly the slowest single lookup.
+     */
+    private void fetchRestaurants() {
+        placesCoalescer.adopt(RestaurantPrefetcher.getInstance()
+                .takeWarmSearches(latitude, longitude, sessionCancellation.getToken()));
+
+        List<String> playerCuisines = new ArrayList<>(players.size());
+        for (PlayerPreference player : players) {
+            playerCuisines.add(player.getCuisine());
+        }
+        List<CuisineBatch> pendingBatches = new ArrayList<>();
+        for (CuisineBatch batch : CuisineBatch.group(playerCuisines)) {
+            if (!slotDeck.isCompleted(batch)) {
+                pendingBatches.add(batch);
+            }
+        }
+        RestaurantFetchScheduler scheduler = RestaurantFetchScheduler.forGame(pendingBatches.size());
+
+        for (CuisineBatch batch : pendingBatches) {
+            scheduler.submit(done -> {
+                if (ended) {
+                    done.run();
+                    return;
+                }
+                PerfTracer.Span span = PerfTracer.getInstance().begin(TraceStage.CUISINE_CARDS);
+                findRestaurantsForCuisine(batch, () -> {
+                    span.end();
+                    finishSlots(batch);
+                    done.run();
+                });
+            });
+        }
+
+        final int specialSlot = players.size();
+        if (!slotDeck.isCompleted(specialSlot)) {
+            scheduler.submit(done -> {
+                if (ended) {
+                    done.run();
+                    return;
+                }
+                PerfTracer.Span span = PerfTracer.getInstance().begin(TraceStage.SPECIAL_PICK);
+                findRandomHighRatedRestaurant(specialSlot, () -> {
+                    span.end();
+                    finishSlot(specialSlot);
+                    done.run();
+                });
+            });
+        }
+
+        scheduler.start(() -> {
+            if (ended) {
+                return;
+            }
+            fetchComplete = true;
+            PlaceDetailsCache detailsCache = PlaceDetailsCache.getInstance();
+            Log.d("Places", "All restaurant lookups finished (details cache hits: "
+                    + detailsCache.getHitCount() + ", misses: " + detailsCache.getMissCount()
+                    + ", radius expansion rounds: " + expansionRounds + ")");
+            markReady();
+        });
+    }
+
+    /**
+     * Finds restaurants for every player who picked a cuisine and adds them to the deck, each
+     * player's rank within the batch picking a distinct restaurant. The cached cards of all ranks
+     * are read in one query and shown immediately; stale ones are refreshed from one search in
+     * the background, updating the cards in place when the same restaurants come back and caching
+     * them for the next game. The ranks missing from the cache are filled from one search, and
+     * the results are cached. A cached card for a restaurant already in the deck, e.g. because
+     * another batch's search found it since it was cached, counts as missing. Players ranked
+     * beyond what one search returns get a card only if candidates are left over; otherwise
+     * their slots finish without one.
+     *
+     * @param batch The players sharing a cuisine
+     * @param callback Callback to execute once every pending slot of the batch was looked up
+     */
+    private void findRestaurantsForCuisine(CuisineBatch batch, RestaurantFetchCallback callback) {
+        String cuisine = batch.getCuisine();
+        restaurantRepository.getCachedCards(latitude, longitude, cuisine, batch.size(), (cachedCards, stale) -> {
+            if (dropIfEnded()) {
+                callback.onRestaurantFetched();
+                return;
+            }
+            RestaurantCard[] cards = new RestaurantCard[batch.size()];
+            List<Integer> missingRanks = new ArrayList<>();
+            boolean anyStale = false;
+            for (int rank = 0; rank < batch.size(); rank++) {
+                int slot = batch.getSlot(rank);
+                if (slotDeck.isCompleted(slot)) {
+                    continue;
+                }
+                RestaurantCard cachedCard = cachedCards.get(rank);
+                if (cachedCard == null || rankingEngine.isChosen(restaurantId(cachedCard))) {
+                    missingRanks.add(rank);
+                    continue;
+                }
+                PlayerPreference player = players.get(slot);
+                cards[rank] = cachedCard.withSuggestion(player.getCuisine(), player.name);
+                markChosen(cards[rank], player.getCuisine());
+                anyStale |= stale[rank];
+            }
+            addRestaurants(batch, cards);
+            if (anyStale) {
+                refreshCachedCards(batch, cards, stale);
+            }
+            if (missingRanks.isEmpty()) {
+                callback.onRestaurantFetched();
+                return;
+            }
+
+            searchCuisine(batch, candidates -> {
+                if (candidates == null) {
+                    callback.onRestaurantFetched();
+                    return;
+                }
+                RestaurantCard[] found = new RestaurantCard[batch.size()];
+                for (int rank : missingRanks) {
+                    Place place = chooseForCuisine(cuisine, candidates);
+                    if (place == null) {
+                        break;
+                    }
+                    PlayerPreference player = players.get(batch.getSlot(rank));
+                    found[rank] = toRestaurantCard(place, player.getCuisine(), player.name);
+                    restaurantRepository.saveCard(latitude, longitude, cuisine, rank, found[rank]);
+                }
+                addRestaurants(batch, found);
+                callback.onRestaurantFetched();
+            });
+        });
+    }
+
+    /**
+     * Refreshes the stale cached cards of a cuisine batch from one search. A card still in the
+     * deck is replaced when the search returns the same restaurant, and every refreshed card is
+     * cached again.
+     *
+     * @param batch The players sharing a cuisine
+     * @param cards The cards shown for each rank, null where none came from the cache
+     * @param stale For each rank, true if the cached card should be refreshed
+     */
+    private void refreshCachedCards(CuisineBatch batch, RestaurantCard[] cards, boolean[] stale) {
+        String cuisine = batch.getCuisine();
+        searchCuisine(batch, candidates -> {
+            if (candidates == null || ended) {
+                return;
+            }
+            boolean changed = false;
+            for (int rank = 0; rank < cards.length; rank++) {
+                RestaurantCard card = cards[rank];
+                Place place = card != null && stale[rank] ? findSameRestaurant(candidates, card) : null;
+                if (place == null) {
+                    continue;
+                }
+                RestaurantCard refreshed = toRestaurantCard(place, card.getCuisine(), card.getSuggestedFor());
+                changed |= replaceRestaurant(card, refreshed);
+                restaurantRepository.saveCard(latitude, longitude, cuisine, rank, refreshed);
+            }
+            if (changed) {
+                notifyRestaurantsChanged();
+            }
+        });
+    }
+
+    /**
+     * Searches the Places API for restaurants matching a batch's cuisine, widening the search
+     * radius until there is a candidate for every player of the batch, or as many as one search
+     * returns if the batch is larger.
+     *
+     * @param batch The players sharing a cuisine
+     * @param callback Receives the search result, or null if the search failed or the session has ended
+     */
+    private void searchCuisine(CuisineBatch batch, CandidatesCallback callback) {
+        String query = CuisineTaxonomy.queryFor(batch.getCuisine());
+
+        radiusSearch.search(query, batch.candidatesNeeded(PlacesRequestCoalescer.DEFAULT_CANDIDATES_PER_QUERY))
+                .addOnSuccessListener(result -> {
+                    if (dropIfEnded()) {
+                        callback.onCandidates(null);
+                        return;
+                    }
+                    recordExpansion(query, result);
+                    callback.onCandidates(result);
+                })
+                .addOnFailureListener(exception -> {
+                    if (!ended) {
+                        Log.e("Places", "Restaurant search failed: " + exception.getMessage());
+                    }
+                    callback.onCandidates(null);
+                });
+    }
+
+    /**
+     * Chooses a player's restaurant from a cuisine search. The candidates are ranked for the
+     * whole group once per cuisine and radius, keeping the top k for the k players who picked
+     * the cuisine; each player then takes the best of those not yet in the deck. If cached cards
+     * already used them up, the remaining candidates are ranked again.
+     *
+     * @param cuisine The cuisine searched for
+     * @param result The search result
+     * @return The chosen place, or null if every candidate is already in the deck
+     */
+    private Place chooseForCuisine(String cuisine, AdaptiveRadiusSearch.Result result) {
+        String cuisineKey = CuisineTaxonomy.key(cuisine);
+        String selectionKey = cuisineKey + "@" + (int) result.radiusMeters;
+        List<Candidate<Place>> top = rankedCandidates.get(selectionKey);
+        if (top == null) {
+            Integer k = playersPerCuisine.get(cuisineKey);
+            top = rankingEngine.selectTop(toCandidates(result.candidates, cuisineKey), k == null ? 1 : k);
+            rankedCandidates.put(selectionKey, top);
+        }
+        for (Candidate<Place> candidate : top) {
+            if (!rankingEngine.isChosen(candidate.getId())) {
+                rankingEngine.markChosen(candidate);
+                return candidate.getItem();
+            }
+        }
+        return chooseBest(result.candidates, cuisineKey);
+    }
+
+    /**
+     * Ranks candidates for the whole group and takes the best one not yet in the deck.
+     *
+     * @param places The candidates
+     * @param cuisineKey The cuisine key the candidates are ranked under
+     * @return The chosen place, or null if every candidate is already in the deck
+     */
+    private Place chooseBest(List<Place> places, String cuisineKey) {
+        Candidate<Place> best = rankingEngine.selectBest(toCandidates(places, cuisineKey));
+        if (best == null) {
+            return null;
+        }
+        rankingEngine.markChosen(best);
+        return best.getItem();
+    }
+
+    /**
+     * Wraps places as ranking candidates, leaving out restaurants already in the deck. A
+     * candidate serves the cuisines its place types name plus those of the search that found
+     * it, and meets the dietary constraints its place types confirm or the search asked for.
+     *
+     * @param places The places to wrap
+     * @param cuisineKey The cuisine key of the search that found them
+     * @return The candidates in their original order
+     */
+    private List<Candidate<Place>> toCandidates(List<Place> places, String cuisineKey) {
+        CuisinePreferences searched = CuisinePreferences.parse(cuisineKey);
+        List<Candidate<Place>> candidates = new ArrayList<>(places.size());
+        for (Place place : places) {
+            Double rating = place.getRating();
+            List<String> types = place.getPlaceTypes();
+            Candidate<Place> candidate = new Candidate<>(place,
+                    restaurantId(place.getId(), place.getName(), place.getAddress()), cuisineKey,
+                    rating != null ? rating : Double.NaN, radiusSearch.distanceTo(place),
+                    Cuisine.maskOfPlaceTypes(types) | searched.getCuisineMask(),
+                    DietaryFlag.maskOfPlaceTypes(types) | searched.getDietaryFlags());
+            if (!rankingEngine.isChosen(candidate.getId())) {
+                candidates.add(candidate);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Finds the place describing the same restaurant as a card, used to refresh a stale card.
+     *
+     * @param result The search result, or null if the search failed
+     * @param card The card to refresh
+     * @return The matching place, or null if the search no longer returns the restaurant
+     */
+    private Place findSameRestaurant(AdaptiveRadiusSearch.Result result, RestaurantCard card) {
+        if (result == null) {
+            return null;
+        }
+        String cardId = restaurantId(card);
+        for (Place place : result.candidates) {
+            if (cardId.equals(restaurantId(place.getId(), place.getName(), place.getAddress()))) {
+                return place;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records a card as part of the deck, so no other slot ranks the same restaurant.
+     *
+     * @param card The card
+     * @param cuisine The cuisine the card was found for
+     */
+    private void markChosen(RestaurantCard card, String cuisine) {
+        rankingEngine.markChosen(new Candidate<>(card, restaurantId(card),
+                CuisineTaxonomy.key(cuisine), Double.NaN, Double.NaN));
+    }
+
+    /**
+     * Builds the id the ranking uses to recognise a card's restaurant.
+     *
+     * @param card The card
+     * @return The restaurant id
+     * @see #restaurantId(String, String, String)
+     */
+    private static String restaurantId(RestaurantCard card) {
+        return restaurantId(card.getPlaceId(), card.getName(), card.getAddress());
+    }
+
+    /**
+     * Builds the id the ranking uses to recognise a restaurant: its place id, so the same
+     * restaurant listed under two names or addresses is still one restaurant, or its name and
+     * address for offline places, which have no place id.
+     *
+     * @param placeId The restaurant's place id, may be null
+     * @param name The restaurant's name
+     * @param address The restaurant's address
+     * @return The restaurant id
+     */
+    private static String restaurantId(String placeId, String name, String address) {
+        return placeId != null ? placeId : name + "|" + address;
+    }
+
+    /**
+     * Adds the expansion rounds of a finished adaptive search to the session total.
+     *
+     * @param query  The query that was searched
+     * @param result The search result
+     */
+    private void recordExpansion(String query, AdaptiveRadiusSearch.Result result) {
+        if (result.expansionRounds > 0) {
+            expansionRounds += result.expansionRounds;
+            Log.d("Places", "Widened \"" + query + "\" to " + (int) result.radiusMeters + " m after "
+                    + result.expansionRounds + " expansion rounds");
+        }
+    }
+
+    /**
+     * Converts a place returned by the Places API into a restaurant card, including its
+     * distance from the search location.
+     *
+     * @param place The place to convert
+     * @param cuisine The cuisine shown on the card
+     * @param suggestedFor The player name shown on the card
+     * @return A new RestaurantCard for the place
+     */
+    private RestaurantCard toRestaurantCard(Place place, String cuisine, String suggestedFor) {
+        LatLng location = place.getLatLng();
+        Double rating = place.getRating();
+        Integer priceLevel = place.getPriceLevel();
+        return new RestaurantCard(
+                place.getName(),
+                cuisine,
+                rating != null ? rating.floatValue() : DeckEntry.UNRATED,
+                priceLevel != null ? priceLevel : DeckEntry.PRICE_UNKNOWN,
+                Cuisine.maskOfPlaceTypes(place.getPlaceTypes()) | CuisinePreferences.parse(cuisine).getCuisineMask(),
+                place.getAddress(),
+                suggestedFor,
+                location != null ? location.latitude : Double.NaN,
+                location != null ? location.longitude : Double.NaN,
+                radiusSearch.distanceTo(place),
+                place.getId()
+        );
+    }
+
+    /**
+     * Finds a random highly-rated restaurant of a cuisine different from player preferences.
+     * The cuisine is drawn from {@link CuisineTaxonomy#SURPRISE_PICKS}; if the players already
+     * chose all of them, any highly rated restaurant is searched for.
+     *
+     * @param slot The fetch slot of the special pick
+     * @param callback Callback to execute once the special pick lookup has finished
+     */
+    private void findRandomHighRatedRestaurant(int slot, RestaurantFetchCallback callback) {
+        long taken = 0;
+        for (PlayerPreference player : players) {
+            taken |= player.preferences.getCuisineMask();
+        }
+
+        String surprise = CuisineTaxonomy.pickSurprise(taken, new Random());
+        findHighRatedRestaurant(slot,
+                surprise != null ? CuisineTaxonomy.queryFor(surprise) : CuisineTaxonomy.ANY_CUISINE_QUERY,
+                surprise != null ? CuisineTaxonomy.key(surprise) : "",
+                callback);
+    }
+
+    /**
+     * Searches for a highly-rated restaurant matching the specified query near the search location.
+     * The configured search backend returns a fixed number of candidates, the
+     * {@link CandidateEvaluator} keeps those rated 4.0 or higher (or all of them if none is), and
+     * the {@link RankingEngine} picks the best of those that is not in the deck yet.
+     *
+     * @param slot The fetch slot of the special pick
+     * @param query The search query string for finding restaurants
+     * @param cuisineKey The cuisine key of the query, empty when searching any cuisine
+     * @param callback Callback to execute once a restaurant was added or the lookup gave up
+     */
+    private void findHighRatedRestaurant(int slot, String query, String cuisineKey,
+                                         RestaurantFetchCallback callback) {
+        radiusSearch.search(query, 1)
+                .addOnSuccessListener(result -> {
+                    if (dropIfEnded()) {
+                        callback.onRestaurantFetched();
+                        return;
+                    }
+                    recordExpansion(query, result);
+                    Place place = chooseBest(candidateEvaluator.highlyRated(result.candidates), cuisineKey);
+                    if (place != null) {
+                        addRestaurant(slot, toRestaurantCard(place,
+                                "Our Special Pick", "Game's Recommendation"));
+                    }
+                    callback.onRestaurantFetched();
+                })
+                .addOnFailureListener(exception -> {
+                    if (!ended) {
+                        Log.e("Places", "Restaurant search failed: " + exception.getMessage());
+                    }
+                    callback.onRestaurantFetched();
+                });
+    }
+}
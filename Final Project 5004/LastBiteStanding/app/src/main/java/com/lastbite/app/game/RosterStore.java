@@ -0,0 +1,71 @@
+/**
+ * A process-wide hand-over point for the player roster between player setup and the game.
+ *
+ * <p>A party of a hundred players does not belong in Intent extras: extras travel through a
+ * Binder transaction, whose buffer is shared by the whole process and fails the start with a
+ * {@code TransactionTooLargeException} once exceeded. Player setup puts the roster here and
+ * passes only the returned id; the game takes it out again. Both activities live in the same
+ * process, so nothing is copied.</p>
+ *
+ * <p>The store does not survive process death; the game keeps its own copy in its saved
+ * state for that case. All methods are thread-safe.</p>
+ */
+package com.lastbite.app.game;
+
+import com.lastbite.app.PlayerPreference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RosterStore {
+    private static RosterStore instance;
+
+    private final Map<Long, List<PlayerPreference>> rosters = new HashMap<>();
+    private long nextId = 1;
+
+    /**
+     * Returns the process-wide store, creating it on first use.
+     *
+     * @return The shared store
+     */
+    public static synchronized RosterStore getInstance() {
+        if (instance == null) {
+            instance = new RosterStore();
+        }
+        return instance;
+    }
+
+    /**
+     * Stores a copy of a roster.
+     *
+     * @param players The players, in turn order
+     * @return The id to take the roster out with
+     */
+    public synchronized long put(List<PlayerPreference> players) {
+        long id = nextId++;
+        rosters.put(id, Collections.unmodifiableList(new ArrayList<>(players)));
+        return id;
+    }
+
+    /**
+     * Returns a stored roster without removing it.
+     *
+     * @param id The id returned by {@link #put}
+     * @return The players, or null if the id is unknown
+     */
+    public synchronized List<PlayerPreference> get(long id) {
+        return rosters.get(id);
+    }
+
+    /**
+     * Removes a stored roster and returns it.
+     *
+     * @param id The id returned by {@link #put}
+     * @return The players, or null if the id is unknown, e.g. after process death
+     */
+    public synchronized List<PlayerPreference> take(long id) {
+        return rosters.remove(id);
+    }
+}
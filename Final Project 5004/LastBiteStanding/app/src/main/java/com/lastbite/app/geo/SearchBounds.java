@@ -0,0 +1,52 @@
+/**
+ * Builds the rectangular search area used for every restaurant lookup around a location.
+ *
+ * <p>Both the speculative prefetch in {@link com.lastbite.app.PlayerSetupActivity} and the game
+ * itself use this helper, so a search started early has exactly the same bounds, and therefore
+ * the same coalescing key, as the search the game would have made.</p>
+ *
+ * <p>The bounds are sized in metres, not degrees: the longitude span is widened with the
+ * latitude so that the box really reaches the requested distance east and west of the
+ * centre.</p>
+ */
+package com.lastbite.app.geo;
+
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.libraries.places.api.model.RectangularBounds;
+import com.lastbite.core.geo.GeoMath;
+
+public final class SearchBounds {
+    /** Radius of the first search around a location */
+    public static final double DEFAULT_RADIUS_METERS = 2000;
+
+    private SearchBounds() {
+    }
+
+    /**
+     * Returns the search bounds of {@link #DEFAULT_RADIUS_METERS} centred on the given coordinate.
+     *
+     * @param latitude  Latitude of the centre
+     * @param longitude Longitude of the centre
+     * @return The rectangular search bounds
+     */
+    public static RectangularBounds around(double latitude, double longitude) {
+        return around(latitude, longitude, DEFAULT_RADIUS_METERS);
+    }
+
+    /**
+     * Returns the smallest rectangle containing the circle of the given radius around a coordinate.
+     *
+     * @param latitude     Latitude of the centre
+     * @param longitude    Longitude of the centre
+     * @param radiusMeters Radius of the circle in metres
+     * @return The rectangular search bounds
+     */
+    public static RectangularBounds around(double latitude, double longitude, double radiusMeters) {
+        double latitudeDelta = GeoMath.metersToLatitudeDegrees(radiusMeters);
+        double longitudeDelta = GeoMath.metersToLongitudeDegrees(latitude, radiusMeters);
+        return RectangularBounds.newInstance(
+                new LatLng(Math.max(-90, latitude - latitudeDelta), longitude - longitudeDelta),
+                new LatLng(Math.min(90, latitude + latitudeDelta), longitude + longitudeDelta)
+        );
+    }
+}
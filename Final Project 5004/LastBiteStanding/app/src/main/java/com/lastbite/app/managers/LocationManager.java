@@ -4,8 +4,16 @@
  * interface for location functionality, including getting current location updates,
  * retrieving last known location, and handling location permissions.
  *
- * <p>The manager maintains a reference to the most recently received location and
- * provides asynchronous location updates through callback mechanisms.</p>
+ * <p>The manager keeps the best fix received so far, judged by a {@link LocationFixPolicy},
+ * and provides asynchronous location updates through callback mechanisms. While that fix is
+ * fresh and accurate enough, repeated requests are answered from it without asking the
+ * location service again.</p>
+ *
+ * <p>{@link #subscribe} follows the device as it moves. Jitter is dropped by a
+ * {@link MovementFilter}, and listeners are told separately when the device leaves the
+ * current search cell, the geohash cell the restaurant cache is keyed by, which is the only
+ * move that calls for new restaurant searches. A subscription ends by itself when its
+ * lifecycle owner stops.</p>
  *
  * <p>Usage example:</p>
  * <pre>
@@ -36,32 +44,90 @@
 package com.lastbite.app.managers;
 
 import android.location.Location;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import com.lastbite.app.data.RestaurantRepository;
 import com.lastbite.app.services.LocationCallback;
+import com.lastbite.app.services.LocationFixes;
 import com.lastbite.app.services.LocationService;
-
+import com.lastbite.core.geo.LocationFixPolicy;
+import com.lastbite.core.geo.MovementFilter;
 
 public class LocationManager {
+    /** Desired time between fixes of a subscription */
+    public static final long DEFAULT_UPDATE_INTERVAL_MS = 10_000;
+
+    /** How late a subscription's fix may arrive so that fixes can be batched */
+    public static final long DEFAULT_MAX_UPDATE_DELAY_MS = 30_000;
+
+    /** Distance a subscription's fix must move to count as a move rather than jitter */
+    public static final float DEFAULT_MIN_DISPLACEMENT_METERS = 25;
+
+    /**
+     * Receives the moves of a subscription, on the main thread. Both methods do nothing by
+     * default.
+     */
+    public interface MovementListener {
+        /**
+         * Called when the device moved further than the jitter radius.
+         *
+         * @param location The new position
+         */
+        default void onMoved(Location location) {
+        }
+
+        /**
+         * Called after {@link #onMoved} when the move left the search cell of the previous
+         * position. Restaurant searches for the old position no longer apply.
+         *
+         * @param location The new position
+         */
+        default void onSearchCellChanged(Location location) {
+        }
+    }
+
     private final LocationService locationService;
+    private final LocationFixPolicy policy;
     private Location currentLocation;
+    private LifecycleOwner subscriptionOwner;
+    private DefaultLifecycleObserver subscriptionObserver;
 
     /**
-     * Constructs a new LocationManager with the specified location service.
+     * Constructs a new LocationManager with the specified location service and the default
+     * fix policy.
      *
      * @param locationService The location service implementation to be used for
      * location-related operations. Must not be null.
      * @throws NullPointerException if locationService is null
      */
     public LocationManager(LocationService locationService) {
+        this(locationService, LocationFixPolicy.DEFAULT);
+    }
+
+    /**
+     * Constructs a new LocationManager with the specified location service and fix policy.
+     *
+     * @param locationService The location service implementation to be used for
+     * location-related operations. Must not be null.
+     * @param policy Decides which cached fixes can answer a request and which fix is best
+     */
+    public LocationManager(LocationService locationService, LocationFixPolicy policy) {
         this.locationService = locationService;
+        this.policy = policy;
     }
 
     /**
      * Asynchronously retrieves the current device location.
      *
-     * <p>This method initiates a location request through the underlying location service.
-     * When the location is available, it will be stored as the current location and
-     * provided through the callback. If an error occurs during the location request,
-     * it will be communicated through the callback's error method.</p>
+     * <p>If the best fix so far is still good enough under the policy, it is passed to the
+     * callback at once. Otherwise this method initiates a location request through the
+     * underlying location service. Each fix received replaces the stored one if it is
+     * better, and the best fix is provided through the callback, refinements included. If an
+     * error occurs during the location request, it will be communicated through the
+     * callback's error method.</p>
      *
      * <p>The provided callback may be null, in which case the location will still be
      * updated internally but no callback notifications will be sent.</p>
@@ -72,12 +138,27 @@ public class LocationManager {
      * @see LocationCallback#onLocationError(String)
      */
     public void getCurrentLocation(LocationCallback callback) {
+        if (currentLocation != null && LocationFixes.isGoodEnough(policy, currentLocation)) {
+            Log.d("Location", "Reusing fix from " + LocationFixes.ageMillis(currentLocation) + " ms ago");
+            if (callback != null) {
+                callback.onLocationReceived(currentLocation);
+            }
+            return;
+        }
         locationService.getCurrentLocation(new LocationCallback() {
             @Override
             public void onLocationReceived(Location location) {
-                currentLocation = location;
+                Location best = keepBest(location);
                 if (callback != null) {
-                    callback.onLocationReceived(location);
+                    callback.onLocationReceived(best);
+                }
+            }
+
+            @Override
+            public void onLocationRefined(Location location) {
+                Location best = keepBest(location);
+                if (callback != null && best == location) {
+                    callback.onLocationRefined(best);
                 }
             }
 
@@ -91,19 +172,109 @@ public class LocationManager {
     }
 
     /**
-     * Retrieves the last known location that was received by this manager.
+     * Stores a fix if it is better than the stored one.
+     *
+     * @param location The received fix
+     * @return The best fix after the update
+     */
+    private Location keepBest(Location location) {
+        if (LocationFixes.isBetter(policy, location, currentLocation)) {
+            currentLocation = location;
+        }
+        return currentLocation;
+    }
+
+    /**
+     * Retrieves the best location that was received by this manager.
      *
-     * <p>This method returns the most recent location received from a call to
+     * <p>This method returns the best location received from calls to
      * {@link #getCurrentLocation(LocationCallback)}. If no location has been
      * received yet, this method will return null.</p>
      *
-     * @return The last known Location object, or null if no location has been
+     * @return The best known Location object, or null if no location has been
      *         received yet.
      */
     public Location getLastKnownLocation() {
         return currentLocation;
     }
 
+    /**
+     * Starts following the device's movements until {@link #unsubscribe()} is called or the
+     * owner stops, whichever comes first. Replaces any previous subscription. Call it from
+     * {@code onStart} or later; nothing happens if the owner is already destroyed.
+     *
+     * @param owner     The lifecycle that scopes the subscription, usually the calling activity
+     * @param latitude  Latitude of the position the caller currently works with
+     * @param longitude Longitude of the position the caller currently works with
+     * @param listener  The listener to receive the moves
+     */
+    public void subscribe(LifecycleOwner owner, double latitude, double longitude, MovementListener listener) {
+        unsubscribe();
+        Lifecycle lifecycle = owner.getLifecycle();
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            return;
+        }
+
+        MovementFilter filter = new MovementFilter(latitude, longitude,
+                DEFAULT_MIN_DISPLACEMENT_METERS, RestaurantRepository.CELL_PRECISION);
+        subscriptionOwner = owner;
+        subscriptionObserver = new DefaultLifecycleObserver() {
+            @Override
+            public void onStop(@NonNull LifecycleOwner stoppedOwner) {
+                unsubscribe();
+            }
+        };
+        lifecycle.addObserver(subscriptionObserver);
+
+        locationService.startLocationUpdates(DEFAULT_UPDATE_INTERVAL_MS, DEFAULT_MAX_UPDATE_DELAY_MS,
+                DEFAULT_MIN_DISPLACEMENT_METERS, new LocationCallback() {
+                    @Override
+                    public void onLocationReceived(Location location) {
+                        keepBest(location);
+                        MovementFilter.Change change = filter.offer(location.getLatitude(),
+                                location.getLongitude(), LocationFixes.accuracyMeters(location));
+                        if (change == MovementFilter.Change.NONE) {
+                            return;
+                        }
+                        listener.onMoved(location);
+                        if (change == MovementFilter.Change.LEFT_CELL) {
+                            Log.d("Location", "Left the search cell, now at "
+                                    + location.getLatitude() + "," + location.getLongitude());
+                            listener.onSearchCellChanged(location);
+                        }
+                    }
+
+                    @Override
+                    public void onLocationError(String error) {
+                        Log.d("Location", "Location updates failed: " + error);
+                    }
+                });
+    }
+
+    /**
+     * Ends the current subscription, if any. A pending {@link #getCurrentLocation} request
+     * keeps running.
+     */
+    public void unsubscribe() {
+        if (subscriptionOwner == null) {
+            return;
+        }
+        subscriptionOwner.getLifecycle().removeObserver(subscriptionObserver);
+        subscriptionOwner = null;
+        subscriptionObserver = null;
+        locationService.removeLocationUpdates();
+    }
+
+    /**
+     * Cancels any pending location request and ends the subscription, if any. A cancelled
+     * request's callback gets an error if it had no fix yet. The best fix received so far is
+     * kept.
+     */
+    public void stopLocationUpdates() {
+        unsubscribe();
+        locationService.stopLocationUpdates();
+    }
+
     /**
      * Checks if the application has the necessary location permissions.
      *
@@ -0,0 +1,128 @@
+/**
+ * A {@link RestaurantSearchBackend} that answers searches from the bundled offline dataset.
+ *
+ * <p>The dataset is shipped as the uncompressed asset {@link #ASSET_PATH} (built with the
+ * dataset converter tool) and memory-mapped straight out of the APK, so opening it costs no
+ * heap and no parsing. Results are returned as {@link Place} objects, which lets the game fill
+ * cards from the offline data through exactly the same path it uses for Places API results.</p>
+ *
+ * <p>The cuisine is taken from the query ("Italian restaurant" searches Italian restaurants);
+ * a query without a known cuisine, such as "highly rated restaurant", matches every cuisine.
+ * The search radius is the distance from the centre of the bounds to a corner.</p>
+ */
+package com.lastbite.app.offline;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.util.Log;
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.android.libraries.places.api.model.Place;
+import com.google.android.libraries.places.api.model.RectangularBounds;
+import com.lastbite.app.places.RestaurantSearchBackend;
+import com.lastbite.core.cuisine.Cuisine;
+import com.lastbite.core.cuisine.CuisinePreferences;
+import com.lastbite.core.cuisine.CuisineTaxonomy;
+import com.lastbite.core.geo.GeoMath;
+import com.lastbite.core.offline.OfflineRestaurant;
+import com.lastbite.core.offline.OfflineRestaurantIndex;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class OfflineSearchBackend implements RestaurantSearchBackend {
+    /** Location of the dataset inside the APK assets */
+    public static final String ASSET_PATH = "offline/restaurants.bin";
+
+    private static OfflineSearchBackend instance;
+    private static boolean loaded;
+
+    private final OfflineRestaurantIndex index;
+
+    /**
+     * Returns the process-wide offline backend, mapping the dataset on first use.
+     *
+     * @param context Any context, used to reach the assets
+     * @return The backend, or null if the app was built without an offline dataset
+     */
+    public static synchronized OfflineSearchBackend getInstance(Context context) {
+        if (!loaded) {
+            loaded = true;
+            try (AssetFileDescriptor descriptor = context.getAssets().openFd(ASSET_PATH);
+                 FileInputStream stream = new FileInputStream(descriptor.getFileDescriptor())) {
+                MappedByteBuffer buffer = stream.getChannel().map(FileChannel.MapMode.READ_ONLY,
+                        descriptor.getStartOffset(), descriptor.getLength());
+                instance = new OfflineSearchBackend(new OfflineRestaurantIndex(buffer));
+                Log.d("Places", "Offline dataset mapped with " + instance.index.size() + " restaurants");
+            } catch (IOException | IllegalArgumentException e) {
+                Log.e("Places", "No usable offline dataset: " + e.getMessage());
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Constructs a backend over an opened index.
+     *
+     * @param index The offline restaurant index
+     */
+    public OfflineSearchBackend(OfflineRestaurantIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Looks up the best-rated restaurants of the query's cuisine within the bounds.
+     *
+     * @param query      The search query, e.g. "Italian restaurant"
+     * @param bounds     The geographical bounds of the search
+     * @param maxResults The maximum number of candidates to return
+     * @param cancellationToken Ignored, the lookup completes immediately
+     * @return A completed task with the places found, best rated first
+     */
+    @Override
+    public Task<List<Place>> searchRestaurants(String query, RectangularBounds bounds, int maxResults,
+                                               CancellationToken cancellationToken) {
+        LatLng southwest = bounds.getSouthwest();
+        LatLng northeast = bounds.getNortheast();
+        double latitude = (southwest.latitude + northeast.latitude) / 2;
+        double longitude = (southwest.longitude + northeast.longitude) / 2;
+        double radius = GeoMath.distanceMeters(latitude, longitude, northeast.latitude, northeast.longitude);
+
+        String cuisine = cuisineOf(query);
+        List<OfflineRestaurant> restaurants = index.query(latitude, longitude, radius, cuisine, maxResults);
+
+        List<Place> places = new ArrayList<>(restaurants.size());
+        for (OfflineRestaurant restaurant : restaurants) {
+            places.add(Place.builder()
+                    .setName(restaurant.getName())
+                    .setRating(restaurant.getRating())
+                    .setAddress(restaurant.getAddress())
+                    .setLatLng(new LatLng(restaurant.getLatitude(), restaurant.getLongitude()))
+                    .setTypes(Collections.singletonList(Place.Type.RESTAURANT))
+                    .build());
+        }
+        return Tasks.forResult(places);
+    }
+
+    /**
+     * Extracts the cuisine from a search query. The dataset has no dietary information, so a
+     * query such as "Vegan Thai restaurant" falls back to its cuisine.
+     *
+     * @param query The search query
+     * @return The cuisine, or null if the query names no cuisine the dataset knows
+     */
+    private String cuisineOf(String query) {
+        String cuisine = CuisineTaxonomy.cuisineOfQuery(query);
+        if (index.hasCuisine(cuisine)) {
+            return cuisine;
+        }
+        Cuisine primary = CuisinePreferences.parse(cuisine).getPrimary();
+        return primary != null && index.hasCuisine(primary.getName()) ? primary.getName() : null;
+    }
+}
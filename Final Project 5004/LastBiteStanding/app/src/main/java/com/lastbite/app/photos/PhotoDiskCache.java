@@ -0,0 +1,154 @@
+/**
+ * A size-bounded cache of restaurant photos on disk, one JPEG file per place.
+ *
+ * <p>A photo is stored once, as it was downloaded, and decoded at whatever size a card needs;
+ * the loader downloads at a fixed width so that one file serves every card size. Files are
+ * written to a temporary name and renamed, so a reader never sees half a photo. Reading a photo
+ * touches its file, and once the files add up to more than the budget the least recently read
+ * ones are deleted.</p>
+ *
+ * <p>The directory lives in the app's cache directory, so the system may also clear it when
+ * storage runs low. Writes and trims are serialised, so the cache may be used from several
+ * threads. Methods do file I/O and must not be called on the main thread.</p>
+ */
+package com.lastbite.app.photos;
+
+import android.graphics.Bitmap;
+import android.util.Log;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+
+public class PhotoDiskCache {
+    /** Default size budget of the cached files */
+    public static final long DEFAULT_MAX_BYTES = 20L * 1024 * 1024;
+
+    /** Quality of the stored JPEG files */
+    private static final int JPEG_QUALITY = 85;
+
+    /** Suffix of files still being written */
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final File directory;
+    private final long maxBytes;
+
+    /** Serialises writes and trims */
+    private final Object lock = new Object();
+
+    /**
+     * A cached file with its size and last-read time as they were when a trim started.
+     */
+    private static final class Entry {
+        final File file;
+        final long lastModified;
+        final long length;
+
+        Entry(File file) {
+            this.file = file;
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+        }
+    }
+
+    /**
+     * Constructs a cache keeping at most {@code maxBytes} bytes of photos in a directory.
+     *
+     * @param directory The directory, created on first write
+     * @param maxBytes  The size budget
+     */
+    public PhotoDiskCache(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cached photo file of a place and marks it as recently used.
+     *
+     * @param placeId The Google Places id
+     * @return The file, or null if the place's photo is not cached
+     */
+    public File get(String placeId) {
+        File file = fileFor(placeId);
+        if (!file.isFile()) {
+            return null;
+        }
+        file.setLastModified(System.currentTimeMillis());
+        return file;
+    }
+
+    /**
+     * Stores a place's photo, replacing any earlier one, then deletes the least recently used
+     * photos until the cache fits its budget.
+     *
+     * @param placeId The Google Places id
+     * @param photo   The downloaded photo
+     */
+    public void put(String placeId, Bitmap photo) {
+        synchronized (lock) {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                Log.e("Photos", "Cannot create " + directory);
+                return;
+            }
+            File file = fileFor(placeId);
+            File temporary = new File(directory, file.getName() + TEMPORARY_SUFFIX);
+            try (OutputStream out = new FileOutputStream(temporary)) {
+                photo.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out);
+            } catch (IOException e) {
+                Log.e("Photos", "Photo cache write failed: " + e.getMessage());
+                temporary.delete();
+                return;
+            }
+            if (!temporary.renameTo(file)) {
+                temporary.delete();
+                return;
+            }
+            trim();
+        }
+    }
+
+    /**
+     * Deletes the least recently used photos until the files take at most the budget. Files
+     * still being written are neither counted nor deleted. The last-read times are read once
+     * before sorting, since readers on other threads keep touching them.
+     */
+    public void trim() {
+        synchronized (lock) {
+            File[] files = directory.listFiles((dir, name) -> !name.endsWith(TEMPORARY_SUFFIX));
+            if (files == null) {
+                return;
+            }
+            long total = 0;
+            Entry[] entries = new Entry[files.length];
+            for (int i = 0; i < files.length; i++) {
+                entries[i] = new Entry(files[i]);
+                total += entries[i].length;
+            }
+            if (total <= maxBytes) {
+                return;
+            }
+            Arrays.sort(entries, Comparator.comparingLong(entry -> entry.lastModified));
+            for (Entry entry : entries) {
+                if (total <= maxBytes) {
+                    break;
+                }
+                if (entry.file.delete()) {
+                    total -= entry.length;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the file a place's photo is stored in. Place ids only contain letters, digits,
+     * '-' and '_', but anything else is replaced to be safe.
+     *
+     * @param placeId The Google Places id
+     * @return The file
+     */
+    private File fileFor(String placeId) {
+        return new File(directory, placeId.replaceAll("[^A-Za-z0-9_-]", "_") + ".jpg");
+    }
+}
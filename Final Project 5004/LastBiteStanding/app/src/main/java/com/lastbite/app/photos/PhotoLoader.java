@@ -0,0 +1,439 @@
+/**
+ * Loads restaurant photos for the cards on screen within a fixed memory budget.
+ *
+ * <p>A photo goes through three levels. Bitmaps decoded at the exact size of a card are kept in
+ * a {@link ByteBoundedLruCache} bounded by bytes, an eighth of the app's heap class, so a
+ * low-end device never holds more photos than it can afford. Downloaded photos are kept in a
+ * {@link PhotoDiskCache}, decoded with a power-of-two subsampling factor and then scaled to the
+ * card, so a decode never allocates the full-size image. Only then is the Places API asked,
+ * first for the place's photo metadata and then for the photo itself; search requests do not
+ * ask for photo metadata, so only cards that actually reach the screen cost a photo lookup.
+ * Photos are downloaded at {@link #DOWNLOAD_MAX_WIDTH} whatever the card size, so the stored
+ * file serves every card that shows the place. The gateway never answers a metadata lookup
+ * from its details cache, so a place is remembered as having no photo only after the Places
+ * API said so.</p>
+ *
+ * <p>Every load returns a {@link PhotoRequest}. Cancelling it, e.g. when a card is swiped away,
+ * cancels its Places requests, drops its queued decode and stops a running decode at the next
+ * step. Metadata requests, downloads and decodes are timed in the {@link PerfTracer}, and the
+ * memory and hit counts are available through {@link #formatStats()}. The memory cache is
+ * trimmed when the system runs low on memory.</p>
+ *
+ * <p>Loads are started, cancelled and delivered on the main thread.</p>
+ */
+package com.lastbite.app.photos;
+
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import com.google.android.gms.tasks.CancellationTokenSource;
+import com.google.android.libraries.places.api.model.PhotoMetadata;
+import com.google.android.libraries.places.api.model.Place;
+import com.google.android.libraries.places.api.net.FetchPhotoRequest;
+import com.google.android.libraries.places.api.net.FetchPlaceRequest;
+import com.lastbite.app.places.PlacesGateway;
+import com.lastbite.app.trace.PerfTracer;
+import com.lastbite.core.cache.ByteBoundedLruCache;
+import com.lastbite.core.photo.PhotoSizing;
+import com.lastbite.core.trace.TraceStage;
+import java.io.File;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PhotoLoader implements ComponentCallbacks2 {
+    /** Share of the app's heap class given to decoded photos */
+    public static final int MEMORY_CACHE_DIVISOR = 8;
+
+    /** Threads decoding and writing photos */
+    public static final int DECODE_THREADS = 2;
+
+    /** Width photos are downloaded at, enough for a full-width card on a large phone */
+    public static final int DOWNLOAD_MAX_WIDTH = 1080;
+
+    /** Directory, below the app's cache directory, that photos are stored in */
+    private static final String DISK_DIRECTORY = "photos";
+
+    /** The only place field a photo lookup needs */
+    private static final List<Place.Field> PHOTO_FIELDS =
+            Collections.singletonList(Place.Field.PHOTO_METADATAS);
+
+    private static PhotoLoader instance;
+
+    /**
+     * Receives a loaded photo.
+     */
+    public interface Target {
+        /**
+         * Called on the main thread with the photo, unless the load was cancelled.
+         *
+         * @param photo The photo, exactly the requested size
+         */
+        void onPhotoLoaded(Bitmap photo);
+    }
+
+    /**
+     * A photo load in progress. Cancelling it stops its network requests and its decode, and
+     * its target is never called afterwards.
+     */
+    public final class PhotoRequest {
+        private final String placeId;
+        private final int width;
+        private final int height;
+        private final Target target;
+        private final CancellationTokenSource cancellation = new CancellationTokenSource();
+        private volatile boolean done;
+        private volatile Future<?> work;
+
+        private PhotoRequest(String placeId, int width, int height, Target target) {
+            this.placeId = placeId;
+            this.width = width;
+            this.height = height;
+            this.target = target;
+        }
+
+        /**
+         * Cancels the load if it has not finished yet.
+         */
+        public void cancel() {
+            if (done) {
+                return;
+            }
+            done = true;
+            cancelledCount.incrementAndGet();
+            cancellation.cancel();
+            Future<?> running = work;
+            if (running != null) {
+                running.cancel(false);
+            }
+        }
+
+        /** @return Whether the load was cancelled or has finished */
+        public boolean isDone() { return done; }
+
+        /**
+         * Hands the photo to the target on the main thread, unless the load was cancelled.
+         *
+         * @param photo The photo, or null if there is none
+         */
+        private void deliver(Bitmap photo) {
+            mainHandler.post(() -> {
+                if (done) {
+                    return;
+                }
+                done = true;
+                if (photo != null) {
+                    target.onPhotoLoaded(photo);
+                }
+            });
+        }
+
+        /**
+         * Returns the key of the photo in the memory cache.
+         *
+         * @return The place id and the size
+         */
+        private String memoryKey() {
+            return placeId + "@" + width + "x" + height;
+        }
+    }
+
+    private final Context application;
+    private final ByteBoundedLruCache<String, Bitmap> memoryCache;
+    private final PhotoDiskCache diskCache;
+    private final ExecutorService decodeExecutor = Executors.newFixedThreadPool(DECODE_THREADS);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /** Places that have no photo, so they are not asked again; main thread only */
+    private final Set<String> placesWithoutPhotos = new HashSet<>();
+
+    private final AtomicLong diskHitCount = new AtomicLong();
+    private final AtomicLong downloadCount = new AtomicLong();
+    private final AtomicLong cancelledCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    /**
+     * Returns the process-wide loader, creating it on first use.
+     *
+     * @param context Any context; only the application context is kept
+     * @return The shared loader
+     */
+    public static synchronized PhotoLoader getInstance(Context context) {
+        if (instance == null) {
+            Context application = context.getApplicationContext();
+            ActivityManager activityManager =
+                    (ActivityManager) application.getSystemService(Context.ACTIVITY_SERVICE);
+            long maxBytes = (long) activityManager.getMemoryClass() * 1024 * 1024 / MEMORY_CACHE_DIVISOR;
+            instance = new PhotoLoader(application, maxBytes,
+                    new PhotoDiskCache(new File(application.getCacheDir(), DISK_DIRECTORY),
+                            PhotoDiskCache.DEFAULT_MAX_BYTES));
+            application.registerComponentCallbacks(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Constructs a loader.
+     *
+     * @param application    The application context, used to reach the Places gateway
+     * @param memoryMaxBytes The byte budget of decoded photos in memory
+     * @param diskCache      The cache of downloaded photos
+     */
+    PhotoLoader(Context application, long memoryMaxBytes, PhotoDiskCache diskCache) {
+        this.application = application;
+        this.memoryCache = new ByteBoundedLruCache<>(memoryMaxBytes, Bitmap::getAllocationByteCount);
+        this.diskCache = diskCache;
+    }
+
+    /**
+     * Starts loading the photo of a place at a given size. A photo already in memory is
+     * delivered before this method returns.
+     *
+     * @param placeId The Google Places id
+     * @param width   The width the photo is shown at, in pixels
+     * @param height  The height the photo is shown at, in pixels
+     * @param target  Receives the photo
+     * @return The load, to cancel it when the photo is no longer needed
+     */
+    public PhotoRequest load(String placeId, int width, int height, Target target) {
+        PhotoRequest request = new PhotoRequest(placeId, width, height, target);
+        Bitmap cached = memoryCache.get(request.memoryKey());
+        if (cached != null) {
+            request.done = true;
+            target.onPhotoLoaded(cached);
+            return request;
+        }
+        if (placesWithoutPhotos.contains(placeId)) {
+            request.done = true;
+            return request;
+        }
+        request.work = decodeExecutor.submit(() -> {
+            try {
+                File file = diskCache.get(placeId);
+                if (file == null) {
+                    mainHandler.post(() -> fetchMetadata(request));
+                    return;
+                }
+                diskHitCount.incrementAndGet();
+                PerfTracer.Span span = PerfTracer.getInstance().begin(TraceStage.PHOTO_DECODE);
+                Bitmap photo;
+                try {
+                    photo = decode(file, request);
+                } finally {
+                    span.end();
+                }
+                finish(request, photo);
+            } catch (RuntimeException e) {
+                fail(request, e);
+            }
+        });
+        return request;
+    }
+
+    /**
+     * Asks the Places API for a place's photo metadata, then downloads its first photo.
+     *
+     * @param request The load
+     */
+    private void fetchMetadata(PhotoRequest request) {
+        if (request.done) {
+            return;
+        }
+        PerfTracer.Span span = PerfTracer.getInstance().begin(TraceStage.PHOTO_METADATA);
+        PlacesGateway.getInstance(application)
+                .fetchPlace(FetchPlaceRequest.builder(request.placeId, PHOTO_FIELDS)
+                        .setCancellationToken(request.cancellation.getToken())
+                        .build())
+                .addOnSuccessListener(response -> {
+                    span.end();
+                    List<PhotoMetadata> photos = response.getPlace().getPhotoMetadatas();
+                    if (photos == null || photos.isEmpty()) {
+                        placesWithoutPhotos.add(request.placeId);
+                        request.deliver(null);
+                        return;
+                    }
+                    fetchPhoto(request, photos.get(0));
+                })
+                .addOnFailureListener(exception -> {
+                    span.end();
+                    fail(request, exception);
+                });
+    }
+
+    /**
+     * Downloads a photo at {@link #DOWNLOAD_MAX_WIDTH}, stores it on disk and scales it to the
+     * card's size.
+     *
+     * @param request  The load
+     * @param metadata The photo to download
+     */
+    private void fetchPhoto(PhotoRequest request, PhotoMetadata metadata) {
+        if (request.done) {
+            return;
+        }
+        PerfTracer.Span span = PerfTracer.getInstance().begin(TraceStage.PHOTO_FETCH);
+        PlacesGateway.getInstance(application)
+                .fetchPhoto(FetchPhotoRequest.builder(metadata)
+                        .setMaxWidth(DOWNLOAD_MAX_WIDTH)
+                        .setCancellationToken(request.cancellation.getToken())
+                        .build())
+                .addOnSuccessListener(response -> {
+                    span.end();
+                    downloadCount.incrementAndGet();
+                    Bitmap downloaded = response.getBitmap();
+                    request.work = decodeExecutor.submit(() -> {
+                        try {
+                            diskCache.put(request.placeId, downloaded);
+                            finish(request, request.done ? null
+                                    : scaleToFill(downloaded, request.width, request.height));
+                        } catch (RuntimeException e) {
+                            fail(request, e);
+                        }
+                    });
+                })
+                .addOnFailureListener(exception -> {
+                    span.end();
+                    fail(request, exception);
+                });
+    }
+
+    /**
+     * Decodes a stored photo at a load's size: subsampled while reading, then scaled to fill.
+     * Gives up between steps once the load is cancelled.
+     *
+     * @param file    The stored photo
+     * @param request The load
+     * @return The photo at exactly the requested size, or null if cancelled or unreadable
+     */
+    private Bitmap decode(File file, PhotoRequest request) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getPath(), options);
+        if (request.done || options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = PhotoSizing.sampleSize(options.outWidth, options.outHeight,
+                request.width, request.height);
+        Bitmap sampled = BitmapFactory.decodeFile(file.getPath(), options);
+        if (request.done || sampled == null) {
+            return null;
+        }
+        return scaleToFill(sampled, request.width, request.height);
+    }
+
+    /**
+     * Caches a decoded photo and hands it to the load's target.
+     *
+     * @param request The load
+     * @param photo   The photo, or null if there is none
+     */
+    private void finish(PhotoRequest request, Bitmap photo) {
+        if (photo != null) {
+            memoryCache.put(request.memoryKey(), photo);
+        }
+        request.deliver(photo);
+    }
+
+    /**
+     * Records a failed load. A cancelled load is not a failure.
+     *
+     * @param request   The load
+     * @param exception Why it failed
+     */
+    private void fail(PhotoRequest request, Exception exception) {
+        if (request.done) {
+            return;
+        }
+        failedCount.incrementAndGet();
+        Log.d("Photos", "Photo lookup failed: " + exception.getMessage());
+        request.deliver(null);
+    }
+
+    /**
+     * Scales and centre-crops a bitmap to exactly fill a size.
+     *
+     * @param source The bitmap
+     * @param width  The target width
+     * @param height The target height
+     * @return A bitmap of exactly the target size, or {@code source} if it already has it
+     */
+    static Bitmap scaleToFill(Bitmap source, int width, int height) {
+        if (source.getWidth() == width && source.getHeight() == height) {
+            return source;
+        }
+        float scale = Math.max((float) width / source.getWidth(), (float) height / source.getHeight());
+        Matrix matrix = new Matrix();
+        matrix.setScale(scale, scale);
+        matrix.postTranslate((width - source.getWidth() * scale) / 2,
+                (height - source.getHeight() * scale) / 2);
+        Bitmap result = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        new Canvas(result).drawBitmap(source, matrix, new Paint(Paint.FILTER_BITMAP_FLAG));
+        return result;
+    }
+
+    /**
+     * Formats the memory use and load counts for the debug HUD.
+     *
+     * @return One line per metric
+     */
+    public String formatStats() {
+        return String.format(Locale.US,
+                "photos  %d in memory, %.1f of %.1f MB%n"
+                        + "        %d hits, %d misses, %d evicted%n"
+                        + "        %d from disk, %d downloaded, %d cancelled, %d failed%n",
+                memoryCache.size(),
+                memoryCache.getSizeBytes() / (1024.0 * 1024),
+                memoryCache.getMaxBytes() / (1024.0 * 1024),
+                memoryCache.getHitCount(), memoryCache.getMissCount(), memoryCache.getEvictionCount(),
+                diskHitCount.get(), downloadCount.get(), cancelledCount.get(), failedCount.get());
+    }
+
+    /**
+     * Gives memory back when the system asks for it: half the photos while the app is
+     * running low, all of them once it is in the background.
+     *
+     * @param level The memory trim level
+     */
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_BACKGROUND) {
+            memoryCache.trimTo(0);
+        } else if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            memoryCache.trimTo(memoryCache.getMaxBytes() / 2);
+        }
+    }
+
+    /**
+     * Drops every photo from memory.
+     */
+    @Override
+    public void onLowMemory() {
+        memoryCache.trimTo(0);
+    }
+
+    /**
+     * Not used; photos do not depend on the configuration.
+     *
+     * @param newConfig The new configuration
+     */
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Searches for restaurants around a location, growing the search radius in steps until a
+ * query has enough candidates.
+ *
+ * <p>A fixed search area is too large in dense downtowns and too small in suburbs, where a
+ * niche cuisine such as Kosher or Halal often has nothing within two kilometres. Each round
+ * searches the bounds of the next radius in {@link #RADII_METERS} and keeps only candidates
+ * whose haversine distance from the centre is within that radius, because the backends treat
+ * the bounds as a location bias and may return places further away. The search stops at the
+ * first radius with enough candidates; if even the largest radius falls short, whatever it
+ * found is used.</p>
+ *
+ * <p>Every round goes through the session's {@link PlacesRequestCoalescer}, so players sharing
+ * a cuisine share each round's request, and the first round uses exactly the bounds the
+ * {@link RestaurantPrefetcher} searched. Must be used from the main thread.</p>
+ */
+package com.lastbite.app.places;
+
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.android.libraries.places.api.model.Place;
+import com.lastbite.app.geo.SearchBounds;
+import com.lastbite.core.geo.GeoMath;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class AdaptiveRadiusSearch {
+    /** Search radii tried in order; the first equals {@link SearchBounds#DEFAULT_RADIUS_METERS} */
+    public static final double[] RADII_METERS = {SearchBounds.DEFAULT_RADIUS_METERS, 5000, 10000, 20000};
+
+    /**
+     * The outcome of an adaptive search.
+     */
+    public static class Result {
+        /** Candidates within {@link #radiusMeters}, best match first */
+        public final List<Place> candidates;
+
+        /** The radius the search stopped at */
+        public final double radiusMeters;
+
+        /** How many times the radius had to grow, 0 if the first radius was enough */
+        public final int expansionRounds;
+
+        Result(List<Place> candidates, double radiusMeters, int expansionRounds) {
+            this.candidates = candidates;
+            this.radiusMeters = radiusMeters;
+            this.expansionRounds = expansionRounds;
+        }
+    }
+
+    private final PlacesRequestCoalescer coalescer;
+    private final double latitude;
+    private final double longitude;
+
+    /**
+     * Constructs an adaptive search around a location.
+     *
+     * @param coalescer The session's coalescer, used for every round
+     * @param latitude  Latitude of the search centre
+     * @param longitude Longitude of the search centre
+     */
+    public AdaptiveRadiusSearch(PlacesRequestCoalescer coalescer, double latitude, double longitude) {
+        this.coalescer = coalescer;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    /**
+     * Searches with growing radii until at least {@code neededCandidates} candidates are found.
+     *
+     * @param query            The search query, e.g. "Kosher restaurant"
+     * @param neededCandidates The number of candidates wanted
+     * @return A task resolving to the candidates and the number of expansion rounds
+     */
+    public Task<Result> search(String query, int neededCandidates) {
+        return searchRound(query, neededCandidates, 0);
+    }
+
+    /**
+     * Runs one round and, if it came up short, the next.
+     *
+     * @param query            The search query
+     * @param neededCandidates The number of candidates wanted
+     * @param round            The index into {@link #RADII_METERS}
+     * @return A task resolving to the result of this round or a later one
+     */
+    private Task<Result> searchRound(String query, int neededCandidates, int round) {
+        double radius = RADII_METERS[round];
+        return coalescer.search(query, SearchBounds.around(latitude, longitude, radius))
+                .continueWithTask(task -> {
+                    List<Place> inRange = withinRadius(task.getResult(), radius);
+                    if (inRange.size() >= neededCandidates || round == RADII_METERS.length - 1) {
+                        return Tasks.forResult(new Result(inRange, radius, round));
+                    }
+                    return searchRound(query, neededCandidates, round + 1);
+                });
+    }
+
+    /**
+     * Keeps the candidates within a radius of the centre, in their original order.
+     * Candidates without a location are kept, since they cannot be ruled out.
+     *
+     * @param candidates The candidates returned by the backend
+     * @param radius     The radius in metres
+     * @return The candidates in range
+     */
+    private List<Place> withinRadius(List<Place> candidates, double radius) {
+        if (candidates.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Place> inRange = new ArrayList<>(candidates.size());
+        for (Place place : candidates) {
+            if (distanceTo(place) <= radius || place.getLatLng() == null) {
+                inRange.add(place);
+            }
+        }
+        return inRange;
+    }
+
+    /**
+     * Returns the distance of a place from the search centre.
+     *
+     * @param place The place
+     * @return The distance in metres, or {@link Double#NaN} if the place has no location
+     */
+    public double distanceTo(Place place) {
+        LatLng location = place.getLatLng();
+        if (location == null) {
+            return Double.NaN;
+        }
+        return GeoMath.distanceMeters(latitude, longitude, location.latitude, location.longitude);
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Narrows the candidates returned by a restaurant search down to the highly rated ones for the
+ * special pick.
+ *
+ * <p>The candidate budget and the deadline are enforced where the candidates are fetched:
+ * the {@link PlacesRequestCoalescer} asks its {@link RestaurantSearchBackend} for a fixed number of
+ * candidates, and {@link TwoStepSearchBackend} stops waiting for details calls after its deadline.
+ * From whatever arrived, the evaluator keeps the places rated at or above {@code minRating}, or
+ * every place if none reaches it. The game's {@link com.lastbite.core.ranking.RankingEngine}
+ * then chooses among them, weighing rating against distance and variety. This caps both the
+ * API cost and the worst-case latency of the special pick, where the old approach re-queried
+ * until it happened to find a good rating.</p>
+ */
+package com.lastbite.app.places;
+
+import android.util.Log;
+import com.google.android.libraries.places.api.model.Place;
+import com.lastbite.core.ranking.CandidateRanking;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CandidateEvaluator {
+    /** Default minimum rating for a place to count as highly rated */
+    public static final double DEFAULT_MIN_RATING = 4.0;
+
+    private final double minRating;
+
+    /**
+     * Constructs an evaluator with the default rating threshold.
+     */
+    public CandidateEvaluator() {
+        this(DEFAULT_MIN_RATING);
+    }
+
+    /**
+     * Constructs an evaluator with a custom rating threshold.
+     *
+     * @param minRating Minimum rating for a place to be preferred
+     */
+    public CandidateEvaluator(double minRating) {
+        this.minRating = minRating;
+    }
+
+    /**
+     * Keeps the candidates rated at or above the threshold, logging when none reached it.
+     *
+     * @param candidates The candidates to filter
+     * @return The highly rated candidates, or every candidate if none is highly rated
+     */
+    public List<Place> highlyRated(List<Place> candidates) {
+        List<Place> highlyRated = highlyRatedOrAll(candidates, minRating);
+        if (highlyRated == candidates && !candidates.isEmpty()) {
+            Log.d("Places", "No candidate rated " + minRating + "+, ranking all candidates");
+        }
+        return highlyRated;
+    }
+
+    /**
+     * Keeps the places rated at or above a threshold. If no place reaches it, the list is
+     * returned unchanged so the best available place can still be chosen from it.
+     *
+     * @param places    The fetched places; null entries and unrated places are allowed
+     * @param minRating The threshold
+     * @return The places reaching the threshold in their original order, or {@code places}
+     */
+    static List<Place> highlyRatedOrAll(List<Place> places, double minRating) {
+        List<Place> highlyRated = new ArrayList<>(places.size());
+        for (Place place : places) {
+            if (place != null && CandidateRanking.meetsThreshold(place.getRating(), minRating)) {
+                highlyRated.add(place);
+            }
+        }
+        return highlyRated.isEmpty() ? places : highlyRated;
+    }
+}
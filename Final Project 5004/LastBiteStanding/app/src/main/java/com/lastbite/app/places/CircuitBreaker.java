@@ -0,0 +1,116 @@
+/**
+ * A circuit breaker that stops sending requests to a failing service.
+ *
+ * <p>The breaker starts {@link State#CLOSED} and lets every request through. After
+ * {@code failureThreshold} consecutive failures it trips to {@link State#OPEN} and refuses all
+ * requests for {@code openDurationMs}. It then moves to {@link State#HALF_OPEN} and lets a
+ * single probe request through: if the probe succeeds the breaker closes again, if it fails
+ * the breaker re-opens for another full period.</p>
+ *
+ * <p>Time is passed in by the caller so the breaker can be tested without a real clock.
+ * Methods are synchronized.</p>
+ */
+package com.lastbite.app.places;
+
+public class CircuitBreaker {
+
+    /** The states of the breaker */
+    public enum State {
+        /** Requests flow normally */
+        CLOSED,
+        /** Requests are refused until the open period ends */
+        OPEN,
+        /** One probe request is allowed to test whether the service recovered */
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtMs;
+    private boolean probeInFlight;
+
+    /**
+     * Constructs a closed breaker.
+     *
+     * @param failureThreshold Consecutive failures that trip the breaker
+     * @param openDurationMs   How long the breaker stays open before probing
+     */
+    public CircuitBreaker(int failureThreshold, long openDurationMs) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+    }
+
+    /**
+     * Decides whether a request may be sent. In the half-open state only one probe is allowed
+     * until its outcome is recorded.
+     *
+     * @param nowMs The current time in milliseconds
+     * @return true if the request may proceed
+     */
+    public synchronized boolean allowRequest(long nowMs) {
+        if (state == State.OPEN && nowMs - openedAtMs >= openDurationMs) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Records a successful request, closing the breaker.
+     */
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Records a failed request. Trips the breaker once the threshold is reached,
+     * or immediately if the failed request was the half-open probe.
+     *
+     * @param nowMs The current time in milliseconds
+     */
+    public synchronized void recordFailure(long nowMs) {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtMs = nowMs;
+            probeInFlight = false;
+        }
+    }
+
+    /**
+     * Records that an allowed request ended without an outcome, e.g. because it was cancelled.
+     * Frees the half-open probe slot without changing the state.
+     */
+    public synchronized void recordIgnored() {
+        probeInFlight = false;
+    }
+
+    /**
+     * Returns the current state. An open breaker whose period has ended is reported as
+     * half-open.
+     *
+     * @param nowMs The current time in milliseconds
+     * @return The state
+     */
+    public synchronized State getState(long nowMs) {
+        if (state == State.OPEN && nowMs - openedAtMs >= openDurationMs) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * A {@link RestaurantSearchBackend} that tries a primary backend and answers from a fallback
+ * backend when the primary fails or finds nothing.
+ *
+ * <p>Used to fill cards from the offline dataset when the Places API is unreachable, rate
+ * limited or behind an open circuit breaker. Searches cancelled by their caller are not
+ * retried on the fallback.</p>
+ */
+package com.lastbite.app.places;
+
+import android.util.Log;
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.Task;
+import com.google.android.libraries.places.api.model.Place;
+import com.google.android.libraries.places.api.model.RectangularBounds;
+import java.util.List;
+
+public class FallbackSearchBackend implements RestaurantSearchBackend {
+    private final RestaurantSearchBackend primary;
+    private final RestaurantSearchBackend fallback;
+    private int fallbackCount;
+
+    /**
+     * Constructs a fallback backend.
+     *
+     * @param primary  The backend tried first
+     * @param fallback The backend used when the primary fails or finds nothing
+     */
+    public FallbackSearchBackend(RestaurantSearchBackend primary, RestaurantSearchBackend fallback) {
+        this.primary = primary;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Runs the search on the primary backend and falls back if needed.
+     *
+     * @param query      The search query, e.g. "Italian restaurant"
+     * @param bounds     The geographical bounds used as a location bias
+     * @param maxResults The maximum number of candidates to return
+     * @param cancellationToken Token that cancels the search, may be null
+     * @return A task resolving to the primary's result, or the fallback's result
+     */
+    @Override
+    public Task<List<Place>> searchRestaurants(String query, RectangularBounds bounds, int maxResults,
+                                               CancellationToken cancellationToken) {
+        return primary.searchRestaurants(query, bounds, maxResults, cancellationToken)
+                .continueWithTask(task -> {
+                    if (cancellationToken != null && cancellationToken.isCancellationRequested()) {
+                        return task;
+                    }
+                    if (task.isSuccessful() && !task.getResult().isEmpty()) {
+                        return task;
+                    }
+                    fallbackCount++;
+                    Log.d("Places", "Falling back to offline data for \"" + query + "\": "
+                            + (task.isSuccessful() ? "no results" : task.getException()));
+                    return fallback.searchRestaurants(query, bounds, maxResults, cancellationToken);
+                });
+    }
+
+    /**
+     * Returns how many searches were answered by the fallback backend.
+     *
+     * @return The number of fallback searches
+     */
+    public int getFallbackCount() {
+        return fallbackCount;
+    }
+}
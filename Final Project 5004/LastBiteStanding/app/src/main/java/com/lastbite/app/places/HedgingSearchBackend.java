@@ -0,0 +1,221 @@
+/**
+ * A {@link RestaurantSearchBackend} decorator that hedges slow searches to cut tail latency.
+ *
+ * <p>Each search is sent to the wrapped backend as usual. If it has not completed after the
+ * hedge delay, an identical duplicate is sent. Whichever copy succeeds first answers the search.
+ * If the original request wins, the hedge is cancelled; if the hedge wins, the original request
+ * is left to finish and its result is dropped. The hedge delay is the
+ * {@link #DEFAULT_HEDGE_PERCENTILE} of recent search latencies from a shared
+ * {@link LatencyHistogram}, so on a congested network hedges go out later and on a fast one
+ * earlier; until enough samples exist a fixed default delay is used. Only original requests are
+ * sampled, from sending to completing, and letting them finish after losing keeps the slowest
+ * ones in the histogram: cutting them short at the moment the hedge won would record a shorter
+ * time than the request really took and pull the hedge delay down. At most
+ * {@link #DEFAULT_MAX_HEDGE_FRACTION} of searches are hedged, which bounds the extra load on the
+ * Places quota.</p>
+ *
+ * <p>Methods must be called on the main thread, which is where Places results are delivered.</p>
+ */
+package com.lastbite.app.places;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.CancellationTokenSource;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.libraries.places.api.model.Place;
+import com.google.android.libraries.places.api.model.RectangularBounds;
+import java.util.List;
+
+public class HedgingSearchBackend implements RestaurantSearchBackend {
+    /** Latency percentile after which a duplicate request is sent */
+    public static final double DEFAULT_HEDGE_PERCENTILE = 0.95;
+
+    /** Hedge delay used until the histogram holds {@link #MIN_SAMPLES} samples */
+    public static final long DEFAULT_HEDGE_DELAY_MS = 1500;
+
+    /** Number of samples needed before the hedge delay adapts */
+    public static final int MIN_SAMPLES = 20;
+
+    /** Lower and upper bounds for the adaptive hedge delay */
+    public static final long MIN_HEDGE_DELAY_MS = 200;
+    public static final long MAX_HEDGE_DELAY_MS = 5000;
+
+    /** Maximum share of searches that may be hedged */
+    public static final double DEFAULT_MAX_HEDGE_FRACTION = 0.2;
+
+    private final RestaurantSearchBackend delegate;
+    private final LatencyHistogram latencies;
+    private final Handler handler;
+    private int searchCount;
+    private int hedgeCount;
+    private int hedgeWinCount;
+
+    /**
+     * Constructs a hedging backend.
+     *
+     * @param delegate  The backend that runs the actual searches
+     * @param latencies The histogram tracking search latencies, usually shared process-wide
+     */
+    public HedgingSearchBackend(RestaurantSearchBackend delegate, LatencyHistogram latencies) {
+        this.delegate = delegate;
+        this.latencies = latencies;
+        this.handler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Runs the search and sends a hedge if it is slower than the current hedge delay.
+     *
+     * @param query      The search query, e.g. "Italian restaurant"
+     * @param bounds     The geographical bounds used as a location bias
+     * @param maxResults The maximum number of candidates to return
+     * @param cancellationToken Token that cancels both copies of the search, may be null
+     * @return A task resolving to the result of the first copy that succeeds
+     */
+    @Override
+    public Task<List<Place>> searchRestaurants(String query, RectangularBounds bounds, int maxResults,
+                                               CancellationToken cancellationToken) {
+        searchCount++;
+        HedgedSearch search = new HedgedSearch(query, bounds, maxResults);
+        if (cancellationToken != null) {
+            cancellationToken.onCanceledRequested(search::cancelAll);
+        }
+        search.start();
+        return search.result.getTask();
+    }
+
+    /**
+     * Returns the current hedge delay derived from the latency histogram.
+     *
+     * @return The delay in milliseconds after which a hedge is sent
+     */
+    public long getHedgeDelayMs() {
+        if (latencies.getSampleCount() < MIN_SAMPLES) {
+            return DEFAULT_HEDGE_DELAY_MS;
+        }
+        long delay = latencies.percentile(DEFAULT_HEDGE_PERCENTILE);
+        return Math.max(MIN_HEDGE_DELAY_MS, Math.min(MAX_HEDGE_DELAY_MS, delay));
+    }
+
+    /**
+     * Returns how many hedges were sent.
+     *
+     * @return The number of duplicate requests
+     */
+    public int getHedgeCount() {
+        return hedgeCount;
+    }
+
+    /**
+     * Returns how many hedges finished before the original request.
+     *
+     * @return The number of searches won by the hedge
+     */
+    public int getHedgeWinCount() {
+        return hedgeWinCount;
+    }
+
+    /**
+     * One search together with its optional hedge.
+     */
+    private class HedgedSearch {
+        final String query;
+        final RectangularBounds bounds;
+        final int maxResults;
+        final TaskCompletionSource<List<Place>> result = new TaskCompletionSource<>();
+        final CancellationTokenSource primaryCancellation = new CancellationTokenSource();
+        final CancellationTokenSource hedgeCancellation = new CancellationTokenSource();
+        final Runnable sendHedge = this::sendHedge;
+        long startedAt;
+        boolean hedged;
+        int failures;
+
+        HedgedSearch(String query, RectangularBounds bounds, int maxResults) {
+            this.query = query;
+            this.bounds = bounds;
+            this.maxResults = maxResults;
+        }
+
+        /**
+         * Sends the original request and schedules the hedge.
+         */
+        void start() {
+            startedAt = SystemClock.elapsedRealtime();
+            send(primaryCancellation, false);
+            if (mayHedge()) {
+                handler.postDelayed(sendHedge, getHedgeDelayMs());
+            }
+        }
+
+        /**
+         * Returns whether another hedge stays within {@link #DEFAULT_MAX_HEDGE_FRACTION}.
+         * Checked again when the hedge is due, since searches running at the same time
+         * all schedule their hedge before any of them is sent.
+         *
+         * @return true if a hedge may be sent
+         */
+        boolean mayHedge() {
+            return hedgeCount < searchCount * DEFAULT_MAX_HEDGE_FRACTION;
+        }
+
+        /**
+         * Sends the duplicate request if the search is still running and the hedge budget allows.
+         */
+        void sendHedge() {
+            if (result.getTask().isComplete() || !mayHedge()) {
+                return;
+            }
+            hedged = true;
+            hedgeCount++;
+            send(hedgeCancellation, true);
+        }
+
+        /**
+         * Sends one copy of the search and wires up its completion. The latency of the original
+         * request is recorded whenever it succeeds, whether it won or not; the hedge's never is.
+         *
+         * @param own     The cancellation source of this copy
+         * @param isHedge Whether this copy is the hedge
+         */
+        void send(CancellationTokenSource own, boolean isHedge) {
+            delegate.searchRestaurants(query, bounds, maxResults, own.getToken())
+                    .addOnCompleteListener(task -> {
+                        if (task.isSuccessful()) {
+                            boolean won = result.trySetResult(task.getResult());
+                            if (!isHedge) {
+                                latencies.record(SystemClock.elapsedRealtime() - startedAt);
+                            }
+                            if (won) {
+                                handler.removeCallbacks(sendHedge);
+                                if (isHedge) {
+                                    hedgeWinCount++;
+                                } else {
+                                    hedgeCancellation.cancel();
+                                }
+                            }
+                            return;
+                        }
+
+                        failures++;
+                        boolean otherPending = hedged && failures < 2;
+                        if (!otherPending) {
+                            handler.removeCallbacks(sendHedge);
+                            Exception exception = task.getException();
+                            result.trySetException(exception != null
+                                    ? exception : new IllegalStateException("Search cancelled"));
+                        }
+                    });
+        }
+
+        /**
+         * Cancels both copies of the search.
+         */
+        void cancelAll() {
+            handler.removeCallbacks(sendHedge);
+            primaryCancellation.cancel();
+            hedgeCancellation.cancel();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * A rolling window of request latencies used to derive adaptive timeouts.
+ *
+ * <p>The histogram keeps the most recent {@code windowSize} samples in a ring buffer, so old
+ * network conditions age out as new requests complete. Percentiles are computed on demand by
+ * sorting a copy of the window, which is cheap for the few hundred samples a game produces.</p>
+ *
+ * <p>All methods are synchronized so one histogram can be shared by every search of the process.</p>
+ */
+package com.lastbite.app.places;
+
+import java.util.Arrays;
+
+public class LatencyHistogram {
+    /** Default number of samples kept in the window */
+    public static final int DEFAULT_WINDOW_SIZE = 200;
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    /**
+     * Constructs an empty histogram.
+     *
+     * @param windowSize The number of most recent samples to keep. Must be positive.
+     */
+    public LatencyHistogram(int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be positive");
+        }
+        samples = new long[windowSize];
+    }
+
+    /**
+     * Records one latency sample, replacing the oldest sample once the window is full.
+     *
+     * @param latencyMs The observed latency in milliseconds
+     */
+    public synchronized void record(long latencyMs) {
+        samples[next] = latencyMs;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    /**
+     * Returns the latency below which the given fraction of samples fall (nearest-rank method).
+     *
+     * @param percentile The percentile as a fraction between 0 and 1, e.g. 0.95
+     * @return The percentile latency in milliseconds, or -1 if no samples were recorded
+     */
+    public synchronized long percentile(double percentile) {
+        if (count == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile * count);
+        return sorted[Math.max(0, Math.min(count - 1, rank - 1))];
+    }
+
+    /**
+     * Returns how many samples are currently in the window.
+     *
+     * @return The number of samples
+     */
+    public synchronized int getSampleCount() {
+        return count;
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * A process-wide, size-bounded LRU cache of fetched {@link Place} details keyed by place id.
+ *
+ * <p>The cache is shared by every {@link PlacesRequestCoalescer}, so it outlives a single game:
+ * after "Play Again" in the same area, every card whose place was fetched before is served
+ * from memory without a second {@code fetchPlace} round trip. Once the cache holds
+ * {@link #DEFAULT_MAX_ENTRIES} places, the least recently used place is dropped.</p>
+ *
+ * <p>Hit and miss counts are tracked for diagnostics. All methods are thread-safe.</p>
+ */
+package com.lastbite.app.places;
+
+import com.google.android.libraries.places.api.model.Place;
+import com.lastbite.core.cache.Cache;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class PlaceDetailsCache implements Cache<String, Place> {
+    /** Default number of places kept in memory */
+    public static final int DEFAULT_MAX_ENTRIES = 128;
+
+    private static PlaceDetailsCache instance;
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, Place> places;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Returns the process-wide cache, creating it on first use.
+     *
+     * @return The shared cache
+     */
+    public static synchronized PlaceDetailsCache getInstance() {
+        if (instance == null) {
+            instance = new PlaceDetailsCache(DEFAULT_MAX_ENTRIES);
+        }
+        return instance;
+    }
+
+    /**
+     * Constructs a cache holding at most {@code maxEntries} places.
+     *
+     * @param maxEntries The maximum number of cached places, must be at least 1
+     * @throws IllegalArgumentException if maxEntries is less than 1
+     */
+    public PlaceDetailsCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        this.places = new LinkedHashMap<String, Place>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Place> eldest) {
+                return size() > PlaceDetailsCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached place for an id and marks it as most recently used.
+     *
+     * @param placeId The Google Places id
+     * @return The cached place, or null on a miss
+     */
+    @Override
+    public synchronized Place get(String placeId) {
+        Place place = places.get(placeId);
+        if (place != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return place;
+    }
+
+    /**
+     * Stores a fetched place, evicting the least recently used place if the cache is full.
+     *
+     * @param placeId The Google Places id
+     * @param place   The fetched place
+     */
+    @Override
+    public synchronized void put(String placeId, Place place) {
+        if (placeId != null && place != null) {
+            places.put(placeId, place);
+        }
+    }
+
+    /**
+     * Removes every cached place and resets the counters.
+     */
+    @Override
+    public synchronized void clear() {
+        places.clear();
+        hitCount = 0;
+        missCount = 0;
+    }
+
+    /**
+     * Returns the number of cached places.
+     *
+     * @return The current size of the cache
+     */
+    @Override
+    public synchronized int size() {
+        return places.size();
+    }
+
+    /**
+     * Returns how many lookups were answered from the cache.
+     *
+     * @return The hit count
+     */
+    @Override
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns how many lookups found nothing in the cache.
+     *
+     * @return The miss count
+     */
+    @Override
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+}
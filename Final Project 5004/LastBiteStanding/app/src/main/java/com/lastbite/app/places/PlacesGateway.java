@@ -0,0 +1,380 @@
+/**
+ * The single entry point through which the app sends Places requests.
+ *
+ * <p>The gateway wraps one process-wide {@link PlacesClient} with a {@link TokenBucket} rate
+ * limiter and a {@link CircuitBreaker}. A request is refused without touching the network when
+ * the circuit is open; the returned task then fails with a {@link PlacesGatewayException}, so
+ * callers fall back to their cached or offline data right away instead of waiting for yet
+ * another error. When the bucket is empty the request waits for its token instead, so the
+ * fan-out of a large game (searches per cuisine and radius, hedges, refreshes, details and
+ * photo calls) is spread over time rather than dropped. Only a request that would wait longer
+ * than {@link #DEFAULT_MAX_WAIT_MS}, which is shorter than the game's fetch deadline, is
+ * refused as rate limited. Place details that are already in the
+ * {@link PlaceDetailsCache} are still served while the circuit is open, as long as the request
+ * asks only for fields the cache holds.</p>
+ *
+ * <p>The breaker state and the request counters can be read at any time or formatted with
+ * {@link #formatStats()}, and a {@link StateListener} is told about every state change, e.g.
+ * for a diagnostics overlay.
+ * Requests and listener callbacks happen on the main thread.</p>
+ */
+package com.lastbite.app.places;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.android.libraries.places.api.Places;
+import com.google.android.libraries.places.api.model.Place;
+import com.google.android.libraries.places.api.net.FetchPhotoRequest;
+import com.google.android.libraries.places.api.net.FetchPhotoResponse;
+import com.google.android.libraries.places.api.net.FetchPlaceRequest;
+import com.google.android.libraries.places.api.net.FetchPlaceResponse;
+import com.google.android.libraries.places.api.net.FindAutocompletePredictionsRequest;
+import com.google.android.libraries.places.api.net.FindAutocompletePredictionsResponse;
+import com.google.android.libraries.places.api.net.PlacesClient;
+import com.google.android.libraries.places.api.net.SearchByTextRequest;
+import com.google.android.libraries.places.api.net.SearchByTextResponse;
+import com.lastbite.app.R;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class PlacesGateway {
+    /** Largest burst of requests allowed at once */
+    public static final int DEFAULT_BURST = 12;
+
+    /** Steady request rate allowed once the burst is used up */
+    public static final double DEFAULT_REQUESTS_PER_SECOND = 4;
+
+    /** Consecutive failures that open the circuit */
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+
+    /** How long the circuit stays open before a probe request is allowed */
+    public static final long DEFAULT_OPEN_DURATION_MS = 30_000;
+
+    /** Longest a request waits for a token, well within the game's fetch deadline */
+    public static final long DEFAULT_MAX_WAIT_MS = 3_000;
+
+    private static PlacesGateway instance;
+
+    /**
+     * Receives circuit breaker state changes.
+     */
+    public interface StateListener {
+        /**
+         * Called after the breaker changed state.
+         *
+         * @param state The new state
+         */
+        void onStateChanged(CircuitBreaker.State state);
+    }
+
+    /**
+     * Sends one request to the client.
+     *
+     * @param <T> The response type
+     */
+    private interface Call<T> {
+        Task<T> send();
+    }
+
+    private final PlacesClient placesClient;
+    private final TokenBucket rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final PlaceDetailsCache detailsCache;
+    private final long maxWaitMs;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<StateListener> listeners = new ArrayList<>();
+    private CircuitBreaker.State lastState = CircuitBreaker.State.CLOSED;
+
+    private int sentCount;
+    private int successCount;
+    private int failureCount;
+    private int rateLimitedCount;
+    private int delayedCount;
+    private int shortCircuitedCount;
+    private int servedFromCacheCount;
+
+    /**
+     * Returns the process-wide gateway, initialising the Places SDK and creating the client
+     * on first use.
+     *
+     * @param context Any context; only the application context is kept
+     * @return The shared gateway
+     */
+    public static synchronized PlacesGateway getInstance(Context context) {
+        if (instance == null) {
+            Context application = context.getApplicationContext();
+            if (!Places.isInitialized()) {
+                Places.initializeWithNewPlacesApiEnabled(application, application.getString(R.string.google_maps_key));
+            }
+            instance = new PlacesGateway(Places.createClient(application),
+                    new TokenBucket(DEFAULT_BURST, DEFAULT_REQUESTS_PER_SECOND, SystemClock.elapsedRealtime()),
+                    new CircuitBreaker(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION_MS),
+                    PlaceDetailsCache.getInstance(), DEFAULT_MAX_WAIT_MS);
+        }
+        return instance;
+    }
+
+    /**
+     * Constructs a gateway.
+     *
+     * @param placesClient   The client requests are sent through
+     * @param rateLimiter    The rate limiter consulted before every request
+     * @param circuitBreaker The breaker consulted before every request
+     * @param detailsCache   The cache used to answer details requests while the circuit is open
+     * @param maxWaitMs      The longest a request waits for a token before it is refused
+     */
+    PlacesGateway(PlacesClient placesClient, TokenBucket rateLimiter, CircuitBreaker circuitBreaker,
+                  PlaceDetailsCache detailsCache, long maxWaitMs) {
+        this.placesClient = placesClient;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.detailsCache = detailsCache;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    /**
+     * Sends an autocomplete request through the rate limiter and circuit breaker.
+     *
+     * @param request The request
+     * @return The response task, failing with {@link PlacesGatewayException} if refused
+     */
+    public Task<FindAutocompletePredictionsResponse> findAutocompletePredictions(
+            FindAutocompletePredictionsRequest request) {
+        return execute(() -> placesClient.findAutocompletePredictions(request), request.getCancellationToken());
+    }
+
+    /**
+     * Sends a text search request through the rate limiter and circuit breaker.
+     *
+     * @param request The request
+     * @return The response task, failing with {@link PlacesGatewayException} if refused
+     */
+    public Task<SearchByTextResponse> searchByText(SearchByTextRequest request) {
+        return execute(() -> placesClient.searchByText(request), request.getCancellationToken());
+    }
+
+    /**
+     * Sends a place details request through the rate limiter and circuit breaker. While the
+     * circuit is open, places already in the details cache are returned instead of failing if
+     * the request asks only for {@link RestaurantSearchBackend#PLACE_FIELDS}, the fields cached
+     * places have. Other requests, such as photo lookups, are never answered from the cache.
+     *
+     * @param request The request
+     * @return The response task, failing with {@link PlacesGatewayException} if refused
+     */
+    public Task<FetchPlaceResponse> fetchPlace(FetchPlaceRequest request) {
+        long now = SystemClock.elapsedRealtime();
+        if (circuitBreaker.getState(now) == CircuitBreaker.State.OPEN
+                && RestaurantSearchBackend.PLACE_FIELDS.containsAll(request.getPlaceFields())) {
+            Place cached = detailsCache.get(request.getPlaceId());
+            if (cached != null) {
+                servedFromCacheCount++;
+                return Tasks.forResult(FetchPlaceResponse.newInstance(cached));
+            }
+        }
+        return execute(() -> placesClient.fetchPlace(request), request.getCancellationToken());
+    }
+
+    /**
+     * Sends a photo request through the rate limiter and circuit breaker.
+     *
+     * @param request The request
+     * @return The response task, failing with {@link PlacesGatewayException} if refused
+     */
+    public Task<FetchPhotoResponse> fetchPhoto(FetchPhotoRequest request) {
+        return execute(() -> placesClient.fetchPhoto(request), request.getCancellationToken());
+    }
+
+    /**
+     * Adds a listener for circuit breaker state changes.
+     *
+     * @param listener The listener to add
+     */
+    public void addStateListener(StateListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously added listener.
+     *
+     * @param listener The listener to remove
+     */
+    public void removeStateListener(StateListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the current circuit breaker state.
+     *
+     * @return The state
+     */
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState(SystemClock.elapsedRealtime());
+    }
+
+    /** @return The number of requests sent to the Places API */
+    public int getSentCount() {
+        return sentCount;
+    }
+
+    /** @return The number of sent requests that succeeded */
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    /** @return The number of sent requests that failed, not counting cancellations */
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    /** @return The number of requests refused because no token was due within the longest wait */
+    public int getRateLimitedCount() {
+        return rateLimitedCount;
+    }
+
+    /** @return The number of requests that waited for a token before being sent */
+    public int getDelayedCount() {
+        return delayedCount;
+    }
+
+    /** @return The number of requests refused because the circuit was open */
+    public int getShortCircuitedCount() {
+        return shortCircuitedCount;
+    }
+
+    /** @return The number of details requests answered from the cache while the circuit was open */
+    public int getServedFromCacheCount() {
+        return servedFromCacheCount;
+    }
+
+    /**
+     * Formats the breaker state and request counters for the performance HUD.
+     *
+     * @return Two lines of text
+     */
+    public String formatStats() {
+        return String.format(Locale.US,
+                "places  %s, %d sent, %d ok, %d failed%n"
+                        + "        %d delayed, %d rate limited, %d short-circuited, %d from cache%n",
+                getState(), sentCount, successCount, failureCount,
+                delayedCount, rateLimitedCount, shortCircuitedCount, servedFromCacheCount);
+    }
+
+    /**
+     * Sends a request if the circuit breaker allows it, waiting for a rate limiter token first
+     * if necessary, and records the outcome. A request cancelled by its caller counts neither as
+     * success nor as failure.
+     *
+     * @param call              Sends the request
+     * @param cancellationToken The request's cancellation token, may be null
+     * @param <T>               The response type
+     * @return The response task
+     */
+    private <T> Task<T> execute(Call<T> call, CancellationToken cancellationToken) {
+        long now = SystemClock.elapsedRealtime();
+        boolean probe = circuitBreaker.getState(now) == CircuitBreaker.State.HALF_OPEN;
+        if (!circuitBreaker.allowRequest(now)) {
+            return Tasks.forException(shortCircuit());
+        }
+        long waitMs = rateLimiter.reserve(now, maxWaitMs);
+        if (waitMs < 0) {
+            rateLimitedCount++;
+            circuitBreaker.recordIgnored();
+            return Tasks.forException(new PlacesGatewayException(PlacesGatewayException.Reason.RATE_LIMITED));
+        }
+        if (waitMs == 0) {
+            return send(call, cancellationToken);
+        }
+
+        delayedCount++;
+        TaskCompletionSource<T> result = new TaskCompletionSource<>();
+        Runnable dispatch = () -> {
+            if (result.getTask().isComplete()) {
+                return;
+            }
+            if (!probe && !circuitBreaker.allowRequest(SystemClock.elapsedRealtime())) {
+                result.trySetException(shortCircuit());
+                return;
+            }
+            send(call, cancellationToken).addOnCompleteListener(task -> {
+                if (task.isSuccessful()) {
+                    result.trySetResult(task.getResult());
+                } else {
+                    result.trySetException(task.getException() != null ? task.getException()
+                            : new PlacesGatewayException(PlacesGatewayException.Reason.CANCELLED));
+                }
+            });
+        };
+        mainHandler.postDelayed(dispatch, waitMs);
+        if (cancellationToken != null) {
+            cancellationToken.onCanceledRequested(() -> {
+                mainHandler.removeCallbacks(dispatch);
+                if (result.trySetException(new PlacesGatewayException(PlacesGatewayException.Reason.CANCELLED))
+                        && probe) {
+                    circuitBreaker.recordIgnored();
+                }
+            });
+        }
+        return result.getTask();
+    }
+
+    /**
+     * Counts a request refused because the circuit is open.
+     *
+     * @return The exception to fail the request with
+     */
+    private PlacesGatewayException shortCircuit() {
+        shortCircuitedCount++;
+        publishState();
+        return new PlacesGatewayException(PlacesGatewayException.Reason.CIRCUIT_OPEN);
+    }
+
+    /**
+     * Sends a request that the circuit breaker and rate limiter have allowed, and records the
+     * outcome.
+     *
+     * @param call              Sends the request
+     * @param cancellationToken The request's cancellation token, may be null
+     * @param <T>               The response type
+     * @return The response task
+     */
+    private <T> Task<T> send(Call<T> call, CancellationToken cancellationToken) {
+        sentCount++;
+        publishState();
+        return call.send().addOnCompleteListener(task -> {
+            if (task.isSuccessful()) {
+                successCount++;
+                circuitBreaker.recordSuccess();
+            } else if (cancellationToken != null && cancellationToken.isCancellationRequested()) {
+                circuitBreaker.recordIgnored();
+            } else {
+                failureCount++;
+                circuitBreaker.recordFailure(SystemClock.elapsedRealtime());
+            }
+            publishState();
+        });
+    }
+
+    /**
+     * Tells the listeners about a state change, if there was one since the last call.
+     */
+    private void publishState() {
+        CircuitBreaker.State state = getState();
+        if (state == lastState) {
+            return;
+        }
+        Log.d("Places", "Places circuit " + lastState + " -> " + state);
+        lastState = state;
+        for (StateListener listener : new ArrayList<>(listeners)) {
+            listener.onStateChanged(state);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * Thrown (as a failed task) when the {@link PlacesGateway} ends a request without sending it:
+ * the rate limit would have kept it waiting too long, the circuit breaker is open, or the
+ * caller cancelled it while it waited for the rate limiter.
+ */
+package com.lastbite.app.places;
+
+public class PlacesGatewayException extends Exception {
+
+    /** Why a request was refused */
+    public enum Reason {
+        /** The token bucket would not have had a token within the gateway's longest wait */
+        RATE_LIMITED,
+        /** The circuit breaker is open */
+        CIRCUIT_OPEN,
+        /** The request was cancelled while it waited for a token */
+        CANCELLED
+    }
+
+    private final Reason reason;
+
+    /**
+     * Constructs a new exception.
+     *
+     * @param reason Why the request was refused
+     */
+    public PlacesGatewayException(Reason reason) {
+        super("Places request refused: " + reason);
+        this.reason = reason;
+    }
+
+    /**
+     * Returns why the request was refused.
+     *
+     * @return The reason
+     */
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * A coalescing layer in front of a {@link RestaurantSearchBackend} that makes sure identical
+ * restaurant searches issued during one game are only sent once.
+ *
+ * <p>Searches are keyed by their query and search bounds. When several players pick the same
+ * cuisine, the first player starts the search and every later player shares the same in-flight
+ * {@link Task}. Which player gets which candidate of a shared result is decided by the ranking
+ * of the game session, not here.</p>
+ *
+ * <p>A coalescer is meant to live for a single game session. Every search it sends carries the
+ * session's cancellation token, so ending the session cancels all of its requests at once.
+ * All methods are expected to be called from the main thread, which is also where Places
+ * tasks deliver their results.</p>
+ */
+package com.lastbite.app.places;
+
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.Task;
+import com.google.android.libraries.places.api.model.Place;
+import com.google.android.libraries.places.api.model.RectangularBounds;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class PlacesRequestCoalescer {
+    /** Default number of candidates requested per search, all of which the game ranks; a text search returns at most 20 */
+    public static final int DEFAULT_CANDIDATES_PER_QUERY = 20;
+
+    /** The backend that actually runs the searches */
+    private final RestaurantSearchBackend backend;
+
+    /** Number of candidates requested from the backend per search */
+    private final int candidatesPerQuery;
+
+    /** Token passed with every search, or null if searches cannot be cancelled */
+    private final CancellationToken cancellationToken;
+
+    /** In-flight or completed searches keyed by query and bounds */
+    private final Map<String, Task<List<Place>>> searchTasks = new HashMap<>();
+
+    /**
+     * Constructs a new coalescer requesting {@link #DEFAULT_CANDIDATES_PER_QUERY} candidates per search.
+     *
+     * @param backend The backend used to run searches. Must not be null.
+     */
+    public PlacesRequestCoalescer(RestaurantSearchBackend backend) {
+        this(backend, DEFAULT_CANDIDATES_PER_QUERY, null);
+    }
+
+    /**
+     * Constructs a new coalescer.
+     *
+     * @param backend            The backend used to run searches. Must not be null.
+     * @param candidatesPerQuery The number of candidates requested per search
+     * @param cancellationToken  Token that cancels every search of this coalescer, may be null
+     */
+    public PlacesRequestCoalescer(RestaurantSearchBackend backend, int candidatesPerQuery,
+                                  CancellationToken cancellationToken) {
+        this.backend = backend;
+        this.candidatesPerQuery = candidatesPerQuery;
+        this.cancellationToken = cancellationToken;
+    }
+
+    /**
+     * Returns the candidates for a query within the given bounds, running the search only if
+     * no identical search has been made yet.
+     *
+     * @param query  The search query, e.g. "Italian restaurant"
+     * @param bounds The geographical bounds used as a location bias
+     * @return A task that resolves to the candidate places, best match first
+     */
+    public Task<List<Place>> search(String query, RectangularBounds bounds) {
+        String key = searchKey(query, bounds);
+        Task<List<Place>> task = searchTasks.get(key);
+        if (task != null) {
+            return task;
+        }
+
+        task = backend.searchRestaurants(query, bounds, candidatesPerQuery, cancellationToken);
+        searchTasks.put(key, task);
+        return task;
+    }
+
+    /**
+     * Adopts searches that were started ahead of time, for example by the
+     * {@link RestaurantPrefetcher}, so later lookups for the same key reuse them.
+     * Searches already known to this coalescer are kept.
+     *
+     * @param searches Search tasks keyed by {@link #searchKey}
+     */
+    public void adopt(Map<String, Task<List<Place>>> searches) {
+        for (Map.Entry<String, Task<List<Place>>> entry : searches.entrySet()) {
+            if (!searchTasks.containsKey(entry.getKey())) {
+                searchTasks.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Returns how many searches known to this coalescer have not completed yet.
+     *
+     * @return The number of pending searches
+     */
+    public int getPendingSearchCount() {
+        int pending = 0;
+        for (Task<List<Place>> task : searchTasks.values()) {
+            if (!task.isComplete()) {
+                pending++;
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Builds the key used to identify identical searches.
+     *
+     * @param query  The search query
+     * @param bounds The search bounds
+     * @return A key combining the normalised query with the bounds corners
+     */
+    static String searchKey(String query, RectangularBounds bounds) {
+        return query.trim().toLowerCase(Locale.ROOT) + "|" + bounds.getSouthwest() + "|" + bounds.getNortheast();
+    }
+}
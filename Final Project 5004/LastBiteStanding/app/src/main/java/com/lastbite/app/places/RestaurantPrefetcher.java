@@ -0,0 +1,197 @@
+/**
+ * Starts restaurant searches speculatively while players are still entering their preferences.
+ *
+ * <p>The search location is known before {@link com.lastbite.app.PlayerSetupActivity} opens,
+ * and each cuisine is known as soon as it is picked in a player row. The prefetcher starts the
+ * search for every selected cuisine right away and cancels the searches for cuisines that are
+ * no longer selected by any player. When the game starts,
+ * {@link com.lastbite.app.game.GameSessionViewModel} takes the warm searches and hands them to its
+ * {@link PlacesRequestCoalescer}, so most cards are already loaded when the game screen appears.</p>
+ *
+ * <p>The prefetcher is process-wide so that it survives the switch between the two activities.
+ * How many searches were handed over and how many were cancelled is available through
+ * {@link #formatStats()}. All methods must be called on the main thread.</p>
+ */
+package com.lastbite.app.places;
+
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.CancellationTokenSource;
+import com.google.android.gms.tasks.Task;
+import com.google.android.libraries.places.api.model.Place;
+import com.google.android.libraries.places.api.model.RectangularBounds;
+import com.lastbite.app.geo.SearchBounds;
+import com.lastbite.core.cuisine.CuisineTaxonomy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public class RestaurantPrefetcher {
+    private static RestaurantPrefetcher instance;
+
+    /** A prefetched search together with the token that can cancel it */
+    private static class Prefetch {
+        final Task<List<Place>> task;
+        final CancellationTokenSource cancellation;
+
+        Prefetch(Task<List<Place>> task, CancellationTokenSource cancellation) {
+            this.task = task;
+            this.cancellation = cancellation;
+        }
+    }
+
+    private final Map<String, Prefetch> prefetches = new HashMap<>();
+    private RestaurantSearchBackend backend;
+    private RectangularBounds bounds;
+    private double latitude;
+    private double longitude;
+    private int handedOverCount;
+    private int cancelledCount;
+
+    /**
+     * Returns the process-wide prefetcher, creating it on first use.
+     *
+     * @return The shared prefetcher
+     */
+    public static synchronized RestaurantPrefetcher getInstance() {
+        if (instance == null) {
+            instance = new RestaurantPrefetcher();
+        }
+        return instance;
+    }
+
+    /**
+     * Prepares the prefetcher for a new search location. Prefetches for a different location
+     * are cancelled.
+     *
+     * @param backend   The backend used to run the searches
+     * @param latitude  Latitude of the search location
+     * @param longitude Longitude of the search location
+     */
+    public void start(RestaurantSearchBackend backend, double latitude, double longitude) {
+        if (this.backend != null && (this.latitude != latitude || this.longitude != longitude)) {
+            cancelAll();
+        }
+        this.backend = backend;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.bounds = SearchBounds.around(latitude, longitude);
+    }
+
+    /**
+     * Updates the set of cuisines currently selected by the players. Searches are started for
+     * newly selected cuisines and cancelled for cuisines that no player has selected anymore.
+     *
+     * @param cuisines The cuisines currently selected, duplicates allowed
+     */
+    public void updateSelectedCuisines(Collection<String> cuisines) {
+        if (backend == null) {
+            return;
+        }
+
+        Set<String> wantedKeys = new HashSet<>();
+        for (String cuisine : cuisines) {
+            String query = CuisineTaxonomy.queryFor(cuisine);
+            String key = PlacesRequestCoalescer.searchKey(query, bounds);
+            wantedKeys.add(key);
+
+            if (!prefetches.containsKey(key)) {
+                CancellationTokenSource cancellation = new CancellationTokenSource();
+                Task<List<Place>> task = backend.searchRestaurants(query, bounds,
+                        PlacesRequestCoalescer.DEFAULT_CANDIDATES_PER_QUERY, cancellation.getToken());
+                prefetches.put(key, new Prefetch(task, cancellation));
+            }
+        }
+
+        Iterator<Map.Entry<String, Prefetch>> iterator = prefetches.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Prefetch> entry = iterator.next();
+            if (!wantedKeys.contains(entry.getKey())) {
+                cancel(entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Hands over every prefetched search for the given location and forgets them.
+     * Searches for any other location are cancelled. The handed-over searches are tied to the
+     * game session: cancelling the session token cancels those still running.
+     *
+     * @param latitude     Latitude of the game's search location
+     * @param longitude    Longitude of the game's search location
+     * @param sessionToken The game session's cancellation token
+     * @return The prefetched search tasks keyed by {@link PlacesRequestCoalescer#searchKey}
+     */
+    public Map<String, Task<List<Place>>> takeWarmSearches(double latitude, double longitude,
+                                                           CancellationToken sessionToken) {
+        Map<String, Task<List<Place>>> warm = new HashMap<>();
+        if (backend != null && this.latitude == latitude && this.longitude == longitude) {
+            for (Map.Entry<String, Prefetch> entry : prefetches.entrySet()) {
+                Prefetch prefetch = entry.getValue();
+                warm.put(entry.getKey(), prefetch.task);
+                handedOverCount++;
+                sessionToken.onCanceledRequested(prefetch.cancellation::cancel);
+            }
+            prefetches.clear();
+        } else {
+            cancelAll();
+        }
+        backend = null;
+        return warm;
+    }
+
+    /**
+     * Cancels every outstanding prefetch.
+     */
+    public void cancelAll() {
+        for (Prefetch prefetch : prefetches.values()) {
+            cancel(prefetch);
+        }
+        prefetches.clear();
+    }
+
+    /**
+     * Returns how many prefetched searches were handed over to a game.
+     *
+     * @return The number of handed-over prefetches
+     */
+    public int getHandedOverCount() {
+        return handedOverCount;
+    }
+
+    /**
+     * Returns how many prefetched searches were cancelled before they finished.
+     *
+     * @return The number of cancelled prefetches
+     */
+    public int getCancelledCount() {
+        return cancelledCount;
+    }
+
+    /**
+     * Formats the prefetch counts for the performance HUD.
+     *
+     * @return One line of text
+     */
+    public String formatStats() {
+        return String.format(Locale.US, "prefetch  %d running, %d handed over, %d cancelled%n",
+                prefetches.size(), handedOverCount, cancelledCount);
+    }
+
+    /**
+     * Cancels a single prefetch if it is still running.
+     *
+     * @param prefetch The prefetch to cancel
+     */
+    private void cancel(Prefetch prefetch) {
+        if (!prefetch.task.isComplete()) {
+            prefetch.cancellation.cancel();
+            cancelledCount++;
+        }
+    }
+}
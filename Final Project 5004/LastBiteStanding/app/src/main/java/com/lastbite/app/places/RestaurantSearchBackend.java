@@ -0,0 +1,46 @@
+/**
+ * Defines how restaurant candidates are looked up from the Places API.
+ *
+ * <p>Implementations return several candidate places for one query, each carrying at least the
+ * fields in {@link #PLACE_FIELDS}. The game is written against this interface so the lookup
+ * strategy can be swapped without touching {@link com.lastbite.app.GameActivity}:</p>
+ * <ul>
+ *   <li>{@link TwoStepSearchBackend}: autocomplete predictions, then one details call per candidate</li>
+ *   <li>{@link TextSearchBackend}: a single text search that returns rated places directly</li>
+ * </ul>
+ *
+ * @see PlacesRequestCoalescer
+ */
+package com.lastbite.app.places;
+
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.Task;
+import com.google.android.libraries.places.api.model.Place;
+import com.google.android.libraries.places.api.model.RectangularBounds;
+import java.util.Arrays;
+import java.util.List;
+
+public interface RestaurantSearchBackend {
+    /** Place fields every backend requests for a restaurant candidate */
+    List<Place.Field> PLACE_FIELDS = Arrays.asList(
+            Place.Field.ID,
+            Place.Field.NAME,
+            Place.Field.RATING,
+            Place.Field.ADDRESS,
+            Place.Field.TYPES,
+            Place.Field.LAT_LNG,
+            Place.Field.PRICE_LEVEL
+    );
+
+    /**
+     * Searches for restaurants matching a query near the given bounds.
+     *
+     * @param query      The search query, e.g. "Italian restaurant"
+     * @param bounds     The geographical bounds used as a location bias
+     * @param maxResults The maximum number of candidates to return
+     * @param cancellationToken Token that cancels the underlying Places requests, may be null
+     * @return A task resolving to the candidates, best match first. The list may be empty.
+     */
+    Task<List<Place>> searchRestaurants(String query, RectangularBounds bounds, int maxResults,
+                                        CancellationToken cancellationToken);
+}
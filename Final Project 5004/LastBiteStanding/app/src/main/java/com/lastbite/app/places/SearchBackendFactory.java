@@ -0,0 +1,53 @@
+/**
+ * Creates the {@link RestaurantSearchBackend} selected by the app configuration.
+ *
+ * <p>The {@code use_text_search_backend} boolean resource chooses between the single-call
+ * {@link TextSearchBackend} and the autocomplete plus details {@link TwoStepSearchBackend}.
+ * Every screen that looks up restaurants goes through this factory so that prefetched and
+ * in-game searches always use the same backend. When {@code use_hedged_requests} is set, the
+ * backend is wrapped in a {@link HedgingSearchBackend} that shares one process-wide latency
+ * histogram, so the hedge delay keeps learning across games. All backends send their requests
+ * through the shared {@link PlacesGateway}. If the app ships an offline dataset, searches that
+ * fail or find nothing are answered from it by an
+ * {@link com.lastbite.app.offline.OfflineSearchBackend}.</p>
+ */
+package com.lastbite.app.places;
+
+import android.content.Context;
+import com.lastbite.app.R;
+import com.lastbite.app.offline.OfflineSearchBackend;
+
+public final class SearchBackendFactory {
+    /** Latencies of every search in the process, used to time hedged requests */
+    private static final LatencyHistogram SEARCH_LATENCIES =
+            new LatencyHistogram(LatencyHistogram.DEFAULT_WINDOW_SIZE);
+
+    private SearchBackendFactory() {
+    }
+
+    /**
+     * Creates the configured search backend.
+     *
+     * @param context Context used to read the configuration flag and reach the gateway
+     * @return The backend to use for restaurant lookups
+     */
+    public static RestaurantSearchBackend create(Context context) {
+        PlacesGateway gateway = PlacesGateway.getInstance(context);
+        RestaurantSearchBackend backend;
+        if (context.getResources().getBoolean(R.bool.use_text_search_backend)) {
+            backend = new TextSearchBackend(gateway);
+        } else {
+            backend = new TwoStepSearchBackend(gateway);
+        }
+
+        if (context.getResources().getBoolean(R.bool.use_hedged_requests)) {
+            backend = new HedgingSearchBackend(backend, SEARCH_LATENCIES);
+        }
+
+        OfflineSearchBackend offline = OfflineSearchBackend.getInstance(context);
+        if (offline != null) {
+            backend = new FallbackSearchBackend(backend, offline);
+        }
+        return backend;
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * A {@link RestaurantSearchBackend} that uses the Places Text Search endpoint, which returns
+ * names, ratings, addresses and types for several places in a single round trip.
+ *
+ * <p>Compared to {@link TwoStepSearchBackend}, every restaurant card costs one network call
+ * instead of two sequential ones. Returned places are also stored in the
+ * {@link PlaceDetailsCache} so later lookups by id stay local.</p>
+ *
+ * <p>Every search is timed as the {@link TraceStage#TEXT_SEARCH} stage of the {@link PerfTracer}.</p>
+ *
+ * <p>Text Search is part of the new Places API, so the SDK must be initialised with
+ * {@code Places.initializeWithNewPlacesApiEnabled}.</p>
+ */
+package com.lastbite.app.places;
+
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.Task;
+import com.google.android.libraries.places.api.model.Place;
+import com.google.android.libraries.places.api.model.RectangularBounds;
+import com.google.android.libraries.places.api.net.SearchByTextRequest;
+import com.lastbite.app.trace.PerfTracer;
+import com.lastbite.core.trace.TraceStage;
+import java.util.List;
+
+public class TextSearchBackend implements RestaurantSearchBackend {
+    private final PlacesGateway placesGateway;
+    private final PlaceDetailsCache detailsCache;
+
+    /**
+     * Constructs a text search backend using the shared details cache.
+     *
+     * @param placesGateway The gateway used to send requests
+     */
+    public TextSearchBackend(PlacesGateway placesGateway) {
+        this(placesGateway, PlaceDetailsCache.getInstance());
+    }
+
+    /**
+     * Constructs a text search backend.
+     *
+     * @param placesGateway The gateway used to send requests
+     * @param detailsCache The cache that returned places are stored in
+     */
+    public TextSearchBackend(PlacesGateway placesGateway, PlaceDetailsCache detailsCache) {
+        this.placesGateway = placesGateway;
+        this.detailsCache = detailsCache;
+    }
+
+    /**
+     * Runs a single text search restricted to restaurants near the given bounds.
+     *
+     * @param query      The search query, e.g. "Italian restaurant"
+     * @param bounds     The geographical bounds used as a location bias
+     * @param maxResults The maximum number of candidates to return
+     * @param cancellationToken Token that cancels the request, may be null
+     * @return A task resolving to the places found, best match first
+     */
+    @Override
+    public Task<List<Place>> searchRestaurants(String query, RectangularBounds bounds, int maxResults,
+                                               CancellationToken cancellationToken) {
+        SearchByTextRequest request = SearchByTextRequest.builder(query, PLACE_FIELDS)
+                .setLocationBias(bounds)
+                .setIncludedType("restaurant")
+                .setMaxResultCount(maxResults)
+                .setCancellationToken(cancellationToken)
+                .build();
+
+        PerfTracer.Span span = PerfTracer.getInstance().begin(TraceStage.TEXT_SEARCH);
+        return placesGateway.searchByText(request)
+                .continueWith(task -> {
+                    span.end();
+                    List<Place> places = task.getResult().getPlaces();
+                    for (Place place : places) {
+                        detailsCache.put(place.getId(), place);
+                    }
+                    return places;
+                });
+    }
+}
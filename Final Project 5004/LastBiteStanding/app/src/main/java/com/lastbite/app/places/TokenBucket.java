@@ -0,0 +1,96 @@
+/**
+ * A token-bucket rate limiter.
+ *
+ * <p>The bucket holds up to {@code capacity} tokens and refills continuously at
+ * {@code tokensPerSecond}. Each request takes one token. A full bucket allows a short burst,
+ * such as the handful of searches a game sends at once. Beyond that, {@link #tryAcquire}
+ * refuses a request outright, while {@link #reserve} books the next token and says how long
+ * to wait for it, so a burst larger than the bucket is spread out instead of dropped.</p>
+ *
+ * <p>Time is passed in by the caller so the limiter can be tested without a real clock.
+ * Methods are synchronized.</p>
+ */
+package com.lastbite.app.places;
+
+public class TokenBucket {
+    private final double capacity;
+    private final double tokensPerMs;
+    private double tokens;
+    private long lastRefillMs;
+
+    /**
+     * Constructs a full bucket.
+     *
+     * @param capacity        The maximum number of tokens, i.e. the largest burst
+     * @param tokensPerSecond The steady refill rate
+     * @param nowMs           The current time in milliseconds
+     */
+    public TokenBucket(int capacity, double tokensPerSecond, long nowMs) {
+        this.capacity = capacity;
+        this.tokensPerMs = tokensPerSecond / 1000.0;
+        this.tokens = capacity;
+        this.lastRefillMs = nowMs;
+    }
+
+    /**
+     * Takes one token if one is available.
+     *
+     * @param nowMs The current time in milliseconds
+     * @return true if the request may proceed
+     */
+    public synchronized boolean tryAcquire(long nowMs) {
+        refill(nowMs);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Books a token for a request: one available now, or the next one to refill if it arrives
+     * within {@code maxWaitMs}. A booked token is taken even if it has not refilled yet, so
+     * later requests queue up behind it.
+     *
+     * @param nowMs     The current time in milliseconds
+     * @param maxWaitMs The longest the request may wait
+     * @return How long to wait before sending, 0 to send now, or -1 if no token is due in time
+     *         and nothing was booked
+     */
+    public synchronized long reserve(long nowMs, long maxWaitMs) {
+        refill(nowMs);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        long waitMs = (long) Math.ceil((1 - tokens) / tokensPerMs);
+        if (waitMs > maxWaitMs) {
+            return -1;
+        }
+        tokens -= 1;
+        return waitMs;
+    }
+
+    /**
+     * Returns the number of whole tokens currently available.
+     *
+     * @param nowMs The current time in milliseconds
+     * @return The available tokens
+     */
+    public synchronized int getAvailableTokens(long nowMs) {
+        refill(nowMs);
+        return (int) tokens;
+    }
+
+    /**
+     * Adds the tokens accumulated since the last refill.
+     *
+     * @param nowMs The current time in milliseconds
+     */
+    private void refill(long nowMs) {
+        if (nowMs > lastRefillMs) {
+            tokens = Math.min(capacity, tokens + (nowMs - lastRefillMs) * tokensPerMs);
+            lastRefillMs = nowMs;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * A {@link RestaurantSearchBackend} that uses the classic two-step Places flow: an autocomplete
+ * request to find matching place ids, followed by a details request for each candidate.
+ *
+ * <p>Details for the top candidates are fetched in parallel and served from the process-wide
+ * {@link PlaceDetailsCache} when possible. The search resolves once every details call has
+ * finished or the details deadline has passed, whichever comes first; candidates that have not
+ * arrived by then are left out.</p>
+ *
+ * <p>The autocomplete request and every details request that misses the cache are timed as the
+ * {@link TraceStage#AUTOCOMPLETE} and {@link TraceStage#PLACE_DETAILS} stages of the
+ * {@link PerfTracer}.</p>
+ *
+ * <p>Methods must be called on the main thread, which is where Places results are delivered.</p>
+ */
+package com.lastbite.app.places;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.android.libraries.places.api.model.AutocompletePrediction;
+import com.google.android.libraries.places.api.model.Place;
+import com.google.android.libraries.places.api.model.RectangularBounds;
+import com.google.android.libraries.places.api.net.FetchPlaceRequest;
+import com.google.android.libraries.places.api.net.FindAutocompletePredictionsRequest;
+import com.lastbite.app.trace.PerfTracer;
+import com.lastbite.core.trace.TraceStage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TwoStepSearchBackend implements RestaurantSearchBackend {
+    /** Default time to wait for details calls before resolving with what has arrived */
+    public static final long DEFAULT_DETAILS_DEADLINE_MS = 4000;
+
+    private final PlacesGateway placesGateway;
+    private final PlaceDetailsCache detailsCache;
+    private final long detailsDeadlineMs;
+    private final Handler handler;
+
+    /**
+     * Constructs a two-step backend using the shared details cache and default deadline.
+     *
+     * @param placesGateway The gateway used to send requests
+     */
+    public TwoStepSearchBackend(PlacesGateway placesGateway) {
+        this(placesGateway, PlaceDetailsCache.getInstance(), DEFAULT_DETAILS_DEADLINE_MS);
+    }
+
+    /**
+     * Constructs a two-step backend.
+     *
+     * @param placesGateway     The gateway used to send requests
+     * @param detailsCache      The cache consulted before fetching place details
+     * @param detailsDeadlineMs Maximum time in milliseconds to wait for details calls
+     */
+    public TwoStepSearchBackend(PlacesGateway placesGateway, PlaceDetailsCache detailsCache,
+                                long detailsDeadlineMs) {
+        this.placesGateway = placesGateway;
+        this.detailsCache = detailsCache;
+        this.detailsDeadlineMs = detailsDeadlineMs;
+        this.handler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Finds autocomplete predictions for the query, then fetches the details of the top
+     * {@code maxResults} predictions in parallel.
+     *
+     * @param query      The search query, e.g. "Italian restaurant"
+     * @param bounds     The geographical bounds used as a location bias
+     * @param maxResults The maximum number of candidates to return
+     * @param cancellationToken Token that cancels every request of this search, may be null
+     * @return A task resolving to the fetched candidates in prediction order
+     */
+    @Override
+    public Task<List<Place>> searchRestaurants(String query, RectangularBounds bounds, int maxResults,
+                                               CancellationToken cancellationToken) {
+        FindAutocompletePredictionsRequest request = FindAutocompletePredictionsRequest.builder()
+                .setLocationBias(bounds)
+                .setQuery(query)
+                .setTypesFilter(Arrays.asList("restaurant"))
+                .setCancellationToken(cancellationToken)
+                .build();
+
+        PerfTracer.Span span = PerfTracer.getInstance().begin(TraceStage.AUTOCOMPLETE);
+        return placesGateway.findAutocompletePredictions(request)
+                .continueWithTask(task -> {
+                    span.end();
+                    List<AutocompletePrediction> predictions = task.getResult().getAutocompletePredictions();
+                    int count = Math.min(maxResults, predictions.size());
+                    List<String> placeIds = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        placeIds.add(predictions.get(i).getPlaceId());
+                    }
+                    return fetchAll(placeIds, cancellationToken);
+                });
+    }
+
+    /**
+     * Fetches the details of every place id in parallel and resolves with the places that
+     * arrived before the deadline, keeping the order of the ids.
+     *
+     * @param placeIds The ids to fetch
+     * @param cancellationToken Token that cancels the details requests, may be null
+     * @return A task resolving to the fetched places
+     */
+    private Task<List<Place>> fetchAll(List<String> placeIds, CancellationToken cancellationToken) {
+        if (placeIds.isEmpty()) {
+            return Tasks.forResult(new ArrayList<>());
+        }
+
+        final Place[] slots = new Place[placeIds.size()];
+        final int[] remaining = {placeIds.size()};
+        final TaskCompletionSource<List<Place>> result = new TaskCompletionSource<>();
+        final Runnable deliver = () -> {
+            List<Place> places = new ArrayList<>(slots.length);
+            for (Place place : slots) {
+                if (place != null) {
+                    places.add(place);
+                }
+            }
+            result.trySetResult(places);
+        };
+        handler.postDelayed(deliver, detailsDeadlineMs);
+
+        for (int i = 0; i < placeIds.size(); i++) {
+            final int index = i;
+            fetchPlace(placeIds.get(i), cancellationToken).addOnCompleteListener(task -> {
+                if (task.isSuccessful()) {
+                    slots[index] = task.getResult();
+                } else {
+                    Log.e("Places", "Place details fetch failed: " + task.getException());
+                }
+                if (--remaining[0] == 0) {
+                    handler.removeCallbacks(deliver);
+                    deliver.run();
+                }
+            });
+        }
+        return result.getTask();
+    }
+
+    /**
+     * Fetches the details of a single place, serving it from the details cache if possible.
+     *
+     * @param placeId The Google Places id
+     * @param cancellationToken Token that cancels the request, may be null
+     * @return A task resolving to the place
+     */
+    private Task<Place> fetchPlace(String placeId, CancellationToken cancellationToken) {
+        Place cached = detailsCache.get(placeId);
+        if (cached != null) {
+            return Tasks.forResult(cached);
+        }
+
+        FetchPlaceRequest request = FetchPlaceRequest.builder(placeId, PLACE_FIELDS)
+                .setCancellationToken(cancellationToken)
+                .build();
+        PerfTracer.Span span = PerfTracer.getInstance().begin(TraceStage.PLACE_DETAILS);
+        return placesGateway.fetchPlace(request)
+                .continueWith(response -> {
+                    span.end();
+                    Place place = response.getResult().getPlace();
+                    detailsCache.put(placeId, place);
+                    return place;
+                });
+    }
+}
@@ -4,12 +4,18 @@
  *
  * <p>This service handles:
  * <ul>
- *   <li>High-accuracy location requests</li>
+ *   <li>Tiered location requests: a recent last-known fix first, then balanced and high
+ *       accuracy refinements</li>
+ *   <li>Continuous, batched location updates with a minimum displacement</li>
  *   <li>Location permission management</li>
  *   <li>Location updates lifecycle</li>
  * </ul>
  * </p>
  *
+ * <p>The service keeps only the application context and a weak reference to the activity,
+ * which is needed for nothing but the permission dialog, so a subscription that outlives
+ * its screen does not leak the activity.</p>
+ *
  * <p>The service requires the following permission in the Android Manifest:</p>
  * <pre>{@code <uses-permission android:name="android.permission.ACCESS_FINE_LOCATION" />}</pre>
  *
@@ -37,6 +43,10 @@
  * });
  * </pre>
  *
+ * <p>Which fixes are fresh and accurate enough is decided by a {@link LocationFixPolicy},
+ * configured in {@code config.xml} by default. The time to the first usable fix is recorded
+ * as the {@link TraceStage#LOCATION} stage of the {@link PerfTracer}.</p>
+ *
  * @see LocationService
  * @see FusedLocationProviderClient
  * @see Location
@@ -45,51 +55,250 @@ package com.lastbite.app.services;
 
 import android.Manifest;
 import android.app.Activity;
+import android.content.Context;
 import android.content.pm.PackageManager;
 import android.location.Location;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 import com.google.android.gms.location.FusedLocationProviderClient;
+import com.google.android.gms.location.LocationRequest;
+import com.google.android.gms.location.LocationResult;
 import com.google.android.gms.location.LocationServices;
 import com.google.android.gms.location.Priority;
-import com.google.android.gms.tasks.CancellationToken;
-import com.google.android.gms.tasks.OnTokenCanceledListener;
+import com.google.android.gms.tasks.CancellationTokenSource;
+import com.lastbite.app.trace.PerfTracer;
+import com.lastbite.core.geo.LocationFixPolicy;
+import com.lastbite.core.trace.TraceStage;
+import java.lang.ref.WeakReference;
 
 public class GoogleLocationService implements LocationService {
     /** Request code used for location permission requests. */
     private static final int LOCATION_PERMISSION_REQUEST_CODE = 1001;
-    private final Activity activity;
+    private final Context appContext;
+    private final WeakReference<Activity> activityRef;
     private final FusedLocationProviderClient fusedLocationClient;
-    private LocationCallback currentCallback;
+    private final LocationFixPolicy policy;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private FixRequest currentRequest;
+    private com.google.android.gms.location.LocationCallback updatesCallback;
+
+    /**
+     * One call to {@link #getCurrentLocation}: the last-known fix first, then a balanced and
+     * a high accuracy fix, until a fix is good enough or the refine timeout expires. The
+     * callback gets the first usable fix and every better fix after it. All methods run on
+     * the main thread, where the fused provider delivers its results.
+     */
+    private final class FixRequest implements Runnable {
+        private final LocationCallback callback;
+        private final CancellationTokenSource cancellation = new CancellationTokenSource();
+        private final PerfTracer.Span span = PerfTracer.getInstance().begin(TraceStage.LOCATION);
+        private Location best;
+        private boolean delivered;
+        private boolean finished;
+
+        private FixRequest(LocationCallback callback) {
+            this.callback = callback;
+        }
+
+        /**
+         * Asks for the last-known fix and starts the refine timeout.
+         */
+        private void start() {
+            mainHandler.postDelayed(this, policy.getRefineTimeoutMs());
+            try {
+                fusedLocationClient.getLastLocation()
+                        .addOnSuccessListener(location -> {
+                            offer(location);
+                            refine(Priority.PRIORITY_BALANCED_POWER_ACCURACY);
+                        })
+                        .addOnFailureListener(e -> refine(Priority.PRIORITY_BALANCED_POWER_ACCURACY));
+            } catch (SecurityException e) {
+                finish("Location permission denied");
+            }
+        }
+
+        /**
+         * Asks for a current fix, cancelled by {@link #finish}. A balanced fix that does not
+         * settle the request is followed by a high accuracy one.
+         *
+         * @param priority The fused provider priority
+         */
+        private void refine(int priority) {
+            if (finished) {
+                return;
+            }
+            try {
+                fusedLocationClient.getCurrentLocation(priority, cancellation.getToken())
+                        .addOnSuccessListener(location -> {
+                            offer(location);
+                            next(priority, "Unable to get current location");
+                        })
+                        .addOnFailureListener(e -> next(priority, "Error getting location: " + e.getMessage()));
+            } catch (SecurityException e) {
+                finish("Location permission denied");
+            }
+        }
+
+        /**
+         * Moves on after a refinement step: to high accuracy after balanced, otherwise ends.
+         *
+         * @param priority The priority of the step that just completed
+         * @param error    The error to report if no fix was found at all
+         */
+        private void next(int priority, String error) {
+            if (priority == Priority.PRIORITY_BALANCED_POWER_ACCURACY) {
+                refine(Priority.PRIORITY_HIGH_ACCURACY);
+            } else {
+                finish(error);
+            }
+        }
+
+        /**
+         * Keeps a fix if it beats the best so far, delivers it if it is usable, and ends the
+         * request once it is good enough.
+         *
+         * @param location The fix, or null if the provider had none
+         */
+        private void offer(Location location) {
+            if (finished || location == null || !LocationFixes.isBetter(policy, location, best)) {
+                return;
+            }
+            best = location;
+            if (delivered) {
+                callback.onLocationRefined(location);
+            } else if (LocationFixes.isUsable(policy, location)) {
+                deliver(location);
+            }
+            if (LocationFixes.isGoodEnough(policy, location)) {
+                finish(null);
+            }
+        }
+
+        /**
+         * Passes the first fix to the callback.
+         *
+         * @param location The fix
+         */
+        private void deliver(Location location) {
+            delivered = true;
+            span.end();
+            Log.d("Location", "First fix: accuracy " + LocationFixes.accuracyMeters(location)
+                    + " m, age " + LocationFixes.ageMillis(location) + " ms");
+            callback.onLocationReceived(location);
+        }
+
+        /**
+         * Called when the refine timeout expires.
+         */
+        @Override
+        public void run() {
+            finish("Timed out getting location");
+        }
+
+        /**
+         * Ends the request: cancels the pending provider call and, if nothing was delivered
+         * yet, delivers a fresh but inaccurate fix or reports the error.
+         *
+         * @param error The error to report if no fresh fix was found
+         */
+        private void finish(String error) {
+            if (finished) {
+                return;
+            }
+            cancel();
+            if (delivered) {
+                return;
+            }
+            if (best != null && LocationFixes.isFresh(policy, best)) {
+                deliver(best);
+            } else {
+                span.end();
+                callback.onLocationError(error != null ? error : "Unable to get current location");
+            }
+        }
+
+        /**
+         * Ends the request on behalf of the caller. If nothing was delivered yet the callback
+         * is told, so a caller waiting for its first fix is never left hanging.
+         */
+        private void abort() {
+            if (finished) {
+                return;
+            }
+            cancel();
+            if (!delivered) {
+                span.end();
+                callback.onLocationError("Location request cancelled");
+            }
+        }
+
+        /**
+         * Ends the request without calling the callback again.
+         */
+        private void cancel() {
+            finished = true;
+            mainHandler.removeCallbacks(this);
+            cancellation.cancel();
+            if (currentRequest == this) {
+                currentRequest = null;
+            }
+        }
+    }
 
     /**
      * Constructs a new GoogleLocationService instance.
      *
-     * <p>Initializes the FusedLocationProviderClient and stores the activity reference
-     * for permission handling.</p>
+     * <p>Initializes the FusedLocationProviderClient with the application context and keeps
+     * a weak reference to the activity for permission handling. Fixes are judged by the policy configured in
+     * {@code config.xml}.</p>
      *
      * @param activity The activity context used for permission requests and location services.
      *                Must not be null.
      * @throws NullPointerException if activity is null
      */
     public GoogleLocationService(Activity activity) {
-        this.activity = activity;
-        this.fusedLocationClient = LocationServices.getFusedLocationProviderClient(activity);
+        this(activity, LocationFixes.policyFrom(activity.getResources()));
     }
 
     /**
-     * Requests the current device location using high accuracy mode.
+     * Constructs a new GoogleLocationService instance with the given fix policy.
+     *
+     * @param activity The activity context used for permission requests and location services.
+     *                Must not be null.
+     * @param policy   Decides which fixes are fresh and accurate enough
+     */
+    public GoogleLocationService(Activity activity, LocationFixPolicy policy) {
+        this.appContext = activity.getApplicationContext();
+        this.activityRef = new WeakReference<>(activity);
+        this.fusedLocationClient = LocationServices.getFusedLocationProviderClient(appContext);
+        this.policy = policy;
+    }
+
+    /**
+     * Requests the current device location, fastest usable fix first.
      *
      * <p>This method will:
      * <ol>
      *   <li>Check for location permissions</li>
-     *   <li>Request a single location update with high accuracy</li>
-     *   <li>Deliver the result through the provided callback</li>
+     *   <li>Deliver the last-known location at once if the policy finds it fresh and
+     *       accurate enough</li>
+     *   <li>Refine it with a {@link Priority#PRIORITY_BALANCED_POWER_ACCURACY} fix and then a
+     *       {@link Priority#PRIORITY_HIGH_ACCURACY} fix, stopping as soon as a fix is good
+     *       enough or the refine timeout expires</li>
      * </ol>
      * </p>
      *
-     * <p>The method uses {@link Priority#PRIORITY_HIGH_ACCURACY} to get the most accurate
-     * location possible. This may use GPS and consume more battery power.</p>
+     * <p>The first usable fix goes to {@link LocationCallback#onLocationReceived(Location)}
+     * and each better one to {@link LocationCallback#onLocationRefined(Location)}. If no fix is
+     * usable when refining ends, the best fresh fix found is delivered anyway, or an
+     * error if there is none. A new request or {@link #stopLocationUpdates()} cancels the
+     * pending one, so GPS is not kept running for a result nobody waits for; its callback
+     * then gets an error if it had no fix yet. {@link #removeLocationUpdates()} leaves it
+     * running.</p>
      *
      * @param callback The callback to receive the location update or error.
      *                 Must not be null.
@@ -100,35 +309,60 @@ public class GoogleLocationService implements LocationService {
      */
     @Override
     public void getCurrentLocation(LocationCallback callback) {
-        this.currentCallback = callback;
+        cancelCurrentRequest();
 
         if (!isLocationPermissionGranted()) {
             callback.onLocationError("Location permission not granted");
             return;
         }
 
+        currentRequest = new FixRequest(callback);
+        currentRequest.start();
+    }
+
+    /**
+     * Starts continuous location updates with {@link Priority#PRIORITY_BALANCED_POWER_ACCURACY},
+     * replacing any previous subscription.
+     *
+     * <p>The minimum displacement and the batching delay are applied by the fused provider
+     * itself, so fixes that do not move far enough never wake the app. Updates are delivered
+     * on the main thread. Balanced accuracy, about 100 metres, is plenty for following a group
+     * through search cells that are over half a kilometre wide.</p>
+     *
+     * @param intervalMs            The desired time between fixes
+     * @param maxUpdateDelayMs      How late a fix may be delivered to batch it with others
+     * @param minDisplacementMeters The distance a fix must move to be delivered
+     * @param callback              The callback to receive the fixes or an error. Must not be null.
+     */
+    @Override
+    public void startLocationUpdates(long intervalMs, long maxUpdateDelayMs, float minDisplacementMeters,
+                                     LocationCallback callback) {
+        removeLocationUpdates();
+
+        if (!isLocationPermissionGranted()) {
+            callback.onLocationError("Location permission not granted");
+            return;
+        }
+
+        LocationRequest request = new LocationRequest.Builder(Priority.PRIORITY_BALANCED_POWER_ACCURACY, intervalMs)
+                .setMinUpdateDistanceMeters(minDisplacementMeters)
+                .setMaxUpdateDelayMillis(maxUpdateDelayMs)
+                .build();
+        updatesCallback = new com.google.android.gms.location.LocationCallback() {
+            @Override
+            public void onLocationResult(@NonNull LocationResult result) {
+                Location newest = result.getLastLocation();
+                if (newest != null) {
+                    callback.onLocationReceived(newest);
+                }
+            }
+        };
         try {
-            fusedLocationClient.getCurrentLocation(Priority.PRIORITY_HIGH_ACCURACY, new CancellationToken() {
-                        @Override
-                        public boolean isCancellationRequested() {
-                            return false;
-                        }
-
-                        @Override
-                        public CancellationToken onCanceledRequested(OnTokenCanceledListener onTokenCanceledListener) {
-                            return this;
-                        }
-                    })
-                    .addOnSuccessListener(location -> {
-                        if (location != null) {
-                            callback.onLocationReceived(location);
-                        } else {
-                            callback.onLocationError("Unable to get current location");
-                        }
-                    })
-                    .addOnFailureListener(e ->
-                            callback.onLocationError("Error getting location: " + e.getMessage()));
+            fusedLocationClient.requestLocationUpdates(request, updatesCallback, Looper.getMainLooper())
+                    .addOnFailureListener(e -> callback.onLocationError(
+                            "Error starting location updates: " + e.getMessage()));
         } catch (SecurityException e) {
+            updatesCallback = null;
             callback.onLocationError("Location permission denied");
         }
     }
@@ -138,18 +372,41 @@ public class GoogleLocationService implements LocationService {
      *
      * <p>This method:
      * <ul>
-     *   <li>Flushes any pending locations from the FusedLocationProviderClient</li>
-     *   <li>Clears the current callback reference</li>
+     *   <li>Cancels the pending location request and its timeout, reporting an error to
+     *       its callback if it had not delivered a fix yet</li>
+     *   <li>Removes the continuous updates subscription, if any</li>
      * </ul>
      * </p>
      *
      * <p>It's recommended to call this method when the location updates are no longer
-     * needed or when the activity is being destroyed.</p>
+     * needed or when the activity is being stopped.</p>
      */
     @Override
     public void stopLocationUpdates() {
-        fusedLocationClient.flushLocations();
-        currentCallback = null;
+        cancelCurrentRequest();
+        removeLocationUpdates();
+    }
+
+    /**
+     * Removes the continuous updates subscription, if any, leaving a pending
+     * {@link #getCurrentLocation} request running.
+     */
+    @Override
+    public void removeLocationUpdates() {
+        if (updatesCallback != null) {
+            fusedLocationClient.removeLocationUpdates(updatesCallback);
+            updatesCallback = null;
+        }
+    }
+
+    /**
+     * Cancels the pending request, if any, reporting an error to its callback if it had not
+     * delivered a fix yet.
+     */
+    private void cancelCurrentRequest() {
+        if (currentRequest != null) {
+            currentRequest.abort();
+        }
     }
 
     /**
@@ -162,7 +419,7 @@ public class GoogleLocationService implements LocationService {
      */
     @Override
     public boolean isLocationPermissionGranted() {
-        return ContextCompat.checkSelfPermission(activity,
+        return ContextCompat.checkSelfPermission(appContext,
                 Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED;
     }
 
@@ -174,12 +431,17 @@ public class GoogleLocationService implements LocationService {
      * to the activity through {@link Activity#onRequestPermissionsResult}.</p>
      *
      * <p>Note: The calling activity should implement permission result handling to process
-     * the user's response.</p>
+     * the user's response. Nothing happens if the activity has already been destroyed.</p>
      *
      * @see Activity#onRequestPermissionsResult(int, String[], int[])
      */
     @Override
     public void requestLocationPermission() {
+        Activity activity = activityRef.get();
+        if (activity == null) {
+            Log.d("Location", "Permission request dropped, the activity is gone");
+            return;
+        }
         ActivityCompat.requestPermissions(activity,
                 new String[]{Manifest.permission.ACCESS_FINE_LOCATION},
                 LOCATION_PERMISSION_REQUEST_CODE);
@@ -48,6 +48,18 @@ public interface LocationCallback {
      */
     void onLocationReceived(Location location);
 
+    /**
+     * Called when a more accurate fix arrives after {@link #onLocationReceived(Location)}.
+     *
+     * <p>Location services answer with the first usable fix, which may be a recent last-known
+     * location, and keep refining it in the background for a while. Each better fix found is
+     * passed here. The default implementation ignores refinements.</p>
+     *
+     * @param location The refined Location object. Will never be null.
+     */
+    default void onLocationRefined(Location location) {
+    }
+
     /**
      * Called when an error occurs during location acquisition.
      *
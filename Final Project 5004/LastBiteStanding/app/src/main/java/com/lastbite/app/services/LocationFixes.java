@@ -0,0 +1,100 @@
+/**
+ * Applies a {@link LocationFixPolicy} to Android {@link Location} fixes.
+ *
+ * <p>Ages are measured on the elapsed-realtime clock, which keeps counting in deep sleep and
+ * is not affected by the user changing the wall clock. A fix without an accuracy counts as
+ * infinitely inaccurate.</p>
+ */
+package com.lastbite.app.services;
+
+import android.content.res.Resources;
+import android.location.Location;
+import android.os.SystemClock;
+import com.lastbite.app.R;
+import com.lastbite.core.geo.LocationFixPolicy;
+
+public final class LocationFixes {
+
+    private LocationFixes() {
+    }
+
+    /**
+     * Builds the policy configured in {@code config.xml}.
+     *
+     * @param resources The app's resources
+     * @return The configured policy
+     */
+    public static LocationFixPolicy policyFrom(Resources resources) {
+        return new LocationFixPolicy(
+                resources.getInteger(R.integer.location_max_age_ms),
+                resources.getInteger(R.integer.location_usable_accuracy_m),
+                resources.getInteger(R.integer.location_good_accuracy_m),
+                resources.getInteger(R.integer.location_refine_timeout_ms));
+    }
+
+    /**
+     * Returns how long ago a fix was taken.
+     *
+     * @param location The fix
+     * @return The fix's age in milliseconds
+     */
+    public static long ageMillis(Location location) {
+        return (SystemClock.elapsedRealtimeNanos() - location.getElapsedRealtimeNanos()) / 1_000_000;
+    }
+
+    /**
+     * Returns a fix's accuracy.
+     *
+     * @param location The fix
+     * @return The accuracy radius in metres, NaN if the fix has none
+     */
+    public static float accuracyMeters(Location location) {
+        return location.hasAccuracy() ? location.getAccuracy() : Float.NaN;
+    }
+
+    /**
+     * Returns whether a fix is fresh enough to use at all.
+     *
+     * @param policy   The policy
+     * @param location The fix
+     * @return true if the fix is not stale
+     */
+    public static boolean isFresh(LocationFixPolicy policy, Location location) {
+        return policy.isFresh(ageMillis(location));
+    }
+
+    /**
+     * Returns whether a fix can be shown before it is refined.
+     *
+     * @param policy   The policy
+     * @param location The fix
+     * @return true if the fix is fresh and accurate enough to use
+     */
+    public static boolean isUsable(LocationFixPolicy policy, Location location) {
+        return policy.isUsable(ageMillis(location), accuracyMeters(location));
+    }
+
+    /**
+     * Returns whether a fix needs no refinement.
+     *
+     * @param policy   The policy
+     * @param location The fix
+     * @return true if the fix is fresh and accurate enough to stop refining
+     */
+    public static boolean isGoodEnough(LocationFixPolicy policy, Location location) {
+        return policy.isGoodEnough(ageMillis(location), accuracyMeters(location));
+    }
+
+    /**
+     * Returns whether a new fix should replace the current best one.
+     *
+     * @param policy    The policy
+     * @param candidate The new fix
+     * @param current   The current best fix, or null if there is none
+     * @return true if the new fix is better
+     */
+    public static boolean isBetter(LocationFixPolicy policy, Location candidate, Location current) {
+        return current == null || policy.isBetter(ageMillis(candidate), accuracyMeters(candidate),
+                ageMillis(current), accuracyMeters(current));
+    }
+}
@@ -50,7 +50,8 @@ public interface LocationService {
      *
      * <p>This method initiates an asynchronous location request. The result will be
      * delivered through the provided callback, either as a successful location update
-     * or an error message.</p>
+     * or an error message. Implementations may answer with a quick approximate fix first and
+     * pass better fixes to {@link LocationCallback#onLocationRefined(Location)} afterwards.</p>
      *
      * <p>Implementations should check for necessary permissions before making the
      * location request and handle any potential errors appropriately.</p>
@@ -64,13 +65,38 @@ public interface LocationService {
      */
     void getCurrentLocation(LocationCallback callback);
 
+    /**
+     * Starts continuous location updates, replacing any previous subscription.
+     *
+     * <p>Fixes are collected about every {@code intervalMs} and may be held back and
+     * delivered in batches up to {@code maxUpdateDelayMs} late, which lets the device sleep
+     * between batches. Each batch is passed to {@link LocationCallback#onLocationReceived}
+     * as its newest fix. Fixes less than {@code minDisplacementMeters} away from the previous
+     * one are not delivered at all. Updates continue until {@link #removeLocationUpdates()} or
+     * {@link #stopLocationUpdates()}.</p>
+     *
+     * @param intervalMs            The desired time between fixes
+     * @param maxUpdateDelayMs      How late a fix may be delivered to batch it with others
+     * @param minDisplacementMeters The distance a fix must move to be delivered
+     * @param callback              The callback to receive the fixes or an error. Must not be null.
+     */
+    void startLocationUpdates(long intervalMs, long maxUpdateDelayMs, float minDisplacementMeters,
+                              LocationCallback callback);
+
+    /**
+     * Ends the subscription started by {@link #startLocationUpdates}, if any. A pending
+     * {@link #getCurrentLocation} request is left running.
+     */
+    void removeLocationUpdates();
+
     /**
      * Stops any ongoing location updates and releases associated resources.
      *
      * <p>This method should be called when location updates are no longer needed
      * or when the associated component (e.g., Activity or Service) is being destroyed.
      * Implementations should ensure proper cleanup of resources and removal of
-     * any registered listeners.</p>
+     * any registered listeners. A pending {@link #getCurrentLocation} request that has not
+     * delivered a fix yet is cancelled and reported to its callback as an error.</p>
      */
     void stopLocationUpdates();
 
@@ -0,0 +1,175 @@
+/**
+ * Times the stages of a game and reports them to the platform tracer, the debug HUD and a file.
+ *
+ * <p>Every {@link TraceStage} gets a lock-free histogram in the process-wide
+ * {@link StageTimings}, so a slow game can be pinned on the location fix, the Places calls or
+ * rendering. Stages that cross callbacks are measured with a {@link Span}, which also emits
+ * an async trace section ({@link Trace#beginAsyncSection}, API 29 and up) so the stages line up
+ * with the rest of the app in a system trace. Card binding, which happens within one call,
+ * uses plain {@link Trace#beginSection} sections in the adapter.</p>
+ *
+ * <p>{@link #dump} writes the report to a file in the app's external files directory, so a
+ * field report can attach real numbers. Spans can be started and ended on any thread.</p>
+ */
+package com.lastbite.app.trace;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.SystemClock;
+import android.os.Trace;
+import com.lastbite.core.trace.StageTimings;
+import com.lastbite.core.trace.TraceStage;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PerfTracer {
+    private static PerfTracer instance;
+
+    /** Directory, below the app's files directory, that reports are written to */
+    private static final String DUMP_DIRECTORY = "perf";
+
+    private final StageTimings timings = new StageTimings();
+    private final AtomicInteger nextCookie = new AtomicInteger();
+    private volatile long gameStartNanos;
+
+    /** Bit set of the stages already marked in the current game, by ordinal */
+    private final AtomicInteger markedStages = new AtomicInteger();
+
+    /**
+     * A stage in progress. Ending it records the elapsed time; ending it again has no effect.
+     */
+    public final class Span {
+        private final TraceStage stage;
+        private final int cookie;
+        private final long startNanos;
+        private boolean ended;
+
+        private Span(TraceStage stage) {
+            this.stage = stage;
+            this.cookie = nextCookie.incrementAndGet();
+            this.startNanos = SystemClock.elapsedRealtimeNanos();
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                Trace.beginAsyncSection(stage.getLabel(), cookie);
+            }
+        }
+
+        /**
+         * Ends the stage and records its duration.
+         */
+        public synchronized void end() {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            timings.record(stage, SystemClock.elapsedRealtimeNanos() - startNanos);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                Trace.endAsyncSection(stage.getLabel(), cookie);
+            }
+        }
+    }
+
+    /**
+     * Returns the process-wide tracer, creating it on first use.
+     *
+     * @return The shared tracer
+     */
+    public static synchronized PerfTracer getInstance() {
+        if (instance == null) {
+            instance = new PerfTracer();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts timing a stage.
+     *
+     * @param stage The stage
+     * @return The span to end once the stage is over
+     */
+    public Span begin(TraceStage stage) {
+        return new Span(stage);
+    }
+
+    /**
+     * Marks the start of a game. {@link TraceStage#FIRST_BIND} and {@link TraceStage#ALL_BOUND}
+     * are measured from here.
+     */
+    public void beginGame() {
+        markedStages.set(0);
+        gameStartNanos = SystemClock.elapsedRealtimeNanos();
+    }
+
+    /**
+     * Records the time elapsed since the game started as a sample of a stage, once per game.
+     * Does nothing if the stage was already marked in this game or no game was started, for
+     * example after process death.
+     *
+     * @param stage The stage that just finished
+     */
+    public void markSinceGameStart(TraceStage stage) {
+        long start = gameStartNanos;
+        int bit = 1 << stage.ordinal();
+        int marked = markedStages.get();
+        while (true) {
+            if (start == 0 || (marked & bit) != 0) {
+                return;
+            }
+            if (markedStages.compareAndSet(marked, marked | bit)) {
+                break;
+            }
+            marked = markedStages.get();
+        }
+        timings.record(stage, SystemClock.elapsedRealtimeNanos() - start);
+    }
+
+    /**
+     * Returns whether a stage has already been marked in the current game.
+     *
+     * @param stage The stage
+     * @return true once {@link #markSinceGameStart} recorded the stage for this game
+     */
+    public boolean isMarked(TraceStage stage) {
+        return (markedStages.get() & (1 << stage.ordinal())) != 0;
+    }
+
+    /**
+     * Returns the timings recorded so far.
+     *
+     * @return The timings
+     */
+    public StageTimings getTimings() {
+        return timings;
+    }
+
+    /**
+     * Writes the current report to a new file, named after the current time.
+     *
+     * @param context Any context, used to find the files directory
+     * @return The written file
+     * @throws IOException if the file cannot be written
+     */
+    public File dump(Context context) throws IOException {
+        File base = context.getExternalFilesDir(DUMP_DIRECTORY);
+        File directory = base != null ? base : new File(context.getFilesDir(), DUMP_DIRECTORY);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        Date now = new Date();
+        File file = new File(directory, "lastbite-perf-"
+                + new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(now) + ".txt");
+        try (Writer writer = new FileWriter(file)) {
+            writer.write("LastBite performance report, " + now + "\n");
+            writer.write("Device: " + Build.MANUFACTURER + " " + Build.MODEL
+                    + ", Android " + Build.VERSION.RELEASE + " (API " + Build.VERSION.SDK_INT + ")\n");
+            writer.write("Latencies in ms\n\n");
+            writer.write(timings.formatReport());
+        }
+        return file;
+    }
+}
@@ -14,6 +14,10 @@
 package com.lastbite.app;
 
 import android.os.Parcel;
+import com.lastbite.core.cuisine.Cuisine;
+import com.lastbite.core.cuisine.CuisinePreferences;
+import com.lastbite.core.cuisine.DietaryFlag;
+import java.util.Arrays;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
@@ -34,7 +38,7 @@ public class PlayerPreferenceTest {
         PlayerPreference preference = new PlayerPreference(name, cuisine);
 
         assertEquals("Name should match constructor input", name, preference.name);
-        assertEquals("Cuisine should match constructor input", cuisine, preference.cuisine);
+        assertEquals("Cuisine should match constructor input", cuisine, preference.getCuisine());
     }
 
     /**
@@ -46,7 +50,7 @@ public class PlayerPreferenceTest {
         PlayerPreference preference = new PlayerPreference("", "");
 
         assertEquals("Name should be empty string", "", preference.name);
-        assertEquals("Cuisine should be empty string", "", preference.cuisine);
+        assertEquals("Cuisine should be empty string", "", preference.getCuisine());
     }
 
     /**
@@ -58,7 +62,7 @@ public class PlayerPreferenceTest {
         PlayerPreference preference = new PlayerPreference(null, null);
 
         assertNull("Name should be null", preference.name);
-        assertNull("Cuisine should be null", preference.cuisine);
+        assertNull("Cuisine should be null", preference.getCuisine());
     }
 
     /**
@@ -72,7 +76,7 @@ public class PlayerPreferenceTest {
         PlayerPreference preference = new PlayerPreference(specialName, specialCuisine);
 
         assertEquals("Name should handle special characters", specialName, preference.name);
-        assertEquals("Cuisine should handle special characters", specialCuisine, preference.cuisine);
+        assertEquals("Cuisine should handle special characters", specialCuisine, preference.getCuisine());
     }
 
     /**
@@ -92,7 +96,7 @@ public class PlayerPreferenceTest {
         PlayerPreference createdFromParcel = PlayerPreference.CREATOR.createFromParcel(parcel);
 
         assertEquals("Name should survive parceling", name, createdFromParcel.name);
-        assertEquals("Cuisine should survive parceling", cuisine, createdFromParcel.cuisine);
+        assertEquals("Cuisine should survive parceling", cuisine, createdFromParcel.getCuisine());
 
         parcel.recycle();
     }
@@ -112,7 +116,7 @@ public class PlayerPreferenceTest {
         PlayerPreference createdFromParcel = PlayerPreference.CREATOR.createFromParcel(parcel);
 
         assertEquals("Empty name should survive parceling", "", createdFromParcel.name);
-        assertEquals("Empty cuisine should survive parceling", "", createdFromParcel.cuisine);
+        assertEquals("Empty cuisine should survive parceling", "", createdFromParcel.getCuisine());
 
         parcel.recycle();
     }
@@ -132,7 +136,7 @@ public class PlayerPreferenceTest {
         PlayerPreference createdFromParcel = PlayerPreference.CREATOR.createFromParcel(parcel);
 
         assertNull("Null name should survive parceling", createdFromParcel.name);
-        assertNull("Null cuisine should survive parceling", createdFromParcel.cuisine);
+        assertNull("Null cuisine should survive parceling", createdFromParcel.getCuisine());
 
         parcel.recycle();
     }
@@ -156,7 +160,7 @@ public class PlayerPreferenceTest {
         assertEquals("Special characters in name should survive parceling",
                 specialName, createdFromParcel.name);
         assertEquals("Special characters in cuisine should survive parceling",
-                specialCuisine, createdFromParcel.cuisine);
+                specialCuisine, createdFromParcel.getCuisine());
 
         parcel.recycle();
     }
@@ -178,11 +182,41 @@ public class PlayerPreferenceTest {
         PlayerPreference createdFromParcel = PlayerPreference.CREATOR.createFromParcel(parcel);
 
         assertEquals("Long name should survive parceling", longName, createdFromParcel.name);
-        assertEquals("Long cuisine should survive parceling", longCuisine, createdFromParcel.cuisine);
+        assertEquals("Long cuisine should survive parceling", longCuisine, createdFromParcel.getCuisine());
 
         parcel.recycle();
     }
 
+    /**
+     * Tests that ranked cuisines and dietary constraints survive parceling as their packed
+     * form, taking less space than the cuisine label.
+     */
+    @Test
+    public void testParcelableWithRankedPreferences() {
+        CuisinePreferences preferences = CuisinePreferences.of(
+                Arrays.asList(Cuisine.of("Thai"), Cuisine.of("Indian")), DietaryFlag.VEGAN.bit());
+        PlayerPreference originalPreference = PlayerPreference.of("John", preferences);
+
+        Parcel parcel = Parcel.obtain();
+        originalPreference.writeToParcel(parcel, 0);
+        int compactSize = parcel.dataSize();
+        parcel.setDataPosition(0);
+
+        PlayerPreference createdFromParcel = PlayerPreference.CREATOR.createFromParcel(parcel);
+
+        assertEquals("Preferences should survive parceling", preferences, createdFromParcel.preferences);
+        assertEquals("Label should survive parceling", "Vegan Thai", createdFromParcel.getCuisine());
+
+        parcel.recycle();
+
+        Parcel labelParcel = Parcel.obtain();
+        labelParcel.writeString("John");
+        labelParcel.writeString("Vegan Thai");
+        assertTrue("Packed preferences should be smaller than the label",
+                compactSize < labelParcel.dataSize());
+        labelParcel.recycle();
+    }
+
     /**
      * Tests the describeContents method.
      * Verifies that it returns the expected value of 0.
@@ -7,7 +7,7 @@
  * <ul>
  *   <li>Initial activity state and view initialization</li>
  *   <li>Location data handling from intent</li>
- *   <li>Player input creation and validation</li>
+ *   <li>Player input creation and validation, including large parties</li>
  *   <li>Navigation to game activity</li>
  *   <li>Error handling and user feedback</li>
  *   <li>Cuisine selection options</li>
@@ -19,9 +19,10 @@ import android.content.Intent;
 import android.view.View;
 import android.widget.Button;
 import android.widget.EditText;
-import android.widget.LinearLayout;
 import android.widget.Spinner;
 import android.widget.Toast;
+import androidx.recyclerview.widget.RecyclerView;
+import com.lastbite.app.game.RosterStore;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -33,7 +34,7 @@ import org.robolectric.Shadows;
 import org.robolectric.shadows.ShadowActivity;
 import org.robolectric.shadows.ShadowToast;
 
-import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.Assert.*;
 import static org.robolectric.shadows.ShadowView.clickOn;
@@ -50,8 +51,8 @@ public class PlayerSetupActivityTest {
     /** Button to confirm number of players */
     private Button confirmPlayersBtn;
 
-    /** Container for dynamically created player input fields */
-    private LinearLayout playerInputsContainer;
+    /** Recycled list of player input rows */
+    private RecyclerView playerInputsContainer;
 
     /** Button to start the game */
     private Button startGameBtn;
@@ -62,6 +63,12 @@ public class PlayerSetupActivityTest {
     /** Test longitude value for location testing */
     private static final double TEST_LONGITUDE = -122.4194;
 
+    /** Width the player list is laid out with */
+    private static final int LIST_WIDTH = 1080;
+
+    /** Height the player list is laid out with, enough for a few rows */
+    private static final int LIST_HEIGHT = 1920;
+
     /**
      * Sets up the test environment before each test.
      * Creates the activity with test coordinates and initializes all view references.
@@ -97,7 +104,7 @@ public class PlayerSetupActivityTest {
         assertNotNull("Start game button should not be null", startGameBtn);
 
         assertEquals("Player inputs container should be empty initially",
-                0, playerInputsContainer.getChildCount());
+                0, playerCount());
         assertEquals("Start game button should be invisible initially",
                 View.GONE, startGameBtn.getVisibility());
     }
@@ -123,12 +130,12 @@ public class PlayerSetupActivityTest {
         confirmPlayersBtn.performClick();
 
         assertEquals("Should create correct number of player inputs",
-                3, playerInputsContainer.getChildCount());
+                3, playerCount());
         assertEquals("Start game button should be visible",
                 View.VISIBLE, startGameBtn.getVisibility());
 
         for (int i = 0; i < 3; i++) {
-            View playerView = playerInputsContainer.getChildAt(i);
+            View playerView = rowAt(i);
             EditText nameInput = playerView.findViewById(R.id.playerNameInput);
             Spinner cuisineSpinner = playerView.findViewById(R.id.cuisineSpinner);
 
@@ -151,7 +158,7 @@ public class PlayerSetupActivityTest {
         assertEquals("Should show error for empty input",
                 "Please enter number of players", ShadowToast.getTextOfLatestToast());
         assertEquals("Should not create any player inputs",
-                0, playerInputsContainer.getChildCount());
+                0, playerCount());
     }
 
     /**
@@ -164,9 +171,9 @@ public class PlayerSetupActivityTest {
         confirmPlayersBtn.performClick();
 
         assertEquals("Should show error for too few players",
-                "Number of players must be between 2 and 10", ShadowToast.getTextOfLatestToast());
+                "Number of players must be between 2 and 100", ShadowToast.getTextOfLatestToast());
         assertEquals("Should not create any player inputs",
-                0, playerInputsContainer.getChildCount());
+                0, playerCount());
     }
 
     /**
@@ -175,13 +182,13 @@ public class PlayerSetupActivityTest {
      */
     @Test
     public void testCreatePlayerInputsWithTooManyPlayers() {
-        numPlayersInput.setText("11");
+        numPlayersInput.setText("101");
         confirmPlayersBtn.performClick();
 
         assertEquals("Should show error for too many players",
-                "Number of players must be between 2 and 10", ShadowToast.getTextOfLatestToast());
+                "Number of players must be between 2 and 100", ShadowToast.getTextOfLatestToast());
         assertEquals("Should not create any player inputs",
-                0, playerInputsContainer.getChildCount());
+                0, playerCount());
     }
 
     /**
@@ -194,7 +201,7 @@ public class PlayerSetupActivityTest {
         confirmPlayersBtn.performClick();
 
         for (int i = 0; i < 2; i++) {
-            View playerView = playerInputsContainer.getChildAt(i);
+            View playerView = rowAt(i);
             EditText nameInput = playerView.findViewById(R.id.playerNameInput);
             nameInput.setText("Player " + (i + 1));
         }
@@ -212,9 +219,11 @@ public class PlayerSetupActivityTest {
         assertEquals("Longitude should be passed to next activity",
                 TEST_LONGITUDE, nextActivity.getDoubleExtra("longitude", 0), 0.0001);
 
-        ArrayList<PlayerPreference> players = nextActivity.getParcelableArrayListExtra("players");
+        List<PlayerPreference> players = RosterStore.getInstance()
+                .take(nextActivity.getLongExtra(GameActivity.EXTRA_ROSTER_ID, 0));
         assertNotNull("Players list should not be null", players);
         assertEquals("Should have correct number of players", 2, players.size());
+        assertEquals("Player names should be passed on", "Player 2", players.get(1).name);
     }
 
     /**
@@ -245,9 +254,9 @@ public class PlayerSetupActivityTest {
         confirmPlayersBtn.performClick();
 
         assertTrue("Player inputs container should have children",
-                playerInputsContainer.getChildCount() > 0);
+                playerCount() > 0);
 
-        View playerView = playerInputsContainer.getChildAt(0);
+        View playerView = rowAt(0);
         assertNotNull("Player view should not be null", playerView);
 
         Spinner cuisineSpinner = playerView.findViewById(R.id.cuisineSpinner);
@@ -274,15 +283,15 @@ public class PlayerSetupActivityTest {
         numPlayersInput.setText("3");
         confirmPlayersBtn.performClick();
 
-        int initialCount = playerInputsContainer.getChildCount();
+        int initialCount = playerCount();
 
         numPlayersInput.setText("2");
         confirmPlayersBtn.performClick();
 
         assertNotEquals("Should clear previous inputs",
-                initialCount, playerInputsContainer.getChildCount());
+                initialCount, playerCount());
         assertEquals("Should have new number of inputs",
-                2, playerInputsContainer.getChildCount());
+                2, playerCount());
     }
 
     /**
@@ -294,7 +303,7 @@ public class PlayerSetupActivityTest {
         numPlayersInput.setText("2");
         confirmPlayersBtn.performClick();
 
-        View playerView = playerInputsContainer.getChildAt(0);
+        View playerView = rowAt(0);
         EditText nameInput = playerView.findViewById(R.id.playerNameInput);
         nameInput.setText("Player 1");
 
@@ -306,4 +315,61 @@ public class PlayerSetupActivityTest {
         ShadowActivity shadowActivity = Shadows.shadowOf(activity);
         assertNull("Should not start next activity", shadowActivity.getNextStartedActivity());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that a party of a hundred players keeps every entry while only the rows on screen
+     * are inflated, and that names entered in recycled rows reach the game.
+     */
+    @Test
+    public void testLargeParty() {
+        numPlayersInput.setText("100");
+        confirmPlayersBtn.performClick();
+
+        assertEquals("Should hold a draft for every player", 100, playerCount());
+        rowAt(0);
+        assertTrue("Should inflate only the visible rows", playerInputsContainer.getChildCount() < 100);
+
+        for (int i = 0; i < 100; i++) {
+            EditText nameInput = rowAt(i).findViewById(R.id.playerNameInput);
+            assertEquals("Player hint should be correct",
+                    "Player " + (i + 1) + " name", nameInput.getHint().toString());
+            nameInput.setText("Player " + (i + 1));
+        }
+        startGameBtn.performClick();
+
+        Intent nextActivity = Shadows.shadowOf(activity).getNextStartedActivity();
+        assertNotNull("Should start next activity", nextActivity);
+        List<PlayerPreference> players = RosterStore.getInstance()
+                .take(nextActivity.getLongExtra(GameActivity.EXTRA_ROSTER_ID, 0));
+        assertEquals("Should pass every player on", 100, players.size());
+        assertEquals("Names from recycled rows should be kept", "Player 1", players.get(0).name);
+        assertEquals("Names from recycled rows should be kept", "Player 100", players.get(99).name);
+    }
+
+    /**
+     * Returns the number of player rows in the list, including those off screen.
+     *
+     * @return The number of players
+     */
+    private int playerCount() {
+        RecyclerView.Adapter<?> adapter = playerInputsContainer.getAdapter();
+        return adapter == null ? 0 : adapter.getItemCount();
+    }
+
+    /**
+     * Scrolls a player's row into view, lays the list out and returns the row.
+     *
+     * @param position The player's position
+     * @return The row view bound to the player
+     */
+    private View rowAt(int position) {
+        playerInputsContainer.scrollToPosition(position);
+        playerInputsContainer.measure(
+                View.MeasureSpec.makeMeasureSpec(LIST_WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(LIST_HEIGHT, View.MeasureSpec.EXACTLY));
+        playerInputsContainer.layout(0, 0, LIST_WIDTH, LIST_HEIGHT);
+        RecyclerView.ViewHolder holder = playerInputsContainer.findViewHolderForAdapterPosition(position);
+        assertNotNull("Row " + position + " should be laid out", holder);
+        return holder.itemView;
+    }
+}
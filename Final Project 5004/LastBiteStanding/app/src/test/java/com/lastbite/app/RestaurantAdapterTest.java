@@ -16,9 +16,11 @@
 package com.lastbite.app;
 
 import android.content.Context;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.recyclerview.widget.RecyclerView;
@@ -33,6 +35,7 @@ import org.mockito.MockitoAnnotations;
 import org.robolectric.RobolectricTestRunner;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -43,6 +46,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
 
 /**
  * Unit test suite for the RestaurantAdapter class.
@@ -112,6 +116,7 @@ public class RestaurantAdapterTest {
         when(mockInflater.inflate(eq(R.layout.restaurant_card), any(ViewGroup.class), eq(false)))
                 .thenReturn(mockItemView);
         when(mockItemView.findViewById(anyInt())).thenReturn(mockTextView);
+        when(mockItemView.findViewById(R.id.photo)).thenReturn(mock(ImageView.class));
     }
 
     /**
@@ -159,7 +164,9 @@ public class RestaurantAdapterTest {
         holder.cuisineType = mockTextView;
         holder.rating = mockTextView;
         holder.address = mockTextView;
+        holder.distance = mockTextView;
         holder.suggestedFor = mockTextView;
+        holder.photo = mock(ImageView.class);
 
         adapter.onBindViewHolder(holder, 0);
 
@@ -168,6 +175,7 @@ public class RestaurantAdapterTest {
         verify(holder.rating).setText("4.5");
         verify(holder.address).setText("123 Test St");
         verify(holder.suggestedFor).setText("Suggested for: Dinner");
+        verify(holder.photo).setVisibility(View.GONE);
     }
 
 
@@ -200,6 +208,146 @@ public class RestaurantAdapterTest {
     }
 
 
+    /**
+     * Tests that a card changing only its rating is rebound through a rating payload.
+     */
+    @Test
+    public void testBindWithRatingPayloadOnlyUpdatesRating() {
+        RestaurantAdapter.RestaurantViewHolder holder = mock(RestaurantAdapter.RestaurantViewHolder.class);
+        TextView ratingView = mock(TextView.class);
+        holder.restaurantName = mockTextView;
+        holder.cuisineType = mockTextView;
+        holder.rating = ratingView;
+        holder.address = mockTextView;
+        holder.suggestedFor = mockTextView;
+
+        List<Object> payloads = new ArrayList<>();
+        payloads.add(RestaurantAdapter.PAYLOAD_RATING);
+        adapter.onBindViewHolder(holder, 0, payloads);
+
+        verify(ratingView).setText("4.5");
+        verify(mockTextView, never()).setText(any(CharSequence.class));
+    }
+
+    /**
+     * Tests that stable ids follow the restaurant identity, not the rating or the list position.
+     */
+    @Test
+    public void testStableIdsFollowRestaurantIdentity() {
+        RestaurantCard rerated = new RestaurantCard("Test Restaurant", "Test Cuisine", "4.8", "123 Test St", "Dinner");
+        RestaurantCard other = new RestaurantCard("Test Restaurant", "Test Cuisine", "4.5", "9 Other St", "Dinner");
+
+        assertTrue(adapter.hasStableIds());
+        assertEquals(RestaurantAdapter.stableIdOf(restaurants.get(0)), RestaurantAdapter.stableIdOf(rerated));
+        assertNotEquals(RestaurantAdapter.stableIdOf(restaurants.get(0)), RestaurantAdapter.stableIdOf(other));
+        assertEquals(RestaurantAdapter.stableIdOf(restaurants.get(0)), adapter.getItemId(0));
+    }
+
+    /**
+     * Tests that a card with a place id is identified by it alone, so a renamed or re-addressed
+     * listing keeps its id, and that only cards without one fall back to name and address.
+     */
+    @Test
+    public void testStableIdsPreferPlaceId() {
+        RestaurantCard siam = new RestaurantCard("Siam", "Thai", "4.5", "1 Pike St", "Alice",
+                Double.NaN, Double.NaN, Double.NaN, "id-siam");
+        RestaurantCard renamed = new RestaurantCard("Siam Thai Kitchen", "Thai", "4.5", "1 Pike Street", "Bob",
+                Double.NaN, Double.NaN, Double.NaN, "id-siam");
+        RestaurantCard sameNameElsewhere = new RestaurantCard("Siam", "Thai", "4.5", "1 Pike St", "Alice",
+                Double.NaN, Double.NaN, Double.NaN, "id-siam-2");
+        RestaurantCard offline = new RestaurantCard("Siam", "Thai", "4.5", "1 Pike St", "Alice");
+        RestaurantCard offlineForBob = new RestaurantCard("Siam", "Thai", "4.5", "1 Pike St", "Bob");
+
+        assertEquals(RestaurantAdapter.stableIdOf(siam), RestaurantAdapter.stableIdOf(renamed));
+        assertNotEquals(RestaurantAdapter.stableIdOf(siam), RestaurantAdapter.stableIdOf(sameNameElsewhere));
+        assertNotEquals(RestaurantAdapter.stableIdOf(siam), RestaurantAdapter.stableIdOf(offline));
+        assertEquals(RestaurantAdapter.stableIdOf(offline), RestaurantAdapter.stableIdOf(offlineForBob));
+    }
+
+    /**
+     * Tests that a change of price is a change of contents that needs a full rebind, not a
+     * rating payload.
+     */
+    @Test
+    public void testDiffCallbackDetectsPriceChange() {
+        RestaurantCard cheap = new RestaurantCard("Siam", "Thai", 4.5f, 1, 0, "1 Pike St", "Alice",
+                Double.NaN, Double.NaN, Double.NaN, "id-siam");
+        RestaurantCard dearer = new RestaurantCard("Siam", "Thai", 4.5f, 3, 0, "1 Pike St", "Alice",
+                Double.NaN, Double.NaN, Double.NaN, "id-siam");
+
+        RestaurantAdapter.CardDiffCallback callback = new RestaurantAdapter.CardDiffCallback(
+                Collections.singletonList(cheap), Collections.singletonList(dearer));
+
+        assertTrue(callback.areItemsTheSame(0, 0));
+        assertFalse(callback.areContentsTheSame(0, 0));
+        assertNull(callback.getChangePayload(0, 0));
+    }
+
+    /**
+     * Tests the diff callback: same restaurant with a new rating yields a rating payload,
+     * a different restaurant is a different item.
+     */
+    @Test
+    public void testDiffCallbackDetectsRatingChange() {
+        List<RestaurantCard> oldList = new ArrayList<>(restaurants);
+        List<RestaurantCard> newList = new ArrayList<>();
+        newList.add(new RestaurantCard("Test Restaurant", "Test Cuisine", "4.8", "123 Test St", "Dinner"));
+        newList.add(new RestaurantCard("R2", "C2", "4.0", "Address", "Lunch"));
+
+        RestaurantAdapter.CardDiffCallback callback = new RestaurantAdapter.CardDiffCallback(oldList, newList);
+
+        assertTrue(callback.areItemsTheSame(0, 0));
+        assertFalse(callback.areContentsTheSame(0, 0));
+        assertSame(RestaurantAdapter.PAYLOAD_RATING, callback.getChangePayload(0, 0));
+        assertFalse(callback.areItemsTheSame(0, 1));
+    }
+
+    /**
+     * Tests a swipe while a submitted deck is still being applied: the swiped card is the one
+     * on screen, and once the new deck is applied it stays removed and the session's deck and
+     * the adapter's agree.
+     *
+     * @throws InterruptedException if interrupted while waiting for the difference
+     */
+    @Test
+    public void testSwipeWhileDiffPending() throws InterruptedException {
+        RestaurantCard first = restaurants.get(0);
+        RestaurantCard second = new RestaurantCard("R2", "C2", "4.0", "Address", "Lunch");
+        restaurants.add(second);
+        List<RestaurantCard> sessionDeck = new ArrayList<>(restaurants);
+        boolean[] applied = new boolean[1];
+        adapter.setBindListener(new RestaurantAdapter.BindListener() {
+            @Override
+            public void onCardBound(RestaurantCard card) {
+            }
+
+            @Override
+            public void onDeckApplied() {
+                applied[0] = true;
+            }
+        });
+
+        RestaurantCard arrived = new RestaurantCard("R0", "C0", "4.2", "Address", "Brunch");
+        sessionDeck.add(0, arrived);
+        adapter.submitList(sessionDeck);
+
+        RestaurantCard swiped = adapter.getCard(0);
+        assertSame("The card on screen is swiped, not the new first card", first, swiped);
+        assertTrue(sessionDeck.remove(swiped));
+        adapter.removeItem(0);
+
+        for (int i = 0; i < 500 && !applied[0]; i++) {
+            Thread.sleep(10);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+
+        assertTrue("The new deck should be applied", applied[0]);
+        assertEquals(sessionDeck, restaurants);
+        assertFalse(restaurants.contains(first));
+        assertSame(arrived, adapter.getCard(0));
+        assertSame(second, adapter.getCard(1));
+    }
+
     /**
      * Tests ViewHolder initialization.
      * Verifies all required views are properly initialized.
@@ -208,6 +356,7 @@ public class RestaurantAdapterTest {
     public void testViewHolderInitialization() {
         View mockItemView = mock(View.class);
         when(mockItemView.findViewById(anyInt())).thenReturn(mock(TextView.class));
+        when(mockItemView.findViewById(R.id.photo)).thenReturn(mock(ImageView.class));
 
         RestaurantAdapter.RestaurantViewHolder holder = new RestaurantAdapter.RestaurantViewHolder(mockItemView);
 
@@ -216,5 +365,6 @@ public class RestaurantAdapterTest {
         assertNotNull("Rating TextView should be initialized", holder.rating);
         assertNotNull("Address TextView should be initialized", holder.address);
         assertNotNull("Suggested for TextView should be initialized", holder.suggestedFor);
+        assertNotNull("Photo ImageView should be initialized", holder.photo);
     }
 }
\ No newline at end of file
@@ -14,6 +14,8 @@
  */
 package com.lastbite.app;
 
+import com.lastbite.core.cuisine.Cuisine;
+import com.lastbite.core.deck.DeckEntry;
 import org.junit.Test;
 import org.junit.Before;
 import static org.junit.Assert.*;
@@ -206,4 +208,103 @@ public class RestaurantCardTest {
         assertEquals(whitespace, whitespaceCard.getAddress());
         assertEquals(whitespace, whitespaceCard.getSuggestedFor());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests placeholder cards.
+     * Verifies that regular cards are not placeholders and placeholders keep their slot.
+     */
+    @Test
+    public void testPlaceholder() {
+        RestaurantCard placeholder = RestaurantCard.placeholder(2, "Thai", "Alice");
+
+        assertFalse(restaurantCard.isPlaceholder());
+        assertEquals(-1, restaurantCard.getPlaceholderSlot());
+        assertTrue(placeholder.isPlaceholder());
+        assertEquals(2, placeholder.getPlaceholderSlot());
+        assertEquals("Thai", placeholder.getCuisine());
+        assertEquals("Alice", placeholder.getSuggestedFor());
+    }
+
+    /**
+     * Tests the restaurant location and distance.
+     * Verifies that cards without a location report no distance.
+     */
+    @Test
+    public void testDistance() {
+        RestaurantCard located = new RestaurantCard("Luigi's", "Italian", "4.5 ★", "1 Main St", "Alice",
+                47.61, -122.33, 1250);
+
+        assertFalse(restaurantCard.hasDistance());
+        assertTrue(Double.isNaN(restaurantCard.getLatitude()));
+        assertTrue(located.hasDistance());
+        assertEquals(47.61, located.getLatitude(), 0);
+        assertEquals(-122.33, located.getLongitude(), 0);
+        assertEquals(1250, located.getDistanceMeters(), 0);
+    }
+
+    /**
+     * Tests the place id used to look up the restaurant's photo.
+     * Verifies that cards built without one report null.
+     */
+    @Test
+    public void testPlaceId() {
+        RestaurantCard placed = new RestaurantCard("Luigi's", "Italian", "4.5 ★", "1 Main St", "Alice",
+                47.61, -122.33, 1250, "ChIJluigi");
+
+        assertNull(restaurantCard.getPlaceId());
+        assertEquals("ChIJluigi", placed.getPlaceId());
+    }
+
+    /**
+     * Tests a card built from typed values.
+     * Verifies that the rating and distance texts are derived once and then reused.
+     */
+    @Test
+    public void testTypedValues() {
+        RestaurantCard typed = new RestaurantCard("Luigi's", "Italian", 4.3f, 2, Cuisine.of("Italian").bit(),
+                "1 Main St", "Alice", 47.61, -122.33, 1250, "ChIJluigi");
+
+        assertEquals(4.3f, typed.getRatingValue(), 0);
+        assertEquals(2, typed.getPriceLevel());
+        assertEquals(Cuisine.of("Italian").bit(), typed.getCuisineMask());
+        assertEquals("4.3 ★", typed.getRating());
+        assertSame(typed.getRating(), typed.getRating());
+        assertEquals("1.3 km away", typed.getDistanceText());
+        assertSame(typed.getDistanceText(), typed.getDistanceText());
+        assertNull(restaurantCard.getDistanceText());
+    }
+
+    /**
+     * Tests cards built from a rating text.
+     * Verifies that the text is shown as given and read for its number.
+     */
+    @Test
+    public void testRatingTextIsParsed() {
+        RestaurantCard unrated = new RestaurantCard("Taco Town", "Mexican", "Rating N/A", "2 Main St", "Bob");
+
+        assertEquals(4.5f, restaurantCard.getRatingValue(), 0);
+        assertEquals(VALID_RATING, restaurantCard.getRating());
+        assertTrue(Float.isNaN(unrated.getRatingValue()));
+        assertEquals(DeckEntry.PRICE_UNKNOWN, unrated.getPriceLevel());
+        assertEquals("", RestaurantCard.placeholder(0, "Thai", "Alice").getRating());
+    }
+
+    /**
+     * Tests copying a card for another player.
+     * Verifies that only the cuisine and the player change.
+     */
+    @Test
+    public void testWithSuggestion() {
+        RestaurantCard typed = new RestaurantCard("Luigi's", "Italian", 4.3f, 2, 0,
+                "1 Main St", "Alice", 47.61, -122.33, 1250, "ChIJluigi");
+        RestaurantCard copy = typed.withSuggestion("Pizza", "Bob");
+
+        assertEquals("Pizza", copy.getCuisine());
+        assertEquals("Bob", copy.getSuggestedFor());
+        assertEquals(typed.getName(), copy.getName());
+        assertEquals(typed.getRatingValue(), copy.getRatingValue(), 0);
+        assertEquals(typed.getPriceLevel(), copy.getPriceLevel());
+        assertEquals(typed.getPlaceId(), copy.getPlaceId());
+        assertEquals("Alice", typed.getSuggestedFor());
+    }
+}
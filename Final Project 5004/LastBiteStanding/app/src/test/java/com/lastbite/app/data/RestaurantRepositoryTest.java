@@ -0,0 +1,231 @@
+/**
+ * Unit test suite for the RestaurantRepository class.
+ * Uses Robolectric's SQLite against an in-memory database, runs the database work inline and
+ * moves a fake clock to verify the fresh/stale split, expiry after
+ * {@link RestaurantRepository#MAX_AGE_MS} and the {@link RestaurantRepository#MAX_ENTRIES} cap.
+ */
+package com.lastbite.app.data;
+
+import android.database.DatabaseUtils;
+import android.os.Looper;
+import com.lastbite.app.RestaurantCard;
+import com.lastbite.core.deck.DeckEntry;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+public class RestaurantRepositoryTest {
+    /** Search location of every lookup */
+    private static final double LATITUDE = 47.61;
+    private static final double LONGITUDE = -122.33;
+
+    /** The in-memory database */
+    private RestaurantCacheDbHelper dbHelper;
+
+    /** Repository under test */
+    private RestaurantRepository repository;
+
+    /** The fake clock's current time */
+    private long now = 1_000_000_000L;
+
+    /**
+     * Creates a repository on an empty in-memory database that runs its work inline.
+     */
+    @Before
+    public void setUp() {
+        dbHelper = new RestaurantCacheDbHelper(RuntimeEnvironment.getApplication(), null);
+        repository = new RestaurantRepository(dbHelper, Runnable::run, () -> now);
+    }
+
+    /**
+     * Closes the database.
+     */
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    /**
+     * Builds a card for a restaurant.
+     *
+     * @param name The restaurant's name
+     * @return The card
+     */
+    private static RestaurantCard card(String name) {
+        return new RestaurantCard(name, "Thai", 4.5f, 2, 0, name + " Street", "Alice",
+                LATITUDE, LONGITUDE, 0, "id-" + name);
+    }
+
+    /**
+     * Looks up a cached card and waits for the main-thread callback.
+     *
+     * @param rank  The card's rank
+     * @param stale Receives whether the card is stale
+     * @return The card, or null on a miss
+     */
+    private RestaurantCard lookUp(int rank, boolean[] stale) {
+        AtomicReference<RestaurantCard> result = new AtomicReference<>();
+        boolean[] called = new boolean[1];
+        repository.getCachedCard(LATITUDE, LONGITUDE, "Thai", rank, (card, isStale) -> {
+            result.set(card);
+            stale[0] = isStale;
+            called[0] = true;
+        });
+        shadowOf(Looper.getMainLooper()).idle();
+        assertTrue("Callback should run on the main thread", called[0]);
+        return result.get();
+    }
+
+    /**
+     * Counts the rows of the cache table.
+     *
+     * @return The number of cached cards
+     */
+    private long rowCount() {
+        return DatabaseUtils.queryNumEntries(dbHelper.getReadableDatabase(),
+                RestaurantCacheDbHelper.TABLE_RESTAURANTS);
+    }
+
+    /**
+     * Tests that a card younger than the fresh TTL is served as fresh with its typed values.
+     */
+    @Test
+    public void testFreshCard() {
+        repository.saveCard(LATITUDE, LONGITUDE, "Thai", 0, card("Siam"));
+        now += RestaurantRepository.FRESH_TTL_MS - 1;
+
+        boolean[] stale = new boolean[1];
+        RestaurantCard cached = lookUp(0, stale);
+
+        assertNotNull(cached);
+        assertFalse(stale[0]);
+        assertEquals("Siam", cached.getName());
+        assertEquals(4.5f, cached.getRatingValue(), 0);
+        assertEquals(2, cached.getPriceLevel());
+        assertEquals("id-Siam", cached.getPlaceId());
+    }
+
+    /**
+     * Tests that a card older than the fresh TTL but younger than the maximum age is served
+     * and marked stale.
+     */
+    @Test
+    public void testStaleCard() {
+        repository.saveCard(LATITUDE, LONGITUDE, "Thai", 0, card("Siam"));
+        now += RestaurantRepository.FRESH_TTL_MS + 1;
+
+        boolean[] stale = new boolean[1];
+        assertNotNull(lookUp(0, stale));
+        assertTrue(stale[0]);
+    }
+
+    /**
+     * Tests that a card older than the maximum age is never served and is evicted on the
+     * next write.
+     */
+    @Test
+    public void testExpiredCard() {
+        repository.saveCard(LATITUDE, LONGITUDE, "Thai", 0, card("Siam"));
+        now += RestaurantRepository.MAX_AGE_MS + 1;
+
+        assertNull(lookUp(0, new boolean[1]));
+
+        repository.saveCard(LATITUDE, LONGITUDE, "Thai", 1, card("Bangkok"));
+        assertEquals(1, rowCount());
+    }
+
+    /**
+     * Tests that unknown ratings and prices survive the round trip as unknown.
+     */
+    @Test
+    public void testUnknownValues() {
+        repository.saveCard(LATITUDE, LONGITUDE, "Thai", 0, new RestaurantCard("Siam", "Thai",
+                DeckEntry.UNRATED, DeckEntry.PRICE_UNKNOWN, 0, "1 Main St", "Alice",
+                Double.NaN, Double.NaN, Double.NaN, null));
+
+        RestaurantCard cached = lookUp(0, new boolean[1]);
+
+        assertTrue(Float.isNaN(cached.getRatingValue()));
+        assertEquals(DeckEntry.PRICE_UNKNOWN, cached.getPriceLevel());
+        assertFalse(cached.hasDistance());
+    }
+
+    /**
+     * Tests that the table keeps at most MAX_ENTRIES rows, evicting the oldest first.
+     */
+    @Test
+    public void testSizeCap() {
+        for (int rank = 0; rank <= RestaurantRepository.MAX_ENTRIES; rank++) {
+            repository.saveCard(LATITUDE, LONGITUDE, "Thai", rank, card("R" + rank));
+            now++;
+        }
+
+        assertEquals(RestaurantRepository.MAX_ENTRIES, rowCount());
+        assertNull(lookUp(0, new boolean[1]));
+        assertNotNull(lookUp(RestaurantRepository.MAX_ENTRIES, new boolean[1]));
+    }
+
+    /**
+     * Tests the batch lookup: one result slot per rank, null where nothing is cached, and a
+     * stale flag per card.
+     */
+    @Test
+    public void testBatchLookup() {
+        repository.saveCard(LATITUDE, LONGITUDE, "Thai", 0, card("Siam"));
+        now += RestaurantRepository.FRESH_TTL_MS + 1;
+        repository.saveCard(LATITUDE, LONGITUDE, "Thai", 2, card("Bangkok"));
+
+        AtomicReference<List<RestaurantCard>> cards = new AtomicReference<>();
+        AtomicReference<boolean[]> stale = new AtomicReference<>();
+        repository.getCachedCards(LATITUDE, LONGITUDE, "Thai", 3, (result, isStale) -> {
+            cards.set(result);
+            stale.set(isStale);
+        });
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(3, cards.get().size());
+        assertEquals("Siam", cards.get().get(0).getName());
+        assertNull(cards.get().get(1));
+        assertEquals("Bangkok", cards.get().get(2).getName());
+        assertTrue(stale.get()[0]);
+        assertFalse(stale.get()[2]);
+    }
+
+    /**
+     * Tests that a single lookup of a rank other than 0 and the batch lookup read back the same
+     * fields of the same card.
+     */
+    @Test
+    public void testSingleLookupMatchesBatch() {
+        RestaurantCard saved = new RestaurantCard("Bangkok", "Thai", 3.5f, 1, 0b101L, "Bangkok Street",
+                "Alice", LATITUDE + 0.01, LONGITUDE, 0, "id-Bangkok");
+        repository.saveCard(LATITUDE, LONGITUDE, "Thai", 1, saved);
+
+        RestaurantCard single = lookUp(1, new boolean[1]);
+        AtomicReference<List<RestaurantCard>> cards = new AtomicReference<>();
+        repository.getCachedCards(LATITUDE, LONGITUDE, "Thai", 2, (result, isStale) -> cards.set(result));
+        shadowOf(Looper.getMainLooper()).idle();
+        RestaurantCard batched = cards.get().get(1);
+
+        assertNull(cards.get().get(0));
+        for (RestaurantCard cached : new RestaurantCard[]{single, batched}) {
+            assertEquals("Bangkok", cached.getName());
+            assertEquals(3.5f, cached.getRatingValue(), 0);
+            assertEquals(1, cached.getPriceLevel());
+            assertEquals(0b101L, cached.getCuisineMask());
+            assertEquals("Bangkok Street", cached.getAddress());
+            assertEquals("id-Bangkok", cached.getPlaceId());
+            assertEquals(saved.getLatitude(), cached.getLatitude(), 0);
+            assertEquals("0.01 degrees of latitude from the search location", 1112, cached.getDistanceMeters(), 1);
+        }
+    }
+}
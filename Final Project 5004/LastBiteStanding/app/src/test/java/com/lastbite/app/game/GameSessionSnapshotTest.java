@@ -0,0 +1,99 @@
+/**
+ * Unit tests for {@link GameSessionSnapshot}.
+ * Verifies that a game session survives a round trip through a Parcel unchanged.
+ * Uses Robolectric test runner to simulate Android framework components.
+ */
+package com.lastbite.app.game;
+
+import android.os.Parcel;
+import com.lastbite.app.RestaurantCard;
+import com.lastbite.core.cuisine.Cuisine;
+import com.lastbite.core.deck.DeckEntry;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+public class GameSessionSnapshotTest {
+
+    /**
+     * Writes a snapshot to a Parcel and reads it back.
+     */
+    private GameSessionSnapshot roundTrip(GameSessionSnapshot snapshot) {
+        Parcel parcel = Parcel.obtain();
+        snapshot.writeToParcel(parcel, 0);
+        parcel.setDataPosition(0);
+        GameSessionSnapshot restored = GameSessionSnapshot.CREATOR.createFromParcel(parcel);
+        parcel.recycle();
+        return restored;
+    }
+
+    /**
+     * Tests that cards, turn state and completed slots are restored in order.
+     */
+    @Test
+    public void testParcelRoundTrip() {
+        List<RestaurantCard> cards = Arrays.asList(
+                new RestaurantCard("Luigi's", "Italian", "4.5 ★", "1 Main St", "Alice"),
+                new RestaurantCard("Taco Town", "Mexican", DeckEntry.UNRATED, 1, Cuisine.of("Mexican").bit(),
+                        "2 Main St", "Bob", 47.61, -122.33, 1250, "ChIJtaco"));
+        boolean[] completed = {true, false, true};
+
+        GameSessionSnapshot restored = roundTrip(new GameSessionSnapshot(cards, 1, 2, completed));
+        List<RestaurantCard> restoredCards = restored.toRestaurants();
+
+        assertEquals(2, restoredCards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            assertEquals(cards.get(i).getName(), restoredCards.get(i).getName());
+            assertEquals(cards.get(i).getCuisine(), restoredCards.get(i).getCuisine());
+            assertEquals(cards.get(i).getRating(), restoredCards.get(i).getRating());
+            assertEquals(cards.get(i).getAddress(), restoredCards.get(i).getAddress());
+            assertEquals(cards.get(i).getSuggestedFor(), restoredCards.get(i).getSuggestedFor());
+            assertEquals(cards.get(i).getDistanceMeters(), restoredCards.get(i).getDistanceMeters(), 0);
+            assertEquals(cards.get(i).getPlaceId(), restoredCards.get(i).getPlaceId());
+            assertEquals(cards.get(i).getRatingValue(), restoredCards.get(i).getRatingValue(), 0);
+            assertEquals(cards.get(i).getPriceLevel(), restoredCards.get(i).getPriceLevel());
+            assertEquals(cards.get(i).getCuisineMask(), restoredCards.get(i).getCuisineMask());
+        }
+        assertFalse(restoredCards.get(0).hasDistance());
+        assertEquals(47.61, restoredCards.get(1).getLatitude(), 0);
+        assertEquals(1, restored.currentPlayerIndex);
+        assertEquals(2, restored.vetosRemaining);
+        assertArrayEquals(completed, restored.completedSlots);
+    }
+
+    /**
+     * Tests that the snapshot copies the completed slots instead of sharing the array.
+     */
+    @Test
+    public void testCompletedSlotsAreCopied() {
+        boolean[] completed = {false, false};
+        GameSessionSnapshot snapshot =
+                new GameSessionSnapshot(Collections.emptyList(), 0, 1, completed);
+        completed[0] = true;
+
+        assertFalse(snapshot.completedSlots[0]);
+        assertTrue(roundTrip(snapshot).toRestaurants().isEmpty());
+    }
+
+    /**
+     * Tests that placeholder cards are not saved; their slots are fetched again on restore.
+     */
+    @Test
+    public void testPlaceholdersAreSkipped() {
+        List<RestaurantCard> cards = Arrays.asList(
+                RestaurantCard.placeholder(0, "Thai", "Alice"),
+                new RestaurantCard("Taco Town", "Mexican", "4.1 ★", "2 Main St", "Bob"));
+
+        GameSessionSnapshot restored =
+                roundTrip(new GameSessionSnapshot(cards, 0, 2, new boolean[] {false, true, false}));
+
+        assertEquals(1, restored.toRestaurants().size());
+        assertEquals("Taco Town", restored.toRestaurants().get(0).getName());
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Unit test suite for the LocationManager class.
+ * Uses a mocked LocationService and a lifecycle the test moves by hand to verify that ending a
+ * subscription leaves a pending one-shot request running, while stopping location updates
+ * cancels it.
+ */
+package com.lastbite.app.managers;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+import com.lastbite.app.services.LocationService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+public class LocationManagerTest {
+
+    /**
+     * A lifecycle owner the test moves through its states.
+     */
+    private static final class TestOwner implements LifecycleOwner {
+        final LifecycleRegistry registry = new LifecycleRegistry(this);
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle() {
+            return registry;
+        }
+    }
+
+    private LocationService locationService;
+    private LocationManager locationManager;
+    private TestOwner owner;
+
+    /**
+     * Creates a manager in front of a mocked service and a started owner.
+     */
+    @Before
+    public void setUp() {
+        locationService = mock(LocationService.class);
+        locationManager = new LocationManager(locationService);
+        owner = new TestOwner();
+        owner.registry.setCurrentState(Lifecycle.State.STARTED);
+    }
+
+    /**
+     * Subscribes the owner at an arbitrary position.
+     */
+    private void subscribe() {
+        locationManager.subscribe(owner, 47.61, -122.33, new LocationManager.MovementListener() { });
+    }
+
+    /**
+     * Tests that unsubscribing ends only the subscription, so a pending current location
+     * request still answers its caller.
+     */
+    @Test
+    public void testUnsubscribeKeepsPendingRequest() {
+        subscribe();
+
+        locationManager.unsubscribe();
+
+        verify(locationService).removeLocationUpdates();
+        verify(locationService, never()).stopLocationUpdates();
+    }
+
+    /**
+     * Tests that the owner stopping ends the subscription without cancelling a pending
+     * request.
+     */
+    @Test
+    public void testOwnerStopKeepsPendingRequest() {
+        subscribe();
+
+        owner.registry.setCurrentState(Lifecycle.State.CREATED);
+
+        verify(locationService).removeLocationUpdates();
+        verify(locationService, never()).stopLocationUpdates();
+    }
+
+    /**
+     * Tests that a new subscription replaces the previous one without cancelling a pending
+     * request.
+     */
+    @Test
+    public void testResubscribeKeepsPendingRequest() {
+        subscribe();
+        subscribe();
+
+        verify(locationService, times(2)).startLocationUpdates(anyLong(), anyLong(), anyFloat(), any());
+        verify(locationService).removeLocationUpdates();
+        verify(locationService, never()).stopLocationUpdates();
+    }
+
+    /**
+     * Tests that stopping location updates ends the subscription and cancels the pending
+     * request.
+     */
+    @Test
+    public void testStopLocationUpdates() {
+        subscribe();
+
+        locationManager.stopLocationUpdates();
+
+        verify(locationService).removeLocationUpdates();
+        verify(locationService).stopLocationUpdates();
+    }
+}
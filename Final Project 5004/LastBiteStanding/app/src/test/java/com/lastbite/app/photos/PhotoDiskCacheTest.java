@@ -0,0 +1,104 @@
+/**
+ * Unit test suite for the PhotoDiskCache class.
+ * Writes files of known sizes and ages into a temporary directory to verify that trimming
+ * deletes the least recently read photos first and leaves files still being written alone.
+ */
+package com.lastbite.app.photos;
+
+import android.graphics.Bitmap;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+public class PhotoDiskCacheTest {
+    /** Size of every test file */
+    private static final int FILE_BYTES = 100;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+
+    /** Cache under test, with room for two test files */
+    private PhotoDiskCache cache;
+
+    /**
+     * Creates a cache with a budget of two and a half test files.
+     */
+    @Before
+    public void setUp() throws IOException {
+        directory = folder.newFolder("photos");
+        cache = new PhotoDiskCache(directory, FILE_BYTES * 5 / 2);
+    }
+
+    /**
+     * Writes a file of a given size and last-read time.
+     *
+     * @param name         The file name
+     * @param bytes        The file size
+     * @param lastModified The last-read time
+     * @return The file
+     */
+    private File write(String name, int bytes, long lastModified) throws IOException {
+        File file = new File(directory, name);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[bytes]);
+        }
+        assertTrue(file.setLastModified(lastModified));
+        return file;
+    }
+
+    /**
+     * Tests that trimming deletes the least recently read photos until the budget is met.
+     */
+    @Test
+    public void testTrimDeletesLeastRecentlyRead() throws IOException {
+        File newest = write("newest.jpg", FILE_BYTES, 3_000_000);
+        File oldest = write("oldest.jpg", FILE_BYTES, 1_000_000);
+        File middle = write("middle.jpg", FILE_BYTES, 2_000_000);
+
+        cache.trim();
+
+        assertFalse(oldest.exists());
+        assertTrue(middle.exists());
+        assertTrue(newest.exists());
+    }
+
+    /**
+     * Tests that files still being written are neither counted towards the budget nor deleted.
+     */
+    @Test
+    public void testTrimSkipsTemporaryFiles() throws IOException {
+        File temporary = write("writing.jpg.tmp", FILE_BYTES * 10, 1_000);
+        File photo = write("siam.jpg", FILE_BYTES, 2_000_000);
+
+        cache.trim();
+
+        assertTrue(temporary.exists());
+        assertTrue(photo.exists());
+    }
+
+    /**
+     * Tests that a stored photo can be read back and that reading it marks it as recently used.
+     */
+    @Test
+    public void testPutThenGet() {
+        cache.put("siam", Bitmap.createBitmap(4, 4, Bitmap.Config.ARGB_8888));
+
+        File file = cache.get("siam");
+
+        assertNotNull(file);
+        assertTrue(file.lastModified() > 0);
+        assertNull(cache.get("bangkok"));
+        assertFalse(new File(directory, file.getName() + ".tmp").exists());
+    }
+}
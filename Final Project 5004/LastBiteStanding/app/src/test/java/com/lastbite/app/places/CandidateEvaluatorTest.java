@@ -0,0 +1,46 @@
+/**
+ * Unit test suite for the CandidateEvaluator rating filter.
+ * Uses Mockito to create Place instances with specific ratings.
+ */
+package com.lastbite.app.places;
+
+import com.google.android.libraries.places.api.model.Place;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CandidateEvaluatorTest {
+
+    /**
+     * Creates a mocked place with the given rating.
+     *
+     * @param rating The rating to return, may be null
+     * @return A mocked Place
+     */
+    private Place placeWithRating(Double rating) {
+        Place place = mock(Place.class);
+        when(place.getRating()).thenReturn(rating);
+        return place;
+    }
+
+    /**
+     * Tests that only highly rated places are kept, and every place when none qualifies.
+     */
+    @Test
+    public void testHighlyRatedOrAll() {
+        Place low = placeWithRating(3.2);
+        Place high = placeWithRating(4.4);
+        Place unrated = placeWithRating(null);
+        List<Place> mixed = Arrays.asList(low, null, high, unrated);
+        List<Place> weak = Arrays.asList(low, unrated);
+
+        assertEquals(Arrays.asList(high), CandidateEvaluator.highlyRatedOrAll(mixed, 4.0));
+        assertSame(weak, CandidateEvaluator.highlyRatedOrAll(weak, 4.0));
+    }
+}
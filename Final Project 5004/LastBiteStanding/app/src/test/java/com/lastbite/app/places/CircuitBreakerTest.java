@@ -0,0 +1,101 @@
+/**
+ * Unit test suite for the CircuitBreaker class.
+ * Verifies the closed, open and half-open transitions.
+ */
+package com.lastbite.app.places;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakerTest {
+    /** Breaker under test: trips after 3 failures, stays open for 1000 ms */
+    private CircuitBreaker breaker;
+
+    /**
+     * Creates a closed breaker before each test.
+     */
+    @Before
+    public void setUp() {
+        breaker = new CircuitBreaker(3, 1000);
+    }
+
+    /**
+     * Tests that the breaker opens after the failure threshold and refuses requests.
+     */
+    @Test
+    public void testOpensAfterThreshold() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.allowRequest(0));
+            breaker.recordFailure(0);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(0));
+        assertFalse(breaker.allowRequest(500));
+    }
+
+    /**
+     * Tests that a success resets the consecutive failure count.
+     */
+    @Test
+    public void testSuccessResetsFailures() {
+        breaker.recordFailure(0);
+        breaker.recordFailure(0);
+        breaker.recordSuccess();
+        breaker.recordFailure(0);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(0));
+    }
+
+    /**
+     * Tests that only one probe is allowed while half-open and that its success closes the breaker.
+     */
+    @Test
+    public void testHalfOpenProbeSuccessCloses() {
+        tripBreaker();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(1000));
+        assertTrue(breaker.allowRequest(1000));
+        assertFalse(breaker.allowRequest(1001));
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(1001));
+        assertTrue(breaker.allowRequest(1001));
+    }
+
+    /**
+     * Tests that a failed probe re-opens the breaker for a full period.
+     */
+    @Test
+    public void testHalfOpenProbeFailureReopens() {
+        tripBreaker();
+        assertTrue(breaker.allowRequest(1000));
+        breaker.recordFailure(1000);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(1500));
+        assertFalse(breaker.allowRequest(1999));
+        assertTrue(breaker.allowRequest(2000));
+    }
+
+    /**
+     * Tests that an ignored probe outcome frees the probe slot.
+     */
+    @Test
+    public void testIgnoredProbeFreesSlot() {
+        tripBreaker();
+        assertTrue(breaker.allowRequest(1000));
+        breaker.recordIgnored();
+
+        assertTrue(breaker.allowRequest(1000));
+    }
+
+    /**
+     * Records enough failures at time 0 to open the breaker.
+     */
+    private void tripBreaker() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure(0);
+        }
+    }
+}
@@ -0,0 +1,315 @@
+/**
+ * Unit test suite for the HedgingSearchBackend class.
+ * Uses a mocked backend whose searches complete when the test says so, and Robolectric's
+ * main looper clock to verify when hedges are sent, which copy wins, what is recorded in the
+ * latency histogram and how cancellation reaches both copies.
+ */
+package com.lastbite.app.places;
+
+import android.os.Looper;
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.CancellationTokenSource;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.libraries.places.api.model.Place;
+import com.google.android.libraries.places.api.model.RectangularBounds;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+public class HedgingSearchBackendTest {
+    /** Bounds of every search */
+    private static final RectangularBounds BOUNDS =
+            RectangularBounds.newInstance(new LatLng(47.60, -122.34), new LatLng(47.62, -122.32));
+
+    /** Hedge delay while the histogram is still empty */
+    private static final long DELAY_MS = HedgingSearchBackend.DEFAULT_HEDGE_DELAY_MS;
+
+    /**
+     * One request sent to the wrapped backend.
+     */
+    private static final class Call {
+        final TaskCompletionSource<List<Place>> result = new TaskCompletionSource<>();
+        final CancellationToken token;
+
+        Call(CancellationToken token) {
+            this.token = token;
+            token.onCanceledRequested(() -> result.trySetException(new IllegalStateException("Cancelled")));
+        }
+    }
+
+    /** Every request sent to the wrapped backend, in order */
+    private final List<Call> calls = new ArrayList<>();
+
+    /** Histogram the backend records its latencies in */
+    private LatencyHistogram latencies;
+
+    /** Backend under test */
+    private HedgingSearchBackend backend;
+
+    /**
+     * Creates a hedging backend in front of a mocked backend whose requests stay pending until
+     * the test completes them, and fail once cancelled.
+     */
+    @Before
+    public void setUp() {
+        RestaurantSearchBackend delegate = mock(RestaurantSearchBackend.class);
+        when(delegate.searchRestaurants(anyString(), any(), anyInt(), any())).thenAnswer(invocation -> {
+            Call call = new Call(invocation.getArgument(3));
+            calls.add(call);
+            return call.result.getTask();
+        });
+        latencies = new LatencyHistogram(LatencyHistogram.DEFAULT_WINDOW_SIZE);
+        backend = new HedgingSearchBackend(delegate, latencies);
+    }
+
+    /**
+     * Starts a search without a session token.
+     *
+     * @return The search's result
+     */
+    private Task<List<Place>> search() {
+        return backend.searchRestaurants("Thai restaurant", BOUNDS, 5, null);
+    }
+
+    /**
+     * Advances the main looper clock, running everything that falls due.
+     *
+     * @param millis The time to advance by
+     */
+    private static void advance(long millis) {
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(millis));
+    }
+
+    /**
+     * Completes a request with a result of its own.
+     *
+     * @param call The request
+     * @return The result it completed with
+     */
+    private static List<Place> succeed(Call call) {
+        List<Place> places = Collections.singletonList(mock(Place.class));
+        call.result.setResult(places);
+        shadowOf(Looper.getMainLooper()).idle();
+        return places;
+    }
+
+    /**
+     * Tests that a search answered before the hedge delay sends no hedge and records its latency.
+     */
+    @Test
+    public void testFastSearchIsNotHedged() {
+        Task<List<Place>> result = search();
+        advance(300);
+        List<Place> places = succeed(calls.get(0));
+        advance(DELAY_MS);
+
+        assertSame(places, result.getResult());
+        assertEquals(1, calls.size());
+        assertEquals(0, backend.getHedgeCount());
+        assertEquals(1, latencies.getSampleCount());
+        assertEquals(300, latencies.percentile(1));
+    }
+
+    /**
+     * Tests that the hedge is sent once the hedge delay has passed, not before.
+     */
+    @Test
+    public void testHedgeFiresAfterDelay() {
+        search();
+
+        advance(DELAY_MS - 1);
+        assertEquals(1, calls.size());
+
+        advance(1);
+        assertEquals(2, calls.size());
+        assertEquals(1, backend.getHedgeCount());
+    }
+
+    /**
+     * Tests that a winning hedge completes the search, leaves the original request running and
+     * records no latency of its own.
+     */
+    @Test
+    public void testHedgeWinsAndPrimaryKeepsRunning() {
+        Task<List<Place>> result = search();
+        advance(DELAY_MS + 100);
+        List<Place> places = succeed(calls.get(1));
+
+        assertSame(places, result.getResult());
+        assertEquals(1, backend.getHedgeWinCount());
+        assertFalse(calls.get(0).token.isCancellationRequested());
+        assertEquals(0, latencies.getSampleCount());
+    }
+
+    /**
+     * Tests that the original request's full latency is recorded when it succeeds after losing
+     * to the hedge, rather than the time until the hedge won.
+     */
+    @Test
+    public void testLosingPrimaryRecordsItsFullLatency() {
+        Task<List<Place>> result = search();
+        advance(DELAY_MS + 100);
+        List<Place> places = succeed(calls.get(1));
+        advance(900);
+        succeed(calls.get(0));
+
+        assertSame(places, result.getResult());
+        assertEquals(1, latencies.getSampleCount());
+        assertEquals(DELAY_MS + 1000, latencies.percentile(1));
+    }
+
+    /**
+     * Tests that cancelling the session after the hedge won still cancels the original request,
+     * which then records nothing.
+     */
+    @Test
+    public void testSessionCancellationAfterHedgeWins() {
+        CancellationTokenSource session = new CancellationTokenSource();
+        backend.searchRestaurants("Thai restaurant", BOUNDS, 5, session.getToken());
+        advance(DELAY_MS + 100);
+        succeed(calls.get(1));
+
+        session.cancel();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertTrue(calls.get(0).token.isCancellationRequested());
+        assertEquals(0, latencies.getSampleCount());
+    }
+
+    /**
+     * Tests that the original request winning after the hedge was sent cancels the hedge, and
+     * that a losing hedge records no latency even if it succeeds.
+     */
+    @Test
+    public void testPrimaryWinsAndCancelsHedge() {
+        Task<List<Place>> result = search();
+        advance(DELAY_MS + 100);
+        List<Place> places = Collections.singletonList(mock(Place.class));
+        calls.get(0).result.setResult(places);
+        calls.get(1).result.setResult(Collections.emptyList());
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertSame(places, result.getResult());
+        assertTrue(calls.get(1).token.isCancellationRequested());
+        assertEquals(0, backend.getHedgeWinCount());
+        assertEquals(1, latencies.getSampleCount());
+        assertEquals(DELAY_MS + 100, latencies.percentile(1));
+    }
+
+    /**
+     * Tests that a hedged search fails only once both copies have failed, with the last error.
+     */
+    @Test
+    public void testBothFail() {
+        Task<List<Place>> result = search();
+        advance(DELAY_MS);
+
+        calls.get(0).result.setException(new IllegalStateException("primary"));
+        shadowOf(Looper.getMainLooper()).idle();
+        assertFalse(result.isComplete());
+
+        calls.get(1).result.setException(new IllegalStateException("hedge"));
+        shadowOf(Looper.getMainLooper()).idle();
+        assertFalse(result.isSuccessful());
+        assertEquals("hedge", result.getException().getMessage());
+        assertEquals(0, latencies.getSampleCount());
+    }
+
+    /**
+     * Tests that an original request failing before the hedge delay fails the search and no
+     * hedge is sent afterwards.
+     */
+    @Test
+    public void testFailureBeforeHedge() {
+        Task<List<Place>> result = search();
+        calls.get(0).result.setException(new IllegalStateException("offline"));
+        advance(DELAY_MS);
+
+        assertFalse(result.isSuccessful());
+        assertEquals(1, calls.size());
+    }
+
+    /**
+     * Tests that at most a fifth of the searches are hedged, even when they all run at once.
+     */
+    @Test
+    public void testHedgeCap() {
+        for (int i = 0; i < 10; i++) {
+            search();
+        }
+        advance(DELAY_MS);
+
+        assertEquals(2, backend.getHedgeCount());
+        assertEquals(12, calls.size());
+    }
+
+    /**
+     * Tests that cancelling the session cancels both copies and fails the search.
+     */
+    @Test
+    public void testSessionCancellationCancelsBothCopies() {
+        CancellationTokenSource session = new CancellationTokenSource();
+        Task<List<Place>> result = backend.searchRestaurants("Thai restaurant", BOUNDS, 5, session.getToken());
+        advance(DELAY_MS);
+
+        session.cancel();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertTrue(calls.get(0).token.isCancellationRequested());
+        assertTrue(calls.get(1).token.isCancellationRequested());
+        assertFalse(result.isSuccessful());
+    }
+
+    /**
+     * Tests that cancelling the session before the hedge delay stops the hedge.
+     */
+    @Test
+    public void testSessionCancellationStopsHedge() {
+        CancellationTokenSource session = new CancellationTokenSource();
+        Task<List<Place>> result = backend.searchRestaurants("Thai restaurant", BOUNDS, 5, session.getToken());
+        advance(DELAY_MS / 2);
+
+        session.cancel();
+        advance(DELAY_MS);
+
+        assertEquals(1, calls.size());
+        assertEquals(0, backend.getHedgeCount());
+        assertFalse(result.isSuccessful());
+    }
+
+    /**
+     * Tests that the hedge delay follows the latency percentile once enough samples exist,
+     * within its bounds.
+     */
+    @Test
+    public void testAdaptiveDelay() {
+        for (int i = 0; i < HedgingSearchBackend.MIN_SAMPLES - 1; i++) {
+            latencies.record(400);
+        }
+        assertEquals(DELAY_MS, backend.getHedgeDelayMs());
+
+        latencies.record(400);
+        assertEquals(400, backend.getHedgeDelayMs());
+
+        for (int i = 0; i < LatencyHistogram.DEFAULT_WINDOW_SIZE; i++) {
+            latencies.record(10);
+        }
+        assertEquals(HedgingSearchBackend.MIN_HEDGE_DELAY_MS, backend.getHedgeDelayMs());
+    }
+}
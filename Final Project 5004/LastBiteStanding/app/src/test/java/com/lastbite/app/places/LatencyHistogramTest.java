@@ -0,0 +1,62 @@
+/**
+ * Unit test suite for the LatencyHistogram class.
+ * Verifies percentile calculation and that old samples leave the rolling window.
+ */
+package com.lastbite.app.places;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    /**
+     * Tests that an empty histogram reports no percentile.
+     */
+    @Test
+    public void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram(10);
+
+        assertEquals(-1, histogram.percentile(0.95));
+        assertEquals(0, histogram.getSampleCount());
+    }
+
+    /**
+     * Tests nearest-rank percentiles over 1..100 ms.
+     */
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram(100);
+        for (int i = 100; i >= 1; i--) {
+            histogram.record(i);
+        }
+
+        assertEquals(50, histogram.percentile(0.5));
+        assertEquals(95, histogram.percentile(0.95));
+        assertEquals(100, histogram.percentile(1.0));
+        assertEquals(1, histogram.percentile(0.0));
+    }
+
+    /**
+     * Tests that the window only keeps the most recent samples.
+     */
+    @Test
+    public void testOldSamplesRollOut() {
+        LatencyHistogram histogram = new LatencyHistogram(3);
+        histogram.record(5000);
+        histogram.record(10);
+        histogram.record(20);
+        histogram.record(30);
+
+        assertEquals(3, histogram.getSampleCount());
+        assertEquals(30, histogram.percentile(1.0));
+    }
+
+    /**
+     * Tests that a non-positive window size is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWindowSize() {
+        new LatencyHistogram(0);
+    }
+}
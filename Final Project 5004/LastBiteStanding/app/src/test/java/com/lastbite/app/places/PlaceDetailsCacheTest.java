@@ -0,0 +1,80 @@
+/**
+ * Unit test suite for the PlaceDetailsCache class.
+ * Uses Mockito to create Place instances and verifies LRU eviction and hit/miss accounting.
+ */
+package com.lastbite.app.places;
+
+import com.google.android.libraries.places.api.model.Place;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class PlaceDetailsCacheTest {
+    /** Cache under test, holding at most two places */
+    private PlaceDetailsCache cache;
+
+    /**
+     * Creates a small cache before each test.
+     */
+    @Before
+    public void setUp() {
+        cache = new PlaceDetailsCache(2);
+    }
+
+    /**
+     * Tests that stored places are returned and counted as hits.
+     */
+    @Test
+    public void testHitAfterPut() {
+        Place place = mock(Place.class);
+        cache.put("a", place);
+
+        assertSame(place, cache.get("a"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    /**
+     * Tests that unknown ids are counted as misses.
+     */
+    @Test
+    public void testMissForUnknownId() {
+        assertNull(cache.get("missing"));
+        assertEquals(1, cache.getMissCount());
+    }
+
+    /**
+     * Tests that the least recently used place is evicted when the cache is full.
+     */
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        cache.put("a", mock(Place.class));
+        cache.put("b", mock(Place.class));
+        cache.get("a");
+        cache.put("c", mock(Place.class));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    /**
+     * Tests that clearing the cache also resets the counters.
+     */
+    @Test
+    public void testClearResetsCounters() {
+        cache.put("a", mock(Place.class));
+        cache.get("a");
+        cache.get("b");
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+    }
+}
@@ -0,0 +1,383 @@
+/**
+ * Unit test suite for the PlacesGateway class.
+ * Uses a mocked PlacesClient whose requests complete when the test says so, and Robolectric's
+ * main looper clock, to verify how every outcome of a request is counted and reported to the
+ * circuit breaker, and how requests wait for rate limiter tokens.
+ */
+package com.lastbite.app.places;
+
+import android.os.Looper;
+import android.os.SystemClock;
+import com.google.android.gms.tasks.CancellationTokenSource;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.libraries.places.api.model.Place;
+import com.google.android.libraries.places.api.net.FetchPlaceRequest;
+import com.google.android.libraries.places.api.net.FetchPlaceResponse;
+import com.google.android.libraries.places.api.net.PlacesClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+public class PlacesGatewayTest {
+    /** Consecutive failures that open the circuit */
+    private static final int THRESHOLD = 2;
+
+    /** How long the circuit stays open */
+    private static final long OPEN_MS = 10_000;
+
+    /** Longest a request waits for a token */
+    private static final long MAX_WAIT_MS = 1_000;
+
+    /** Client requests sent to the Places API, in order */
+    private final List<TaskCompletionSource<FetchPlaceResponse>> sent = new ArrayList<>();
+
+    /** Client whose requests stay pending until the test completes them */
+    private PlacesClient client;
+
+    /** Rate limiter the test opens and closes */
+    private TokenBucket rateLimiter;
+
+    /** Cache answering details while the circuit is open */
+    private PlaceDetailsCache detailsCache;
+
+    /** States reported to the listener */
+    private final List<CircuitBreaker.State> states = new ArrayList<>();
+
+    /** Gateway under test */
+    private PlacesGateway gateway;
+
+    /**
+     * Creates a gateway in front of a mocked client, a rate limiter that allows every request
+     * and a closed circuit breaker.
+     */
+    @Before
+    public void setUp() {
+        client = mock(PlacesClient.class);
+        when(client.fetchPlace(any())).thenAnswer(invocation -> {
+            TaskCompletionSource<FetchPlaceResponse> response = new TaskCompletionSource<>();
+            sent.add(response);
+            return response.getTask();
+        });
+        rateLimiter = mock(TokenBucket.class);
+        when(rateLimiter.reserve(anyLong(), anyLong())).thenReturn(0L);
+        detailsCache = new PlaceDetailsCache(PlaceDetailsCache.DEFAULT_MAX_ENTRIES);
+        gateway = newGateway(rateLimiter);
+    }
+
+    /**
+     * Creates a gateway in front of the mocked client and a closed circuit breaker.
+     *
+     * @param limiter The rate limiter
+     * @return The gateway, with its state changes recorded
+     */
+    private PlacesGateway newGateway(TokenBucket limiter) {
+        PlacesGateway created = new PlacesGateway(client, limiter, new CircuitBreaker(THRESHOLD, OPEN_MS),
+                detailsCache, MAX_WAIT_MS);
+        created.addStateListener(states::add);
+        return created;
+    }
+
+    /**
+     * Builds a details request.
+     *
+     * @param placeId The Google Places id
+     * @return The request
+     */
+    private static FetchPlaceRequest request(String placeId) {
+        return FetchPlaceRequest.newInstance(placeId, RestaurantSearchBackend.PLACE_FIELDS);
+    }
+
+    /**
+     * Fails the most recent request sent to the client.
+     */
+    private void failLast() {
+        sent.get(sent.size() - 1).setException(new IllegalStateException("offline"));
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    /**
+     * Sends and fails enough requests to open the circuit.
+     */
+    private void openCircuit() {
+        for (int i = 0; i < THRESHOLD; i++) {
+            gateway.fetchPlace(request("failing"));
+            failLast();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, gateway.getState());
+    }
+
+    /**
+     * Returns why a refused request was refused.
+     *
+     * @param task The failed task
+     * @return The reason
+     */
+    private static PlacesGatewayException.Reason reasonOf(Task<?> task) {
+        assertTrue(task.isComplete());
+        assertTrue(task.getException() instanceof PlacesGatewayException);
+        return ((PlacesGatewayException) task.getException()).getReason();
+    }
+
+    /**
+     * Tests that successful requests are counted and keep the circuit closed.
+     */
+    @Test
+    public void testSuccess() {
+        Task<FetchPlaceResponse> task = gateway.fetchPlace(request("siam"));
+        sent.get(0).setResult(FetchPlaceResponse.newInstance(mock(Place.class)));
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertTrue(task.isSuccessful());
+        assertEquals(1, gateway.getSentCount());
+        assertEquals(1, gateway.getSuccessCount());
+        assertEquals(0, gateway.getFailureCount());
+        assertEquals(CircuitBreaker.State.CLOSED, gateway.getState());
+    }
+
+    /**
+     * Tests that consecutive failures open the circuit, the listener hears about it, and
+     * further requests are refused without reaching the client.
+     */
+    @Test
+    public void testFailuresOpenCircuit() {
+        openCircuit();
+
+        Task<FetchPlaceResponse> refused = gateway.fetchPlace(request("siam"));
+
+        assertEquals(PlacesGatewayException.Reason.CIRCUIT_OPEN, reasonOf(refused));
+        assertEquals(THRESHOLD, gateway.getFailureCount());
+        assertEquals(1, gateway.getShortCircuitedCount());
+        verify(client, times(THRESHOLD)).fetchPlace(any());
+        assertEquals(CircuitBreaker.State.OPEN, states.get(states.size() - 1));
+    }
+
+    /**
+     * Tests that requests cancelled by their caller are recorded as ignored, not as failures,
+     * so cancelling a game never opens the circuit.
+     */
+    @Test
+    public void testCancelledRequestsAreIgnored() {
+        for (int i = 0; i < THRESHOLD + 1; i++) {
+            CancellationTokenSource cancellation = new CancellationTokenSource();
+            gateway.fetchPlace(FetchPlaceRequest.builder("siam", RestaurantSearchBackend.PLACE_FIELDS)
+                    .setCancellationToken(cancellation.getToken())
+                    .build());
+            cancellation.cancel();
+            failLast();
+        }
+
+        assertEquals(THRESHOLD + 1, gateway.getSentCount());
+        assertEquals(0, gateway.getFailureCount());
+        assertEquals(0, gateway.getSuccessCount());
+        assertEquals(CircuitBreaker.State.CLOSED, gateway.getState());
+        assertTrue(states.isEmpty());
+    }
+
+    /**
+     * Tests that requests beyond the burst wait for their token instead of failing, and are
+     * sent in order as tokens refill.
+     */
+    @Test
+    public void testWaitsForToken() {
+        gateway = newGateway(new TokenBucket(1, 4, SystemClock.elapsedRealtime()));
+
+        Task<FetchPlaceResponse> first = gateway.fetchPlace(request("siam"));
+        Task<FetchPlaceResponse> second = gateway.fetchPlace(request("bangkok"));
+        Task<FetchPlaceResponse> third = gateway.fetchPlace(request("chiang mai"));
+        assertEquals(1, sent.size());
+        assertEquals(2, gateway.getDelayedCount());
+
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(250));
+        assertEquals(2, sent.size());
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(250));
+        assertEquals(3, sent.size());
+
+        sent.get(1).setResult(FetchPlaceResponse.newInstance(mock(Place.class)));
+        shadowOf(Looper.getMainLooper()).idle();
+        assertFalse(first.isComplete());
+        assertTrue(second.isSuccessful());
+        assertFalse(third.isComplete());
+        assertEquals(0, gateway.getRateLimitedCount());
+    }
+
+    /**
+     * Tests that a request whose token would come later than the longest wait is refused
+     * right away.
+     */
+    @Test
+    public void testRefusedBeyondMaxWait() {
+        gateway = newGateway(new TokenBucket(1, 1, SystemClock.elapsedRealtime()));
+
+        gateway.fetchPlace(request("siam"));
+        Task<FetchPlaceResponse> waiting = gateway.fetchPlace(request("bangkok"));
+        Task<FetchPlaceResponse> refused = gateway.fetchPlace(request("chiang mai"));
+
+        assertFalse(waiting.isComplete());
+        assertEquals(PlacesGatewayException.Reason.RATE_LIMITED, reasonOf(refused));
+        assertEquals(1, gateway.getRateLimitedCount());
+    }
+
+    /**
+     * Tests that a request cancelled while it waits for its token is never sent and fails as
+     * cancelled, without counting as a failure.
+     */
+    @Test
+    public void testCancelledWhileWaiting() {
+        gateway = newGateway(new TokenBucket(1, 4, SystemClock.elapsedRealtime()));
+        gateway.fetchPlace(request("siam"));
+        CancellationTokenSource cancellation = new CancellationTokenSource();
+        Task<FetchPlaceResponse> waiting = gateway.fetchPlace(
+                FetchPlaceRequest.builder("bangkok", RestaurantSearchBackend.PLACE_FIELDS)
+                        .setCancellationToken(cancellation.getToken())
+                        .build());
+
+        cancellation.cancel();
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(MAX_WAIT_MS));
+
+        assertEquals(PlacesGatewayException.Reason.CANCELLED, reasonOf(waiting));
+        assertEquals(1, sent.size());
+        assertEquals(0, gateway.getFailureCount());
+    }
+
+    /**
+     * Tests that a request waiting for its token fails fast if the circuit opens meanwhile.
+     */
+    @Test
+    public void testCircuitOpensWhileWaiting() {
+        gateway = newGateway(new TokenBucket(THRESHOLD, 4, SystemClock.elapsedRealtime()));
+        for (int i = 0; i < THRESHOLD; i++) {
+            gateway.fetchPlace(request("failing"));
+        }
+        Task<FetchPlaceResponse> waiting = gateway.fetchPlace(request("siam"));
+        for (TaskCompletionSource<FetchPlaceResponse> response : new ArrayList<>(sent)) {
+            response.setException(new IllegalStateException("offline"));
+        }
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(MAX_WAIT_MS));
+
+        assertEquals(PlacesGatewayException.Reason.CIRCUIT_OPEN, reasonOf(waiting));
+        assertEquals(THRESHOLD, sent.size());
+        assertEquals(1, gateway.getShortCircuitedCount());
+    }
+
+    /**
+     * Tests that a request refused by the rate limiter frees the half-open probe slot, so the
+     * next request can still probe the service.
+     */
+    @Test
+    public void testRateLimitedFreesProbe() {
+        openCircuit();
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(OPEN_MS));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, gateway.getState());
+
+        when(rateLimiter.reserve(anyLong(), anyLong())).thenReturn(-1L);
+        Task<FetchPlaceResponse> limited = gateway.fetchPlace(request("siam"));
+        assertEquals(PlacesGatewayException.Reason.RATE_LIMITED, reasonOf(limited));
+        assertEquals(1, gateway.getRateLimitedCount());
+
+        when(rateLimiter.reserve(anyLong(), anyLong())).thenReturn(0L);
+        Task<FetchPlaceResponse> probe = gateway.fetchPlace(request("siam"));
+        assertFalse(probe.isComplete());
+        assertEquals(THRESHOLD + 1, sent.size());
+
+        sent.get(THRESHOLD).setResult(FetchPlaceResponse.newInstance(mock(Place.class)));
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(CircuitBreaker.State.CLOSED, gateway.getState());
+    }
+
+    /**
+     * Tests that only one probe is let through while half open.
+     */
+    @Test
+    public void testSingleProbe() {
+        openCircuit();
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(OPEN_MS));
+
+        gateway.fetchPlace(request("siam"));
+        Task<FetchPlaceResponse> second = gateway.fetchPlace(request("bangkok"));
+
+        assertEquals(PlacesGatewayException.Reason.CIRCUIT_OPEN, reasonOf(second));
+        failLast();
+        assertEquals(CircuitBreaker.State.OPEN, gateway.getState());
+    }
+
+    /**
+     * Tests that cached details are served while the circuit is open, and uncached ones are
+     * refused.
+     */
+    @Test
+    public void testCacheServedWhileOpen() {
+        Place siam = mock(Place.class);
+        detailsCache.put("siam", siam);
+        openCircuit();
+
+        Task<FetchPlaceResponse> cached = gateway.fetchPlace(request("siam"));
+        Task<FetchPlaceResponse> uncached = gateway.fetchPlace(request("bangkok"));
+
+        assertTrue(cached.isSuccessful());
+        assertSame(siam, cached.getResult().getPlace());
+        assertEquals(1, gateway.getServedFromCacheCount());
+        assertEquals(PlacesGatewayException.Reason.CIRCUIT_OPEN, reasonOf(uncached));
+        verify(client, times(THRESHOLD)).fetchPlace(any());
+    }
+
+    /**
+     * Tests that a request for fields the cache does not hold, such as a photo lookup, is
+     * refused while the circuit is open even if the place is cached.
+     */
+    @Test
+    public void testCacheNotUsedForOtherFields() {
+        detailsCache.put("siam", mock(Place.class));
+        openCircuit();
+
+        Task<FetchPlaceResponse> photos = gateway.fetchPlace(FetchPlaceRequest.newInstance("siam",
+                Collections.singletonList(Place.Field.PHOTO_METADATAS)));
+
+        assertEquals(PlacesGatewayException.Reason.CIRCUIT_OPEN, reasonOf(photos));
+        assertEquals(0, gateway.getServedFromCacheCount());
+    }
+
+    /**
+     * Tests that the cache is not consulted while the circuit is closed.
+     */
+    @Test
+    public void testCacheNotUsedWhileClosed() {
+        detailsCache.put("siam", mock(Place.class));
+
+        gateway.fetchPlace(request("siam"));
+
+        assertEquals(1, sent.size());
+        assertEquals(0, gateway.getServedFromCacheCount());
+    }
+
+    /**
+     * Tests that the HUD text shows the state and every counter.
+     */
+    @Test
+    public void testFormatStats() {
+        openCircuit();
+        gateway.fetchPlace(request("siam"));
+
+        String stats = gateway.formatStats();
+
+        assertTrue(stats, stats.contains("OPEN"));
+        assertTrue(stats, stats.contains("2 sent"));
+        assertTrue(stats, stats.contains("2 failed"));
+        assertTrue(stats, stats.contains("1 short-circuited"));
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Unit test suite for the PlacesRequestCoalescer class.
+ * Uses a mocked backend to verify that identical searches share one backend call and that
+ * adopted searches never replace a search already running.
+ */
+package com.lastbite.app.places;
+
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.libraries.places.api.model.Place;
+import com.google.android.libraries.places.api.model.RectangularBounds;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PlacesRequestCoalescerTest {
+    /** Bounds of every search */
+    private static final RectangularBounds BOUNDS =
+            RectangularBounds.newInstance(new LatLng(47.60, -122.34), new LatLng(47.62, -122.32));
+
+    /** Backend counting the searches it is asked for */
+    private RestaurantSearchBackend backend;
+
+    /** Coalescer under test */
+    private PlacesRequestCoalescer coalescer;
+
+    /**
+     * Creates a coalescer in front of a backend that answers every search with a new pending task.
+     */
+    @Before
+    public void setUp() {
+        backend = mock(RestaurantSearchBackend.class);
+        when(backend.searchRestaurants(any(), any(), anyInt(), any()))
+                .thenAnswer(invocation -> new TaskCompletionSource<List<Place>>().getTask());
+        coalescer = new PlacesRequestCoalescer(backend);
+    }
+
+    /**
+     * Tests that searches with the same query and bounds share one backend call, ignoring case
+     * and surrounding whitespace.
+     */
+    @Test
+    public void testSameKeySharesOneCall() {
+        Task<List<Place>> first = coalescer.search("Thai restaurant", BOUNDS);
+        Task<List<Place>> second = coalescer.search("  THAI restaurant ", BOUNDS);
+
+        assertSame(first, second);
+        verify(backend, times(1)).searchRestaurants(any(), eq(BOUNDS),
+                eq(PlacesRequestCoalescer.DEFAULT_CANDIDATES_PER_QUERY), any());
+        assertEquals(1, coalescer.getPendingSearchCount());
+    }
+
+    /**
+     * Tests that different queries are sent separately.
+     */
+    @Test
+    public void testDifferentKeysAreSentSeparately() {
+        assertNotSame(coalescer.search("Thai restaurant", BOUNDS), coalescer.search("Pizza restaurant", BOUNDS));
+        verify(backend, times(2)).searchRestaurants(any(), any(), anyInt(), any());
+    }
+
+    /**
+     * Tests that an adopted search is reused, and that adopting a search for a key that is
+     * already running keeps the running one.
+     */
+    @Test
+    public void testAdoptKeepsRunningSearch() {
+        Task<List<Place>> running = coalescer.search("Thai restaurant", BOUNDS);
+        Task<List<Place>> prefetchedThai = new TaskCompletionSource<List<Place>>().getTask();
+        Task<List<Place>> prefetchedPizza = new TaskCompletionSource<List<Place>>().getTask();
+
+        coalescer.adopt(Collections.singletonMap(
+                PlacesRequestCoalescer.searchKey("Thai restaurant", BOUNDS), prefetchedThai));
+        coalescer.adopt(Collections.singletonMap(
+                PlacesRequestCoalescer.searchKey("Pizza restaurant", BOUNDS), prefetchedPizza));
+
+        assertSame(running, coalescer.search("Thai restaurant", BOUNDS));
+        assertSame(prefetchedPizza, coalescer.search("Pizza restaurant", BOUNDS));
+        verify(backend, times(1)).searchRestaurants(any(), any(), anyInt(), any());
+    }
+
+    /**
+     * Tests that completed searches no longer count as pending.
+     */
+    @Test
+    public void testPendingSearchCount() {
+        TaskCompletionSource<List<Place>> done = new TaskCompletionSource<>();
+        done.setResult(Collections.emptyList());
+        coalescer.adopt(Collections.singletonMap(
+                PlacesRequestCoalescer.searchKey("Thai restaurant", BOUNDS), done.getTask()));
+        coalescer.search("Pizza restaurant", BOUNDS);
+
+        assertEquals(1, coalescer.getPendingSearchCount());
+    }
+}
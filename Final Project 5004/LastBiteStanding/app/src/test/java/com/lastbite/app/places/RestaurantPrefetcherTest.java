@@ -0,0 +1,161 @@
+/**
+ * Unit test suite for the RestaurantPrefetcher class.
+ * Uses a mocked backend to verify that searches follow the selected cuisines and are only
+ * handed over to a game at the same location.
+ */
+package com.lastbite.app.places;
+
+import android.os.Looper;
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.CancellationTokenSource;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.libraries.places.api.model.Place;
+import com.lastbite.app.geo.SearchBounds;
+import com.lastbite.core.cuisine.CuisineTaxonomy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+public class RestaurantPrefetcherTest {
+    /** Search location of the prefetches */
+    private static final double LATITUDE = 47.61;
+    private static final double LONGITUDE = -122.33;
+
+    /** Backend recording the searches it is asked for */
+    private RestaurantSearchBackend backend;
+
+    /** Cancellation token of each search by query */
+    private final Map<String, CancellationToken> tokens = new HashMap<>();
+
+    /** Pending task of each search by query */
+    private final Map<String, TaskCompletionSource<List<Place>>> searches = new HashMap<>();
+
+    /** Prefetcher under test */
+    private RestaurantPrefetcher prefetcher;
+
+    /**
+     * Creates a prefetcher at the test location in front of a backend whose searches stay
+     * pending until the test completes them.
+     */
+    @Before
+    public void setUp() {
+        backend = mock(RestaurantSearchBackend.class);
+        when(backend.searchRestaurants(anyString(), any(), anyInt(), any())).thenAnswer(invocation -> {
+            String query = invocation.getArgument(0);
+            TaskCompletionSource<List<Place>> search = new TaskCompletionSource<>();
+            tokens.put(query, invocation.getArgument(3));
+            searches.put(query, search);
+            return search.getTask();
+        });
+        prefetcher = new RestaurantPrefetcher();
+        prefetcher.start(backend, LATITUDE, LONGITUDE);
+    }
+
+    /**
+     * Tests that each selected cuisine is searched once, however many players pick it.
+     */
+    @Test
+    public void testSearchesEachCuisineOnce() {
+        prefetcher.updateSelectedCuisines(Arrays.asList("Thai", "Pizza", "Thai"));
+        prefetcher.updateSelectedCuisines(Arrays.asList("Thai", "Pizza"));
+
+        verify(backend, times(2)).searchRestaurants(anyString(), any(),
+                eq(PlacesRequestCoalescer.DEFAULT_CANDIDATES_PER_QUERY), any());
+    }
+
+    /**
+     * Tests that deselecting a cuisine cancels its running search and keeps the others.
+     */
+    @Test
+    public void testDeselectCancelsSearch() {
+        prefetcher.updateSelectedCuisines(Arrays.asList("Thai", "Pizza"));
+        prefetcher.updateSelectedCuisines(Collections.singletonList("Thai"));
+
+        assertTrue(tokens.get(CuisineTaxonomy.queryFor("Pizza")).isCancellationRequested());
+        assertFalse(tokens.get(CuisineTaxonomy.queryFor("Thai")).isCancellationRequested());
+        assertEquals(1, prefetcher.getCancelledCount());
+    }
+
+    /**
+     * Tests that deselecting a cuisine whose search already finished counts no cancellation.
+     */
+    @Test
+    public void testDeselectFinishedSearch() {
+        prefetcher.updateSelectedCuisines(Collections.singletonList("Pizza"));
+        searches.get(CuisineTaxonomy.queryFor("Pizza")).setResult(Collections.emptyList());
+        prefetcher.updateSelectedCuisines(Collections.emptyList());
+
+        assertEquals(0, prefetcher.getCancelledCount());
+    }
+
+    /**
+     * Tests that a game at the prefetch location takes every search, and that cancelling the
+     * game session cancels those still running.
+     */
+    @Test
+    public void testTakeWarmSearchesSameLocation() {
+        prefetcher.updateSelectedCuisines(Arrays.asList("Thai", "Pizza"));
+        CancellationTokenSource session = new CancellationTokenSource();
+
+        Map<String, Task<List<Place>>> warm =
+                prefetcher.takeWarmSearches(LATITUDE, LONGITUDE, session.getToken());
+
+        String thaiKey = PlacesRequestCoalescer.searchKey(CuisineTaxonomy.queryFor("Thai"),
+                SearchBounds.around(LATITUDE, LONGITUDE));
+        assertEquals(2, warm.size());
+        assertSame(searches.get(CuisineTaxonomy.queryFor("Thai")).getTask(), warm.get(thaiKey));
+        assertEquals(2, prefetcher.getHandedOverCount());
+        assertFalse(tokens.get(CuisineTaxonomy.queryFor("Thai")).isCancellationRequested());
+
+        session.cancel();
+        shadowOf(Looper.getMainLooper()).idle();
+        assertTrue(tokens.get(CuisineTaxonomy.queryFor("Thai")).isCancellationRequested());
+        assertTrue(prefetcher.takeWarmSearches(LATITUDE, LONGITUDE, session.getToken()).isEmpty());
+    }
+
+    /**
+     * Tests that a game at another location takes nothing and the prefetches are cancelled.
+     */
+    @Test
+    public void testTakeWarmSearchesOtherLocation() {
+        prefetcher.updateSelectedCuisines(Collections.singletonList("Thai"));
+
+        Map<String, Task<List<Place>>> warm = prefetcher.takeWarmSearches(LATITUDE + 0.1, LONGITUDE,
+                new CancellationTokenSource().getToken());
+
+        assertTrue(warm.isEmpty());
+        assertTrue(tokens.get(CuisineTaxonomy.queryFor("Thai")).isCancellationRequested());
+        assertEquals(0, prefetcher.getHandedOverCount());
+    }
+
+    /**
+     * Tests that moving the search location cancels the prefetches for the old one.
+     */
+    @Test
+    public void testStartElsewhereCancels() {
+        prefetcher.updateSelectedCuisines(Collections.singletonList("Thai"));
+
+        prefetcher.start(backend, LATITUDE + 0.1, LONGITUDE);
+
+        assertTrue(tokens.get(CuisineTaxonomy.queryFor("Thai")).isCancellationRequested());
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Unit test suite for the TextSearchBackend class.
+ * Uses a mocked gateway to verify the request that is sent and that returned places are
+ * stored in the details cache.
+ */
+package com.lastbite.app.places;
+
+import android.os.Looper;
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.android.libraries.places.api.model.Place;
+import com.google.android.libraries.places.api.model.RectangularBounds;
+import com.google.android.libraries.places.api.net.SearchByTextRequest;
+import com.google.android.libraries.places.api.net.SearchByTextResponse;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+public class TextSearchBackendTest {
+    /** Bounds of every search */
+    private static final RectangularBounds BOUNDS =
+            RectangularBounds.newInstance(new LatLng(47.60, -122.34), new LatLng(47.62, -122.32));
+
+    /** Gateway answering the searches */
+    private PlacesGateway gateway;
+
+    /** Cache the backend stores places in */
+    private PlaceDetailsCache detailsCache;
+
+    /** Backend under test */
+    private TextSearchBackend backend;
+
+    /**
+     * Creates a backend in front of a mocked gateway and an empty cache.
+     */
+    @Before
+    public void setUp() {
+        gateway = mock(PlacesGateway.class);
+        detailsCache = new PlaceDetailsCache(PlaceDetailsCache.DEFAULT_MAX_ENTRIES);
+        backend = new TextSearchBackend(gateway, detailsCache);
+    }
+
+    /**
+     * Builds a place with an id.
+     *
+     * @param id The Google Places id
+     * @return The place
+     */
+    private static Place place(String id) {
+        Place place = mock(Place.class);
+        when(place.getId()).thenReturn(id);
+        return place;
+    }
+
+    /**
+     * Builds a successful text search answer.
+     *
+     * @param places The places found
+     * @return A completed task holding the response
+     */
+    private static Task<SearchByTextResponse> answer(List<Place> places) {
+        SearchByTextResponse response = mock(SearchByTextResponse.class);
+        when(response.getPlaces()).thenReturn(places);
+        return Tasks.forResult(response);
+    }
+
+    /**
+     * Tests that the search asks for restaurants with the candidate fields and result count.
+     */
+    @Test
+    public void testRequest() {
+        when(gateway.searchByText(any())).thenReturn(answer(Arrays.asList()));
+
+        backend.searchRestaurants("Thai restaurant", BOUNDS, 5, null);
+
+        ArgumentCaptor<SearchByTextRequest> request = ArgumentCaptor.forClass(SearchByTextRequest.class);
+        verify(gateway).searchByText(request.capture());
+        assertEquals("Thai restaurant", request.getValue().getTextQuery());
+        assertEquals("restaurant", request.getValue().getIncludedType());
+        assertEquals(Integer.valueOf(5), request.getValue().getMaxResultCount());
+        assertEquals(RestaurantSearchBackend.PLACE_FIELDS, request.getValue().getPlaceFields());
+    }
+
+    /**
+     * Tests that the places are returned in the order found and each one is cached by id.
+     */
+    @Test
+    public void testResultsFillDetailsCache() {
+        Place siam = place("siam");
+        Place bangkok = place("bangkok");
+        when(gateway.searchByText(any())).thenReturn(answer(Arrays.asList(siam, bangkok)));
+
+        Task<List<Place>> result = backend.searchRestaurants("Thai restaurant", BOUNDS, 5, null);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertTrue(result.isSuccessful());
+        assertEquals(Arrays.asList(siam, bangkok), result.getResult());
+        assertSame(siam, detailsCache.get("siam"));
+        assertSame(bangkok, detailsCache.get("bangkok"));
+    }
+
+    /**
+     * Tests that a failed search fails the task and caches nothing.
+     */
+    @Test
+    public void testFailure() {
+        TaskCompletionSource<SearchByTextResponse> response = new TaskCompletionSource<>();
+        when(gateway.searchByText(any())).thenReturn(response.getTask());
+
+        Task<List<Place>> result = backend.searchRestaurants("Thai restaurant", BOUNDS, 5, null);
+        response.setException(new IllegalStateException("offline"));
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertTrue(result.isComplete());
+        assertFalse(result.isSuccessful());
+        assertEquals(0, detailsCache.size());
+    }
+}
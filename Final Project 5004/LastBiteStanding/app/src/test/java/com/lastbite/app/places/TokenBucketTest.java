@@ -0,0 +1,56 @@
+/**
+ * Unit test suite for the TokenBucket class.
+ * Verifies bursts, refusal when empty, refilling over time and reserving tokens ahead.
+ */
+package com.lastbite.app.places;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TokenBucketTest {
+
+    /**
+     * Tests that a full bucket allows a burst up to its capacity and then refuses.
+     */
+    @Test
+    public void testBurstThenRefuse() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertFalse(bucket.tryAcquire(0));
+    }
+
+    /**
+     * Tests that tokens come back at the configured rate without exceeding the capacity.
+     */
+    @Test
+    public void testRefill() {
+        TokenBucket bucket = new TokenBucket(2, 2, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertFalse(bucket.tryAcquire(100));
+        assertTrue(bucket.tryAcquire(500));
+        assertEquals(2, bucket.getAvailableTokens(60_000));
+    }
+
+    /**
+     * Tests that reserving books tokens ahead of time, queueing requests behind each other,
+     * and refuses without booking when the wait would be too long.
+     */
+    @Test
+    public void testReserve() {
+        TokenBucket bucket = new TokenBucket(1, 2, 0);
+
+        assertEquals(0, bucket.reserve(0, 1000));
+        assertEquals(500, bucket.reserve(0, 1000));
+        assertEquals(1000, bucket.reserve(0, 1000));
+        assertEquals(-1, bucket.reserve(0, 1000));
+        assertEquals(-1, bucket.reserve(0, 1000));
+        assertFalse(bucket.tryAcquire(999));
+        assertEquals(500, bucket.reserve(1000, 1000));
+    }
+}
@@ -0,0 +1,248 @@
+/**
+ * Unit test suite for the TwoStepSearchBackend class.
+ * Uses a mocked gateway to verify that cached details are served without a request, that
+ * details arrive in prediction order and that the deadline resolves with what has arrived.
+ */
+package com.lastbite.app.places;
+
+import android.os.Looper;
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.android.libraries.places.api.model.AutocompletePrediction;
+import com.google.android.libraries.places.api.model.Place;
+import com.google.android.libraries.places.api.model.RectangularBounds;
+import com.google.android.libraries.places.api.net.FetchPlaceRequest;
+import com.google.android.libraries.places.api.net.FetchPlaceResponse;
+import com.google.android.libraries.places.api.net.FindAutocompletePredictionsResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+public class TwoStepSearchBackendTest {
+    /** Bounds of every search */
+    private static final RectangularBounds BOUNDS =
+            RectangularBounds.newInstance(new LatLng(47.60, -122.34), new LatLng(47.62, -122.32));
+
+    /** Details deadline of the backend under test */
+    private static final long DEADLINE_MS = 1000;
+
+    /** Gateway answering the requests */
+    private PlacesGateway gateway;
+
+    /** Cache consulted before fetching details */
+    private PlaceDetailsCache detailsCache;
+
+    /** Pending details request per place id */
+    private final Map<String, TaskCompletionSource<FetchPlaceResponse>> details = new HashMap<>();
+
+    /** Backend under test */
+    private TwoStepSearchBackend backend;
+
+    /**
+     * Creates a backend in front of a mocked gateway whose details requests stay pending
+     * until the test answers them.
+     */
+    @Before
+    public void setUp() {
+        gateway = mock(PlacesGateway.class);
+        when(gateway.fetchPlace(any())).thenAnswer(invocation -> {
+            FetchPlaceRequest request = invocation.getArgument(0);
+            TaskCompletionSource<FetchPlaceResponse> response = new TaskCompletionSource<>();
+            details.put(request.getPlaceId(), response);
+            return response.getTask();
+        });
+        detailsCache = new PlaceDetailsCache(PlaceDetailsCache.DEFAULT_MAX_ENTRIES);
+        backend = new TwoStepSearchBackend(gateway, detailsCache, DEADLINE_MS);
+    }
+
+    /**
+     * Builds a place with an id.
+     *
+     * @param id The Google Places id
+     * @return The place
+     */
+    private static Place place(String id) {
+        Place place = mock(Place.class);
+        when(place.getId()).thenReturn(id);
+        return place;
+    }
+
+    /**
+     * Makes the autocomplete request predict the given place ids.
+     *
+     * @param placeIds The predicted ids, best match first
+     */
+    private void predict(String... placeIds) {
+        List<AutocompletePrediction> predictions = new ArrayList<>();
+        for (String placeId : placeIds) {
+            AutocompletePrediction prediction = mock(AutocompletePrediction.class);
+            when(prediction.getPlaceId()).thenReturn(placeId);
+            predictions.add(prediction);
+        }
+        FindAutocompletePredictionsResponse response = mock(FindAutocompletePredictionsResponse.class);
+        when(response.getAutocompletePredictions()).thenReturn(predictions);
+        when(gateway.findAutocompletePredictions(any())).thenReturn(Tasks.forResult(response));
+    }
+
+    /**
+     * Answers a pending details request.
+     *
+     * @param place The place to answer with
+     */
+    private void answer(Place place) {
+        FetchPlaceResponse response = mock(FetchPlaceResponse.class);
+        when(response.getPlace()).thenReturn(place);
+        details.get(place.getId()).setResult(response);
+    }
+
+    /**
+     * Runs everything due on the main thread.
+     */
+    private static void idle() {
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    /**
+     * Tests that details arrive in prediction order, whatever order they complete in, and are
+     * cached by id.
+     */
+    @Test
+    public void testDetailsInPredictionOrder() {
+        predict("siam", "bangkok");
+        Place siam = place("siam");
+        Place bangkok = place("bangkok");
+
+        Task<List<Place>> result = backend.searchRestaurants("Thai restaurant", BOUNDS, 5, null);
+        idle();
+        answer(bangkok);
+        answer(siam);
+        idle();
+
+        assertEquals(Arrays.asList(siam, bangkok), result.getResult());
+        assertSame(siam, detailsCache.get("siam"));
+        assertSame(bangkok, detailsCache.get("bangkok"));
+    }
+
+    /**
+     * Tests that only the top maxResults predictions are fetched.
+     */
+    @Test
+    public void testMaxResults() {
+        predict("siam", "bangkok", "lotus");
+
+        backend.searchRestaurants("Thai restaurant", BOUNDS, 2, null);
+        idle();
+
+        verify(gateway, times(2)).fetchPlace(any());
+        assertFalse(details.containsKey("lotus"));
+    }
+
+    /**
+     * Tests that a cached place is served without a details request.
+     */
+    @Test
+    public void testCacheHit() {
+        predict("siam", "bangkok");
+        Place siam = place("siam");
+        Place bangkok = place("bangkok");
+        detailsCache.put("siam", siam);
+
+        Task<List<Place>> result = backend.searchRestaurants("Thai restaurant", BOUNDS, 5, null);
+        idle();
+        assertEquals(1, details.size());
+        answer(bangkok);
+        idle();
+
+        assertEquals(Arrays.asList(siam, bangkok), result.getResult());
+        assertFalse(details.containsKey("siam"));
+    }
+
+    /**
+     * Tests that a search whose places are all cached sends no details request.
+     */
+    @Test
+    public void testAllCached() {
+        predict("siam");
+        Place siam = place("siam");
+        detailsCache.put("siam", siam);
+
+        Task<List<Place>> result = backend.searchRestaurants("Thai restaurant", BOUNDS, 5, null);
+        idle();
+
+        assertEquals(Arrays.asList(siam), result.getResult());
+        verify(gateway, never()).fetchPlace(any());
+    }
+
+    /**
+     * Tests that the search waits for slow details until the deadline, then resolves with the
+     * places that arrived; a late answer changes nothing.
+     */
+    @Test
+    public void testDeadline() {
+        predict("siam", "bangkok");
+        Place bangkok = place("bangkok");
+
+        Task<List<Place>> result = backend.searchRestaurants("Thai restaurant", BOUNDS, 5, null);
+        idle();
+        answer(bangkok);
+        idle();
+        assertFalse(result.isComplete());
+
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(DEADLINE_MS));
+
+        assertEquals(Arrays.asList(bangkok), result.getResult());
+        answer(place("siam"));
+        idle();
+        assertEquals(Arrays.asList(bangkok), result.getResult());
+    }
+
+    /**
+     * Tests that a failed details request is left out without failing the search.
+     */
+    @Test
+    public void testFailedDetails() {
+        predict("siam", "bangkok");
+        Place bangkok = place("bangkok");
+
+        Task<List<Place>> result = backend.searchRestaurants("Thai restaurant", BOUNDS, 5, null);
+        idle();
+        details.get("siam").setException(new IllegalStateException("offline"));
+        answer(bangkok);
+        idle();
+
+        assertEquals(Arrays.asList(bangkok), result.getResult());
+        assertNull(detailsCache.get("siam"));
+    }
+
+    /**
+     * Tests that a search without predictions resolves to an empty list.
+     */
+    @Test
+    public void testNoPredictions() {
+        predict();
+
+        Task<List<Place>> result = backend.searchRestaurants("Thai restaurant", BOUNDS, 5, null);
+        idle();
+
+        assertTrue(result.getResult().isEmpty());
+    }
+}
@@ -0,0 +1,25 @@
+// JMH harnesses for the restaurant pipeline, run on a plain JVM against a fake Places API:
+//   ./gradlew :benchmarks:jmh
+//   ./gradlew :benchmarks:jmh -Pjmh.includes=GamePipelineBenchmark
+// Results are written to build/results/jmh/results.json; the gc profiler adds the
+// allocation rate per game (gc.alloc.rate.norm).
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    jmh(project(":core"))
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    project.findProperty("jmh.includes")?.let { includes.add(it.toString()) }
+}
@@ -0,0 +1,124 @@
+/**
+ * Measures sorting and filtering a deck with {@link DeckOrder} and {@link DeckFilter}.
+ *
+ * <p>The deck holds one card per player plus the special pick, with about a tenth of the
+ * cards missing a rating, distance or price as real Places results do. Sorting reuses one list,
+ * so the gc profiler configured in the build shows what the sort itself allocates: the
+ * comparators compare primitives, so nothing is allocated per comparison and only the merge
+ * buffer of the list sort remains. Filtering allocates the one result list.</p>
+ */
+package com.lastbite.benchmarks;
+
+import com.lastbite.core.cuisine.Cuisine;
+import com.lastbite.core.deck.DeckEntry;
+import com.lastbite.core.deck.DeckFilter;
+import com.lastbite.core.deck.DeckOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeckOrderBenchmark {
+    /** Players per game; the setup screen allows 2 to 100 */
+    @Param({"10", "100"})
+    public int players;
+
+    /** The order to sort by */
+    @Param({"RATING", "DISTANCE", "PRICE"})
+    public DeckOrder order;
+
+    /**
+     * A card reduced to the values the deck is sorted and filtered by.
+     */
+    static final class Entry implements DeckEntry {
+        private final float rating;
+        private final double distanceMeters;
+        private final int priceLevel;
+        private final long cuisineMask;
+
+        Entry(float rating, double distanceMeters, int priceLevel, long cuisineMask) {
+            this.rating = rating;
+            this.distanceMeters = distanceMeters;
+            this.priceLevel = priceLevel;
+            this.cuisineMask = cuisineMask;
+        }
+
+        @Override
+        public float getRatingValue() { return rating; }
+
+        @Override
+        public double getDistanceMeters() { return distanceMeters; }
+
+        @Override
+        public int getPriceLevel() { return priceLevel; }
+
+        @Override
+        public long getCuisineMask() { return cuisineMask; }
+    }
+
+    private List<Entry> deck;
+    private List<Entry> sorted;
+    private DeckFilter filter;
+
+    /**
+     * Draws the deck and the filter.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        List<Cuisine> cuisines = Cuisine.all();
+        deck = new ArrayList<>(players + 1);
+        for (int i = 0; i <= players; i++) {
+            deck.add(new Entry(
+                    random.nextInt(10) == 0 ? DeckEntry.UNRATED : random.nextInt(9) * 0.5f + 1,
+                    random.nextInt(10) == 0 ? Double.NaN : random.nextDouble() * GamePipeline.MAX_DISTANCE_METERS,
+                    random.nextInt(10) == 0 ? DeckEntry.PRICE_UNKNOWN : random.nextInt(DeckEntry.MAX_PRICE_LEVEL + 1),
+                    cuisines.get(random.nextInt(cuisines.size())).bit()));
+        }
+        sorted = new ArrayList<>(deck);
+        filter = DeckFilter.ANY.withMinRating(3.5f).withMaxDistance(GamePipeline.MAX_DISTANCE_METERS / 2)
+                .withMaxPriceLevel(2);
+    }
+
+    /**
+     * Restores the deck order and sorts it.
+     *
+     * @return The sorted deck, consumed by JMH
+     */
+    @Benchmark
+    public List<Entry> sort() {
+        for (int i = 0; i < deck.size(); i++) {
+            sorted.set(i, deck.get(i));
+        }
+        sorted.sort(order);
+        return sorted;
+    }
+
+    /**
+     * Filters the deck and sorts what is left.
+     *
+     * @return The selected cards, consumed by JMH
+     */
+    @Benchmark
+    public List<Entry> select() {
+        return filter.select(deck, order);
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * A restaurant returned by the {@link FakePlacesBackend}, carrying the fields the app requests
+ * from the Places API.
+ */
+package com.lastbite.benchmarks;
+
+final class FakePlace {
+    final String name;
+    final Double rating;
+    final String address;
+    final double latitude;
+    final double longitude;
+
+    FakePlace(String name, Double rating, String address, double latitude, double longitude) {
+        this.name = name;
+        this.rating = rating;
+        this.address = address;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * A deterministic, in-process stand-in for the Places text search.
+ *
+ * <p>Results depend only on the query and location: every query has a fixed list of
+ * restaurants scattered within a few kilometres, a tenth of them unrated. Latency and failures
+ * are drawn from a seeded random source keyed by the query and how often that query was asked
+ * before, so the n-th game of a run sees the same latencies however the requests interleave
+ * across threads.</p>
+ *
+ * <p>Requests with a latency complete on a shared timer thread, like Places callbacks arriving
+ * on the main looper; zero-latency requests complete synchronously.</p>
+ */
+package com.lastbite.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class FakePlacesBackend implements AutoCloseable {
+    /** Number of restaurants known per query */
+    static final int PLACES_PER_QUERY = 20;
+
+    /** Spread of the generated restaurants around the search location, in degrees */
+    private static final double SPREAD_DEGREES = 0.04;
+
+    private final LatencyDistribution latency;
+    private final double failureRate;
+    private final long seed;
+    private final ScheduledExecutorService timer;
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * Constructs a fake backend.
+     *
+     * @param latency     The latency distribution of a request
+     * @param failureRate The probability that a request fails, between 0 and 1
+     * @param seed        Seed of the latency and failure draws
+     */
+    FakePlacesBackend(LatencyDistribution latency, double failureRate, long seed) {
+        this.latency = latency;
+        this.failureRate = failureRate;
+        this.seed = seed;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fake-places");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Searches for restaurants matching a query near a location.
+     *
+     * @param query      The search query, e.g. "Italian restaurant"
+     * @param latitude   Latitude of the search location
+     * @param longitude  Longitude of the search location
+     * @param maxResults The maximum number of candidates to return
+     * @return A future resolving to the candidates, or failing like a network error would
+     */
+    CompletableFuture<List<FakePlace>> search(String query, double latitude, double longitude, int maxResults) {
+        requests.incrementAndGet();
+        int attempt = requestCounts.computeIfAbsent(query, key -> new AtomicInteger()).getAndIncrement();
+        SplittableRandom random = new SplittableRandom(seed ^ ((long) query.hashCode() << 32) ^ attempt);
+        long delayMicros = latency.sampleMicros(random);
+        boolean fail = random.nextDouble() < failureRate;
+
+        CompletableFuture<List<FakePlace>> result = new CompletableFuture<>();
+        Runnable complete = () -> {
+            if (fail) {
+                failures.incrementAndGet();
+                result.completeExceptionally(new IllegalStateException("Simulated Places failure"));
+            } else {
+                result.complete(placesFor(query, latitude, longitude, maxResults));
+            }
+        };
+        if (delayMicros == 0) {
+            complete.run();
+        } else {
+            timer.schedule(complete, delayMicros, TimeUnit.MICROSECONDS);
+        }
+        return result;
+    }
+
+    /**
+     * Generates the fixed result list of a query.
+     *
+     * @param query      The search query
+     * @param latitude   Latitude of the search location
+     * @param longitude  Longitude of the search location
+     * @param maxResults The maximum number of candidates
+     * @return The candidates in relevance order
+     */
+    private static List<FakePlace> placesFor(String query, double latitude, double longitude, int maxResults) {
+        SplittableRandom random = new SplittableRandom(query.hashCode());
+        int count = Math.min(maxResults, PLACES_PER_QUERY);
+        List<FakePlace> places = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Double rating = random.nextInt(10) == 0 ? null : 3.0 + random.nextInt(21) / 10.0;
+            places.add(new FakePlace(query + " #" + i, rating, i + " Benchmark Ave",
+                    latitude + (random.nextDouble() - 0.5) * SPREAD_DEGREES,
+                    longitude + (random.nextDouble() - 0.5) * SPREAD_DEGREES));
+        }
+        return places;
+    }
+
+    /**
+     * Returns how many searches were made.
+     *
+     * @return The request count
+     */
+    long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Returns how many searches failed.
+     *
+     * @return The failure count
+     */
+    long getFailureCount() {
+        return failures.get();
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * The benchmark's counterpart of the app's restaurant card: the fields a card shows and how
+ * it is rendered into the text of a card view.
+ */
+package com.lastbite.benchmarks;
+
+import com.lastbite.core.geo.GeoMath;
+
+final class GameCard {
+    final String name;
+    final String cuisine;
+    final String rating;
+    final String address;
+    final String suggestedFor;
+    final double distanceMeters;
+
+    GameCard(String name, String cuisine, String rating, String address, String suggestedFor,
+             double distanceMeters) {
+        this.name = name;
+        this.cuisine = cuisine;
+        this.rating = rating;
+        this.address = address;
+        this.suggestedFor = suggestedFor;
+        this.distanceMeters = distanceMeters;
+    }
+
+    /**
+     * Builds a card from a search result, the way the game converts a place.
+     *
+     * @param place        The place
+     * @param cuisine      The cuisine shown on the card
+     * @param suggestedFor The player shown on the card
+     * @param latitude     Latitude of the search location
+     * @param longitude    Longitude of the search location
+     * @return The card
+     */
+    static GameCard of(FakePlace place, String cuisine, String suggestedFor, double latitude, double longitude) {
+        return new GameCard(place.name, cuisine,
+                place.rating != null ? place.rating + " ★" : "Rating N/A",
+                place.address, suggestedFor,
+                GeoMath.distanceMeters(latitude, longitude, place.latitude, place.longitude));
+    }
+
+    /**
+     * Returns a copy suggested for another player, as done for cards served from the cache.
+     *
+     * @param player The player
+     * @return The copy
+     */
+    GameCard suggestedFor(String player) {
+        return new GameCard(name, cuisine, rating, address, player, distanceMeters);
+    }
+
+    /**
+     * Renders the text a card view binds.
+     *
+     * @return The card's text, one view per line
+     */
+    String render() {
+        return name + '\n' + cuisine + '\n' + rating + '\n' + address + '\n'
+                + GeoMath.formatDistance(distanceMeters) + " away\n"
+                + "Suggested for: " + suggestedFor;
+    }
+}
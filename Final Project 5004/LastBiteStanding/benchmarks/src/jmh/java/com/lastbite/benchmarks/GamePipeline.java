@@ -0,0 +1,305 @@
+/**
+ * A JVM model of the game's fetch, rank and render pipeline, built from the same core pieces
+ * the app's {@code GameSessionViewModel} uses.
+ *
+ * <p>One lookup per {@link CuisineBatch} (the players sharing a cuisine) plus the special pick is
+ * scheduled on a {@link RestaurantFetchScheduler} with the app's concurrency limit. Each batch
+ * first asks the {@link CardStore} for the cards of all its ranks at once; the ranks it misses
+ * share one search for the cuisine and take the best candidates not yet in the deck from the
+ * cuisine's top-k selection by the {@link RankingEngine}, so players sharing a cuisine get
+ * distinct restaurants. The special pick
+ * draws a surprise cuisine from the {@link CuisineTaxonomy}, keeps the candidates that
+ * {@link CandidateRanking} rates highly and takes the engine's best. Once every lookup has
+ * finished, the deck is rendered into card text and the vetoes are played out with a
+ * {@link VetoEngine}.</p>
+ *
+ * <p>Search results may arrive on the fake backend's timer thread while the benchmark thread is
+ * still starting lookups, so the engine, which is not thread-safe, is used under its own lock.</p>
+ *
+ * <p>The Android-specific parts of the real pipeline (Places tasks, the main looper, the
+ * RecyclerView) are replaced by futures, the fake backend's timer thread and string rendering.</p>
+ */
+package com.lastbite.benchmarks;
+
+import com.lastbite.core.cache.CardStore;
+import com.lastbite.core.cuisine.CuisineBatch;
+import com.lastbite.core.cuisine.CuisinePreferences;
+import com.lastbite.core.cuisine.CuisineTaxonomy;
+import com.lastbite.core.fetch.RestaurantFetchScheduler;
+import com.lastbite.core.game.VetoEngine;
+import com.lastbite.core.geo.GeoMath;
+import com.lastbite.core.ranking.Candidate;
+import com.lastbite.core.ranking.CandidateRanking;
+import com.lastbite.core.ranking.RankingEngine;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+final class GamePipeline {
+    /** Candidates requested per search, as in the app's coalescer */
+    static final int CANDIDATES_PER_QUERY = 20;
+
+    /** Distance at which the distance score reaches 0, the app's largest search radius */
+    static final double MAX_DISTANCE_METERS = 20000;
+
+    /** Rating a special pick candidate needs to count as highly rated */
+    static final double MIN_SPECIAL_RATING = 4.0;
+
+    /**
+     * The outcome of one game.
+     */
+    static final class GameResult {
+        /** The finished deck */
+        final List<GameCard> deck;
+
+        /** The card left after every veto, or null if no restaurant was found */
+        final GameCard finalChoice;
+
+        /** Total length of the rendered card text, so rendering cannot be optimised away */
+        final int renderedChars;
+
+        GameResult(List<GameCard> deck, GameCard finalChoice, int renderedChars) {
+            this.deck = deck;
+            this.finalChoice = finalChoice;
+            this.renderedChars = renderedChars;
+        }
+    }
+
+    private final FakePlacesBackend backend;
+    private final CardStore<GameCard> store;
+    private final double latitude;
+    private final double longitude;
+
+    /**
+     * Constructs a pipeline.
+     *
+     * @param backend   The fake Places API
+     * @param store     The card cache
+     * @param latitude  Latitude of the game's search location
+     * @param longitude Longitude of the game's search location
+     */
+    GamePipeline(FakePlacesBackend backend, CardStore<GameCard> store, double latitude, double longitude) {
+        this.backend = backend;
+        this.store = store;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    /**
+     * Plays one game.
+     *
+     * @param cuisines The cuisine picked by each player, in turn order
+     * @param seed     Seed of the special pick's cuisine draw
+     * @return A future completing once every card has arrived and the deck has been rendered
+     */
+    CompletableFuture<GameResult> play(List<String> cuisines, long seed) {
+        int players = cuisines.size();
+        GameCard[] slots = new GameCard[players + 1];
+        Map<String, CompletableFuture<List<FakePlace>>> searches = new ConcurrentHashMap<>();
+        List<CuisineBatch> batches = CuisineBatch.group(cuisines);
+        RestaurantFetchScheduler scheduler = RestaurantFetchScheduler.forGame(batches.size());
+
+        RankingEngine engine = RankingEngine.withDefaultStrategies(cuisines, MAX_DISTANCE_METERS);
+        Map<String, List<Candidate<FakePlace>>> ranked = new HashMap<>();
+        for (CuisineBatch batch : batches) {
+            String cuisine = batch.getCuisine();
+            String cuisineKey = batch.getCuisineKey();
+            scheduler.submit(done -> store.getCachedCards(latitude, longitude, cuisine, batch.size(),
+                    (cached, stale) -> {
+                List<Integer> missingRanks = new ArrayList<>();
+                synchronized (engine) {
+                    for (int rank = 0; rank < batch.size(); rank++) {
+                        GameCard card = cached.get(rank);
+                        if (card == null) {
+                            missingRanks.add(rank);
+                            continue;
+                        }
+                        int slot = batch.getSlot(rank);
+                        slots[slot] = card.suggestedFor(playerName(slot));
+                        engine.markChosen(new Candidate<>(card, card.name + "|" + card.address,
+                                cuisineKey, Double.NaN, Double.NaN));
+                    }
+                }
+                if (missingRanks.isEmpty()) {
+                    done.run();
+                    return;
+                }
+                search(searches, CuisineTaxonomy.queryFor(cuisine)).whenComplete((places, error) -> {
+                    if (places != null) {
+                        for (int rank : missingRanks) {
+                            FakePlace place;
+                            synchronized (engine) {
+                                place = chooseForCuisine(engine, ranked, places, cuisineKey, batch.size());
+                            }
+                            if (place == null) {
+                                break;
+                            }
+                            int slot = batch.getSlot(rank);
+                            GameCard card = GameCard.of(place, cuisines.get(slot), playerName(slot),
+                                    latitude, longitude);
+                            slots[slot] = card;
+                            store.saveCard(latitude, longitude, cuisine, rank, card);
+                        }
+                    }
+                    done.run();
+                });
+            }));
+        }
+
+        String surprise = CuisineTaxonomy.pickSurprise(cuisines, new Random(seed));
+        String specialQuery = surprise != null ? CuisineTaxonomy.queryFor(surprise) : CuisineTaxonomy.ANY_CUISINE_QUERY;
+        String specialKey = surprise != null ? CuisineTaxonomy.key(surprise) : "";
+        scheduler.submit(done -> search(searches, specialQuery).whenComplete((places, error) -> {
+            FakePlace best = null;
+            if (places != null) {
+                synchronized (engine) {
+                    best = chooseBest(engine, highlyRated(places), specialKey);
+                }
+            }
+            if (best != null) {
+                slots[players] = GameCard.of(best, "Our Special Pick", "Game's Recommendation",
+                        latitude, longitude);
+            }
+            done.run();
+        }));
+
+        CompletableFuture<GameResult> result = new CompletableFuture<>();
+        scheduler.start(() -> result.complete(finish(slots, players)));
+        return result;
+    }
+
+    /**
+     * Returns the name a player is shown under.
+     *
+     * @param slot The player's slot
+     * @return The player's name
+     */
+    private static String playerName(int slot) {
+        return "Player " + (slot + 1);
+    }
+
+    /**
+     * Takes the best candidate not yet in the deck from the cuisine's top-k selection, ranking
+     * the candidates once per cuisine as the app does. Falls back to ranking every remaining
+     * candidate if cached cards used up the selection.
+     *
+     * @param engine     The game's ranking engine
+     * @param ranked     The top-k selection of every cuisine ranked so far
+     * @param places     The cuisine's search result
+     * @param cuisineKey The cuisine key
+     * @param k          The number of players who picked the cuisine
+     * @return The chosen place, or null if every candidate is already in the deck
+     */
+    private FakePlace chooseForCuisine(RankingEngine engine, Map<String, List<Candidate<FakePlace>>> ranked,
+                                       List<FakePlace> places, String cuisineKey, int k) {
+        List<Candidate<FakePlace>> top = ranked.computeIfAbsent(cuisineKey,
+                key -> engine.selectTop(toCandidates(engine, places, key), k));
+        for (Candidate<FakePlace> candidate : top) {
+            if (!engine.isChosen(candidate.getId())) {
+                engine.markChosen(candidate);
+                return candidate.getItem();
+            }
+        }
+        return chooseBest(engine, places, cuisineKey);
+    }
+
+    /**
+     * Ranks the candidates not yet in the deck and takes the best one.
+     *
+     * @param engine     The game's ranking engine
+     * @param places     The candidates
+     * @param cuisineKey The cuisine key the candidates are ranked under
+     * @return The chosen place, or null if every candidate is already in the deck
+     */
+    private FakePlace chooseBest(RankingEngine engine, List<FakePlace> places, String cuisineKey) {
+        Candidate<FakePlace> best = engine.selectBest(toCandidates(engine, places, cuisineKey));
+        if (best == null) {
+            return null;
+        }
+        engine.markChosen(best);
+        return best.getItem();
+    }
+
+    /**
+     * Wraps places as ranking candidates, leaving out restaurants already in the deck.
+     *
+     * @param engine     The game's ranking engine
+     * @param places     The places
+     * @param cuisineKey The cuisine key of the search that found them
+     * @return The candidates in their original order
+     */
+    private List<Candidate<FakePlace>> toCandidates(RankingEngine engine, List<FakePlace> places,
+                                                    String cuisineKey) {
+        CuisinePreferences searched = CuisinePreferences.parse(cuisineKey);
+        List<Candidate<FakePlace>> candidates = new ArrayList<>(places.size());
+        for (FakePlace place : places) {
+            String id = place.name + "|" + place.address;
+            if (!engine.isChosen(id)) {
+                candidates.add(new Candidate<>(place, id, cuisineKey,
+                        place.rating != null ? place.rating : Double.NaN,
+                        GeoMath.distanceMeters(latitude, longitude, place.latitude, place.longitude),
+                        searched.getCuisineMask(), searched.getDietaryFlags()));
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Keeps the highly rated places, or every place if none is, as the app's candidate evaluator does.
+     *
+     * @param places The places
+     * @return The highly rated places, or {@code places}
+     */
+    private static List<FakePlace> highlyRated(List<FakePlace> places) {
+        List<FakePlace> highlyRated = new ArrayList<>(places.size());
+        for (FakePlace place : places) {
+            if (CandidateRanking.meetsThreshold(place.rating, MIN_SPECIAL_RATING)) {
+                highlyRated.add(place);
+            }
+        }
+        return highlyRated.isEmpty() ? places : highlyRated;
+    }
+
+    /**
+     * Returns the game's search for a query, starting it if no player has asked yet.
+     *
+     * @param searches The game's searches keyed by query
+     * @param query    The query
+     * @return The shared search
+     */
+    private CompletableFuture<List<FakePlace>> search(Map<String, CompletableFuture<List<FakePlace>>> searches,
+                                                      String query) {
+        return searches.computeIfAbsent(query,
+                key -> backend.search(key, latitude, longitude, CANDIDATES_PER_QUERY));
+    }
+
+    /**
+     * Builds the deck from the finished slots, renders it and plays out the vetoes.
+     *
+     * @param slots   The card of every slot, null where the lookup found nothing
+     * @param players The number of players
+     * @return The game result
+     */
+    private static GameResult finish(GameCard[] slots, int players) {
+        List<GameCard> deck = new ArrayList<>(slots.length);
+        int renderedChars = 0;
+        for (GameCard card : slots) {
+            if (card != null) {
+                deck.add(card);
+                renderedChars += card.render().length();
+            }
+        }
+
+        List<GameCard> remaining = new ArrayList<>(deck);
+        VetoEngine vetoEngine = new VetoEngine(players);
+        vetoEngine.capToDeck(remaining.size());
+        while (vetoEngine.veto()) {
+            remaining.remove(vetoEngine.getCurrentPlayerIndex() % remaining.size());
+        }
+        return new GameResult(deck, remaining.isEmpty() ? null : remaining.get(0), renderedChars);
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Measures how the game pipeline scales with group size, cache hit rate, Places latency and
+ * failure rate.
+ *
+ * <p>Each benchmark invocation plays one complete game against the {@link FakePlacesBackend}
+ * and waits until every card has arrived:</p>
+ * <ul>
+ *   <li>Throughput mode reports games per millisecond.</li>
+ *   <li>Sample-time mode reports the time-to-all-cards distribution (p50, p90, p99 and so on).</li>
+ *   <li>The gc profiler configured in the build reports {@code gc.alloc.rate.norm}, the bytes
+ *       allocated per game.</li>
+ * </ul>
+ *
+ * <p>With {@code fixed:0} the fake completes synchronously, so the numbers are the pipeline's
+ * own CPU and allocation cost. The log-normal setting has a 20 ms median and a long tail. That
+ * is real Places latency scaled down tenfold to keep runs short, so multiply those times by
+ * ten. Players draw cuisines from a fixed, seeded sequence of games, so runs are comparable.</p>
+ */
+package com.lastbite.benchmarks;
+
+import com.lastbite.core.cuisine.CuisineTaxonomy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GamePipelineBenchmark {
+    /** Number of pre-generated games cycled through, a power of two */
+    private static final int GAMES = 1024;
+
+    /** Players per game; the setup screen allows 2 to 100 */
+    @Param({"2", "10", "100"})
+    public int players;
+
+    /** Fraction of player lookups answered by the card cache */
+    @Param({"0.0", "0.5", "0.9"})
+    public double cacheHitRate;
+
+    /** Latency distribution of a Places search, see {@link LatencyDistribution} */
+    @Param({"fixed:0", "lognormal:20:0.6"})
+    public String latency;
+
+    /** Probability that a Places search fails */
+    @Param({"0.0", "0.05"})
+    public double failureRate;
+
+    private FakePlacesBackend backend;
+    private HitRateCardStore store;
+    private GamePipeline pipeline;
+    private List<List<String>> games;
+    private int nextGame;
+
+    /**
+     * Creates the fake backend and the cache and draws the players' cuisines for every game.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        backend = new FakePlacesBackend(LatencyDistribution.parse(latency), failureRate, 42);
+        store = new HitRateCardStore(cacheHitRate);
+        pipeline = new GamePipeline(backend, store, 47.6062, -122.3321);
+
+        SplittableRandom random = new SplittableRandom(7);
+        games = new ArrayList<>(GAMES);
+        for (int game = 0; game < GAMES; game++) {
+            List<String> cuisines = new ArrayList<>(players);
+            for (int player = 0; player < players; player++) {
+                cuisines.add(CuisineTaxonomy.SELECTABLE.get(random.nextInt(CuisineTaxonomy.SELECTABLE.size())));
+            }
+            games.add(cuisines);
+        }
+    }
+
+    /**
+     * Reports what the fake backend and the cache actually saw during the trial.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n  searches: %d, failed: %d, observed cache hit rate: %.2f%n",
+                backend.getRequestCount(), backend.getFailureCount(), store.getObservedHitRate());
+        backend.close();
+    }
+
+    /**
+     * Plays one game and waits for every card.
+     *
+     * @return The game result, consumed by JMH
+     * @throws Exception if the game does not finish
+     */
+    @Benchmark
+    public GamePipeline.GameResult playGame() throws Exception {
+        int game = nextGame++;
+        return pipeline.play(games.get(game & (GAMES - 1)), game).get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * An in-memory {@link CardStore} that answers a fixed fraction of lookups, standing in for the
+ * on-device restaurant cache at a chosen hit rate.
+ *
+ * <p>Whether a lookup hits is decided from a hash of its key and a running lookup number, so
+ * the hit rate stays at the configured value for the whole run instead of climbing towards
+ * 100% as saved cards pile up. Saved cards are kept and served on later hits.</p>
+ */
+package com.lastbite.benchmarks;
+
+import com.lastbite.core.cache.CardStore;
+import com.lastbite.core.cuisine.CuisineTaxonomy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class HitRateCardStore implements CardStore<GameCard> {
+    private final double hitRate;
+    private final Map<String, GameCard> cards = new ConcurrentHashMap<>();
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * Constructs a store.
+     *
+     * @param hitRate The fraction of lookups to answer, between 0 and 1
+     */
+    HitRateCardStore(double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    @Override
+    public void getCachedCard(double latitude, double longitude, String cuisine, int rank,
+                              Callback<GameCard> callback) {
+        String key = key(cuisine, rank);
+        long lookup = lookups.getAndIncrement();
+        GameCard card = null;
+        if (fraction(key.hashCode() * 31L + lookup) < hitRate) {
+            card = cards.computeIfAbsent(key, k -> new GameCard("Cached " + k, cuisine, "4.2 ★",
+                    "1 Cache St", null, 850));
+            hits.incrementAndGet();
+        }
+        callback.onCacheResult(card, false);
+    }
+
+    @Override
+    public void saveCard(double latitude, double longitude, String cuisine, int rank, GameCard card) {
+        cards.put(key(cuisine, rank), card);
+    }
+
+    /**
+     * Returns the fraction of lookups answered so far.
+     *
+     * @return The observed hit rate
+     */
+    double getObservedHitRate() {
+        long total = lookups.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    private static String key(String cuisine, int rank) {
+        return CuisineTaxonomy.key(cuisine) + "#" + rank;
+    }
+
+    /**
+     * Maps a value to a well-mixed fraction in [0, 1).
+     *
+     * @param value The value
+     * @return The fraction
+     */
+    private static double fraction(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * A latency distribution for the fake Places API, parsed from a compact specification so it
+ * can be passed as a JMH parameter:
+ * <ul>
+ *   <li>{@code fixed:<ms>} every request takes exactly this long, {@code fixed:0} completes
+ *       synchronously and measures the pipeline's own CPU cost</li>
+ *   <li>{@code uniform:<min>:<max>} evenly spread between two bounds</li>
+ *   <li>{@code lognormal:<median>:<sigma>} the long-tailed shape real network calls have</li>
+ * </ul>
+ * All values are in milliseconds.
+ */
+package com.lastbite.benchmarks;
+
+import java.util.SplittableRandom;
+
+final class LatencyDistribution {
+    private enum Kind { FIXED, UNIFORM, LOG_NORMAL }
+
+    private final Kind kind;
+    private final double first;
+    private final double second;
+
+    private LatencyDistribution(Kind kind, double first, double second) {
+        this.kind = kind;
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * Parses a distribution specification.
+     *
+     * @param spec The specification, e.g. "lognormal:20:0.6"
+     * @return The distribution
+     * @throws IllegalArgumentException if the specification is malformed
+     */
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        try {
+            switch (parts[0]) {
+                case "fixed":
+                    return new LatencyDistribution(Kind.FIXED, Double.parseDouble(parts[1]), 0);
+                case "uniform":
+                    return new LatencyDistribution(Kind.UNIFORM,
+                            Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                case "lognormal":
+                    return new LatencyDistribution(Kind.LOG_NORMAL,
+                            Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default:
+                    throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed latency distribution: " + spec, e);
+        }
+    }
+
+    /**
+     * Draws one latency.
+     *
+     * @param random The random source
+     * @return The latency in microseconds, never negative
+     */
+    long sampleMicros(SplittableRandom random) {
+        double millis;
+        switch (kind) {
+            case UNIFORM:
+                millis = first + random.nextDouble() * (second - first);
+                break;
+            case LOG_NORMAL:
+                millis = first * Math.exp(second * gaussian(random));
+                break;
+            default:
+                millis = first;
+        }
+        return Math.max(0, Math.round(millis * 1000));
+    }
+
+    /**
+     * Draws a standard normal value with the Box-Muller transform.
+     *
+     * @param random The random source
+     * @return The value
+     */
+    private static double gaussian(SplittableRandom random) {
+        double u = 1 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
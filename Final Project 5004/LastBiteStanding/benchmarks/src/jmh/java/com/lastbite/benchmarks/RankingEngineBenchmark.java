@@ -0,0 +1,79 @@
+/**
+ * Measures the {@link RankingEngine} on its own, at the sizes the game ranks.
+ *
+ * <p>Each invocation builds a fresh engine for the group and ranks the pooled candidates of
+ * every player's cuisine, selecting one card per player plus the special pick. Average-time mode
+ * reports microseconds per ranking; with ten players and twenty candidates each this has to stay
+ * far below the 16 ms of a frame, since the game ranks on the main thread. The gc profiler
+ * configured in the build reports the bytes allocated per ranking.</p>
+ */
+package com.lastbite.benchmarks;
+
+import com.lastbite.core.cuisine.CuisineTaxonomy;
+import com.lastbite.core.ranking.Candidate;
+import com.lastbite.core.ranking.RankingEngine;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RankingEngineBenchmark {
+    /** Players per game; the setup screen allows 2 to 100 */
+    @Param({"2", "10", "100"})
+    public int players;
+
+    /** Candidates per cuisine search */
+    @Param({"5", "20"})
+    public int candidatesPerCuisine;
+
+    private List<String> cuisines;
+    private List<Candidate<String>> candidates;
+
+    /**
+     * Draws the players' cuisines and the candidates of every cuisine search.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        cuisines = new ArrayList<>(players);
+        candidates = new ArrayList<>(players * candidatesPerCuisine);
+        for (int player = 0; player < players; player++) {
+            String cuisine = CuisineTaxonomy.SELECTABLE.get(random.nextInt(CuisineTaxonomy.SELECTABLE.size()));
+            cuisines.add(cuisine);
+            for (int i = 0; i < candidatesPerCuisine; i++) {
+                String id = cuisine + " place " + player + "-" + i;
+                candidates.add(new Candidate<>(id, id, CuisineTaxonomy.key(cuisine),
+                        random.nextInt(9) * 0.5 + 1, random.nextDouble() * GamePipeline.MAX_DISTANCE_METERS));
+            }
+        }
+    }
+
+    /**
+     * Ranks every candidate for the whole group and selects the deck.
+     *
+     * @return The selected deck, consumed by JMH
+     */
+    @Benchmark
+    public List<Candidate<String>> rankDeck() {
+        RankingEngine engine = RankingEngine.withDefaultStrategies(cuisines, GamePipeline.MAX_DISTANCE_METERS);
+        return engine.selectTop(candidates, players + 1);
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Measures the veto turns of a {@link SlotDeck} as the party grows.
+ *
+ * <p>Each invocation plays out a whole game: a placeholder per player plus the special pick,
+ * then one veto per player, each removing the card at a random position as swipes do. The time
+ * is reported per game; divided by the number of players it gives the cost of a turn, which
+ * should stay about flat across the player counts, with only the logarithmic deck lookups
+ * left. A veto that scanned the deck or the slots would grow tenfold per step instead.</p>
+ */
+package com.lastbite.benchmarks;
+
+import com.lastbite.core.game.SlotDeck;
+import com.lastbite.core.game.VetoEngine;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SlotDeckBenchmark {
+    /** Players per game; the setup screen allows 2 to 100, 1000 shows the trend */
+    @Param({"10", "100", "1000"})
+    public int players;
+
+    /** One card per fetch slot */
+    private Object[] cards;
+
+    /** The cards in the order they are vetoed */
+    private List<Object> vetoOrder;
+
+    /**
+     * Creates the cards and a fixed random veto order.
+     */
+    @Setup
+    public void setUp() {
+        cards = new Object[players + 1];
+        for (int slot = 0; slot < cards.length; slot++) {
+            cards[slot] = new Object();
+        }
+        vetoOrder = new ArrayList<>();
+        Collections.addAll(vetoOrder, cards);
+        Collections.shuffle(vetoOrder, new Random(42));
+    }
+
+    /**
+     * Plays out a game's vetoes.
+     *
+     * @return The number of vetoes applied
+     */
+    @Benchmark
+    public int vetoTurns() {
+        SlotDeck<Object> deck = new SlotDeck<>(Collections.emptyList(), new VetoEngine(players), cards.length);
+        for (int slot = 0; slot < cards.length; slot++) {
+            deck.addPlaceholder(slot, cards[slot]);
+        }
+        deck.markReady();
+        int vetoes = 0;
+        for (int turn = 0; turn < players; turn++) {
+            if (deck.veto(vetoOrder.get(turn))) {
+                vetoes++;
+            }
+        }
+        return vetoes;
+    }
+}
@@ -0,0 +1,14 @@
+// Pure-Java game logic shared by the Android app, the tools and the benchmarks.
+// Must not depend on the Android SDK so it can be tested and profiled on a plain JVM.
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
@@ -0,0 +1,184 @@
+/**
+ * An in-memory LRU cache bounded by the total size of its values rather than their number.
+ *
+ * <p>Every value is measured once, when it is stored, by a {@link Sizer}. Once the values add up
+ * to more than the byte budget, the least recently used entries are dropped until the cache
+ * fits again; a value larger than the whole budget is not stored at all. This suits values of
+ * very different sizes, such as decoded photos, where an entry count says little about the
+ * memory held.</p>
+ *
+ * <p>Hit, miss and eviction counts are tracked for diagnostics. All methods are thread-safe.</p>
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+package com.lastbite.core.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ByteBoundedLruCache<K, V> implements Cache<K, V> {
+
+    /**
+     * Measures cached values.
+     *
+     * @param <V> The value type
+     */
+    public interface Sizer<V> {
+        /**
+         * Returns the memory a value holds.
+         *
+         * @param value The value
+         * @return Its size in bytes, at least 0
+         */
+        int sizeOf(V value);
+    }
+
+    private final long maxBytes;
+    private final Sizer<V> sizer;
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, Integer> sizes = new LinkedHashMap<>();
+    private long sizeBytes;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Constructs a cache holding at most {@code maxBytes} bytes of values.
+     *
+     * @param maxBytes The byte budget, must be at least 1
+     * @param sizer    Measures the values
+     * @throws IllegalArgumentException if maxBytes is less than 1
+     */
+    public ByteBoundedLruCache(long maxBytes, Sizer<V> sizer) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("maxBytes must be at least 1");
+        }
+        this.maxBytes = maxBytes;
+        this.sizer = sizer;
+    }
+
+    /**
+     * Returns the cached value for a key and marks it as most recently used.
+     *
+     * @param key The key
+     * @return The cached value, or null on a miss
+     */
+    @Override
+    public synchronized V get(K key) {
+        V value = entries.get(key);
+        if (value != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return value;
+    }
+
+    /**
+     * Stores a value, replacing any earlier value of the key, then evicts the least recently
+     * used entries until the cache fits its budget. A value larger than the budget is not
+     * stored, and the earlier value of its key is dropped.
+     *
+     * @param key   The key
+     * @param value The value
+     */
+    @Override
+    public synchronized void put(K key, V value) {
+        if (key == null || value == null) {
+            return;
+        }
+        remove(key);
+        int size = sizer.sizeOf(value);
+        if (size > maxBytes) {
+            return;
+        }
+        entries.put(key, value);
+        sizes.put(key, size);
+        sizeBytes += size;
+        trimTo(maxBytes);
+    }
+
+    /**
+     * Removes the value of a key.
+     *
+     * @param key The key
+     * @return The removed value, or null if none was cached
+     */
+    public synchronized V remove(K key) {
+        V value = entries.remove(key);
+        if (value != null) {
+            sizeBytes -= sizes.remove(key);
+        }
+        return value;
+    }
+
+    /**
+     * Evicts the least recently used entries until the values take at most {@code bytes}
+     * bytes, e.g. to give memory back when the system runs low.
+     *
+     * @param bytes The size to shrink to
+     */
+    public synchronized void trimTo(long bytes) {
+        Iterator<Map.Entry<K, V>> eldest = entries.entrySet().iterator();
+        while (sizeBytes > bytes && eldest.hasNext()) {
+            K key = eldest.next().getKey();
+            eldest.remove();
+            sizeBytes -= sizes.remove(key);
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Removes every entry and resets the counters.
+     */
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        sizes.clear();
+        sizeBytes = 0;
+        hitCount = 0;
+        missCount = 0;
+        evictionCount = 0;
+    }
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return The current number of entries
+     */
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** @return The total size of the cached values in bytes */
+    public synchronized long getSizeBytes() { return sizeBytes; }
+
+    /** @return The byte budget */
+    public long getMaxBytes() { return maxBytes; }
+
+    /**
+     * Returns how many lookups were answered from the cache.
+     *
+     * @return The hit count
+     */
+    @Override
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns how many lookups found nothing in the cache.
+     *
+     * @return The miss count
+     */
+    @Override
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /** @return The number of entries dropped to stay within the budget */
+    public synchronized long getEvictionCount() { return evictionCount; }
+}
@@ -0,0 +1,54 @@
+/**
+ * A synchronous in-memory cache with hit and miss accounting.
+ *
+ * <p>Implementations decide their own eviction policy; the counters let callers report how
+ * well the cache is doing without knowing how it works.</p>
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+package com.lastbite.core.cache;
+
+public interface Cache<K, V> {
+    /**
+     * Returns the cached value for a key.
+     *
+     * @param key The key
+     * @return The cached value, or null on a miss
+     */
+    V get(K key);
+
+    /**
+     * Stores a value, possibly evicting others.
+     *
+     * @param key   The key
+     * @param value The value
+     */
+    void put(K key, V value);
+
+    /**
+     * Removes every entry and resets the counters.
+     */
+    void clear();
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return The current size
+     */
+    int size();
+
+    /**
+     * Returns how many lookups were answered from the cache.
+     *
+     * @return The hit count
+     */
+    long getHitCount();
+
+    /**
+     * Returns how many lookups found nothing.
+     *
+     * @return The miss count
+     */
+    long getMissCount();
+}
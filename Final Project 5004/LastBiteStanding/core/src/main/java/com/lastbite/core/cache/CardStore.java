@@ -0,0 +1,105 @@
+/**
+ * A persistent, location-keyed store of restaurant cards.
+ *
+ * <p>Cards are keyed by the area they were searched in, a cuisine and the card's rank within
+ * that cuisine, so two players who pick the same cuisine get two distinct cards. Lookups are
+ * asynchronous and follow a stale-while-revalidate policy: a stale card is still returned,
+ * flagged so that the caller can refresh it in the background. The cards of every player
+ * sharing a cuisine can be looked up in one batch.</p>
+ *
+ * @param <C> The card type
+ */
+package com.lastbite.core.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public interface CardStore<C> {
+
+    /**
+     * Receives the result of a lookup.
+     *
+     * @param <C> The card type
+     */
+    interface Callback<C> {
+        /**
+         * Called with the stored card, or null on a miss.
+         *
+         * @param card  The stored card, or null if nothing usable was stored
+         * @param stale true if the card should be refreshed
+         */
+        void onCacheResult(C card, boolean stale);
+    }
+
+    /**
+     * Receives the result of a batch lookup.
+     *
+     * @param <C> The card type
+     */
+    interface BatchCallback<C> {
+        /**
+         * Called with the stored cards of ranks 0 to count - 1.
+         *
+         * @param cards The stored card of each rank, null where nothing usable was stored
+         * @param stale For each rank, true if the card should be refreshed
+         */
+        void onCacheResults(List<C> cards, boolean[] stale);
+    }
+
+    /**
+     * Looks up a stored card for a cuisine near the given location.
+     *
+     * @param latitude  Latitude of the search location
+     * @param longitude Longitude of the search location
+     * @param cuisine   The cuisine that was searched for
+     * @param rank      The card's rank among players sharing the cuisine, starting at 0
+     * @param callback  Receives the result
+     */
+    void getCachedCard(double latitude, double longitude, String cuisine, int rank, Callback<C> callback);
+
+    /**
+     * Looks up the stored cards of ranks 0 to {@code count - 1} for a cuisine near the given
+     * location. The default implementation runs one {@link #getCachedCard} per rank and
+     * reports once all of them have answered; stores that can read every rank at once should
+     * override it.
+     *
+     * @param latitude  Latitude of the search location
+     * @param longitude Longitude of the search location
+     * @param cuisine   The cuisine that was searched for
+     * @param count     The number of ranks to look up
+     * @param callback  Receives the results
+     */
+    default void getCachedCards(double latitude, double longitude, String cuisine, int count,
+                                BatchCallback<C> callback) {
+        List<C> cards = new ArrayList<>(Collections.nCopies(count, null));
+        boolean[] stale = new boolean[count];
+        if (count == 0) {
+            callback.onCacheResults(cards, stale);
+            return;
+        }
+        AtomicInteger pending = new AtomicInteger(count);
+        for (int rank = 0; rank < count; rank++) {
+            final int index = rank;
+            getCachedCard(latitude, longitude, cuisine, rank, (card, cardStale) -> {
+                cards.set(index, card);
+                stale[index] = cardStale;
+                if (pending.decrementAndGet() == 0) {
+                    callback.onCacheResults(cards, stale);
+                }
+            });
+        }
+    }
+
+    /**
+     * Stores a card, replacing any earlier card with the same key.
+     *
+     * @param latitude  Latitude of the search location
+     * @param longitude Longitude of the search location
+     * @param cuisine   The cuisine that was searched for
+     * @param rank      The card's rank among players sharing the cuisine, starting at 0
+     * @param card      The card to store
+     */
+    void saveCard(double latitude, double longitude, String cuisine, int rank, C card);
+}
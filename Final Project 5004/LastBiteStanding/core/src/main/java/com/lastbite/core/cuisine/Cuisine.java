@@ -0,0 +1,163 @@
+/**
+ * A cuisine known to LastBite, interned in a fixed registry.
+ *
+ * <p>Every cuisine has a small id, its position in the registry, and a bit {@code 1L << id},
+ * so a set of cuisines is a {@code long} and testing a restaurant against a player's cuisines
+ * is a single AND. There is exactly one instance per cuisine, so cuisines compare with
+ * {@code ==}. Each cuisine also names the Places API place type that marks a restaurant of
+ * that cuisine, e.g. "thai_restaurant", which turns a place's types into a cuisine mask.</p>
+ *
+ * <p>Ids are written into parcels and saved state, so the registry is append-only: new
+ * cuisines go at the end and existing ones are never reordered or removed. At most
+ * {@link #MAX_CUISINES} fit in a mask.</p>
+ */
+package com.lastbite.core.cuisine;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class Cuisine {
+    /** Number of cuisines a {@code long} mask can hold */
+    public static final int MAX_CUISINES = 64;
+
+    /** Every cuisine, indexed by id; append only */
+    private static final Cuisine[] REGISTRY = {
+            new Cuisine(0, "American", "american_restaurant", true),
+            new Cuisine(1, "Chinese", "chinese_restaurant", true),
+            new Cuisine(2, "French", "french_restaurant", true),
+            new Cuisine(3, "Greek", "greek_restaurant", true),
+            new Cuisine(4, "Indian", "indian_restaurant", true),
+            new Cuisine(5, "Italian", "italian_restaurant", true),
+            new Cuisine(6, "Japanese", "japanese_restaurant", true),
+            new Cuisine(7, "Korean", "korean_restaurant", true),
+            new Cuisine(8, "Mexican", "mexican_restaurant", true),
+            new Cuisine(9, "Mediterranean", "mediterranean_restaurant", true),
+            new Cuisine(10, "Thai", "thai_restaurant", true),
+            new Cuisine(11, "Vietnamese", "vietnamese_restaurant", true),
+            new Cuisine(12, "BBQ", "barbecue_restaurant", true),
+            new Cuisine(13, "Seafood", "seafood_restaurant", true),
+            new Cuisine(14, "Pizza", "pizza_restaurant", true),
+            new Cuisine(15, "Middle Eastern", "middle_eastern_restaurant", false),
+    };
+
+    private static final List<Cuisine> ALL = Collections.unmodifiableList(Arrays.asList(REGISTRY));
+    private static final Map<String, Cuisine> BY_KEY = new HashMap<>();
+    private static final Map<String, Cuisine> BY_PLACE_TYPE = new HashMap<>();
+
+    static {
+        for (Cuisine cuisine : REGISTRY) {
+            BY_KEY.put(cuisine.key, cuisine);
+            BY_PLACE_TYPE.put(cuisine.placeType, cuisine);
+        }
+    }
+
+    private final int id;
+    private final String name;
+    private final String key;
+    private final String placeType;
+    private final boolean selectable;
+
+    /**
+     * Constructs a registry entry.
+     *
+     * @param id         The cuisine's id, its index in the registry
+     * @param name       The display name, e.g. "Thai"
+     * @param placeType  The Places API place type of restaurants of this cuisine
+     * @param selectable Whether players can pick the cuisine
+     */
+    private Cuisine(int id, String name, String placeType, boolean selectable) {
+        this.id = id;
+        this.name = name;
+        // Same as CuisineTaxonomy.key(name); the registry is built before CuisineTaxonomy,
+        // which lists the selectable cuisines from it.
+        this.key = name.toLowerCase();
+        this.placeType = placeType;
+        this.selectable = selectable;
+    }
+
+    /**
+     * Looks up a cuisine by name, ignoring case and surrounding whitespace.
+     *
+     * @param name The cuisine name, may be null
+     * @return The interned cuisine, or null if the registry does not know it
+     */
+    public static Cuisine of(String name) {
+        return BY_KEY.get(CuisineTaxonomy.key(name));
+    }
+
+    /**
+     * Looks up a cuisine by id.
+     *
+     * @param id The id
+     * @return The cuisine, or null if no cuisine has the id
+     */
+    public static Cuisine byId(int id) {
+        return id >= 0 && id < REGISTRY.length ? REGISTRY[id] : null;
+    }
+
+    /**
+     * Returns every registered cuisine.
+     *
+     * @return The cuisines in id order
+     */
+    public static List<Cuisine> all() {
+        return ALL;
+    }
+
+    /**
+     * Builds the mask of the cuisines a place's types mark it as.
+     *
+     * @param placeTypes The place's types, e.g. ["thai_restaurant", "restaurant"]; may be null
+     * @return The mask, 0 if no type names a cuisine
+     */
+    public static long maskOfPlaceTypes(Collection<String> placeTypes) {
+        long mask = 0;
+        if (placeTypes != null) {
+            for (String type : placeTypes) {
+                Cuisine cuisine = BY_PLACE_TYPE.get(type);
+                if (cuisine != null) {
+                    mask |= cuisine.bit();
+                }
+            }
+        }
+        return mask;
+    }
+
+    /** @return The cuisine's id */
+    public int getId() { return id; }
+
+    /** @return The display name, e.g. "Thai" */
+    public String getName() { return name; }
+
+    /** @return The cuisine key, see {@link CuisineTaxonomy#key} */
+    public String getKey() { return key; }
+
+    /** @return The Places API place type, e.g. "thai_restaurant" */
+    public String getPlaceType() { return placeType; }
+
+    /** @return Whether players can pick the cuisine */
+    public boolean isSelectable() { return selectable; }
+
+    /**
+     * Returns the cuisine's bit in a cuisine mask.
+     *
+     * @return {@code 1L << id}
+     */
+    public long bit() {
+        return 1L << id;
+    }
+
+    /**
+     * Returns the display name.
+     *
+     * @return The name
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+}
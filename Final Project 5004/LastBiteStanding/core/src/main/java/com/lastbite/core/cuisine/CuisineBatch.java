@@ -0,0 +1,109 @@
+/**
+ * The players of a game who picked the same cuisine, looked up together.
+ *
+ * <p>In a party of fifty, most cuisines are picked by several players. Their cards come from
+ * the same cache cell, the same search and the same top-k ranking, so the game fetches them as
+ * one batch per cuisine key: one cache query, one search and one deck update, however many
+ * players share the cuisine. A player's rank within the batch is the rank of their card in the
+ * cache and in the ranking, so players sharing a cuisine still get distinct restaurants.</p>
+ *
+ * <p>A search returns a limited number of candidates, so a batch larger than that limit asks
+ * only for the limit. Its players ranked beyond it get a card only if the candidates are not
+ * used up by the players before them; otherwise their slots finish without a card and drop out
+ * of the deck.</p>
+ */
+package com.lastbite.core.cuisine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class CuisineBatch {
+    private final String cuisineKey;
+    private final String cuisine;
+    private final int[] slots;
+
+    /**
+     * Constructs a batch.
+     *
+     * @param cuisineKey The cuisine key shared by the batch
+     * @param cuisine    The cuisine as picked by the batch's first player
+     * @param slots      The players' slots in turn order; the index is the player's rank
+     */
+    private CuisineBatch(String cuisineKey, String cuisine, int[] slots) {
+        this.cuisineKey = cuisineKey;
+        this.cuisine = cuisine;
+        this.slots = slots;
+    }
+
+    /**
+     * Groups players by the key of the cuisine they picked.
+     *
+     * @param playerCuisines The cuisine picked by each player, in turn order
+     * @return One batch per distinct cuisine key, in order of each key's first player
+     */
+    public static List<CuisineBatch> group(List<String> playerCuisines) {
+        Map<String, List<Integer>> slotsByKey = new LinkedHashMap<>();
+        Map<String, String> firstCuisine = new HashMap<>();
+        for (int slot = 0; slot < playerCuisines.size(); slot++) {
+            String cuisine = playerCuisines.get(slot);
+            String key = CuisineTaxonomy.key(cuisine);
+            slotsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(slot);
+            firstCuisine.putIfAbsent(key, cuisine);
+        }
+
+        List<CuisineBatch> batches = new ArrayList<>(slotsByKey.size());
+        for (Map.Entry<String, List<Integer>> entry : slotsByKey.entrySet()) {
+            List<Integer> slots = entry.getValue();
+            int[] slotArray = new int[slots.size()];
+            for (int rank = 0; rank < slotArray.length; rank++) {
+                slotArray[rank] = slots.get(rank);
+            }
+            batches.add(new CuisineBatch(entry.getKey(), firstCuisine.get(entry.getKey()), slotArray));
+        }
+        return batches;
+    }
+
+    /** @return The cuisine key shared by the batch */
+    public String getCuisineKey() { return cuisineKey; }
+
+    /** @return The cuisine as picked by the batch's first player */
+    public String getCuisine() { return cuisine; }
+
+    /** @return The number of players in the batch */
+    public int size() { return slots.length; }
+
+    /**
+     * Returns how many candidates a search for the batch should ask for: one per player, but
+     * no more than a search can return.
+     *
+     * @param perQueryLimit The most candidates one search returns
+     * @return The number of candidates to ask for
+     */
+    public int candidatesNeeded(int perQueryLimit) {
+        return Math.min(slots.length, perQueryLimit);
+    }
+
+    /**
+     * Returns the slot of the player with the given rank.
+     *
+     * @param rank The player's rank within the batch, starting at 0
+     * @return The player's slot in the game
+     */
+    public int getSlot(int rank) {
+        return slots[rank];
+    }
+
+    /**
+     * Returns a readable form for logs and test failures.
+     *
+     * @return The cuisine key and slots
+     */
+    @Override
+    public String toString() {
+        return cuisineKey + Arrays.toString(slots);
+    }
+}
@@ -0,0 +1,331 @@
+/**
+ * A player's ranked cuisines and dietary constraints, packed into a single {@code long}.
+ *
+ * <p>Up to {@link #MAX_RANKED} cuisines are kept best first, one byte per rank holding the
+ * {@link Cuisine} id plus one (0 marks an empty rank), and the {@link DietaryFlag} mask sits
+ * in the upper half. The packed form is what goes into parcels and saved state. The union of
+ * the ranked cuisines is cached as a cuisine mask, so matching a restaurant's cuisine mask is
+ * one AND, and finding the best-ranked match looks at no more than three bits.</p>
+ *
+ * <p>A cuisine the registry does not know, e.g. from an older cache or free text, is kept as
+ * a custom cuisine string instead and matched by {@link CuisineTaxonomy#key}. Instances are
+ * immutable.</p>
+ */
+package com.lastbite.core.cuisine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+public final class CuisinePreferences {
+    /** Most cuisines a player can rank */
+    public static final int MAX_RANKED = 3;
+
+    /** Bits per ranked cuisine in the packed form */
+    private static final int RANK_BITS = 8;
+
+    /** Mask of one ranked cuisine in the packed form */
+    private static final long RANK_MASK = (1L << RANK_BITS) - 1;
+
+    /** Position of the dietary mask in the packed form */
+    private static final int FLAGS_SHIFT = 32;
+
+    /** Preferences without any cuisine or constraint */
+    public static final CuisinePreferences NONE = new CuisinePreferences(0, null);
+
+    private final long packed;
+    private final String customCuisine;
+    private final long cuisineMask;
+
+    /**
+     * Constructs preferences from their packed form.
+     *
+     * @param packed        The ranked cuisine ids and the dietary mask
+     * @param customCuisine A cuisine the registry does not know, or null
+     */
+    private CuisinePreferences(long packed, String customCuisine) {
+        this.packed = packed;
+        this.customCuisine = customCuisine;
+        long mask = 0;
+        for (int rank = 0; rank < MAX_RANKED; rank++) {
+            Cuisine cuisine = cuisineAt(packed, rank);
+            if (cuisine != null) {
+                mask |= cuisine.bit();
+            }
+        }
+        this.cuisineMask = mask;
+    }
+
+    /**
+     * Builds preferences from ranked cuisines and dietary constraints. Repeated cuisines keep
+     * their best rank.
+     *
+     * @param ranked       The cuisines, best first; at most {@link #MAX_RANKED} distinct ones
+     * @param dietaryFlags The {@link DietaryFlag} mask
+     * @return The preferences
+     * @throws IllegalArgumentException if more than {@link #MAX_RANKED} cuisines are given
+     */
+    public static CuisinePreferences of(List<Cuisine> ranked, int dietaryFlags) {
+        long packed = (long) dietaryFlags << FLAGS_SHIFT;
+        long seen = 0;
+        int rank = 0;
+        for (Cuisine cuisine : ranked) {
+            if (cuisine == null || (seen & cuisine.bit()) != 0) {
+                continue;
+            }
+            if (rank == MAX_RANKED) {
+                throw new IllegalArgumentException("At most " + MAX_RANKED + " cuisines can be ranked");
+            }
+            seen |= cuisine.bit();
+            packed |= (long) (cuisine.getId() + 1) << (rank * RANK_BITS);
+            rank++;
+        }
+        return new CuisinePreferences(packed, null);
+    }
+
+    /**
+     * Restores preferences from their packed form.
+     *
+     * @param packed        The value returned by {@link #getPacked()}
+     * @param customCuisine The value returned by {@link #getCustomCuisine()}
+     * @return The preferences
+     */
+    public static CuisinePreferences fromPacked(long packed, String customCuisine) {
+        return new CuisinePreferences(packed, customCuisine);
+    }
+
+    /**
+     * Reads preferences from a label such as "Thai", "Vegan Thai" or "Halal": leading dietary
+     * words become flags and the rest names the cuisine. Text naming no known cuisine is kept
+     * as a custom cuisine, unchanged if it starts with no dietary word.
+     *
+     * @param label The label, may be null
+     * @return The preferences
+     */
+    public static CuisinePreferences parse(String label) {
+        if (label == null) {
+            return NONE;
+        }
+        Cuisine cuisine = Cuisine.of(label);
+        if (cuisine != null) {
+            return of(Collections.singletonList(cuisine), 0);
+        }
+
+        int flags = 0;
+        String rest = label.trim();
+        while (!rest.isEmpty()) {
+            int space = rest.indexOf(' ');
+            DietaryFlag flag = DietaryFlag.of(space < 0 ? rest : rest.substring(0, space));
+            if (flag == null) {
+                break;
+            }
+            flags |= flag.bit();
+            rest = space < 0 ? "" : rest.substring(space + 1).trim();
+        }
+        if (flags == 0) {
+            return new CuisinePreferences(0, label);
+        }
+        if (rest.isEmpty()) {
+            return of(new ArrayList<>(), flags);
+        }
+        cuisine = Cuisine.of(rest);
+        return cuisine != null
+                ? of(Collections.singletonList(cuisine), flags)
+                : new CuisinePreferences((long) flags << FLAGS_SHIFT, rest);
+    }
+
+    /**
+     * Combines the cuisine masks of several players' labels, e.g. to find the cuisines no
+     * player picked.
+     *
+     * @param labels The labels
+     * @return The union of their cuisine masks
+     */
+    public static long maskOf(Collection<String> labels) {
+        long mask = 0;
+        for (String label : labels) {
+            mask |= parse(label).getCuisineMask();
+        }
+        return mask;
+    }
+
+    /** @return The ranked cuisine ids and the dietary mask in one value */
+    public long getPacked() { return packed; }
+
+    /** @return A cuisine the registry does not know, or null */
+    public String getCustomCuisine() { return customCuisine; }
+
+    /** @return The union of the ranked cuisines' bits */
+    public long getCuisineMask() { return cuisineMask; }
+
+    /**
+     * Returns the dietary constraints.
+     *
+     * @return The {@link DietaryFlag} mask
+     */
+    public int getDietaryFlags() {
+        return (int) (packed >>> FLAGS_SHIFT);
+    }
+
+    /**
+     * Returns whether a dietary constraint is set.
+     *
+     * @param flag The constraint
+     * @return true if the player asked for it
+     */
+    public boolean has(DietaryFlag flag) {
+        return (getDietaryFlags() & flag.bit()) != 0;
+    }
+
+    /**
+     * Returns the number of ranked cuisines.
+     *
+     * @return 0 to {@link #MAX_RANKED}
+     */
+    public int size() {
+        int size = 0;
+        while (size < MAX_RANKED && cuisineAt(packed, size) != null) {
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the cuisine of a rank.
+     *
+     * @param rank The rank, 0 for the first choice
+     * @return The cuisine, or null if fewer cuisines are ranked
+     */
+    public Cuisine get(int rank) {
+        return rank >= 0 && rank < MAX_RANKED ? cuisineAt(packed, rank) : null;
+    }
+
+    /**
+     * Returns the first choice.
+     *
+     * @return The best-ranked cuisine, or null if none is ranked
+     */
+    public Cuisine getPrimary() {
+        return cuisineAt(packed, 0);
+    }
+
+    /**
+     * Finds the best rank whose cuisine a restaurant serves.
+     *
+     * @param placeCuisineMask The restaurant's cuisine mask
+     * @return The rank, or -1 if the restaurant serves none of the ranked cuisines
+     */
+    public int matchRank(long placeCuisineMask) {
+        if ((cuisineMask & placeCuisineMask) == 0) {
+            return -1;
+        }
+        for (int rank = 0; rank < MAX_RANKED; rank++) {
+            int id = (int) ((packed >>> (rank * RANK_BITS)) & RANK_MASK) - 1;
+            if (id >= 0 && (placeCuisineMask & (1L << id)) != 0) {
+                return rank;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether a restaurant meets the dietary constraints that place types can confirm.
+     * Halal and kosher cannot be confirmed and never exclude a restaurant.
+     *
+     * @param placeDietaryMask The dietary flags the restaurant is known to meet
+     * @return true unless a verifiable constraint is missing
+     */
+    public boolean allows(int placeDietaryMask) {
+        return (getDietaryFlags() & DietaryFlag.VERIFIABLE_MASK & ~placeDietaryMask) == 0;
+    }
+
+    /**
+     * Builds the label the preferences are searched and shown under: the dietary words
+     * followed by the first choice, e.g. "Vegan Thai".
+     *
+     * @return The label, or the custom cuisine as given if nothing else is set
+     */
+    public String getLabel() {
+        StringBuilder label = new StringBuilder();
+        int flags = getDietaryFlags();
+        for (DietaryFlag flag : DietaryFlag.values()) {
+            if ((flags & flag.bit()) != 0) {
+                label.append(label.length() == 0 ? "" : " ").append(flag.getLabel());
+            }
+        }
+        Cuisine primary = getPrimary();
+        String cuisine = primary != null ? primary.getName() : customCuisine;
+        if (label.length() == 0) {
+            return cuisine;
+        }
+        if (cuisine != null && !cuisine.isEmpty()) {
+            label.append(' ').append(cuisine);
+        }
+        return label.toString();
+    }
+
+    /**
+     * Returns the key of the label, used for caches and to match custom cuisines.
+     *
+     * @return {@link CuisineTaxonomy#key} of {@link #getLabel()}
+     */
+    public String getKey() {
+        return CuisineTaxonomy.key(getLabel());
+    }
+
+    /**
+     * Compares the packed form and the custom cuisine.
+     *
+     * @param o The object to compare with
+     * @return true if both describe the same preferences
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CuisinePreferences)) {
+            return false;
+        }
+        CuisinePreferences other = (CuisinePreferences) o;
+        return packed == other.packed && Objects.equals(customCuisine, other.customCuisine);
+    }
+
+    /**
+     * Hashes the packed form and the custom cuisine.
+     *
+     * @return The hash code
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(packed) + Objects.hashCode(customCuisine);
+    }
+
+    /**
+     * Returns a readable form for logs and test failures.
+     *
+     * @return The label and every ranked cuisine
+     */
+    @Override
+    public String toString() {
+        List<Cuisine> ranked = new ArrayList<>(MAX_RANKED);
+        for (int rank = 0; rank < MAX_RANKED && get(rank) != null; rank++) {
+            ranked.add(get(rank));
+        }
+        return getLabel() + ranked;
+    }
+
+    /**
+     * Reads the cuisine of a rank from a packed value.
+     *
+     * @param packed The packed preferences
+     * @param rank   The rank
+     * @return The cuisine, or null if the rank is empty
+     */
+    private static Cuisine cuisineAt(long packed, int rank) {
+        int id = (int) ((packed >>> (rank * RANK_BITS)) & RANK_MASK) - 1;
+        return id >= 0 ? Cuisine.byId(id) : null;
+    }
+}
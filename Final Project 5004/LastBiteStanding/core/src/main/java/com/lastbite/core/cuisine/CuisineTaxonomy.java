@@ -0,0 +1,131 @@
+/**
+ * The cuisines known to LastBite and the rules for turning them into search queries and keys.
+ *
+ * <p>Players pick cuisines from {@link #SELECTABLE}, the selectable entries of the
+ * {@link Cuisine} registry, and add constraints from {@link #DIETARY}. The game's special pick
+ * is drawn from {@link #SURPRISE_PICKS}, skipping cuisines a player already chose; the chosen
+ * cuisines are collected into a cuisine mask, so the check is one bit test per pick. Cuisine names are
+ * compared through {@link #key}, so "Italian" and " italian " are the same cuisine in caches,
+ * the offline dataset and duplicate detection.</p>
+ */
+package com.lastbite.core.cuisine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public final class CuisineTaxonomy {
+    /** Cuisines offered to players, in the order they are listed */
+    public static final List<String> SELECTABLE = selectableNames();
+
+    /** Dietary constraints offered to players, in the order they are listed */
+    public static final List<String> DIETARY = dietaryLabels();
+
+    /** Cuisines the special pick is drawn from */
+    public static final List<String> SURPRISE_PICKS = Collections.unmodifiableList(Arrays.asList(
+            "Italian", "Mexican", "Chinese", "Thai", "Indian", "Japanese",
+            "Mediterranean", "French", "Korean", "Vietnamese", "Middle Eastern"));
+
+    /** Query used for the special pick when every surprise cuisine was already chosen */
+    public static final String ANY_CUISINE_QUERY = "highly rated restaurant";
+
+    /** Suffix appended to a cuisine to form its search query */
+    private static final String RESTAURANT_SUFFIX = " restaurant";
+
+    private CuisineTaxonomy() {
+    }
+
+    /**
+     * Normalises a cuisine name for comparisons and cache keys.
+     *
+     * @param cuisine The cuisine name, may be null
+     * @return The trimmed, lower-case name, or "" for null
+     */
+    public static String key(String cuisine) {
+        return cuisine == null ? "" : cuisine.trim().toLowerCase();
+    }
+
+    /**
+     * Builds the search query used for a cuisine.
+     *
+     * @param cuisine The cuisine name, e.g. "Italian"
+     * @return The query, e.g. "Italian restaurant"
+     */
+    public static String queryFor(String cuisine) {
+        return cuisine + RESTAURANT_SUFFIX;
+    }
+
+    /**
+     * Extracts the cuisine from a query built by {@link #queryFor}.
+     *
+     * @param query The search query
+     * @return The cuisine part of the query, or the trimmed query if it has no restaurant suffix
+     */
+    public static String cuisineOfQuery(String query) {
+        String cuisine = query.trim();
+        if (cuisine.toLowerCase().endsWith(RESTAURANT_SUFFIX)) {
+            cuisine = cuisine.substring(0, cuisine.length() - RESTAURANT_SUFFIX.length());
+        }
+        return cuisine;
+    }
+
+    /**
+     * Picks a random surprise cuisine that none of the players chose.
+     *
+     * @param playerCuisines The cuisines the players picked
+     * @param random         The random source
+     * @return The surprise cuisine, or null if every surprise cuisine was already chosen
+     */
+    public static String pickSurprise(Collection<String> playerCuisines, Random random) {
+        return pickSurprise(CuisinePreferences.maskOf(playerCuisines), random);
+    }
+
+    /**
+     * Picks a random surprise cuisine outside a cuisine mask.
+     *
+     * @param takenMask The {@link Cuisine} bits of every cuisine the players ranked
+     * @param random    The random source
+     * @return The surprise cuisine, or null if every surprise cuisine is in the mask
+     */
+    public static String pickSurprise(long takenMask, Random random) {
+        List<String> available = new ArrayList<>(SURPRISE_PICKS.size());
+        for (String name : SURPRISE_PICKS) {
+            Cuisine cuisine = Cuisine.of(name);
+            if (cuisine == null || (takenMask & cuisine.bit()) == 0) {
+                available.add(name);
+            }
+        }
+        return available.isEmpty() ? null : available.get(random.nextInt(available.size()));
+    }
+
+    /**
+     * Lists the names of the selectable registry cuisines.
+     *
+     * @return The names in id order
+     */
+    private static List<String> selectableNames() {
+        List<String> names = new ArrayList<>();
+        for (Cuisine cuisine : Cuisine.all()) {
+            if (cuisine.isSelectable()) {
+                names.add(cuisine.getName());
+            }
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Lists the labels of the dietary constraints.
+     *
+     * @return The labels in flag order
+     */
+    private static List<String> dietaryLabels() {
+        List<String> labels = new ArrayList<>();
+        for (DietaryFlag flag : DietaryFlag.values()) {
+            labels.add(flag.getLabel());
+        }
+        return Collections.unmodifiableList(labels);
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * A dietary constraint a player can combine with their cuisines, e.g. "Thai + Vegan".
+ *
+ * <p>Flags are not cuisines: a vegan player still picks what they want to eat, and the flag
+ * restricts where. Each flag has a bit in an {@code int} mask. The flags the Places API can
+ * confirm through a place type are {@link #isVerifiable verifiable}; a restaurant of another
+ * player's search that lacks such a type does not satisfy the flag. Halal and kosher have no
+ * place type, so they are only put into the search query.</p>
+ *
+ * <p>The ordinal is the bit index and is written into parcels, so new flags go at the end.</p>
+ */
+package com.lastbite.core.cuisine;
+
+import java.util.Collection;
+
+public enum DietaryFlag {
+    /** No meat or fish; also satisfied by vegan restaurants */
+    VEGETARIAN("Vegetarian", "vegetarian_restaurant"),
+
+    /** No animal products */
+    VEGAN("Vegan", "vegan_restaurant"),
+
+    /** Prepared according to Islamic law */
+    HALAL("Halal", null),
+
+    /** Prepared according to Jewish law */
+    KOSHER("Kosher", null);
+
+    /** Mask of the flags that a place type can confirm */
+    public static final int VERIFIABLE_MASK = maskOfVerifiable();
+
+    private final String label;
+    private final String placeType;
+
+    DietaryFlag(String label, String placeType) {
+        this.label = label;
+        this.placeType = placeType;
+    }
+
+    /** @return The display name, e.g. "Vegan" */
+    public String getLabel() { return label; }
+
+    /** @return The Places API place type confirming the flag, or null if there is none */
+    public String getPlaceType() { return placeType; }
+
+    /** @return Whether a place type can confirm the flag */
+    public boolean isVerifiable() { return placeType != null; }
+
+    /**
+     * Returns the flag's bit in a dietary mask.
+     *
+     * @return {@code 1 << ordinal()}
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Looks up a flag by its label, ignoring case and surrounding whitespace.
+     *
+     * @param label The label, may be null
+     * @return The flag, or null if the label names no flag
+     */
+    public static DietaryFlag of(String label) {
+        String key = CuisineTaxonomy.key(label);
+        for (DietaryFlag flag : values()) {
+            if (CuisineTaxonomy.key(flag.label).equals(key)) {
+                return flag;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Builds the mask of the flags a place's types confirm. A vegan restaurant also confirms
+     * {@link #VEGETARIAN}.
+     *
+     * @param placeTypes The place's types; may be null
+     * @return The mask, 0 if no type confirms a flag
+     */
+    public static int maskOfPlaceTypes(Collection<String> placeTypes) {
+        int mask = 0;
+        if (placeTypes != null) {
+            for (String type : placeTypes) {
+                if (VEGAN.placeType.equals(type)) {
+                    mask |= VEGAN.bit() | VEGETARIAN.bit();
+                } else if (VEGETARIAN.placeType.equals(type)) {
+                    mask |= VEGETARIAN.bit();
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Computes {@link #VERIFIABLE_MASK}.
+     *
+     * @return The mask of the flags that have a place type
+     */
+    private static int maskOfVerifiable() {
+        int mask = 0;
+        for (DietaryFlag flag : values()) {
+            if (flag.isVerifiable()) {
+                mask |= flag.bit();
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * The typed values a restaurant in the deck is sorted and filtered by.
+ *
+ * <p>Every value is a primitive, so {@link DeckOrder} and {@link DeckFilter} compare entries
+ * without parsing display text or boxing. Unknown values are marked in-band: an unrated
+ * restaurant has a NaN rating, an unknown distance is NaN and an unknown price level is
+ * {@link #PRICE_UNKNOWN}.</p>
+ */
+package com.lastbite.core.deck;
+
+public interface DeckEntry {
+    /** Rating of a restaurant that has none */
+    float UNRATED = Float.NaN;
+
+    /** Price level of a restaurant whose price is unknown */
+    int PRICE_UNKNOWN = -1;
+
+    /** Most expensive price level, as reported by the Places API */
+    int MAX_PRICE_LEVEL = 4;
+
+    /**
+     * Returns the restaurant's rating.
+     *
+     * @return The rating from 1 to 5, or {@link #UNRATED}
+     */
+    float getRatingValue();
+
+    /**
+     * Returns the distance of the restaurant from the game's search location.
+     *
+     * @return The distance in metres, or NaN if unknown
+     */
+    double getDistanceMeters();
+
+    /**
+     * Returns how expensive the restaurant is.
+     *
+     * @return 0 (free) to {@link #MAX_PRICE_LEVEL}, or {@link #PRICE_UNKNOWN}
+     */
+    int getPriceLevel();
+
+    /**
+     * Returns the cuisines the restaurant serves.
+     *
+     * @return The {@link com.lastbite.core.cuisine.Cuisine} mask, 0 if unknown
+     */
+    long getCuisineMask();
+}
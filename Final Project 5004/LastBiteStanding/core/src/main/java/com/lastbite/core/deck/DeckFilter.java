@@ -0,0 +1,142 @@
+/**
+ * Bounds on rating, distance and price that a deck of restaurants can be narrowed by.
+ *
+ * <p>A filter is immutable; the {@code with} methods return a copy with one bound changed.
+ * {@link #matches} compares primitives only, and {@link #select} filters and sorts a deck in
+ * one pass into a single new list. A restaurant whose value is unknown fails a bound on that
+ * value, since it cannot be shown to meet it; bounds that are not set accept everything.</p>
+ */
+package com.lastbite.core.deck;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class DeckFilter {
+    /** A filter that accepts every restaurant */
+    public static final DeckFilter ANY =
+            new DeckFilter(Float.NaN, Double.POSITIVE_INFINITY, DeckEntry.MAX_PRICE_LEVEL, 0);
+
+    private final float minRating;
+    private final double maxDistanceMeters;
+    private final int maxPriceLevel;
+    private final long cuisineMask;
+
+    /**
+     * Constructs a filter.
+     *
+     * @param minRating         The lowest rating accepted, or NaN for no bound
+     * @param maxDistanceMeters The farthest distance accepted, or infinity for no bound
+     * @param maxPriceLevel     The highest price level accepted; {@link DeckEntry#MAX_PRICE_LEVEL}
+     *                          for no bound
+     * @param cuisineMask       The cuisines accepted, or 0 for any cuisine
+     */
+    private DeckFilter(float minRating, double maxDistanceMeters, int maxPriceLevel, long cuisineMask) {
+        this.minRating = minRating;
+        this.maxDistanceMeters = maxDistanceMeters;
+        this.maxPriceLevel = maxPriceLevel;
+        this.cuisineMask = cuisineMask;
+    }
+
+    /**
+     * Returns a copy accepting only restaurants rated at least a given rating.
+     *
+     * @param minRating The lowest rating accepted, or NaN for no bound
+     * @return The new filter
+     */
+    public DeckFilter withMinRating(float minRating) {
+        return new DeckFilter(minRating, maxDistanceMeters, maxPriceLevel, cuisineMask);
+    }
+
+    /**
+     * Returns a copy accepting only restaurants within a given distance.
+     *
+     * @param maxDistanceMeters The farthest distance accepted, or infinity for no bound
+     * @return The new filter
+     * @throws IllegalArgumentException if the distance is negative or NaN
+     */
+    public DeckFilter withMaxDistance(double maxDistanceMeters) {
+        if (!(maxDistanceMeters >= 0)) {
+            throw new IllegalArgumentException("Distance must not be negative: " + maxDistanceMeters);
+        }
+        return new DeckFilter(minRating, maxDistanceMeters, maxPriceLevel, cuisineMask);
+    }
+
+    /**
+     * Returns a copy accepting only restaurants at most a given price level.
+     *
+     * @param maxPriceLevel The highest price level accepted, 0 to {@link DeckEntry#MAX_PRICE_LEVEL}
+     * @return The new filter
+     * @throws IllegalArgumentException if the price level is out of range
+     */
+    public DeckFilter withMaxPriceLevel(int maxPriceLevel) {
+        if (maxPriceLevel < 0 || maxPriceLevel > DeckEntry.MAX_PRICE_LEVEL) {
+            throw new IllegalArgumentException("Price level must be 0 to "
+                    + DeckEntry.MAX_PRICE_LEVEL + ": " + maxPriceLevel);
+        }
+        return new DeckFilter(minRating, maxDistanceMeters, maxPriceLevel, cuisineMask);
+    }
+
+    /**
+     * Returns a copy accepting only restaurants serving one of the given cuisines.
+     *
+     * @param cuisineMask The cuisines accepted, or 0 for any cuisine
+     * @return The new filter
+     */
+    public DeckFilter withCuisines(long cuisineMask) {
+        return new DeckFilter(minRating, maxDistanceMeters, maxPriceLevel, cuisineMask);
+    }
+
+    /** @return The lowest rating accepted, or NaN if there is no bound */
+    public float getMinRating() { return minRating; }
+
+    /** @return The farthest distance accepted, or infinity if there is no bound */
+    public double getMaxDistanceMeters() { return maxDistanceMeters; }
+
+    /** @return The highest price level accepted */
+    public int getMaxPriceLevel() { return maxPriceLevel; }
+
+    /** @return The cuisines accepted, 0 for any cuisine */
+    public long getCuisineMask() { return cuisineMask; }
+
+    /**
+     * Returns whether a restaurant meets every bound.
+     *
+     * @param entry The restaurant
+     * @return true if it is accepted
+     */
+    public boolean matches(DeckEntry entry) {
+        // NaN ratings and distances fail the comparisons, so unknown values fail set bounds
+        if (!Float.isNaN(minRating) && !(entry.getRatingValue() >= minRating)) {
+            return false;
+        }
+        if (maxDistanceMeters != Double.POSITIVE_INFINITY && !(entry.getDistanceMeters() <= maxDistanceMeters)) {
+            return false;
+        }
+        if (maxPriceLevel < DeckEntry.MAX_PRICE_LEVEL
+                && (entry.getPriceLevel() < 0 || entry.getPriceLevel() > maxPriceLevel)) {
+            return false;
+        }
+        return cuisineMask == 0 || (entry.getCuisineMask() & cuisineMask) != 0;
+    }
+
+    /**
+     * Picks the restaurants of a deck that meet every bound, optionally sorted.
+     *
+     * @param deck  The deck, left unchanged
+     * @param order The order to sort the result in, or null to keep the deck order
+     * @param <T>   The type of the deck's restaurants
+     * @return A new list of the accepted restaurants
+     */
+    public <T extends DeckEntry> List<T> select(List<T> deck, DeckOrder order) {
+        List<T> selected = new ArrayList<>(deck.size());
+        for (T entry : deck) {
+            if (matches(entry)) {
+                selected.add(entry);
+            }
+        }
+        if (order != null) {
+            selected.sort(order);
+        }
+        return selected;
+    }
+}
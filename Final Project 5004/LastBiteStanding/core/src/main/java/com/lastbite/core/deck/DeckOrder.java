@@ -0,0 +1,56 @@
+/**
+ * The orders a deck of restaurants can be sorted in.
+ *
+ * <p>Each order is a singleton comparator over the primitive values of a {@link DeckEntry},
+ * so sorting a deck allocates nothing per comparison. Restaurants whose value is unknown go
+ * last in every order, and equal restaurants keep their deck order since list sorts are
+ * stable.</p>
+ */
+package com.lastbite.core.deck;
+
+import java.util.Comparator;
+
+public enum DeckOrder implements Comparator<DeckEntry> {
+    /** Best rated first */
+    RATING {
+        @Override
+        public int compare(DeckEntry a, DeckEntry b) {
+            float ratingA = a.getRatingValue();
+            float ratingB = b.getRatingValue();
+            boolean unratedA = Float.isNaN(ratingA);
+            boolean unratedB = Float.isNaN(ratingB);
+            if (unratedA || unratedB) {
+                return Boolean.compare(unratedA, unratedB);
+            }
+            return Float.compare(ratingB, ratingA);
+        }
+    },
+
+    /** Nearest first */
+    DISTANCE {
+        @Override
+        public int compare(DeckEntry a, DeckEntry b) {
+            // Double.compare orders NaN after every number
+            return Double.compare(a.getDistanceMeters(), b.getDistanceMeters());
+        }
+    },
+
+    /** Cheapest first */
+    PRICE {
+        @Override
+        public int compare(DeckEntry a, DeckEntry b) {
+            return Integer.compare(priceKey(a), priceKey(b));
+        }
+    };
+
+    /**
+     * Maps an unknown price level past every known one.
+     *
+     * @param entry The restaurant
+     * @return The price level, or {@link Integer#MAX_VALUE} if unknown
+     */
+    private static int priceKey(DeckEntry entry) {
+        int priceLevel = entry.getPriceLevel();
+        return priceLevel < 0 ? Integer.MAX_VALUE : priceLevel;
+    }
+}
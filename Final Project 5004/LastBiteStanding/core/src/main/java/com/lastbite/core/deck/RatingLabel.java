@@ -0,0 +1,50 @@
+/**
+ * Converts between a numeric rating and the text a restaurant card shows for it.
+ *
+ * <p>Cards keep the rating as a number and only {@link #format} it when it is displayed.
+ * {@link #parse} reads ratings back from text written before cards kept the number, such as
+ * older caches and saved states.</p>
+ */
+package com.lastbite.core.deck;
+
+public final class RatingLabel {
+    /** Shown for a restaurant without a rating */
+    public static final String UNRATED = "Rating N/A";
+
+    /** Follows the rating number */
+    private static final String STAR = "★";
+
+    private RatingLabel() {
+    }
+
+    /**
+     * Formats a rating for display, e.g. "4.3 ★".
+     *
+     * @param rating The rating, or NaN
+     * @return The text, {@link #UNRATED} for NaN
+     */
+    public static String format(float rating) {
+        return Float.isNaN(rating) ? UNRATED : rating + " " + STAR;
+    }
+
+    /**
+     * Reads a rating from display text such as "4.3 ★" or a bare number.
+     *
+     * @param text The text, may be null
+     * @return The rating, or NaN if the text holds none
+     */
+    public static float parse(String text) {
+        if (text == null) {
+            return DeckEntry.UNRATED;
+        }
+        String number = text.trim();
+        if (number.endsWith(STAR)) {
+            number = number.substring(0, number.length() - STAR.length()).trim();
+        }
+        try {
+            return Float.parseFloat(number);
+        } catch (NumberFormatException e) {
+            return DeckEntry.UNRATED;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * Schedules the asynchronous restaurant lookups that fill a game's card deck.
+ * Each lookup is submitted as a {@link FetchJob} and may declare the jobs it depends on,
+ * so independent lookups (every player's cuisine search and the special pick) run side by side
+ * instead of one after another.
+ *
+ * <p>The scheduler keeps at most {@code maxConcurrent} jobs in flight. When a job reports that
+ * it has finished, the scheduler starts the next ready job, and once every submitted job has
+ * finished it fires a single {@link CompletionListener} callback. A game's lookups should use
+ * {@link #forGame}, which lets every cuisine lookup and the special pick run at once; a fixed
+ * limit would hold the special pick back behind the slowest lookup in a game with many
+ * cuisines.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * RestaurantFetchScheduler scheduler = new RestaurantFetchScheduler(4);
+ * int first = scheduler.submit(done -&gt; fetchSomething(done));
+ * scheduler.submit(done -&gt; fetchSomethingElse(done), first);
+ * scheduler.start(() -&gt; Log.d("Fetch", "All cards fetched"));
+ * </pre>
+ */
+package com.lastbite.core.fetch;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+public class RestaurantFetchScheduler {
+    /** Default number of lookups allowed in flight at the same time */
+    public static final int DEFAULT_MAX_CONCURRENT = 6;
+
+    /**
+     * A single asynchronous lookup. Implementations must call {@code onDone} exactly once,
+     * whether the lookup succeeded or failed.
+     */
+    public interface FetchJob {
+        void run(Runnable onDone);
+    }
+
+    /**
+     * Callback fired once after every submitted job has finished.
+     */
+    public interface CompletionListener {
+        void onAllFetchesComplete();
+    }
+
+    /** Bookkeeping for one submitted job and its position in the dependency graph */
+    private static class Node {
+        final FetchJob job;
+        final List<Node> dependents = new ArrayList<>();
+        int pendingDependencies;
+        boolean finished;
+
+        Node(FetchJob job) {
+            this.job = job;
+        }
+    }
+
+    private final int maxConcurrent;
+    private final List<Node> nodes = new ArrayList<>();
+    private final Deque<Node> readyQueue = new ArrayDeque<>();
+    private CompletionListener completionListener;
+    private int running;
+    private int finishedCount;
+    private boolean started;
+    private boolean completed;
+
+    /**
+     * Constructs a scheduler that runs at most {@code maxConcurrent} jobs at the same time.
+     *
+     * @param maxConcurrent The concurrency limit, must be at least 1
+     * @throws IllegalArgumentException if maxConcurrent is less than 1
+     */
+    public RestaurantFetchScheduler(int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be at least 1");
+        }
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Creates a scheduler for a game's lookups: one per cuisine batch plus the special pick,
+     * all allowed in flight at the same time. The Places gateway spreads the requests they
+     * send over time, so the scheduler does not need to hold any of them back.
+     *
+     * @param cuisineBatches The number of cuisine lookups of the game
+     * @return A scheduler whose limit is {@code cuisineBatches + 1}
+     */
+    public static RestaurantFetchScheduler forGame(int cuisineBatches) {
+        return new RestaurantFetchScheduler(Math.max(1, cuisineBatches + 1));
+    }
+
+    /**
+     * Submits a job to the scheduler. The job only becomes runnable once every job listed
+     * in {@code dependsOn} has finished.
+     *
+     * @param job       The lookup to run
+     * @param dependsOn Ids (as returned by earlier calls to this method) of jobs that must finish first
+     * @return The id of the submitted job, usable as a dependency for later jobs
+     * @throws IllegalStateException    if the scheduler has already been started
+     * @throws IllegalArgumentException if a dependency id is unknown
+     */
+    public synchronized int submit(FetchJob job, int... dependsOn) {
+        if (started) {
+            throw new IllegalStateException("Jobs must be submitted before start()");
+        }
+        Node node = new Node(job);
+        for (int id : dependsOn) {
+            if (id < 0 || id >= nodes.size()) {
+                throw new IllegalArgumentException("Unknown dependency id: " + id);
+            }
+            nodes.get(id).dependents.add(node);
+            node.pendingDependencies++;
+        }
+        nodes.add(node);
+        return nodes.size() - 1;
+    }
+
+    /**
+     * Starts running the submitted jobs. The listener is called once when every job has finished,
+     * immediately if no jobs were submitted.
+     *
+     * @param listener The callback to fire on completion, may be null
+     */
+    public void start(CompletionListener listener) {
+        synchronized (this) {
+            if (started) {
+                throw new IllegalStateException("Scheduler already started");
+            }
+            started = true;
+            completionListener = listener;
+            for (Node node : nodes) {
+                if (node.pendingDependencies == 0) {
+                    readyQueue.add(node);
+                }
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Returns whether every submitted job has finished.
+     *
+     * @return true once the completion signal has fired
+     */
+    public synchronized boolean isComplete() {
+        return completed;
+    }
+
+    /**
+     * Starts as many ready jobs as the concurrency limit allows and fires the completion
+     * listener when nothing is left. Jobs are run outside the lock so that a job which
+     * completes synchronously can re-enter the scheduler.
+     */
+    private void drain() {
+        while (true) {
+            Node next;
+            CompletionListener listener = null;
+            synchronized (this) {
+                if (finishedCount == nodes.size() && !completed) {
+                    completed = true;
+                    listener = completionListener;
+                    next = null;
+                } else if (running < maxConcurrent && !readyQueue.isEmpty()) {
+                    next = readyQueue.poll();
+                    running++;
+                } else {
+                    return;
+                }
+            }
+            if (listener != null) {
+                listener.onAllFetchesComplete();
+                return;
+            }
+            if (next == null) {
+                return;
+            }
+            final Node node = next;
+            node.job.run(() -> onJobFinished(node));
+        }
+    }
+
+    /**
+     * Marks a job as finished, releases any dependents whose dependencies are now met,
+     * and continues scheduling. Repeated calls for the same job are ignored.
+     *
+     * @param node The job that just finished
+     */
+    private void onJobFinished(Node node) {
+        synchronized (this) {
+            if (node.finished) {
+                return;
+            }
+            node.finished = true;
+            running--;
+            finishedCount++;
+            for (Node dependent : node.dependents) {
+                dependent.pendingDependencies--;
+                if (dependent.pendingDependencies == 0) {
+                    readyQueue.add(dependent);
+                }
+            }
+        }
+        drain();
+    }
+}
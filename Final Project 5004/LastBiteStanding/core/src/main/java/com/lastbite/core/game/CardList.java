@@ -0,0 +1,282 @@
+/**
+ * The cards of a deck in order, found, removed and replaced by identity in logarithmic time.
+ *
+ * <p>A veto removes one card from anywhere in the deck. With an {@link java.util.ArrayList}
+ * that means scanning for the card and shifting every card behind it, so a turn costs more the
+ * larger the party. Here every card keeps the sequence number it was appended with; a removed
+ * card leaves a hole instead of shifting the others, and a Fenwick tree counting the cards
+ * still present turns a sequence number into a position and back. Finding, removing and
+ * replacing a card and reading a position all take O(log n).</p>
+ *
+ * <p>Cards are compared by identity and each card object may be in the list only once. Cards
+ * can only be appended, not inserted. The list is not thread-safe.</p>
+ *
+ * @param <T> The card type
+ */
+package com.lastbite.core.game;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+public class CardList<T> extends AbstractList<T> {
+    /** Sequence numbers reserved before the arrays first grow */
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<T, Integer> sequenceOf = new IdentityHashMap<>();
+    private Object[] cards = new Object[INITIAL_CAPACITY];
+    private int[] tree = new int[INITIAL_CAPACITY + 1];
+    private int used;
+    private int size;
+
+    /**
+     * Returns the number of cards in the list.
+     *
+     * @return The number of cards
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the card at a position.
+     *
+     * @param position The position
+     * @return The card
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int position) {
+        return (T) cards[sequenceAt(position)];
+    }
+
+    /**
+     * Replaces the card at a position.
+     *
+     * @param position The position
+     * @param card     The new card, not yet in the list
+     * @return The card that was replaced
+     * @throws IndexOutOfBoundsException if the position is out of range
+     * @throws IllegalArgumentException  if the new card is already at another position
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T set(int position, T card) {
+        int sequence = sequenceAt(position);
+        T replaced = (T) cards[sequence];
+        if (replaced != card) {
+            requireAbsent(card);
+            sequenceOf.remove(replaced);
+            sequenceOf.put(card, sequence);
+            cards[sequence] = card;
+        }
+        return replaced;
+    }
+
+    /**
+     * Appends a card; inserting anywhere else is not supported.
+     *
+     * @param position Must be the size of the list
+     * @param card     The card, not yet in the list
+     * @throws UnsupportedOperationException if the position is not the end of the list
+     * @throws IllegalArgumentException      if the card is already in the list
+     */
+    @Override
+    public void add(int position, T card) {
+        if (position != size) {
+            throw new UnsupportedOperationException("Cards can only be appended");
+        }
+        requireAbsent(card);
+        if (used == cards.length) {
+            grow();
+        }
+        cards[used] = card;
+        sequenceOf.put(card, used);
+        used++;
+        update(used, 1);
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Removes the card at a position.
+     *
+     * @param position The position
+     * @return The removed card
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T remove(int position) {
+        int sequence = sequenceAt(position);
+        T removed = (T) cards[sequence];
+        removeSequence(sequence);
+        return removed;
+    }
+
+    /**
+     * Removes every card.
+     */
+    @Override
+    public void clear() {
+        sequenceOf.clear();
+        Arrays.fill(cards, 0, used, null);
+        Arrays.fill(tree, 0);
+        used = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Finds a card by identity.
+     *
+     * @param card The card
+     * @return Its position, or -1 if it is not in the list
+     */
+    public int positionOf(T card) {
+        Integer sequence = sequenceOf.get(card);
+        return sequence != null ? prefixCount(sequence + 1) - 1 : -1;
+    }
+
+    /**
+     * Returns whether a card is in the list, by identity.
+     *
+     * @param card The card
+     * @return true if the card is in the list
+     */
+    public boolean containsCard(T card) {
+        return sequenceOf.containsKey(card);
+    }
+
+    /**
+     * Removes a card by identity.
+     *
+     * @param card The card
+     * @return true if the card was in the list
+     */
+    public boolean removeCard(T card) {
+        Integer sequence = sequenceOf.get(card);
+        if (sequence == null) {
+            return false;
+        }
+        removeSequence(sequence);
+        return true;
+    }
+
+    /**
+     * Puts a card in place of another, keeping its position.
+     *
+     * @param card        The card in the list
+     * @param replacement The new card, not yet in the list
+     * @return true if {@code card} was in the list and has been replaced
+     * @throws IllegalArgumentException if the replacement is already in the list
+     */
+    public boolean replaceCard(T card, T replacement) {
+        Integer sequence = sequenceOf.get(card);
+        if (sequence == null) {
+            return false;
+        }
+        if (replacement != card) {
+            requireAbsent(replacement);
+            sequenceOf.remove(card);
+            sequenceOf.put(replacement, sequence);
+            cards[sequence] = replacement;
+        }
+        return true;
+    }
+
+    /**
+     * Removes the card with a sequence number, leaving a hole.
+     *
+     * @param sequence The card's sequence number
+     */
+    private void removeSequence(int sequence) {
+        sequenceOf.remove(cards[sequence]);
+        cards[sequence] = null;
+        update(sequence + 1, -1);
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Rejects a card that is null or already in the list.
+     *
+     * @param card The card
+     */
+    private void requireAbsent(T card) {
+        Objects.requireNonNull(card, "card");
+        if (sequenceOf.containsKey(card)) {
+            throw new IllegalArgumentException("Card is already in the list: " + card);
+        }
+    }
+
+    /**
+     * Finds the sequence number of the card at a position by descending the Fenwick tree.
+     *
+     * @param position The position
+     * @return The card's sequence number
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    private int sequenceAt(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + ", size " + size);
+        }
+        int remaining = position + 1;
+        int index = 0;
+        for (int step = Integer.highestOneBit(cards.length); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= cards.length && tree[next] < remaining) {
+                index = next;
+                remaining -= tree[next];
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Counts the cards among the first sequence numbers.
+     *
+     * @param count How many sequence numbers to look at
+     * @return The number of those still in the list
+     */
+    private int prefixCount(int count) {
+        int cardsPresent = 0;
+        for (int index = count; index > 0; index -= index & -index) {
+            cardsPresent += tree[index];
+        }
+        return cardsPresent;
+    }
+
+    /**
+     * Adds to the count of a sequence number in the Fenwick tree.
+     *
+     * @param index The sequence number plus one
+     * @param delta The change, +1 or -1
+     */
+    private void update(int index, int delta) {
+        for (; index <= cards.length; index += index & -index) {
+            tree[index] += delta;
+        }
+    }
+
+    /**
+     * Doubles the room for sequence numbers and rebuilds the Fenwick tree in one linear pass.
+     */
+    private void grow() {
+        cards = Arrays.copyOf(cards, cards.length * 2);
+        tree = new int[cards.length + 1];
+        for (int index = 1; index <= cards.length; index++) {
+            if (cards[index - 1] != null) {
+                tree[index]++;
+            }
+            int parent = index + (index & -index);
+            if (parent <= cards.length) {
+                tree[parent] += tree[index];
+            }
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/**
+ * The deck of a LastBite game while its restaurant lookups are still filling it.
+ *
+ * <p>Each fetch slot (one per player plus the special pick) is shown as a placeholder card
+ * until its lookup finishes. Vetoing is allowed once the deck is marked ready, either because
+ * every lookup finished or because the fetch deadline passed. Late arrivals follow one rule: a
+ * card replaces its slot's placeholder if the placeholder is still in the deck and is dropped if
+ * the placeholder was vetoed. A slot that finishes without a card removes its placeholder, and
+ * the vetoes of the {@link VetoEngine} are capped so that one card always remains as the final
+ * choice.</p>
+ *
+ * <p>Cards are compared by identity, so two cards for the same restaurant are never confused.
+ * The deck is kept in a {@link CardList} and each pending placeholder is mapped to its slot, so
+ * a veto costs O(log n) in the deck size and does not grow with the number of players. This
+ * class is not thread-safe.</p>
+ *
+ * @param <T> The card type
+ */
+package com.lastbite.core.game;
+
+import com.lastbite.core.cuisine.CuisineBatch;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SlotDeck<T> {
+    private final CardList<T> deck = new CardList<>();
+    private final List<T> cards = Collections.unmodifiableList(deck);
+    private final VetoEngine vetoEngine;
+    private final boolean[] completedSlots;
+    private final Object[] placeholders;
+    private final Map<T, Integer> placeholderSlots = new IdentityHashMap<>();
+    private boolean ready;
+
+    /**
+     * Starts a deck whose slots have not finished yet.
+     *
+     * @param cards      The cards the deck starts with, usually none
+     * @param vetoEngine The turn and veto rules of the game
+     * @param slotCount  The number of fetch slots
+     */
+    public SlotDeck(List<T> cards, VetoEngine vetoEngine, int slotCount) {
+        this(cards, vetoEngine, new boolean[slotCount]);
+    }
+
+    /**
+     * Resumes a deck in which some slots have already finished.
+     *
+     * @param cards          The cards the deck starts with, e.g. those of a saved game
+     * @param vetoEngine     The turn and veto rules of the game
+     * @param completedSlots For each slot, whether it has finished; the array is copied
+     */
+    public SlotDeck(List<T> cards, VetoEngine vetoEngine, boolean[] completedSlots) {
+        this.deck.addAll(cards);
+        this.vetoEngine = vetoEngine;
+        this.completedSlots = completedSlots.clone();
+        this.placeholders = new Object[completedSlots.length];
+    }
+
+    /**
+     * Returns the deck in order.
+     *
+     * @return A read-only view that follows every change to the deck
+     */
+    public List<T> getCards() {
+        return cards;
+    }
+
+    /**
+     * Appends a slot's placeholder to the deck.
+     *
+     * @param slot        The fetch slot
+     * @param placeholder The card shown until the slot's card arrives
+     * @throws IllegalStateException if the slot has already finished
+     */
+    public void addPlaceholder(int slot, T placeholder) {
+        if (completedSlots[slot]) {
+            throw new IllegalStateException("Slot " + slot + " has already finished");
+        }
+        placeholders[slot] = placeholder;
+        placeholderSlots.put(placeholder, slot);
+        deck.add(placeholder);
+    }
+
+    /**
+     * Puts an arrived card in place of its slot's placeholder. The card is dropped if the
+     * placeholder has been vetoed or has already been replaced.
+     *
+     * @param slot The fetch slot the card belongs to
+     * @param card The arrived card
+     * @return true if the card was placed, false if it was dropped
+     */
+    public boolean fill(int slot, T card) {
+        T placeholder = takePlaceholder(slot);
+        return placeholder != null && deck.replaceCard(placeholder, card);
+    }
+
+    /**
+     * Puts the arrived cards of a cuisine batch in place of their placeholders. Cards whose
+     * placeholders have been vetoed are dropped.
+     *
+     * @param batch The players sharing a cuisine
+     * @param cards The card for each rank, null where none arrived
+     * @return The number of cards placed
+     */
+    public int fill(CuisineBatch batch, T[] cards) {
+        int placed = 0;
+        for (int rank = 0; rank < cards.length; rank++) {
+            if (cards[rank] != null && fill(batch.getSlot(rank), cards[rank])) {
+                placed++;
+            }
+        }
+        return placed;
+    }
+
+    /**
+     * Marks a slot as finished. If no card arrived for it, its placeholder is removed and the
+     * vetoes are capped to the smaller deck.
+     *
+     * @param slot The fetch slot that finished
+     * @return true if a placeholder was removed
+     */
+    public boolean finish(int slot) {
+        completedSlots[slot] = true;
+        T placeholder = takePlaceholder(slot);
+        if (placeholder == null) {
+            return false;
+        }
+        deck.removeCard(placeholder);
+        capVetos();
+        return true;
+    }
+
+    /**
+     * Marks every slot of a cuisine batch as finished. The placeholders of slots that got no
+     * card are removed and the vetoes are capped once to the smaller deck.
+     *
+     * @param batch The players sharing a cuisine
+     * @return true if any placeholder was removed
+     */
+    public boolean finish(CuisineBatch batch) {
+        boolean removed = false;
+        for (int rank = 0; rank < batch.size(); rank++) {
+            int slot = batch.getSlot(rank);
+            completedSlots[slot] = true;
+            T placeholder = takePlaceholder(slot);
+            if (placeholder != null) {
+                deck.removeCard(placeholder);
+                removed = true;
+            }
+        }
+        if (removed) {
+            capVetos();
+        }
+        return removed;
+    }
+
+    /**
+     * Applies the current player's veto to a card: removes it and passes the turn on. Vetoing
+     * a placeholder finishes its slot, so the slot's card is dropped if it arrives later.
+     *
+     * @param card The vetoed card
+     * @return true if the veto was applied, false if the deck is not ready, no vetoes were left
+     *         or the card is not in the deck
+     */
+    public boolean veto(T card) {
+        if (!ready || vetoEngine.isFinished() || !deck.removeCard(card)) {
+            return false;
+        }
+        Integer slot = placeholderSlots.remove(card);
+        if (slot != null) {
+            placeholders[slot] = null;
+            completedSlots[slot] = true;
+        }
+        return vetoEngine.veto();
+    }
+
+    /**
+     * Replaces a card still in the deck, keeping its position, e.g. with a refreshed copy.
+     *
+     * @param card        The card in the deck
+     * @param replacement The new card
+     * @return true if the card was replaced, false if it is no longer in the deck
+     */
+    public boolean replace(T card, T replacement) {
+        return deck.replaceCard(card, replacement);
+    }
+
+    /**
+     * Caps the vetoes so that at least one card is left when they run out.
+     */
+    public void capVetos() {
+        vetoEngine.capToDeck(deck.size());
+    }
+
+    /**
+     * Lets vetoing start.
+     *
+     * @return true if the deck was not ready before, false if it already was
+     */
+    public boolean markReady() {
+        if (ready) {
+            return false;
+        }
+        ready = true;
+        return true;
+    }
+
+    /**
+     * Returns whether vetoing may start.
+     *
+     * @return true once the deck has been marked ready
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns whether a slot has finished, with or without a card.
+     *
+     * @param slot The fetch slot
+     * @return true if the slot has finished
+     */
+    public boolean isCompleted(int slot) {
+        return completedSlots[slot];
+    }
+
+    /**
+     * Returns whether every slot of a cuisine batch has finished.
+     *
+     * @param batch The players sharing a cuisine
+     * @return true if there is nothing left to look up for the batch
+     */
+    public boolean isCompleted(CuisineBatch batch) {
+        for (int rank = 0; rank < batch.size(); rank++) {
+            if (!completedSlots[batch.getSlot(rank)]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns which slots have finished.
+     *
+     * @return A copy of the finished flag of each slot
+     */
+    public boolean[] getCompletedSlots() {
+        return completedSlots.clone();
+    }
+
+    /**
+     * Returns how many placeholders are still waiting for their card.
+     *
+     * @return The number of pending slots
+     */
+    public int getPendingCount() {
+        return placeholderSlots.size();
+    }
+
+    /**
+     * Takes a slot's pending placeholder off the books, without touching the deck.
+     *
+     * @param slot The fetch slot
+     * @return The placeholder, or null if the slot had none pending
+     */
+    @SuppressWarnings("unchecked")
+    private T takePlaceholder(int slot) {
+        T placeholder = (T) placeholders[slot];
+        if (placeholder != null) {
+            placeholders[slot] = null;
+            placeholderSlots.remove(placeholder);
+        }
+        return placeholder;
+    }
+}
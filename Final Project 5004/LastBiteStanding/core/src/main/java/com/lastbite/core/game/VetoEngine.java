@@ -0,0 +1,107 @@
+/**
+ * The turn and veto rules of a LastBite game.
+ *
+ * <p>Every player gets one veto, and players take turns in order. After a veto the turn passes
+ * to the next player unless that was the last veto. The number of vetoes can never exceed the
+ * deck size minus one, so one restaurant always remains as the final choice.</p>
+ *
+ * <p>The engine only counts; the deck itself is owned by the caller. It is not thread-safe.</p>
+ */
+package com.lastbite.core.game;
+
+public class VetoEngine {
+    private final int playerCount;
+    private int currentPlayerIndex;
+    private int vetosRemaining;
+
+    /**
+     * Starts a game with one veto per player, the first player to move.
+     *
+     * @param playerCount The number of players, at least 1
+     * @throws IllegalArgumentException if playerCount is less than 1
+     */
+    public VetoEngine(int playerCount) {
+        this(playerCount, 0, playerCount);
+    }
+
+    /**
+     * Resumes a game at a known turn.
+     *
+     * @param playerCount        The number of players, at least 1
+     * @param currentPlayerIndex Index of the player whose turn it is
+     * @param vetosRemaining     Number of vetoes left
+     * @throws IllegalArgumentException if playerCount is less than 1 or the turn is out of range
+     */
+    public VetoEngine(int playerCount, int currentPlayerIndex, int vetosRemaining) {
+        if (playerCount < 1) {
+            throw new IllegalArgumentException("playerCount must be at least 1");
+        }
+        if (currentPlayerIndex < 0 || currentPlayerIndex >= playerCount) {
+            throw new IllegalArgumentException("currentPlayerIndex out of range: " + currentPlayerIndex);
+        }
+        this.playerCount = playerCount;
+        this.currentPlayerIndex = currentPlayerIndex;
+        this.vetosRemaining = Math.max(0, vetosRemaining);
+    }
+
+    /**
+     * Uses the current player's veto and passes the turn on.
+     *
+     * @return true if the veto was used, false if no vetoes were left
+     */
+    public boolean veto() {
+        if (vetosRemaining <= 0) {
+            return false;
+        }
+        vetosRemaining--;
+        if (vetosRemaining > 0) {
+            currentPlayerIndex = (currentPlayerIndex + 1) % playerCount;
+        }
+        return true;
+    }
+
+    /**
+     * Caps the vetoes so that at least one card of the deck is left when they run out.
+     *
+     * @param deckSize The number of cards currently in the deck
+     */
+    public void capToDeck(int deckSize) {
+        vetosRemaining = Math.min(vetosRemaining, Math.max(0, deckSize - 1));
+    }
+
+    /**
+     * Returns whether every veto has been used, so the remaining card is the final choice.
+     *
+     * @return true once no vetoes are left
+     */
+    public boolean isFinished() {
+        return vetosRemaining == 0;
+    }
+
+    /**
+     * Returns the index of the player whose turn it is.
+     *
+     * @return The current player index
+     */
+    public int getCurrentPlayerIndex() {
+        return currentPlayerIndex;
+    }
+
+    /**
+     * Returns the number of vetoes left.
+     *
+     * @return The vetoes remaining
+     */
+    public int getVetosRemaining() {
+        return vetosRemaining;
+    }
+
+    /**
+     * Returns the number of players taking turns.
+     *
+     * @return The player count
+     */
+    public int getPlayerCount() {
+        return playerCount;
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Distance calculations on the earth's surface.
+ *
+ * <p>Uses the haversine formula on a spherical earth, which is accurate to about 0.5% and
+ * more than good enough to decide whether a restaurant is within walking or driving range.
+ * The degree conversions account for meridians converging towards the poles, so a box built
+ * from them covers the same ground distance east-west as north-south at any latitude.</p>
+ */
+package com.lastbite.core.geo;
+
+import java.util.Locale;
+
+public final class GeoMath {
+    /** Mean earth radius in metres */
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    private GeoMath() {
+    }
+
+    /**
+     * Returns the great-circle distance between two coordinates.
+     *
+     * @param lat1 Latitude of the first point in degrees
+     * @param lng1 Longitude of the first point in degrees
+     * @param lat2 Latitude of the second point in degrees
+     * @param lng2 Longitude of the second point in degrees
+     * @return The distance in metres
+     */
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Converts a north-south distance into degrees of latitude.
+     *
+     * @param meters The distance in metres
+     * @return The matching latitude span in degrees
+     */
+    public static double metersToLatitudeDegrees(double meters) {
+        return Math.toDegrees(meters / EARTH_RADIUS_METERS);
+    }
+
+    /**
+     * Converts an east-west distance at the given latitude into degrees of longitude.
+     * Near the poles, where a degree of longitude shrinks to nothing, the span is capped at
+     * the full 180 degrees.
+     *
+     * @param latitude The latitude the distance is measured at
+     * @param meters   The distance in metres
+     * @return The matching longitude span in degrees
+     */
+    public static double metersToLongitudeDegrees(double latitude, double meters) {
+        double cosLatitude = Math.cos(Math.toRadians(latitude));
+        if (cosLatitude < 1e-9) {
+            return 180;
+        }
+        return Math.min(180, Math.toDegrees(meters / (EARTH_RADIUS_METERS * cosLatitude)));
+    }
+
+    /**
+     * Formats a distance for display, in metres below one kilometre and in kilometres
+     * with one decimal above.
+     *
+     * @param meters The distance in metres
+     * @return The formatted distance, e.g. "350 m" or "1.2 km"
+     */
+    public static String formatDistance(double meters) {
+        if (meters < 1000) {
+            return Math.round(meters) + " m";
+        }
+        return String.format(Locale.US, "%.1f km", meters / 1000);
+    }
+}
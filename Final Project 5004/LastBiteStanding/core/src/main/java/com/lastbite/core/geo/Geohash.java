@@ -0,0 +1,116 @@
+/**
+ * Encodes latitude/longitude coordinates into geohash strings.
+ *
+ * <p>A geohash divides the world into a grid of cells, where every extra character narrows
+ * the cell down by a factor of 32. Nearby points share the same prefix, which makes the hash a
+ * convenient key for caching location-based results: every search started inside the same cell
+ * maps to the same key.</p>
+ *
+ * <p>Approximate cell sizes at the equator:</p>
+ * <ul>
+ *   <li>5 characters: 4.9km x 4.9km</li>
+ *   <li>6 characters: 1.2km x 0.6km</li>
+ *   <li>7 characters: 153m x 153m</li>
+ * </ul>
+ */
+package com.lastbite.core.geo;
+
+public final class Geohash {
+    /** The base32 alphabet used by geohash */
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    /** Maximum supported precision in characters */
+    public static final int MAX_PRECISION = 12;
+
+    private Geohash() {
+    }
+
+    /**
+     * Encodes a coordinate into a geohash of the given precision.
+     *
+     * @param latitude  Latitude in degrees, between -90 and 90
+     * @param longitude Longitude in degrees, between -180 and 180
+     * @param precision Number of characters in the hash, between 1 and {@link #MAX_PRECISION}
+     * @return The geohash of the cell containing the coordinate
+     * @throws IllegalArgumentException if precision is out of range
+     */
+    public static String encode(double latitude, double longitude, int precision) {
+        if (precision < 1 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be between 1 and " + MAX_PRECISION);
+        }
+
+        long bits = encodeBits(latitude, longitude, precision * 5);
+        char[] hash = new char[precision];
+        for (int index = precision - 1; index >= 0; index--) {
+            hash[index] = BASE32[(int) (bits & 31)];
+            bits >>>= 5;
+        }
+        return new String(hash);
+    }
+
+    /**
+     * Encodes a coordinate into the raw interleaved geohash bits, longitude bit first.
+     * A hash of {@code 5 * n} bits is the numeric form of the n-character geohash, which makes
+     * it a compact integer cell key.
+     *
+     * @param latitude  Latitude in degrees, between -90 and 90
+     * @param longitude Longitude in degrees, between -180 and 180
+     * @param bitCount  Number of bits, between 1 and {@code 5 * MAX_PRECISION}
+     * @return The cell key in the lowest {@code bitCount} bits
+     * @throws IllegalArgumentException if bitCount is out of range
+     */
+    public static long encodeBits(double latitude, double longitude, int bitCount) {
+        if (bitCount < 1 || bitCount > MAX_PRECISION * 5) {
+            throw new IllegalArgumentException("bitCount must be between 1 and " + MAX_PRECISION * 5);
+        }
+
+        double minLat = -90, maxLat = 90;
+        double minLng = -180, maxLng = 180;
+        boolean evenBit = true;
+        long value = 0;
+
+        for (int bit = 0; bit < bitCount; bit++) {
+            if (evenBit) {
+                double mid = (minLng + maxLng) / 2;
+                if (longitude >= mid) {
+                    value = (value << 1) | 1;
+                    minLng = mid;
+                } else {
+                    value = value << 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    value = (value << 1) | 1;
+                    minLat = mid;
+                } else {
+                    value = value << 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the height of a cell with the given number of bits, in degrees of latitude.
+     *
+     * @param bitCount Number of bits of the cell key
+     * @return The cell height in degrees
+     */
+    public static double cellHeightDegrees(int bitCount) {
+        return 180.0 / (1L << (bitCount / 2));
+    }
+
+    /**
+     * Returns the width of a cell with the given number of bits, in degrees of longitude.
+     *
+     * @param bitCount Number of bits of the cell key
+     * @return The cell width in degrees
+     */
+    public static double cellWidthDegrees(int bitCount) {
+        return 360.0 / (1L << ((bitCount + 1) / 2));
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Decides which location fixes are good enough for picking restaurants, and which of two fixes
+ * is better.
+ *
+ * <p>A restaurant search covers kilometres, so a fix a minute old or a hundred metres off is
+ * as useful as a fresh GPS fix. The policy has three limits:</p>
+ * <ul>
+ *   <li>{@code maxAgeMs}: a fix older than this is stale and never used</li>
+ *   <li>{@code usableAccuracyMeters}: a fresh fix at least this accurate can be shown right away</li>
+ *   <li>{@code goodAccuracyMeters}: a fresh fix at least this accurate needs no refinement</li>
+ * </ul>
+ * <p>together with {@code refineTimeoutMs}, how long refining a fix may take. Accuracies are
+ * the radius of 68% confidence reported by the platform; a fix without an accuracy is treated
+ * as infinitely inaccurate. Instances are immutable.</p>
+ */
+package com.lastbite.core.geo;
+
+public class LocationFixPolicy {
+    /** Default maximum age of a usable fix: two minutes */
+    public static final long DEFAULT_MAX_AGE_MS = 2 * 60 * 1000;
+
+    /** Default accuracy a fix needs to be shown before refining: one kilometre */
+    public static final float DEFAULT_USABLE_ACCURACY_METERS = 1000;
+
+    /** Default accuracy at which refining stops: one hundred metres */
+    public static final float DEFAULT_GOOD_ACCURACY_METERS = 100;
+
+    /** Default time allowed for refining a fix: ten seconds */
+    public static final long DEFAULT_REFINE_TIMEOUT_MS = 10_000;
+
+    /** A policy with the default limits */
+    public static final LocationFixPolicy DEFAULT = new LocationFixPolicy(DEFAULT_MAX_AGE_MS,
+            DEFAULT_USABLE_ACCURACY_METERS, DEFAULT_GOOD_ACCURACY_METERS, DEFAULT_REFINE_TIMEOUT_MS);
+
+    private final long maxAgeMs;
+    private final float usableAccuracyMeters;
+    private final float goodAccuracyMeters;
+    private final long refineTimeoutMs;
+
+    /**
+     * Constructs a policy.
+     *
+     * @param maxAgeMs             The age after which a fix is stale
+     * @param usableAccuracyMeters The accuracy a fresh fix needs to be used before refining
+     * @param goodAccuracyMeters   The accuracy at which refining stops, at most {@code usableAccuracyMeters}
+     * @param refineTimeoutMs      How long refining a fix may take
+     */
+    public LocationFixPolicy(long maxAgeMs, float usableAccuracyMeters, float goodAccuracyMeters,
+                             long refineTimeoutMs) {
+        if (maxAgeMs <= 0 || refineTimeoutMs <= 0) {
+            throw new IllegalArgumentException("maxAgeMs and refineTimeoutMs must be positive");
+        }
+        if (!(goodAccuracyMeters > 0) || goodAccuracyMeters > usableAccuracyMeters) {
+            throw new IllegalArgumentException("Need 0 < goodAccuracyMeters <= usableAccuracyMeters");
+        }
+        this.maxAgeMs = maxAgeMs;
+        this.usableAccuracyMeters = usableAccuracyMeters;
+        this.goodAccuracyMeters = goodAccuracyMeters;
+        this.refineTimeoutMs = refineTimeoutMs;
+    }
+
+    /** @return The age after which a fix is stale, in milliseconds */
+    public long getMaxAgeMs() { return maxAgeMs; }
+
+    /** @return The accuracy a fresh fix needs to be used before refining, in metres */
+    public float getUsableAccuracyMeters() { return usableAccuracyMeters; }
+
+    /** @return The accuracy at which refining stops, in metres */
+    public float getGoodAccuracyMeters() { return goodAccuracyMeters; }
+
+    /** @return How long refining a fix may take, in milliseconds */
+    public long getRefineTimeoutMs() { return refineTimeoutMs; }
+
+    /**
+     * Returns whether a fix is fresh enough to use.
+     *
+     * @param ageMs The fix's age in milliseconds
+     * @return true if the fix is not stale
+     */
+    public boolean isFresh(long ageMs) {
+        return ageMs <= maxAgeMs;
+    }
+
+    /**
+     * Returns whether a fix can be shown right away, before it is refined.
+     *
+     * @param ageMs          The fix's age in milliseconds
+     * @param accuracyMeters The fix's accuracy in metres, NaN if unknown
+     * @return true if the fix is fresh and accurate enough to use
+     */
+    public boolean isUsable(long ageMs, float accuracyMeters) {
+        return isFresh(ageMs) && accuracyMeters <= usableAccuracyMeters;
+    }
+
+    /**
+     * Returns whether a fix is good enough that no better one is needed.
+     *
+     * @param ageMs          The fix's age in milliseconds
+     * @param accuracyMeters The fix's accuracy in metres, NaN if unknown
+     * @return true if the fix is fresh and accurate enough to stop refining
+     */
+    public boolean isGoodEnough(long ageMs, float accuracyMeters) {
+        return isFresh(ageMs) && accuracyMeters <= goodAccuracyMeters;
+    }
+
+    /**
+     * Returns whether a new fix should replace the current best one. A fresh fix always
+     * replaces a stale one; between fixes of similar freshness the more accurate one wins,
+     * and a newer fix wins a tie.
+     *
+     * @param newAgeMs              The new fix's age in milliseconds
+     * @param newAccuracyMeters     The new fix's accuracy in metres, NaN if unknown
+     * @param currentAgeMs          The current fix's age in milliseconds
+     * @param currentAccuracyMeters The current fix's accuracy in metres, NaN if unknown
+     * @return true if the new fix is better
+     */
+    public boolean isBetter(long newAgeMs, float newAccuracyMeters,
+                            long currentAgeMs, float currentAccuracyMeters) {
+        boolean newFresh = isFresh(newAgeMs);
+        boolean currentFresh = isFresh(currentAgeMs);
+        if (newFresh != currentFresh) {
+            return newFresh;
+        }
+        float newAccuracy = Float.isNaN(newAccuracyMeters) ? Float.MAX_VALUE : newAccuracyMeters;
+        float currentAccuracy = Float.isNaN(currentAccuracyMeters) ? Float.MAX_VALUE : currentAccuracyMeters;
+        if (newAccuracy != currentAccuracy) {
+            return newAccuracy < currentAccuracy;
+        }
+        return newAgeMs < currentAgeMs;
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Turns a stream of location fixes into the moves worth acting on.
+ *
+ * <p>GPS fixes of a standing phone wander by several metres, which would redraw the map and
+ * restart searches for nothing. The filter remembers an anchor, the last position it
+ * reported, and reports a new fix only once it is at least the minimum displacement away, or
+ * further than the fix's own accuracy if that is larger. A reported move is also checked
+ * against the geohash cell of the anchor, so callers can keep restaurant searches, which are
+ * cached per cell, until the group actually walks into a different cell.</p>
+ *
+ * <p>Not thread-safe; fixes are expected from one thread, usually the main thread.</p>
+ */
+package com.lastbite.core.geo;
+
+public class MovementFilter {
+
+    /**
+     * What a fix means for the caller.
+     */
+    public enum Change {
+        /** The fix is within the jitter radius of the anchor and was ignored */
+        NONE,
+        /** The fix moved far enough and became the new anchor, in the same cell */
+        MOVED,
+        /** The fix moved far enough and is in a different cell than the previous anchor */
+        LEFT_CELL
+    }
+
+    private final double minDisplacementMeters;
+    private final int cellBits;
+    private double anchorLatitude;
+    private double anchorLongitude;
+    private long anchorCell;
+
+    /**
+     * Constructs a filter anchored at the given position.
+     *
+     * @param latitude              Latitude of the starting position in degrees
+     * @param longitude             Longitude of the starting position in degrees
+     * @param minDisplacementMeters The distance below which a fix is treated as jitter
+     * @param cellPrecision         Geohash precision of a search cell, in characters
+     * @throws IllegalArgumentException if the displacement is negative or the precision is out of range
+     */
+    public MovementFilter(double latitude, double longitude, double minDisplacementMeters, int cellPrecision) {
+        if (!(minDisplacementMeters >= 0)) {
+            throw new IllegalArgumentException("minDisplacementMeters must not be negative");
+        }
+        if (cellPrecision < 1 || cellPrecision > Geohash.MAX_PRECISION) {
+            throw new IllegalArgumentException("cellPrecision must be between 1 and " + Geohash.MAX_PRECISION);
+        }
+        this.minDisplacementMeters = minDisplacementMeters;
+        this.cellBits = cellPrecision * 5;
+        moveAnchor(latitude, longitude);
+    }
+
+    /**
+     * Offers a new fix.
+     *
+     * @param latitude       Latitude of the fix in degrees
+     * @param longitude      Longitude of the fix in degrees
+     * @param accuracyMeters Accuracy radius of the fix in metres, NaN if unknown
+     * @return What the fix changes; the anchor moves to the fix unless this is {@link Change#NONE}
+     */
+    public Change offer(double latitude, double longitude, double accuracyMeters) {
+        double threshold = Double.isNaN(accuracyMeters)
+                ? minDisplacementMeters
+                : Math.max(minDisplacementMeters, accuracyMeters);
+        if (GeoMath.distanceMeters(anchorLatitude, anchorLongitude, latitude, longitude) < threshold) {
+            return Change.NONE;
+        }
+        long previousCell = anchorCell;
+        moveAnchor(latitude, longitude);
+        return anchorCell == previousCell ? Change.MOVED : Change.LEFT_CELL;
+    }
+
+    /** @return Latitude of the last reported position */
+    public double getAnchorLatitude() { return anchorLatitude; }
+
+    /** @return Longitude of the last reported position */
+    public double getAnchorLongitude() { return anchorLongitude; }
+
+    /**
+     * Makes a position the new anchor.
+     *
+     * @param latitude  Latitude in degrees
+     * @param longitude Longitude in degrees
+     */
+    private void moveAnchor(double latitude, double longitude) {
+        anchorLatitude = latitude;
+        anchorLongitude = longitude;
+        anchorCell = Geohash.encodeBits(latitude, longitude, cellBits);
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Constants describing the binary offline restaurant file.
+ *
+ * <p>All values are big-endian. The file consists of:</p>
+ * <ol>
+ *   <li>Header: magic {@code "LBRS"}, version, cell key bit count, cuisine count</li>
+ *   <li>Cuisine table: one length-prefixed UTF-8 string per cuisine</li>
+ *   <li>Cell index: cell count, then (cell key, first record, record count) per cell,
+ *       sorted by cell key</li>
+ *   <li>Records: record count, then one fixed-size record per restaurant, grouped by cell
+ *       and sorted by rating within a cell, best first</li>
+ *   <li>String pool: pool size, then length-prefixed UTF-8 names and addresses</li>
+ * </ol>
+ *
+ * <p>A record is {@link #RECORD_SIZE} bytes: latitude and longitude in microdegrees (int),
+ * rating times ten (short, -1 if unknown), cuisine index (short), and the pool offsets of
+ * the name and address (int). Fixed-size records let the reader jump straight to any record
+ * of a memory-mapped file without parsing what comes before it.</p>
+ */
+package com.lastbite.core.offline;
+
+final class OfflineDatasetFormat {
+    /** "LBRS" in ASCII */
+    static final int MAGIC = 0x4C425253;
+
+    /** Current format version */
+    static final int VERSION = 1;
+
+    /** Geohash bits per cell key; 25 bits is a 5-character geohash, about 4.9km x 4.9km */
+    static final int CELL_BITS = 25;
+
+    /** Size of one cell index entry in bytes */
+    static final int CELL_ENTRY_SIZE = 12;
+
+    /** Size of one restaurant record in bytes */
+    static final int RECORD_SIZE = 20;
+
+    /** Rating value stored for restaurants without a rating */
+    static final short NO_RATING = -1;
+
+    private OfflineDatasetFormat() {
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Writes restaurants into the binary offline format described in {@link OfflineDatasetFormat}.
+ *
+ * <p>Used by the dataset converter tool at build time and by tests. Restaurants are grouped
+ * by geohash cell and sorted best-rated first inside each cell, so a query can stop scanning
+ * a cell as soon as it has enough results.</p>
+ */
+package com.lastbite.core.offline;
+
+import com.lastbite.core.cuisine.CuisineTaxonomy;
+import com.lastbite.core.geo.Geohash;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class OfflineDatasetWriter {
+
+    private OfflineDatasetWriter() {
+    }
+
+    /**
+     * Writes the dataset.
+     *
+     * @param restaurants The restaurants to include
+     * @param out         The stream to write to; it is not closed
+     * @throws IOException if writing fails
+     */
+    public static void write(List<OfflineRestaurant> restaurants, OutputStream out) throws IOException {
+        List<OfflineRestaurant> sorted = new ArrayList<>(restaurants);
+        Map<OfflineRestaurant, Integer> cellKeys = new HashMap<>();
+        for (OfflineRestaurant restaurant : sorted) {
+            cellKeys.put(restaurant, (int) Geohash.encodeBits(
+                    restaurant.getLatitude(), restaurant.getLongitude(), OfflineDatasetFormat.CELL_BITS));
+        }
+        sorted.sort(Comparator.<OfflineRestaurant>comparingInt(cellKeys::get)
+                .thenComparing(r -> -ratingValue(r)));
+
+        Map<String, Integer> cuisineIds = new LinkedHashMap<>();
+        for (OfflineRestaurant restaurant : sorted) {
+            cuisineIds.putIfAbsent(CuisineTaxonomy.key(restaurant.getCuisine()), cuisineIds.size());
+        }
+
+        ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        DataOutputStream poolOut = new DataOutputStream(pool);
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(OfflineDatasetFormat.MAGIC);
+        data.writeInt(OfflineDatasetFormat.VERSION);
+        data.writeInt(OfflineDatasetFormat.CELL_BITS);
+        data.writeInt(cuisineIds.size());
+        for (String cuisine : cuisineIds.keySet()) {
+            writeString(data, cuisine);
+        }
+
+        List<int[]> cells = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            int key = cellKeys.get(sorted.get(i));
+            int[] last = cells.isEmpty() ? null : cells.get(cells.size() - 1);
+            if (last != null && last[0] == key) {
+                last[2]++;
+            } else {
+                cells.add(new int[] {key, i, 1});
+            }
+        }
+        data.writeInt(cells.size());
+        for (int[] cell : cells) {
+            data.writeInt(cell[0]);
+            data.writeInt(cell[1]);
+            data.writeInt(cell[2]);
+        }
+
+        data.writeInt(sorted.size());
+        for (OfflineRestaurant restaurant : sorted) {
+            data.writeInt((int) Math.round(restaurant.getLatitude() * 1e6));
+            data.writeInt((int) Math.round(restaurant.getLongitude() * 1e6));
+            data.writeShort(restaurant.getRating() == null
+                    ? OfflineDatasetFormat.NO_RATING
+                    : (short) Math.round(restaurant.getRating() * 10));
+            data.writeShort(cuisineIds.get(CuisineTaxonomy.key(restaurant.getCuisine())));
+            data.writeInt(poolOut.size());
+            writeString(poolOut, restaurant.getName());
+            data.writeInt(poolOut.size());
+            writeString(poolOut, restaurant.getAddress());
+        }
+
+        poolOut.flush();
+        data.writeInt(pool.size());
+        pool.writeTo(data);
+        data.flush();
+    }
+
+
+    /**
+     * Returns the rating used for sorting, with unknown ratings last.
+     *
+     * @param restaurant The restaurant
+     * @return The rating, or -1 if unknown
+     */
+    private static double ratingValue(OfflineRestaurant restaurant) {
+        return restaurant.getRating() == null ? -1 : restaurant.getRating();
+    }
+
+    /**
+     * Writes a string as an unsigned 16-bit byte length followed by its UTF-8 bytes.
+     *
+     * @param out   The stream to write to
+     * @param value The string, null is written as empty
+     * @throws IOException if writing fails or the string is longer than 65535 bytes
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IOException("String too long for offline dataset: " + bytes.length + " bytes");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+}
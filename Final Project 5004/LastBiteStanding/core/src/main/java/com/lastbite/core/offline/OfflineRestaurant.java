@@ -0,0 +1,54 @@
+/**
+ * A restaurant from the offline dataset.
+ *
+ * <p>Holds the same fields a restaurant card needs from the Places API, plus the coordinate
+ * used by the spatial index. Instances are immutable.</p>
+ */
+package com.lastbite.core.offline;
+
+public class OfflineRestaurant {
+    private final String name;
+    private final String cuisine;
+    private final Double rating;
+    private final String address;
+    private final double latitude;
+    private final double longitude;
+
+    /**
+     * Constructs a new offline restaurant.
+     *
+     * @param name      The restaurant's name
+     * @param cuisine   The cuisine served, e.g. "Italian"
+     * @param rating    The rating from 1 to 5, or null if unknown
+     * @param address   The street address
+     * @param latitude  Latitude in degrees
+     * @param longitude Longitude in degrees
+     */
+    public OfflineRestaurant(String name, String cuisine, Double rating, String address,
+                             double latitude, double longitude) {
+        this.name = name;
+        this.cuisine = cuisine;
+        this.rating = rating;
+        this.address = address;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    /** @return The restaurant's name */
+    public String getName() { return name; }
+
+    /** @return The cuisine served */
+    public String getCuisine() { return cuisine; }
+
+    /** @return The rating, or null if unknown */
+    public Double getRating() { return rating; }
+
+    /** @return The street address */
+    public String getAddress() { return address; }
+
+    /** @return Latitude in degrees */
+    public double getLatitude() { return latitude; }
+
+    /** @return Longitude in degrees */
+    public double getLongitude() { return longitude; }
+}
@@ -0,0 +1,265 @@
+/**
+ * Answers "best-rated restaurants of a cuisine within a radius" from the binary offline
+ * dataset without loading it into the Java heap.
+ *
+ * <p>The index reads directly from a {@link ByteBuffer}, normally a memory-mapped file, so only
+ * the pages a query touches are ever paged in. A query works out which geohash cells the search
+ * circle overlaps, finds each cell in the sorted cell table with a binary search, and scans only
+ * the fixed-size records of those cells. Names and addresses are decoded for the final results
+ * only. A typical query touches a handful of cells and takes microseconds.</p>
+ *
+ * <p>The index is immutable and safe to use from any thread.</p>
+ */
+package com.lastbite.core.offline;
+
+import com.lastbite.core.cuisine.CuisineTaxonomy;
+import com.lastbite.core.geo.GeoMath;
+import com.lastbite.core.geo.Geohash;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+public class OfflineRestaurantIndex {
+    private final ByteBuffer buffer;
+    private final int cellBits;
+    private final String[] cuisines;
+    private final Map<String, Integer> cuisineIds = new HashMap<>();
+    private final int cellCount;
+    private final int cellsOffset;
+    private final int recordCount;
+    private final int recordsOffset;
+    private final int poolOffset;
+
+    /**
+     * Opens an index over a dataset written by {@link OfflineDatasetWriter}.
+     *
+     * @param buffer The dataset bytes, usually a memory-mapped file. Position and limit are ignored.
+     * @throws IllegalArgumentException if the buffer does not hold a supported dataset
+     */
+    public OfflineRestaurantIndex(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate();
+        ByteBuffer header = buffer.duplicate();
+        header.position(0);
+        if (header.getInt() != OfflineDatasetFormat.MAGIC) {
+            throw new IllegalArgumentException("Not an offline restaurant dataset");
+        }
+        int version = header.getInt();
+        if (version != OfflineDatasetFormat.VERSION) {
+            throw new IllegalArgumentException("Unsupported offline dataset version " + version);
+        }
+        cellBits = header.getInt();
+
+        cuisines = new String[header.getInt()];
+        for (int i = 0; i < cuisines.length; i++) {
+            cuisines[i] = readString(header, header.position());
+            header.position(header.position() + 2 + (header.getShort(header.position()) & 0xFFFF));
+            cuisineIds.put(cuisines[i], i);
+        }
+
+        cellCount = header.getInt();
+        cellsOffset = header.position();
+        header.position(cellsOffset + cellCount * OfflineDatasetFormat.CELL_ENTRY_SIZE);
+        recordCount = header.getInt();
+        recordsOffset = header.position();
+        header.position(recordsOffset + recordCount * OfflineDatasetFormat.RECORD_SIZE);
+        header.getInt();
+        poolOffset = header.position();
+    }
+
+    /**
+     * Returns the number of restaurants in the dataset.
+     *
+     * @return The restaurant count
+     */
+    public int size() {
+        return recordCount;
+    }
+
+    /**
+     * Returns whether the dataset contains restaurants of a cuisine.
+     *
+     * @param cuisine The cuisine, case-insensitive
+     * @return true if the cuisine is known
+     */
+    public boolean hasCuisine(String cuisine) {
+        return cuisineIds.containsKey(CuisineTaxonomy.key(cuisine));
+    }
+
+    /**
+     * Finds the best-rated restaurants within a radius of a coordinate.
+     *
+     * @param latitude     Latitude of the centre in degrees
+     * @param longitude    Longitude of the centre in degrees
+     * @param radiusMeters The search radius in metres
+     * @param cuisine      The cuisine to match, case-insensitive, or null for any cuisine
+     * @param limit        The maximum number of results
+     * @return The matching restaurants, best rated first; ties go to the closer restaurant
+     */
+    public List<OfflineRestaurant> query(double latitude, double longitude, double radiusMeters,
+                                         String cuisine, int limit) {
+        int cuisineId = -1;
+        if (cuisine != null) {
+            Integer id = cuisineIds.get(CuisineTaxonomy.key(cuisine));
+            if (id == null) {
+                return Collections.emptyList();
+            }
+            cuisineId = id;
+        }
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        // Min-heap on (rating, -distance) holding the best "limit" records seen so far
+        PriorityQueue<double[]> best = new PriorityQueue<>(limit + 1, (a, b) ->
+                a[1] != b[1] ? Double.compare(a[1], b[1]) : Double.compare(b[2], a[2]));
+
+        for (int cellKey : coveringCells(latitude, longitude, radiusMeters)) {
+            int entry = findCell(cellKey);
+            if (entry < 0) {
+                continue;
+            }
+            int entryOffset = cellsOffset + entry * OfflineDatasetFormat.CELL_ENTRY_SIZE;
+            int first = buffer.getInt(entryOffset + 4);
+            int count = buffer.getInt(entryOffset + 8);
+
+            for (int record = first; record < first + count; record++) {
+                int offset = recordsOffset + record * OfflineDatasetFormat.RECORD_SIZE;
+                if (cuisineId >= 0 && buffer.getShort(offset + 10) != cuisineId) {
+                    continue;
+                }
+                short rating = buffer.getShort(offset + 8);
+                if (best.size() == limit && rating < best.peek()[1]) {
+                    // Records are sorted by rating within a cell, nothing better follows
+                    break;
+                }
+                double distance = GeoMath.distanceMeters(latitude, longitude,
+                        buffer.getInt(offset) / 1e6, buffer.getInt(offset + 4) / 1e6);
+                if (distance > radiusMeters) {
+                    continue;
+                }
+                best.add(new double[] {record, rating, distance});
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+
+        List<OfflineRestaurant> results = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            results.add(readRecord((int) best.poll()[0]));
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    /**
+     * Returns the keys of all cells that overlap the square around the search circle.
+     *
+     * @param latitude     Latitude of the centre
+     * @param longitude    Longitude of the centre
+     * @param radiusMeters The search radius in metres
+     * @return The cell keys in ascending order
+     */
+    private TreeSet<Integer> coveringCells(double latitude, double longitude, double radiusMeters) {
+        double latDelta = Math.toDegrees(radiusMeters / GeoMath.EARTH_RADIUS_METERS);
+        double cosLat = Math.max(0.01, Math.cos(Math.toRadians(latitude)));
+        double lngDelta = Math.min(180, latDelta / cosLat);
+        double cellHeight = Geohash.cellHeightDegrees(cellBits);
+        double cellWidth = Geohash.cellWidthDegrees(cellBits);
+
+        TreeSet<Integer> cells = new TreeSet<>();
+        double minLat = Math.max(-90, latitude - latDelta);
+        double maxLat = Math.min(90, latitude + latDelta);
+        for (double lat = minLat; ; lat = Math.min(maxLat, lat + cellHeight)) {
+            for (double lng = longitude - lngDelta; ; lng = Math.min(longitude + lngDelta, lng + cellWidth)) {
+                cells.add((int) Geohash.encodeBits(lat, wrapLongitude(lng), cellBits));
+                if (lng >= longitude + lngDelta) {
+                    break;
+                }
+            }
+            if (lat >= maxLat) {
+                break;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Finds a cell in the sorted cell table.
+     *
+     * @param cellKey The cell key
+     * @return The index of the cell entry, or -1 if the dataset has no restaurant in the cell
+     */
+    private int findCell(int cellKey) {
+        int low = 0;
+        int high = cellCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int key = buffer.getInt(cellsOffset + mid * OfflineDatasetFormat.CELL_ENTRY_SIZE);
+            if (key < cellKey) {
+                low = mid + 1;
+            } else if (key > cellKey) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes a full record, including its strings.
+     *
+     * @param record The record index
+     * @return The restaurant
+     */
+    private OfflineRestaurant readRecord(int record) {
+        int offset = recordsOffset + record * OfflineDatasetFormat.RECORD_SIZE;
+        short rating = buffer.getShort(offset + 8);
+        return new OfflineRestaurant(
+                readString(buffer, poolOffset + buffer.getInt(offset + 12)),
+                cuisines[buffer.getShort(offset + 10)],
+                rating == OfflineDatasetFormat.NO_RATING ? null : rating / 10.0,
+                readString(buffer, poolOffset + buffer.getInt(offset + 16)),
+                buffer.getInt(offset) / 1e6,
+                buffer.getInt(offset + 4) / 1e6);
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 string at an absolute offset.
+     *
+     * @param source The buffer to read from
+     * @param offset The absolute offset of the length prefix
+     * @return The string
+     */
+    private static String readString(ByteBuffer source, int offset) {
+        int length = source.getShort(offset) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        ByteBuffer view = source.duplicate();
+        view.position(offset + 2);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Wraps a longitude into the range -180 to 180.
+     *
+     * @param longitude The longitude in degrees
+     * @return The wrapped longitude
+     */
+    private static double wrapLongitude(double longitude) {
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        if (longitude >= 180) {
+            return longitude - 360;
+        }
+        return longitude;
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * The arithmetic for decoding a photo at the size it is shown at.
+ *
+ * <p>A photo is decoded in two steps: the decoder first subsamples by a power of two, which
+ * costs nothing extra and shrinks the decoded bitmap by the square of the factor, and the
+ * result is then scaled to exactly fill the target. {@link #sampleSize} picks the largest
+ * factor that still leaves at least the target size, so the final scale never enlarges the
+ * image, and {@link #bitmapBytes} estimates the memory a decoded bitmap holds.</p>
+ */
+package com.lastbite.core.photo;
+
+public final class PhotoSizing {
+    /** Bytes per pixel of a decoded bitmap with an alpha channel */
+    public static final int BYTES_PER_PIXEL = 4;
+
+    private PhotoSizing() {
+    }
+
+    /**
+     * Returns the largest power-of-two subsampling factor that keeps a source image at least
+     * as large as the target in both dimensions.
+     *
+     * @param sourceWidth  The width of the encoded image
+     * @param sourceHeight The height of the encoded image
+     * @param targetWidth  The width it is shown at
+     * @param targetHeight The height it is shown at
+     * @return The factor, 1 if the image is not at least twice the target size
+     */
+    public static int sampleSize(int sourceWidth, int sourceHeight, int targetWidth, int targetHeight) {
+        int sampleSize = 1;
+        if (targetWidth <= 0 || targetHeight <= 0) {
+            return sampleSize;
+        }
+        while (sourceWidth / (sampleSize * 2) >= targetWidth
+                && sourceHeight / (sampleSize * 2) >= targetHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * Estimates the memory of a decoded bitmap.
+     *
+     * @param width  The bitmap's width
+     * @param height The bitmap's height
+     * @return The size in bytes
+     */
+    public static long bitmapBytes(int width, int height) {
+        return (long) width * height * BYTES_PER_PIXEL;
+    }
+}
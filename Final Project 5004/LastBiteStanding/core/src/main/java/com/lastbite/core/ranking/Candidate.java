@@ -0,0 +1,101 @@
+/**
+ * A restaurant candidate as seen by the {@link RankingEngine}.
+ *
+ * <p>Wraps whatever the caller ranks (a Places result, an offline record, a benchmark object)
+ * together with the few features the scoring strategies read, so the features are extracted
+ * once per candidate instead of once per player and strategy. Missing values are stored as
+ * {@link Double#NaN}. The cuisines a restaurant serves and the dietary constraints it meets
+ * are kept as {@link Cuisine} and {@link DietaryFlag} masks, so matching them against a
+ * player's {@link CuisinePreferences} is bitwise. Instances are immutable.</p>
+ *
+ * @param <T> The type of the wrapped item
+ */
+package com.lastbite.core.ranking;
+
+import com.lastbite.core.cuisine.Cuisine;
+import com.lastbite.core.cuisine.CuisinePreferences;
+import com.lastbite.core.cuisine.DietaryFlag;
+
+public class Candidate<T> {
+    private final T item;
+    private final String id;
+    private final String cuisineKey;
+    private final double rating;
+    private final double distanceMeters;
+    private final long cuisineMask;
+    private final int dietaryMask;
+
+    /**
+     * Constructs a new candidate whose cuisine and dietary masks are read from its cuisine key,
+     * e.g. "vegan thai".
+     *
+     * @param item           The wrapped item
+     * @param id             Identifies the restaurant, e.g. a place id or name and address
+     * @param cuisineKey     The cuisine as a {@link com.lastbite.core.cuisine.CuisineTaxonomy#key}
+     * @param rating         The rating from 1 to 5, or NaN if unrated
+     * @param distanceMeters The distance from the search location, or NaN if unknown
+     */
+    public Candidate(T item, String id, String cuisineKey, double rating, double distanceMeters) {
+        this(item, id, cuisineKey, rating, distanceMeters, CuisinePreferences.parse(cuisineKey));
+    }
+
+    /**
+     * Constructs a new candidate with the masks of the given preferences.
+     *
+     * @param item           The wrapped item
+     * @param id             Identifies the restaurant
+     * @param cuisineKey     The cuisine key
+     * @param rating         The rating from 1 to 5, or NaN if unrated
+     * @param distanceMeters The distance from the search location, or NaN if unknown
+     * @param searched       The preferences parsed from the cuisine key
+     */
+    private Candidate(T item, String id, String cuisineKey, double rating, double distanceMeters,
+                      CuisinePreferences searched) {
+        this(item, id, cuisineKey, rating, distanceMeters, searched.getCuisineMask(),
+                searched.getDietaryFlags());
+    }
+
+    /**
+     * Constructs a new candidate with known cuisine and dietary masks, e.g. from a place's types
+     * combined with the search that found it.
+     *
+     * @param item           The wrapped item
+     * @param id             Identifies the restaurant, e.g. a place id or name and address
+     * @param cuisineKey     The cuisine as a {@link com.lastbite.core.cuisine.CuisineTaxonomy#key}
+     * @param rating         The rating from 1 to 5, or NaN if unrated
+     * @param distanceMeters The distance from the search location, or NaN if unknown
+     * @param cuisineMask    The {@link Cuisine} bits of the cuisines the restaurant serves
+     * @param dietaryMask    The {@link DietaryFlag} bits of the constraints the restaurant meets
+     */
+    public Candidate(T item, String id, String cuisineKey, double rating, double distanceMeters,
+                     long cuisineMask, int dietaryMask) {
+        this.item = item;
+        this.id = id;
+        this.cuisineKey = cuisineKey;
+        this.rating = rating;
+        this.distanceMeters = distanceMeters;
+        this.cuisineMask = cuisineMask;
+        this.dietaryMask = dietaryMask;
+    }
+
+    /** @return The wrapped item */
+    public T getItem() { return item; }
+
+    /** @return The restaurant's identity */
+    public String getId() { return id; }
+
+    /** @return The cuisine key */
+    public String getCuisineKey() { return cuisineKey; }
+
+    /** @return The rating, or NaN if unrated */
+    public double getRating() { return rating; }
+
+    /** @return The distance in metres, or NaN if unknown */
+    public double getDistanceMeters() { return distanceMeters; }
+
+    /** @return The {@link Cuisine} bits of the cuisines the restaurant serves */
+    public long getCuisineMask() { return cuisineMask; }
+
+    /** @return The {@link DietaryFlag} bits of the constraints the restaurant meets */
+    public int getDietaryMask() { return dietaryMask; }
+}
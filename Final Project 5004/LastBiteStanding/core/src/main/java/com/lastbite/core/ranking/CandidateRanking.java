@@ -0,0 +1,25 @@
+/**
+ * The rating threshold applied to restaurant candidates.
+ *
+ * <p>The rule is independent of where the candidates come from: the app filters Places API
+ * results with it, and benchmarks filter plain objects. A null rating means the candidate is
+ * unrated.</p>
+ */
+package com.lastbite.core.ranking;
+
+public final class CandidateRanking {
+
+    private CandidateRanking() {
+    }
+
+    /**
+     * Returns whether a rating reaches a threshold. Unrated candidates never do.
+     *
+     * @param rating    The rating, or null if unrated
+     * @param minRating The threshold
+     * @return true if the rating is at least the threshold
+     */
+    public static boolean meetsThreshold(Double rating, double minRating) {
+        return rating != null && rating >= minRating;
+    }
+}
@@ -0,0 +1,330 @@
+/**
+ * Ranks restaurant candidates for a whole group of players and selects the best ones.
+ *
+ * <p>A candidate's group score is the weighted sum of its {@link ScoringStrategy} scores,
+ * averaged over every player's {@link CuisinePreferences}. Players with the same ranked
+ * cuisines and constraints always score a candidate identically, so the engine scores each
+ * distinct profile once and weights it by its number of players, and strategies that ignore
+ * the player are scored once per candidate: ranking n candidates for p players costs
+ * O(n * min(p, distinct profiles)) calls of the player-dependent strategies plus O(n) calls of
+ * the others. Profiles are grouped by their packed form, so this is one hash lookup per
+ * player.</p>
+ *
+ * <p>{@link #selectTop} keeps the k best candidates in a bounded binary heap of candidate
+ * indices, so selection is O(n log k) with no allocation beyond the score and heap arrays.
+ * Ten players with twenty candidates each rank in a few microseconds, well inside a frame,
+ * so the game ranks on the main thread.</p>
+ *
+ * <p>The engine also records the deck as cards are chosen through {@link #markChosen}; the
+ * default {@link ScoringStrategies#diversity} strategy reads that record. An engine is not
+ * thread-safe.</p>
+ */
+package com.lastbite.core.ranking;
+
+import com.lastbite.core.cuisine.CuisinePreferences;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class RankingEngine {
+    /** Weight of {@link ScoringStrategies#preferenceMatch} in the default engine */
+    public static final double PREFERENCE_WEIGHT = 0.4;
+
+    /** Weight of {@link ScoringStrategies#rating} in the default engine */
+    public static final double RATING_WEIGHT = 0.3;
+
+    /** Weight of {@link ScoringStrategies#distance} in the default engine */
+    public static final double DISTANCE_WEIGHT = 0.2;
+
+    /** Weight of {@link ScoringStrategies#diversity} in the default engine */
+    public static final double DIVERSITY_WEIGHT = 0.1;
+
+    /** Distinct preferences of the players */
+    private final CuisinePreferences[] profiles;
+
+    /** Number of players per entry of {@link #profiles} */
+    private final int[] profilePlayers;
+
+    private final int playerCount;
+
+    /** Strategies scored once per distinct player profile, and their weights */
+    private ScoringStrategy[] playerStrategies = new ScoringStrategy[0];
+    private double[] playerWeights = new double[0];
+
+    /** Strategies scored once per candidate, and their weights */
+    private ScoringStrategy[] groupStrategies = new ScoringStrategy[0];
+    private double[] groupWeights = new double[0];
+
+    private final Set<String> chosenIds = new HashSet<>();
+    private final Set<String> chosenCuisines = new HashSet<>();
+
+    /**
+     * Constructs an engine for a group of players, without any strategy.
+     *
+     * @param playerCuisines Every player's preferred cuisine label, one entry per player
+     */
+    public RankingEngine(Collection<String> playerCuisines) {
+        this(parseAll(playerCuisines));
+    }
+
+    /**
+     * Constructs an engine for a group of players, without any strategy.
+     *
+     * @param players Every player's preferences, one entry per player
+     */
+    public RankingEngine(CuisinePreferences... players) {
+        if (players.length == 0) {
+            throw new IllegalArgumentException("A ranking needs at least one player");
+        }
+        Map<CuisinePreferences, Integer> counts = new LinkedHashMap<>();
+        for (CuisinePreferences player : players) {
+            counts.merge(player, 1, Integer::sum);
+        }
+        profiles = new CuisinePreferences[counts.size()];
+        profilePlayers = new int[counts.size()];
+        int i = 0;
+        for (Map.Entry<CuisinePreferences, Integer> entry : counts.entrySet()) {
+            profiles[i] = entry.getKey();
+            profilePlayers[i] = entry.getValue();
+            i++;
+        }
+        playerCount = players.length;
+    }
+
+    /**
+     * Constructs an engine with the preference match, rating, distance and diversity
+     * strategies at their default weights.
+     *
+     * @param playerCuisines    Every player's preferred cuisine, one entry per player
+     * @param maxDistanceMeters The distance at which the distance score reaches 0
+     * @return The engine
+     */
+    public static RankingEngine withDefaultStrategies(Collection<String> playerCuisines,
+                                                      double maxDistanceMeters) {
+        return new RankingEngine(playerCuisines).addDefaultStrategies(maxDistanceMeters);
+    }
+
+    /**
+     * Adds the preference match, rating, distance and diversity strategies at their default
+     * weights.
+     *
+     * @param maxDistanceMeters The distance at which the distance score reaches 0
+     * @return This engine
+     */
+    public RankingEngine addDefaultStrategies(double maxDistanceMeters) {
+        addStrategy(ScoringStrategies.preferenceMatch(), PREFERENCE_WEIGHT);
+        addStrategy(ScoringStrategies.rating(), RATING_WEIGHT);
+        addStrategy(ScoringStrategies.distance(maxDistanceMeters), DISTANCE_WEIGHT);
+        addStrategy(ScoringStrategies.diversity(chosenIds, chosenCuisines), DIVERSITY_WEIGHT);
+        return this;
+    }
+
+    /**
+     * Adds a scoring strategy.
+     *
+     * @param strategy The strategy
+     * @param weight   Its weight in the group score
+     * @return This engine
+     */
+    public RankingEngine addStrategy(ScoringStrategy strategy, double weight) {
+        if (strategy.dependsOnPlayer()) {
+            playerStrategies = Arrays.copyOf(playerStrategies, playerStrategies.length + 1);
+            playerStrategies[playerStrategies.length - 1] = strategy;
+            playerWeights = Arrays.copyOf(playerWeights, playerWeights.length + 1);
+            playerWeights[playerWeights.length - 1] = weight;
+        } else {
+            groupStrategies = Arrays.copyOf(groupStrategies, groupStrategies.length + 1);
+            groupStrategies[groupStrategies.length - 1] = strategy;
+            groupWeights = Arrays.copyOf(groupWeights, groupWeights.length + 1);
+            groupWeights[groupWeights.length - 1] = weight;
+        }
+        return this;
+    }
+
+    /**
+     * Records a candidate as part of the deck, so the diversity strategy rates further
+     * candidates against it.
+     *
+     * @param candidate The chosen candidate
+     */
+    public void markChosen(Candidate<?> candidate) {
+        chosenIds.add(candidate.getId());
+        chosenCuisines.add(candidate.getCuisineKey());
+    }
+
+    /**
+     * Returns whether a restaurant has been recorded as part of the deck.
+     *
+     * @param id The restaurant's id
+     * @return true if a candidate with this id was marked as chosen
+     */
+    public boolean isChosen(String id) {
+        return chosenIds.contains(id);
+    }
+
+    /**
+     * Computes a candidate's group score: the weighted strategy scores averaged over all players.
+     *
+     * @param candidate The candidate
+     * @return The group score
+     */
+    public double score(Candidate<?> candidate) {
+        double group = 0;
+        for (int s = 0; s < groupStrategies.length; s++) {
+            group += groupWeights[s] * groupStrategies[s].scoreFor(candidate, null);
+        }
+        if (playerStrategies.length == 0) {
+            return group;
+        }
+        double total = 0;
+        for (int p = 0; p < profiles.length; p++) {
+            double perPlayer = 0;
+            for (int s = 0; s < playerStrategies.length; s++) {
+                perPlayer += playerWeights[s] * playerStrategies[s].scoreFor(candidate, profiles[p]);
+            }
+            total += perPlayer * profilePlayers[p];
+        }
+        return group + total / playerCount;
+    }
+
+    /**
+     * Selects the {@code k} candidates with the highest group score. Ties keep the earlier
+     * candidate, so a backend's own relevance order decides between equal scores.
+     *
+     * @param candidates The candidates; null entries are skipped
+     * @param k          The number of candidates wanted
+     * @param <T>        The type of the wrapped items
+     * @return Up to {@code k} candidates, best first
+     */
+    public <T> List<Candidate<T>> selectTop(List<Candidate<T>> candidates, int k) {
+        int n = candidates.size();
+        if (k <= 0 || n == 0) {
+            return Collections.emptyList();
+        }
+        double[] scores = new double[n];
+        int[] heap = new int[Math.min(k, n)];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            Candidate<T> candidate = candidates.get(i);
+            if (candidate == null) {
+                continue;
+            }
+            scores[i] = score(candidate);
+            if (size < heap.length) {
+                heap[size] = i;
+                siftUp(heap, size, scores);
+                size++;
+            } else if (worse(heap[0], i, scores)) {
+                heap[0] = i;
+                siftDown(heap, size, scores);
+            }
+        }
+
+        List<Candidate<T>> top = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            top.add(null);
+        }
+        while (size > 0) {
+            size--;
+            top.set(size, candidates.get(heap[0]));
+            heap[0] = heap[size];
+            siftDown(heap, size, scores);
+        }
+        return top;
+    }
+
+    /**
+     * Selects the best candidate.
+     *
+     * @param candidates The candidates; null entries are skipped
+     * @param <T>        The type of the wrapped items
+     * @return The best candidate, or null if the list holds no candidate
+     */
+    public <T> Candidate<T> selectBest(List<Candidate<T>> candidates) {
+        List<Candidate<T>> top = selectTop(candidates, 1);
+        return top.isEmpty() ? null : top.get(0);
+    }
+
+    /**
+     * Parses every player's cuisine label.
+     *
+     * @param playerCuisines The labels, one per player
+     * @return The preferences, in the same order
+     */
+    private static CuisinePreferences[] parseAll(Collection<String> playerCuisines) {
+        CuisinePreferences[] players = new CuisinePreferences[playerCuisines.size()];
+        int i = 0;
+        for (String cuisine : playerCuisines) {
+            players[i++] = CuisinePreferences.parse(cuisine);
+        }
+        return players;
+    }
+
+    /**
+     * Returns whether candidate {@code a} ranks below candidate {@code b}.
+     *
+     * @param a      Index of the first candidate
+     * @param b      Index of the second candidate
+     * @param scores The candidates' group scores
+     * @return true if {@code a} has the lower score, or the same score and a later position
+     */
+    private static boolean worse(int a, int b, double[] scores) {
+        return scores[a] < scores[b] || (scores[a] == scores[b] && a > b);
+    }
+
+    /**
+     * Moves a heap entry up until its parent ranks below it, keeping the worst entry at the root.
+     *
+     * @param heap   The heap of candidate indices
+     * @param index  The position of the entry to move
+     * @param scores The candidates' group scores
+     */
+    private static void siftUp(int[] heap, int index, double[] scores) {
+        int entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!worse(entry, heap[parent], scores)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = entry;
+    }
+
+    /**
+     * Moves the root entry down until both children rank above it.
+     *
+     * @param heap   The heap of candidate indices
+     * @param size   The number of entries in the heap
+     * @param scores The candidates' group scores
+     */
+    private static void siftDown(int[] heap, int size, double[] scores) {
+        if (size == 0) {
+            return;
+        }
+        int entry = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && worse(heap[child + 1], heap[child], scores)) {
+                child++;
+            }
+            if (!worse(heap[child], entry, scores)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = entry;
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * The scoring strategies used by the game's {@link RankingEngine}.
+ *
+ * <p>Every strategy maps to [0, 1]. Unknown values (an unrated place, a place without a
+ * location) score 0, which ranks them behind every known value, just as
+ * {@link CandidateRanking} never counts an unrated place as highly rated.</p>
+ */
+package com.lastbite.core.ranking;
+
+import com.lastbite.core.cuisine.CuisinePreferences;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+public final class ScoringStrategies {
+    /** Lowest rating a place can have */
+    private static final double MIN_RATING = 1.0;
+
+    /** Highest rating a place can have */
+    private static final double MAX_RATING = 5.0;
+
+    private ScoringStrategies() {
+    }
+
+    /**
+     * Scores the rating linearly from 1 star (0) to 5 stars (1).
+     *
+     * @return The rating strategy
+     */
+    public static ScoringStrategy rating() {
+        return playerIndependent(candidate -> {
+            double rating = candidate.getRating();
+            if (Double.isNaN(rating)) {
+                return 0;
+            }
+            return clamp((rating - MIN_RATING) / (MAX_RATING - MIN_RATING));
+        });
+    }
+
+    /**
+     * Scores the distance linearly from the search location (1) to {@code maxMeters} (0).
+     *
+     * @param maxMeters The distance at which the score reaches 0, e.g. the search radius
+     * @return The distance strategy
+     */
+    public static ScoringStrategy distance(double maxMeters) {
+        if (!(maxMeters > 0)) {
+            throw new IllegalArgumentException("maxMeters must be positive: " + maxMeters);
+        }
+        return playerIndependent(candidate -> {
+            double distance = candidate.getDistanceMeters();
+            if (Double.isNaN(distance)) {
+                return 0;
+            }
+            return clamp(1 - distance / maxMeters);
+        });
+    }
+
+    /**
+     * Scores how well the candidate serves the player's ranked cuisines: 1 for the first
+     * choice, then less for each lower rank, and 0 for none of them or for a restaurant that
+     * misses one of the player's verifiable dietary constraints. A player with constraints but
+     * no cuisine is served by any restaurant meeting them. Averaged over the group this is
+     * roughly the share of players who asked for the candidate's cuisine, so a restaurant
+     * several players want outranks one only a single player wants.
+     *
+     * <p>Cuisines and constraints are compared as bit masks. Cuisines outside the registry
+     * fall back to comparing cuisine keys.</p>
+     *
+     * @return The preference match strategy
+     */
+    public static ScoringStrategy preferenceMatch() {
+        return new ScoringStrategy() {
+            @Override
+            public double score(Candidate<?> candidate, String playerCuisine) {
+                return scoreFor(candidate, CuisinePreferences.parse(playerCuisine));
+            }
+
+            @Override
+            public double scoreFor(Candidate<?> candidate, CuisinePreferences player) {
+                if (player == null || !player.allows(candidate.getDietaryMask())) {
+                    return 0;
+                }
+                int rank = player.matchRank(candidate.getCuisineMask());
+                if (rank >= 0) {
+                    return 1 - (double) rank / CuisinePreferences.MAX_RANKED;
+                }
+                if (player.getCuisineMask() != 0) {
+                    return 0;
+                }
+                if (player.getCustomCuisine() != null) {
+                    return player.getKey().equals(candidate.getCuisineKey()) ? 1 : 0;
+                }
+                return player.getDietaryFlags() != 0 ? 1 : 0;
+            }
+        };
+    }
+
+    /**
+     * Scores how much a candidate adds to the deck chosen so far: 0 for a restaurant that is
+     * already in the deck, 0.5 for a new restaurant of a cuisine the deck already shows and 1
+     * for a new cuisine. The sets are read on every call, so the caller can keep filling them
+     * as cards are chosen.
+     *
+     * @param chosenIds      Ids of the restaurants already in the deck
+     * @param chosenCuisines Cuisine keys already shown in the deck
+     * @return The diversity strategy
+     */
+    public static ScoringStrategy diversity(Set<String> chosenIds, Set<String> chosenCuisines) {
+        return playerIndependent(candidate -> {
+            if (chosenIds.contains(candidate.getId())) {
+                return 0;
+            }
+            return chosenCuisines.contains(candidate.getCuisineKey()) ? 0.5 : 1;
+        });
+    }
+
+    /**
+     * Wraps a score that is the same for every player as a strategy.
+     *
+     * @param score Scores a candidate
+     * @return A strategy reporting that it does not depend on the player
+     */
+    private static ScoringStrategy playerIndependent(ToDoubleFunction<Candidate<?>> score) {
+        return new ScoringStrategy() {
+            @Override
+            public double score(Candidate<?> candidate, String playerCuisine) {
+                return score.applyAsDouble(candidate);
+            }
+
+            @Override
+            public boolean dependsOnPlayer() {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Limits a score to [0, 1].
+     *
+     * @param score The raw score
+     * @return The clamped score
+     */
+    private static double clamp(double score) {
+        return Math.max(0, Math.min(1, score));
+    }
+}
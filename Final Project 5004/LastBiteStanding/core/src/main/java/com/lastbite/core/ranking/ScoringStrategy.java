@@ -0,0 +1,51 @@
+/**
+ * Scores a candidate for one player. The {@link RankingEngine} combines the weighted scores of
+ * all its strategies over all players into the candidate's group score.
+ *
+ * <p>Scores are expected in [0, 1] so that weights are comparable across strategies.
+ * Implementations are called for every candidate and every distinct player cuisine, so they
+ * should not allocate. A strategy that ignores the player should say so through
+ * {@link #dependsOnPlayer}, so the engine scores it once per candidate instead of once per
+ * cuisine. Ready-made strategies are in {@link ScoringStrategies}.</p>
+ *
+ * <p>The engine hands each player's full {@link CuisinePreferences} to
+ * {@link #scoreFor}; a strategy that only needs the player's cuisine key implements
+ * {@link #score} and inherits the default.</p>
+ */
+package com.lastbite.core.ranking;
+
+import com.lastbite.core.cuisine.CuisinePreferences;
+
+public interface ScoringStrategy {
+    /**
+     * Scores a candidate for a player.
+     *
+     * @param candidate     The candidate
+     * @param playerCuisine The player's preferred cuisine as a cuisine key, null for a strategy
+     *                      that does not {@link #dependsOnPlayer depend on the player}
+     * @return The score, from 0 (worst) to 1 (best)
+     */
+    double score(Candidate<?> candidate, String playerCuisine);
+
+    /**
+     * Scores a candidate for a player's ranked cuisines and dietary constraints. The default
+     * scores the key of the player's label through {@link #score}.
+     *
+     * @param candidate The candidate
+     * @param player    The player's preferences, null for a strategy that does not
+     *                  {@link #dependsOnPlayer depend on the player}
+     * @return The score, from 0 (worst) to 1 (best)
+     */
+    default double scoreFor(Candidate<?> candidate, CuisinePreferences player) {
+        return score(candidate, player == null ? null : player.getKey());
+    }
+
+    /**
+     * Returns whether the score depends on the player's cuisine.
+     *
+     * @return true unless the strategy always scores a candidate the same for every player
+     */
+    default boolean dependsOnPlayer() {
+        return true;
+    }
+}
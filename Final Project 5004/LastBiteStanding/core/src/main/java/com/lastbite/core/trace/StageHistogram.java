@@ -0,0 +1,164 @@
+/**
+ * A lock-free latency histogram with log-linear buckets.
+ *
+ * <p>Latencies are recorded in microseconds. Values below 16 µs get a bucket each; above that,
+ * every power of two is split into 16 equal buckets, so a reported percentile is at most 6.25%
+ * above the true value while the whole range up to about 35 minutes fits in 464 counters.
+ * Larger values are counted in the last bucket. Recording is one atomic increment plus the
+ * count, sum and maximum updates, so stages timed on the main thread, Places callback threads
+ * and the diff thread can record at the same time without blocking each other.</p>
+ *
+ * <p>Readers see a consistent value for each counter but not necessarily across counters;
+ * a percentile read while samples are being recorded may reflect some of them only.</p>
+ */
+package com.lastbite.core.trace;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class StageHistogram {
+    /** Number of bits of a value kept below its leading bit */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /** Buckets per power of two */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Largest power of two with its own buckets; 2^31 µs is about 35 minutes */
+    private static final int MAX_EXPONENT = 31;
+
+    /** Total number of buckets */
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos The latency in nanoseconds; negative values are recorded as 0
+     */
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1000);
+    }
+
+    /**
+     * Records one latency.
+     *
+     * @param micros The latency in microseconds; negative values are recorded as 0
+     */
+    public void recordMicros(long micros) {
+        long value = Math.max(0, micros);
+        buckets.incrementAndGet(bucketOf(value));
+        count.increment();
+        sumMicros.add(value);
+        long max = maxMicros.get();
+        while (value > max && !maxMicros.compareAndSet(max, value)) {
+            max = maxMicros.get();
+        }
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return The sample count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the largest recorded latency.
+     *
+     * @return The maximum in microseconds, 0 if nothing was recorded
+     */
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * Returns the mean recorded latency.
+     *
+     * @return The mean in microseconds, 0 if nothing was recorded
+     */
+    public long getMeanMicros() {
+        long samples = count.sum();
+        return samples == 0 ? 0 : sumMicros.sum() / samples;
+    }
+
+    /**
+     * Returns the latency below which the given fraction of samples fall (nearest-rank method).
+     * The value is the upper end of the sample's bucket, capped at the maximum.
+     *
+     * @param percentile The percentile as a fraction between 0 and 1, e.g. 0.99
+     * @return The percentile in microseconds, or -1 if nothing was recorded
+     */
+    public long percentileMicros(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    /**
+     * Clears every recorded latency. Samples recorded concurrently may survive the reset.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sumMicros.reset();
+        maxMicros.set(0);
+    }
+
+    /**
+     * Returns the bucket a value is counted in.
+     *
+     * @param micros The value, not negative
+     * @return The bucket index
+     */
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (micros >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the largest value counted in a bucket.
+     *
+     * @param bucket The bucket index
+     * @return The bucket's upper bound in microseconds
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * One {@link StageHistogram} per {@link TraceStage}, and the text report built from them.
+ *
+ * <p>The histograms are created up front, so recording never allocates or locks and may
+ * happen from any thread.</p>
+ */
+package com.lastbite.core.trace;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+public class StageTimings {
+    private final Map<TraceStage, StageHistogram> histograms = new EnumMap<>(TraceStage.class);
+
+    /**
+     * Constructs empty timings for every stage.
+     */
+    public StageTimings() {
+        for (TraceStage stage : TraceStage.values()) {
+            histograms.put(stage, new StageHistogram());
+        }
+    }
+
+    /**
+     * Records one latency of a stage.
+     *
+     * @param stage The stage
+     * @param nanos The latency in nanoseconds
+     */
+    public void record(TraceStage stage, long nanos) {
+        histograms.get(stage).recordNanos(nanos);
+    }
+
+    /**
+     * Returns the histogram of a stage.
+     *
+     * @param stage The stage
+     * @return The stage's histogram
+     */
+    public StageHistogram get(TraceStage stage) {
+        return histograms.get(stage);
+    }
+
+    /**
+     * Clears every stage.
+     */
+    public void reset() {
+        for (StageHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Formats one line per stage with samples: the sample count and the p50, p90, p99 and
+     * maximum latency in milliseconds. Meant for a monospaced font.
+     *
+     * @return The report, or a note that nothing was recorded yet
+     */
+    public String formatReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.US, "%-16s %5s %8s %8s %8s %8s%n",
+                "stage", "n", "p50", "p90", "p99", "max"));
+        boolean any = false;
+        for (TraceStage stage : TraceStage.values()) {
+            StageHistogram histogram = histograms.get(stage);
+            long count = histogram.getCount();
+            if (count == 0) {
+                continue;
+            }
+            any = true;
+            report.append(String.format(Locale.US, "%-16s %5d %8s %8s %8s %8s%n",
+                    stage.getLabel(), count,
+                    formatMillis(histogram.percentileMicros(0.5)),
+                    formatMillis(histogram.percentileMicros(0.9)),
+                    formatMillis(histogram.percentileMicros(0.99)),
+                    formatMillis(histogram.getMaxMicros())));
+        }
+        if (!any) {
+            report.append("no samples yet").append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    /**
+     * Formats a latency in milliseconds with one decimal.
+     *
+     * @param micros The latency in microseconds
+     * @return The formatted latency, e.g. "12.3"
+     */
+    private static String formatMillis(long micros) {
+        return String.format(Locale.US, "%.1f", micros / 1000.0);
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * The stages of getting a game on screen that are timed separately, so a slow game can be
+ * attributed to the location fix, the Places calls or the card rendering.
+ */
+package com.lastbite.core.trace;
+
+public enum TraceStage {
+    /** From requesting the device location to receiving a fix */
+    LOCATION("location"),
+
+    /** One autocomplete request of the two-step search */
+    AUTOCOMPLETE("autocomplete"),
+
+    /** One place details request of the two-step search, cache hits excluded */
+    PLACE_DETAILS("details"),
+
+    /** One text search request */
+    TEXT_SEARCH("text search"),
+
+    /** From starting the lookup for the players sharing a cuisine to their cards, or giving up on them */
+    CUISINE_CARDS("cuisine cards"),
+
+    /** From starting the special pick's lookup to its card, or giving up on it */
+    SPECIAL_PICK("special pick"),
+
+    /** From the start of the game to the first restaurant card bound to a view */
+    FIRST_BIND("first bind"),
+
+    /** From the start of the game to the layout showing the complete deck */
+    ALL_BOUND("all cards bound"),
+
+    /** One photo metadata request for a card on screen */
+    PHOTO_METADATA("photo metadata"),
+
+    /** One photo download from the Places API */
+    PHOTO_FETCH("photo fetch"),
+
+    /** Reading and decoding one photo from the disk cache */
+    PHOTO_DECODE("photo decode");
+
+    private final String label;
+
+    TraceStage(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the stage's name as shown in reports and trace sections.
+     *
+     * @return The label, e.g. "cuisine cards"
+     */
+    public String getLabel() {
+        return label;
+    }
+}
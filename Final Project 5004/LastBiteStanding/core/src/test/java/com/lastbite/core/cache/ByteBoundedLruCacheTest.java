@@ -0,0 +1,87 @@
+/**
+ * Unit test suite for the ByteBoundedLruCache class.
+ * Tests byte accounting, LRU eviction, oversized values and trimming.
+ */
+package com.lastbite.core.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ByteBoundedLruCacheTest {
+    /** Cache under test, holding at most ten bytes of strings sized by their length */
+    private ByteBoundedLruCache<String, String> cache;
+
+    /**
+     * Creates a small cache before each test.
+     */
+    @Before
+    public void setUp() {
+        cache = new ByteBoundedLruCache<>(10, String::length);
+    }
+
+    /**
+     * Tests that stored values count towards the size and are found again.
+     */
+    @Test
+    public void testPutAndGet() {
+        cache.put("a", "1234");
+        cache.put("b", "12");
+
+        assertEquals("1234", cache.get("a"));
+        assertNull(cache.get("c"));
+        assertEquals(6, cache.getSizeBytes());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    /**
+     * Tests that the least recently used values are evicted once the budget is exceeded.
+     */
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        cache.put("a", "1234");
+        cache.put("b", "1234");
+        cache.get("a");
+        cache.put("c", "1234");
+
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+        assertEquals(8, cache.getSizeBytes());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    /**
+     * Tests that replacing a value updates the size and that a value larger than the
+     * budget is not stored.
+     */
+    @Test
+    public void testReplaceAndOversized() {
+        cache.put("a", "1234");
+        cache.put("a", "12");
+        assertEquals(2, cache.getSizeBytes());
+
+        cache.put("a", "12345678901");
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getSizeBytes());
+    }
+
+    /**
+     * Tests that trimming gives memory back, oldest first.
+     */
+    @Test
+    public void testTrimTo() {
+        cache.put("a", "123");
+        cache.put("b", "123");
+        cache.put("c", "123");
+
+        cache.trimTo(4);
+
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get("c"));
+        cache.clear();
+        assertEquals(0, cache.getSizeBytes());
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Unit test suite for the CuisineBatch class.
+ * Tests grouping players by cuisine key, batch order and ranks within a batch.
+ */
+package com.lastbite.core.cuisine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CuisineBatchTest {
+
+    /**
+     * Tests that players sharing a cuisine key form one batch, ranked in turn order.
+     */
+    @Test
+    public void testGroupsByKey() {
+        List<CuisineBatch> batches = CuisineBatch.group(
+                Arrays.asList("Italian", "Thai", " italian", "Mexican", "Italian"));
+
+        assertEquals(3, batches.size());
+        CuisineBatch italian = batches.get(0);
+        assertEquals("italian", italian.getCuisineKey());
+        assertEquals("Italian", italian.getCuisine());
+        assertEquals(3, italian.size());
+        assertEquals(0, italian.getSlot(0));
+        assertEquals(2, italian.getSlot(1));
+        assertEquals(4, italian.getSlot(2));
+        assertEquals("thai", batches.get(1).getCuisineKey());
+        assertEquals(3, batches.get(2).getSlot(0));
+    }
+
+    /**
+     * Tests that a party of a hundred players is fetched in as many batches as there are cuisines.
+     */
+    @Test
+    public void testLargeParty() {
+        List<String> cuisines = new ArrayList<>();
+        for (int player = 0; player < 100; player++) {
+            cuisines.add(CuisineTaxonomy.SELECTABLE.get(player % 5));
+        }
+
+        List<CuisineBatch> batches = CuisineBatch.group(cuisines);
+
+        assertEquals(5, batches.size());
+        int players = 0;
+        for (CuisineBatch batch : batches) {
+            assertEquals(20, batch.size());
+            players += batch.size();
+        }
+        assertEquals(100, players);
+        assertTrue(CuisineBatch.group(new ArrayList<>()).isEmpty());
+    }
+
+    /**
+     * Tests that a batch asks for one candidate per player, capped at what one search returns.
+     */
+    @Test
+    public void testCandidatesNeeded() {
+        List<String> cuisines = new ArrayList<>();
+        for (int player = 0; player < 25; player++) {
+            cuisines.add("Thai");
+        }
+        cuisines.add("Pizza");
+
+        List<CuisineBatch> batches = CuisineBatch.group(cuisines);
+
+        assertEquals(20, batches.get(0).candidatesNeeded(20));
+        assertEquals(25, batches.get(0).candidatesNeeded(30));
+        assertEquals(1, batches.get(1).candidatesNeeded(20));
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Unit test suite for the CuisinePreferences class.
+ * Tests packing, label parsing, bitwise cuisine matching and dietary exclusion.
+ */
+package com.lastbite.core.cuisine;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CuisinePreferencesTest {
+
+    /**
+     * Tests that ranked cuisines and flags survive the packed form.
+     */
+    @Test
+    public void testPackedRoundTrip() {
+        CuisinePreferences prefs = CuisinePreferences.of(
+                Arrays.asList(Cuisine.of("Thai"), Cuisine.of("Indian"), Cuisine.of("Thai")),
+                DietaryFlag.VEGAN.bit() | DietaryFlag.HALAL.bit());
+
+        CuisinePreferences restored = CuisinePreferences.fromPacked(prefs.getPacked(), null);
+
+        assertEquals(prefs, restored);
+        assertEquals(2, restored.size());
+        assertSame(Cuisine.of("thai"), restored.getPrimary());
+        assertSame(Cuisine.of("Indian"), restored.get(1));
+        assertNull(restored.get(2));
+        assertTrue(restored.has(DietaryFlag.VEGAN));
+        assertFalse(restored.has(DietaryFlag.KOSHER));
+        assertEquals("Vegan Halal Thai", restored.getLabel());
+    }
+
+    /**
+     * Tests that at most three cuisines can be ranked.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyRanked() {
+        CuisinePreferences.of(Arrays.asList(Cuisine.of("Thai"), Cuisine.of("Indian"),
+                Cuisine.of("Greek"), Cuisine.of("Korean")), 0);
+    }
+
+    /**
+     * Tests reading cuisines, dietary words and unknown text from labels.
+     */
+    @Test
+    public void testParse() {
+        assertSame(Cuisine.of("Italian"), CuisinePreferences.parse(" italian ").getPrimary());
+        assertSame(CuisinePreferences.NONE, CuisinePreferences.parse(null));
+
+        CuisinePreferences veganThai = CuisinePreferences.parse("Vegan Thai");
+        assertSame(Cuisine.of("Thai"), veganThai.getPrimary());
+        assertEquals(DietaryFlag.VEGAN.bit(), veganThai.getDietaryFlags());
+        assertEquals("vegan thai", veganThai.getKey());
+
+        CuisinePreferences kosher = CuisinePreferences.parse("Kosher");
+        assertEquals(0, kosher.size());
+        assertEquals("Kosher", kosher.getLabel());
+
+        CuisinePreferences custom = CuisinePreferences.parse("  Ethiopian & Co. ");
+        assertEquals(0, custom.getPacked());
+        assertEquals("  Ethiopian & Co. ", custom.getLabel());
+    }
+
+    /**
+     * Tests that the best ranked cuisine a restaurant serves is found.
+     */
+    @Test
+    public void testMatchRank() {
+        CuisinePreferences prefs = CuisinePreferences.of(
+                Arrays.asList(Cuisine.of("Thai"), Cuisine.of("Indian"), Cuisine.of("Greek")), 0);
+        long place = Cuisine.maskOfPlaceTypes(Arrays.asList("greek_restaurant", "indian_restaurant",
+                "restaurant"));
+
+        assertEquals(1, prefs.matchRank(place));
+        assertEquals(0, prefs.matchRank(Cuisine.of("Thai").bit()));
+        assertEquals(-1, prefs.matchRank(Cuisine.of("Mexican").bit()));
+        assertEquals(Cuisine.of("Thai").bit() | Cuisine.of("Mexican").bit(),
+                CuisinePreferences.maskOf(Arrays.asList("Thai", "Vegan Mexican", "Ethiopian")));
+    }
+
+    /**
+     * Tests that verifiable constraints exclude restaurants lacking them and that halal and
+     * kosher never do.
+     */
+    @Test
+    public void testAllows() {
+        CuisinePreferences vegetarian = CuisinePreferences.of(Collections.emptyList(),
+                DietaryFlag.VEGETARIAN.bit() | DietaryFlag.HALAL.bit());
+        int veganPlace = DietaryFlag.maskOfPlaceTypes(Collections.singletonList("vegan_restaurant"));
+
+        assertTrue(vegetarian.allows(veganPlace));
+        assertFalse(vegetarian.allows(0));
+        assertTrue(CuisinePreferences.parse("Kosher").allows(0));
+        assertTrue(CuisinePreferences.NONE.allows(0));
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Unit test suite for the CuisineTaxonomy class.
+ * Tests key normalisation, query building and the surprise cuisine draw.
+ */
+package com.lastbite.core.cuisine;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CuisineTaxonomyTest {
+
+    /**
+     * Tests that differently written cuisine names share a key.
+     */
+    @Test
+    public void testKey() {
+        assertEquals("italian", CuisineTaxonomy.key(" Italian "));
+        assertEquals("", CuisineTaxonomy.key(null));
+    }
+
+    /**
+     * Tests that a cuisine survives the round trip through its query.
+     */
+    @Test
+    public void testQueryRoundTrip() {
+        assertEquals("Kosher restaurant", CuisineTaxonomy.queryFor("Kosher"));
+        assertEquals("Kosher", CuisineTaxonomy.cuisineOfQuery(CuisineTaxonomy.queryFor("Kosher")));
+        assertEquals("highly rated", CuisineTaxonomy.cuisineOfQuery(CuisineTaxonomy.ANY_CUISINE_QUERY));
+    }
+
+    /**
+     * Tests that the surprise cuisine is never one the players chose.
+     */
+    @Test
+    public void testSurpriseSkipsPlayerCuisines() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            String surprise = CuisineTaxonomy.pickSurprise(Arrays.asList("italian", "Thai "), random);
+            assertNotNull(surprise);
+            assertNotEquals("Italian", surprise);
+            assertNotEquals("Thai", surprise);
+        }
+    }
+
+    /**
+     * Tests that no surprise is drawn when every surprise cuisine was chosen.
+     */
+    @Test
+    public void testSurpriseExhausted() {
+        assertNull(CuisineTaxonomy.pickSurprise(CuisineTaxonomy.SURPRISE_PICKS, new Random()));
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * Unit test suite for the DeckOrder and DeckFilter classes.
+ * Tests sorting and filtering a deck by rating, distance, price and cuisine, including
+ * restaurants whose values are unknown.
+ */
+package com.lastbite.core.deck;
+
+import com.lastbite.core.cuisine.Cuisine;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DeckOrderTest {
+
+    /**
+     * A restaurant with fixed values.
+     */
+    private static final class Entry implements DeckEntry {
+        final String name;
+        final float rating;
+        final double distance;
+        final int priceLevel;
+        final long cuisineMask;
+
+        Entry(String name, float rating, double distance, int priceLevel, long cuisineMask) {
+            this.name = name;
+            this.rating = rating;
+            this.distance = distance;
+            this.priceLevel = priceLevel;
+            this.cuisineMask = cuisineMask;
+        }
+
+        @Override
+        public float getRatingValue() { return rating; }
+
+        @Override
+        public double getDistanceMeters() { return distance; }
+
+        @Override
+        public int getPriceLevel() { return priceLevel; }
+
+        @Override
+        public long getCuisineMask() { return cuisineMask; }
+    }
+
+    private static final long THAI = Cuisine.of("Thai").bit();
+    private static final long PIZZA = Cuisine.of("Pizza").bit();
+
+    private final Entry luigis = new Entry("Luigi's", 4.5f, 1200, 2, PIZZA);
+    private final Entry siam = new Entry("Siam", 4.7f, 300, 1, THAI);
+    private final Entry unknown = new Entry("Unknown", DeckEntry.UNRATED, Double.NaN,
+            DeckEntry.PRICE_UNKNOWN, 0);
+    private final Entry bangkok = new Entry("Bangkok", 4.5f, 800, 3, THAI);
+
+    /**
+     * Sorts a copy of the test deck.
+     *
+     * @param order The order
+     * @return The names in sorted order
+     */
+    private List<String> sorted(DeckOrder order) {
+        List<Entry> deck = new ArrayList<>(Arrays.asList(luigis, unknown, siam, bangkok));
+        deck.sort(order);
+        List<String> names = new ArrayList<>();
+        for (Entry entry : deck) {
+            names.add(entry.name);
+        }
+        return names;
+    }
+
+    /**
+     * Tests that the best rated restaurants come first, ties keep their deck order and unrated
+     * restaurants go last.
+     */
+    @Test
+    public void testByRating() {
+        assertEquals(Arrays.asList("Siam", "Luigi's", "Bangkok", "Unknown"), sorted(DeckOrder.RATING));
+    }
+
+    /**
+     * Tests that the nearest restaurants come first and unknown distances go last.
+     */
+    @Test
+    public void testByDistance() {
+        assertEquals(Arrays.asList("Siam", "Bangkok", "Luigi's", "Unknown"), sorted(DeckOrder.DISTANCE));
+    }
+
+    /**
+     * Tests that the cheapest restaurants come first and unknown prices go last.
+     */
+    @Test
+    public void testByPrice() {
+        assertEquals(Arrays.asList("Siam", "Luigi's", "Bangkok", "Unknown"), sorted(DeckOrder.PRICE));
+    }
+
+    /**
+     * Tests that an unset filter accepts every restaurant, including unknown values.
+     */
+    @Test
+    public void testAnyFilter() {
+        assertTrue(DeckFilter.ANY.matches(unknown));
+        assertTrue(DeckFilter.ANY.matches(bangkok));
+    }
+
+    /**
+     * Tests each bound on its own; unknown values fail every set bound.
+     */
+    @Test
+    public void testBounds() {
+        DeckFilter rated = DeckFilter.ANY.withMinRating(4.6f);
+        assertTrue(rated.matches(siam));
+        assertFalse(rated.matches(luigis));
+        assertFalse(rated.matches(unknown));
+
+        DeckFilter near = DeckFilter.ANY.withMaxDistance(800);
+        assertTrue(near.matches(bangkok));
+        assertFalse(near.matches(luigis));
+        assertFalse(near.matches(unknown));
+
+        DeckFilter cheap = DeckFilter.ANY.withMaxPriceLevel(2);
+        assertTrue(cheap.matches(luigis));
+        assertFalse(cheap.matches(bangkok));
+        assertFalse(cheap.matches(unknown));
+
+        DeckFilter thai = DeckFilter.ANY.withCuisines(THAI);
+        assertTrue(thai.matches(siam));
+        assertFalse(thai.matches(luigis));
+    }
+
+    /**
+     * Tests filtering and sorting in one call, leaving the deck unchanged.
+     */
+    @Test
+    public void testSelect() {
+        List<Entry> deck = Arrays.asList(luigis, unknown, siam, bangkok);
+        List<Entry> selected = DeckFilter.ANY.withMaxDistance(1000).select(deck, DeckOrder.RATING);
+
+        assertEquals(Arrays.asList(siam, bangkok), selected);
+        assertEquals(Arrays.asList(luigis, unknown, siam, bangkok), deck);
+        assertEquals(Arrays.asList(siam, bangkok),
+                DeckFilter.ANY.withCuisines(THAI).select(deck, null));
+    }
+
+    /**
+     * Tests that a price level above the most expensive one is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPriceLevel() {
+        DeckFilter.ANY.withMaxPriceLevel(DeckEntry.MAX_PRICE_LEVEL + 1);
+    }
+
+    /**
+     * Tests that a NaN distance bound is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDistance() {
+        DeckFilter.ANY.withMaxDistance(Double.NaN);
+    }
+
+    /**
+     * Tests formatting ratings for display and reading them back.
+     */
+    @Test
+    public void testRatingLabel() {
+        assertEquals("4.3 ★", RatingLabel.format(4.3f));
+        assertEquals("Rating N/A", RatingLabel.format(DeckEntry.UNRATED));
+        assertEquals(4.3f, RatingLabel.parse("4.3 ★"), 0);
+        assertEquals(4.5f, RatingLabel.parse("4.5"), 0);
+        assertTrue(Float.isNaN(RatingLabel.parse("Rating N/A")));
+        assertTrue(Float.isNaN(RatingLabel.parse("")));
+        assertTrue(Float.isNaN(RatingLabel.parse(null)));
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Unit test suite for the RestaurantFetchScheduler class.
+ * Tests concurrency limiting, dependency ordering and the single completion signal
+ * using jobs whose completion is driven manually by the test.
+ *
+ * <p>The test suite covers:</p>
+ * <ul>
+ *   <li>Independent jobs starting together</li>
+ *   <li>Concurrency limit enforcement</li>
+ *   <li>Dependency ordering</li>
+ *   <li>Completion signal behaviour</li>
+ * </ul>
+ */
+package com.lastbite.core.fetch;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class RestaurantFetchSchedulerTest {
+
+    /**
+     * Tests that independent jobs all start as soon as the scheduler starts.
+     */
+    @Test
+    public void testIndependentJobsStartTogether() {
+        RestaurantFetchScheduler scheduler = new RestaurantFetchScheduler(10);
+        List<Runnable> pending = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            scheduler.submit(pending::add);
+        }
+
+        scheduler.start(null);
+
+        assertEquals("All jobs should be in flight", 7, pending.size());
+    }
+
+    /**
+     * Tests that a game's scheduler runs six cuisine lookups and the special pick, submitted
+     * last, all at the same time, more than {@link RestaurantFetchScheduler#DEFAULT_MAX_CONCURRENT}.
+     */
+    @Test
+    public void testGameRunsEveryLookupAtOnce() {
+        int cuisineBatches = 6;
+        RestaurantFetchScheduler scheduler = RestaurantFetchScheduler.forGame(cuisineBatches);
+        List<Runnable> pending = new ArrayList<>();
+        for (int i = 0; i < cuisineBatches; i++) {
+            scheduler.submit(pending::add);
+        }
+        AtomicInteger specialPickRuns = new AtomicInteger();
+        scheduler.submit(done -> {
+            specialPickRuns.incrementAndGet();
+            pending.add(done);
+        });
+
+        scheduler.start(null);
+
+        assertEquals("All seven lookups should be in flight", 7, pending.size());
+        assertEquals(1, specialPickRuns.get());
+    }
+
+    /**
+     * Tests that no more than the configured number of jobs run at the same time.
+     */
+    @Test
+    public void testConcurrencyLimit() {
+        RestaurantFetchScheduler scheduler = new RestaurantFetchScheduler(2);
+        List<Runnable> pending = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            scheduler.submit(pending::add);
+        }
+
+        scheduler.start(null);
+        assertEquals(2, pending.size());
+
+        pending.get(0).run();
+        assertEquals("Finishing a job should start the next one", 3, pending.size());
+    }
+
+    /**
+     * Tests that a job only starts after the jobs it depends on have finished.
+     */
+    @Test
+    public void testDependencyOrdering() {
+        RestaurantFetchScheduler scheduler = new RestaurantFetchScheduler(4);
+        List<Runnable> pending = new ArrayList<>();
+        AtomicInteger dependentRuns = new AtomicInteger();
+
+        int first = scheduler.submit(pending::add);
+        scheduler.submit(done -> {
+            dependentRuns.incrementAndGet();
+            done.run();
+        }, first);
+
+        scheduler.start(null);
+        assertEquals(0, dependentRuns.get());
+
+        pending.get(0).run();
+        assertEquals(1, dependentRuns.get());
+        assertTrue(scheduler.isComplete());
+    }
+
+    /**
+     * Tests that the completion listener fires exactly once, even if a job reports twice.
+     */
+    @Test
+    public void testCompletionFiresOnce() {
+        RestaurantFetchScheduler scheduler = new RestaurantFetchScheduler(3);
+        List<Runnable> pending = new ArrayList<>();
+        AtomicInteger completions = new AtomicInteger();
+        scheduler.submit(pending::add);
+        scheduler.submit(pending::add);
+
+        scheduler.start(completions::incrementAndGet);
+        pending.get(0).run();
+        pending.get(0).run();
+        assertEquals(0, completions.get());
+
+        pending.get(1).run();
+        assertEquals(1, completions.get());
+    }
+
+    /**
+     * Tests that starting with no jobs completes immediately.
+     */
+    @Test
+    public void testEmptySchedulerCompletesImmediately() {
+        RestaurantFetchScheduler scheduler = new RestaurantFetchScheduler(1);
+        AtomicInteger completions = new AtomicInteger();
+
+        scheduler.start(completions::incrementAndGet);
+
+        assertEquals(1, completions.get());
+    }
+
+    /**
+     * Tests that an invalid concurrency limit is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConcurrencyLimit() {
+        new RestaurantFetchScheduler(0);
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * Unit test suite for the CardList class.
+ * Tests appending, finding, removing and replacing cards by identity, growing past the
+ * initial capacity, and agreement with an ArrayList under a long mixed sequence of operations.
+ */
+package com.lastbite.core.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CardListTest {
+
+    /**
+     * A card compared by identity, as restaurant cards are.
+     */
+    private static final class Card {
+        final String name;
+
+        Card(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Tests that removing a card closes the gap and positions follow.
+     */
+    @Test
+    public void testRemoveCard() {
+        Card siam = new Card("siam");
+        Card bangkok = new Card("bangkok");
+        Card phuket = new Card("phuket");
+        CardList<Card> cards = new CardList<>();
+        cards.addAll(Arrays.asList(siam, bangkok, phuket));
+
+        assertTrue(cards.removeCard(bangkok));
+        assertFalse(cards.removeCard(bangkok));
+
+        assertEquals(Arrays.asList(siam, phuket), cards);
+        assertEquals(1, cards.positionOf(phuket));
+        assertEquals(-1, cards.positionOf(bangkok));
+        assertFalse(cards.containsCard(bangkok));
+    }
+
+    /**
+     * Tests that two equal-looking cards are told apart by identity.
+     */
+    @Test
+    public void testIdentity() {
+        Card first = new Card("siam");
+        Card second = new Card("siam");
+        CardList<Card> cards = new CardList<>();
+        cards.add(first);
+        cards.add(second);
+
+        cards.removeCard(second);
+
+        assertSame(first, cards.get(0));
+        assertEquals(1, cards.size());
+    }
+
+    /**
+     * Tests that a replaced card keeps its position and the old card is gone.
+     */
+    @Test
+    public void testReplaceCard() {
+        Card siam = new Card("siam");
+        Card refreshed = new Card("siam, refreshed");
+        Card bangkok = new Card("bangkok");
+        CardList<Card> cards = new CardList<>();
+        cards.addAll(Arrays.asList(bangkok, siam));
+
+        assertTrue(cards.replaceCard(siam, refreshed));
+
+        assertEquals(Arrays.asList(bangkok, refreshed), cards);
+        assertEquals(-1, cards.positionOf(siam));
+        assertFalse(cards.replaceCard(siam, new Card("again")));
+    }
+
+    /**
+     * Tests that a card cannot be added twice.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateRejected() {
+        Card siam = new Card("siam");
+        CardList<Card> cards = new CardList<>();
+        cards.add(siam);
+        cards.add(siam);
+    }
+
+    /**
+     * Tests that cards can only be appended.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testInsertRejected() {
+        CardList<Card> cards = new CardList<>();
+        cards.add(new Card("siam"));
+        cards.add(0, new Card("bangkok"));
+    }
+
+    /**
+     * Tests that iterating while removing through the iterator works and that clearing resets
+     * the list.
+     */
+    @Test
+    public void testIteratorRemoveAndClear() {
+        CardList<Card> cards = new CardList<>();
+        for (int i = 0; i < 5; i++) {
+            cards.add(new Card("R" + i));
+        }
+
+        Iterator<Card> iterator = cards.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().name.endsWith("1")) {
+                iterator.remove();
+            }
+        }
+        assertEquals(4, cards.size());
+        assertEquals("R2", cards.get(1).name);
+
+        cards.clear();
+        assertTrue(cards.isEmpty());
+        cards.add(new Card("again"));
+        assertEquals("again", cards.get(0).name);
+    }
+
+    /**
+     * Tests that a long random mix of appends, removals and replacements, growing well past
+     * the initial capacity, matches an ArrayList compared by identity.
+     */
+    @Test
+    public void testMatchesArrayList() {
+        Random random = new Random(42);
+        CardList<Card> cards = new CardList<>();
+        List<Card> expected = new ArrayList<>();
+        for (int step = 0; step < 5000; step++) {
+            int operation = random.nextInt(4);
+            if (operation < 2 || expected.isEmpty()) {
+                Card card = new Card("C" + step);
+                cards.add(card);
+                expected.add(card);
+            } else if (operation == 2) {
+                int position = random.nextInt(expected.size());
+                Card removed = expected.remove(position);
+                if (random.nextBoolean()) {
+                    assertSame(removed, cards.remove(position));
+                } else {
+                    assertTrue(cards.removeCard(removed));
+                }
+            } else {
+                int position = random.nextInt(expected.size());
+                Card replacement = new Card("R" + step);
+                assertTrue(cards.replaceCard(expected.get(position), replacement));
+                expected.set(position, replacement);
+            }
+        }
+
+        assertEquals(expected.size(), cards.size());
+        for (int position = 0; position < expected.size(); position++) {
+            assertSame(expected.get(position), cards.get(position));
+            assertEquals(position, cards.positionOf(expected.get(position)));
+        }
+    }
+}
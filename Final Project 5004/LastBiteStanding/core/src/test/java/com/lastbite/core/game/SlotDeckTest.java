@@ -0,0 +1,241 @@
+/**
+ * Unit test suite for the SlotDeck class.
+ * Tests the placeholder rules: when vetoing may start, where late cards go, what happens to
+ * cards for vetoed slots and slots that finish empty, and how the vetoes are capped.
+ */
+package com.lastbite.core.game;
+
+import com.lastbite.core.cuisine.CuisineBatch;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SlotDeckTest {
+
+    /**
+     * A card compared by identity, as restaurant cards are.
+     */
+    private static final class Card {
+        final String name;
+
+        Card(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /** Thai is picked by players 0 and 2, Pizza by player 1; slot 3 is the special pick */
+    private static final List<CuisineBatch> BATCHES =
+            CuisineBatch.group(Arrays.asList("Thai", "Pizza", "Thai"));
+    private static final CuisineBatch THAI = BATCHES.get(0);
+    private static final CuisineBatch PIZZA = BATCHES.get(1);
+    private static final int SPECIAL = 3;
+
+    private final Card[] placeholders = new Card[4];
+    private List<Card> deck;
+    private VetoEngine vetoEngine;
+    private SlotDeck<Card> slotDeck;
+
+    /**
+     * Starts a three-player game with a placeholder for every slot.
+     */
+    @Before
+    public void setUp() {
+        vetoEngine = new VetoEngine(3);
+        slotDeck = new SlotDeck<>(Collections.emptyList(), vetoEngine, placeholders.length);
+        deck = slotDeck.getCards();
+        for (int slot = 0; slot < placeholders.length; slot++) {
+            placeholders[slot] = new Card("placeholder " + slot);
+            slotDeck.addPlaceholder(slot, placeholders[slot]);
+        }
+    }
+
+    /**
+     * Tests that vetoing is refused until the deck is marked ready, for example by the fetch
+     * deadline while lookups are still pending, and that marking it ready again changes nothing.
+     */
+    @Test
+    public void testDeadlineStartsGame() {
+        assertFalse(slotDeck.veto(placeholders[1]));
+        assertEquals(4, deck.size());
+
+        assertTrue(slotDeck.markReady());
+        assertFalse(slotDeck.markReady());
+        assertEquals(4, slotDeck.getPendingCount());
+        assertTrue(slotDeck.veto(placeholders[1]));
+        assertEquals(2, vetoEngine.getVetosRemaining());
+    }
+
+    /**
+     * Tests that an arrived card takes its placeholder's position.
+     */
+    @Test
+    public void testFillReplacesPlaceholder() {
+        Card special = new Card("special");
+
+        assertTrue(slotDeck.fill(SPECIAL, special));
+
+        assertEquals(Arrays.asList(placeholders[0], placeholders[1], placeholders[2], special), deck);
+        assertEquals(3, slotDeck.getPendingCount());
+        assertFalse(slotDeck.isCompleted(SPECIAL));
+    }
+
+    /**
+     * Tests that a late card whose placeholder was vetoed is dropped and its slot counts as
+     * finished.
+     */
+    @Test
+    public void testLateArrivalForVetoedSlotIsDropped() {
+        slotDeck.markReady();
+        assertTrue(slotDeck.veto(placeholders[1]));
+        assertTrue(slotDeck.isCompleted(PIZZA));
+
+        assertFalse(slotDeck.fill(1, new Card("pizza")));
+        Card[] cards = {null};
+        assertEquals(0, slotDeck.fill(PIZZA, cards));
+        assertEquals(Arrays.asList(placeholders[0], placeholders[2], placeholders[3]), deck);
+    }
+
+    /**
+     * Tests that a batch places each card at its rank's placeholder, skips missing ranks and
+     * drops cards for vetoed placeholders.
+     */
+    @Test
+    public void testFillBatch() {
+        slotDeck.markReady();
+        slotDeck.veto(placeholders[2]);
+        Card siam = new Card("siam");
+        Card bangkok = new Card("bangkok");
+
+        assertEquals(1, slotDeck.fill(THAI, new Card[] {siam, bangkok}));
+
+        assertEquals(Arrays.asList(siam, placeholders[1], placeholders[3]), deck);
+    }
+
+    /**
+     * Tests that a slot finishing without a card removes its placeholder and caps the vetoes,
+     * while a filled slot leaves the deck alone.
+     */
+    @Test
+    public void testEmptySlotRemovesPlaceholder() {
+        Card special = new Card("special");
+        slotDeck.fill(SPECIAL, special);
+
+        assertFalse(slotDeck.finish(SPECIAL));
+        assertTrue(slotDeck.finish(THAI));
+        assertTrue(slotDeck.finish(1));
+
+        assertEquals(Arrays.asList(special), deck);
+        assertEquals(0, vetoEngine.getVetosRemaining());
+        assertTrue(slotDeck.isCompleted(THAI));
+        assertEquals(0, slotDeck.getPendingCount());
+    }
+
+    /**
+     * Tests that players beyond the search limit whose ranks got no card drop out when their
+     * batch finishes, while the cards that did arrive stay.
+     */
+    @Test
+    public void testRanksBeyondLimitDropOut() {
+        Card siam = new Card("siam");
+
+        assertEquals(1, slotDeck.fill(THAI, new Card[] {siam, null}));
+        assertTrue(slotDeck.finish(THAI));
+
+        assertEquals(Arrays.asList(siam, placeholders[1], placeholders[3]), deck);
+        assertTrue(slotDeck.isCompleted(2));
+        assertEquals(2, vetoEngine.getVetosRemaining());
+    }
+
+    /**
+     * Tests that the vetoes are capped so one card always remains, and that a capped game
+     * refuses further vetoes.
+     */
+    @Test
+    public void testVetosCappedToDeck() {
+        slotDeck.finish(THAI);
+        assertEquals(1, vetoEngine.getVetosRemaining());
+
+        slotDeck.markReady();
+        assertTrue(slotDeck.veto(placeholders[1]));
+        assertFalse(slotDeck.veto(placeholders[3]));
+        assertEquals(Arrays.asList(placeholders[3]), deck);
+    }
+
+    /**
+     * Tests that vetoes are matched by identity, so a card no longer in the deck is refused.
+     */
+    @Test
+    public void testVetoUnknownCard() {
+        slotDeck.markReady();
+        Card special = new Card("special");
+        slotDeck.fill(SPECIAL, special);
+
+        assertFalse(slotDeck.veto(placeholders[SPECIAL]));
+        assertTrue(slotDeck.veto(special));
+        assertEquals(3, deck.size());
+    }
+
+    /**
+     * Tests resuming a game: finished slots get no placeholder and the flags are copied.
+     */
+    @Test
+    public void testResume() {
+        boolean[] completed = {true, false, true, true};
+        List<Card> resumed = new ArrayList<>();
+        SlotDeck<Card> restored = new SlotDeck<>(resumed, new VetoEngine(3), completed);
+        completed[1] = true;
+
+        assertFalse(restored.isCompleted(1));
+        assertFalse(restored.isCompleted(PIZZA));
+        assertTrue(restored.isCompleted(0));
+        restored.addPlaceholder(1, placeholders[1]);
+        assertEquals(1, restored.getPendingCount());
+        assertArrayEquals(new boolean[] {true, false, true, true}, restored.getCompletedSlots());
+    }
+
+    /**
+     * Tests that a resumed deck starts with the saved cards and that a refreshed card keeps
+     * its position, while a vetoed one can no longer be replaced.
+     */
+    @Test
+    public void testResumeWithCardsAndReplace() {
+        Card siam = new Card("siam");
+        Card bangkok = new Card("bangkok");
+        SlotDeck<Card> restored = new SlotDeck<>(Arrays.asList(siam, bangkok), new VetoEngine(2),
+                new boolean[] {true, true, true});
+        restored.markReady();
+        Card refreshed = new Card("siam, refreshed");
+
+        assertTrue(restored.replace(siam, refreshed));
+        assertEquals(Arrays.asList(refreshed, bangkok), restored.getCards());
+        assertTrue(restored.veto(bangkok));
+        assertFalse(restored.replace(bangkok, new Card("bangkok, refreshed")));
+    }
+
+    /**
+     * Tests that the deck view cannot be changed from outside.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCardsAreReadOnly() {
+        deck.remove(0);
+    }
+
+    /**
+     * Tests that a finished slot cannot get a placeholder.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testPlaceholderForFinishedSlot() {
+        slotDeck.finish(SPECIAL);
+        slotDeck.addPlaceholder(SPECIAL, new Card("again"));
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Unit test suite for the VetoEngine class.
+ * Tests turn rotation, the last veto and capping the vetoes to the deck size.
+ */
+package com.lastbite.core.game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class VetoEngineTest {
+
+    /**
+     * Tests that each veto passes the turn to the next player and wraps around.
+     */
+    @Test
+    public void testTurnRotation() {
+        VetoEngine engine = new VetoEngine(3, 2, 3);
+
+        assertTrue(engine.veto());
+        assertEquals(0, engine.getCurrentPlayerIndex());
+        assertTrue(engine.veto());
+        assertEquals(1, engine.getCurrentPlayerIndex());
+    }
+
+    /**
+     * Tests that the last veto keeps the turn and further vetoes are refused.
+     */
+    @Test
+    public void testLastVeto() {
+        VetoEngine engine = new VetoEngine(2);
+
+        assertTrue(engine.veto());
+        assertTrue(engine.veto());
+        assertTrue(engine.isFinished());
+        assertEquals(1, engine.getCurrentPlayerIndex());
+        assertFalse(engine.veto());
+        assertEquals(0, engine.getVetosRemaining());
+    }
+
+    /**
+     * Tests that the vetoes are capped so one card always remains.
+     */
+    @Test
+    public void testCapToDeck() {
+        VetoEngine engine = new VetoEngine(4);
+
+        engine.capToDeck(3);
+        assertEquals(2, engine.getVetosRemaining());
+        engine.capToDeck(10);
+        assertEquals(2, engine.getVetosRemaining());
+        engine.capToDeck(0);
+        assertTrue(engine.isFinished());
+    }
+
+    /**
+     * Tests that invalid games are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoPlayers() {
+        new VetoEngine(0);
+    }
+}
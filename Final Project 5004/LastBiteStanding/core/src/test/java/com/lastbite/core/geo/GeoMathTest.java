@@ -0,0 +1,62 @@
+/**
+ * Unit test suite for the GeoMath class.
+ * Tests haversine distances against known values and checks that the degree conversions
+ * cover the requested ground distance at any latitude.
+ */
+package com.lastbite.core.geo;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GeoMathTest {
+
+    /**
+     * Tests one degree of latitude, which is about 111.2 km everywhere.
+     */
+    @Test
+    public void testOneDegreeOfLatitude() {
+        assertEquals(111_195, GeoMath.distanceMeters(10, 20, 11, 20), 1);
+        assertEquals(0, GeoMath.distanceMeters(47.6, -122.3, 47.6, -122.3), 1e-9);
+    }
+
+    /**
+     * Tests a known city-to-city distance, Paris to London, about 343.5 km.
+     */
+    @Test
+    public void testKnownCityDistance() {
+        assertEquals(343_500, GeoMath.distanceMeters(48.8566, 2.3522, 51.5074, -0.1278), 1_000);
+    }
+
+    /**
+     * Tests that a longitude span covers the same ground distance as a latitude span at high
+     * latitudes, where a fixed number of degrees would be far narrower east-west.
+     */
+    @Test
+    public void testLongitudeSpanWidensWithLatitude() {
+        double latitude = 60;
+        double longitudeSpan = GeoMath.metersToLongitudeDegrees(latitude, 2000);
+
+        assertEquals(2 * GeoMath.metersToLatitudeDegrees(2000), longitudeSpan, 1e-9);
+        assertEquals(2000, GeoMath.distanceMeters(latitude, 10, latitude, 10 + longitudeSpan), 1);
+        assertEquals(2000, GeoMath.distanceMeters(latitude, 10,
+                latitude + GeoMath.metersToLatitudeDegrees(2000), 10), 1);
+    }
+
+    /**
+     * Tests that the longitude span is capped at the poles.
+     */
+    @Test
+    public void testLongitudeSpanCappedAtPole() {
+        assertEquals(180, GeoMath.metersToLongitudeDegrees(90, 100), 0);
+    }
+
+    /**
+     * Tests distance formatting in metres and kilometres.
+     */
+    @Test
+    public void testFormatDistance() {
+        assertEquals("350 m", GeoMath.formatDistance(349.6));
+        assertEquals("1.2 km", GeoMath.formatDistance(1234));
+    }
+}
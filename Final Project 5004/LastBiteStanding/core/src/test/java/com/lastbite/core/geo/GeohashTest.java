@@ -0,0 +1,57 @@
+/**
+ * Unit test suite for the Geohash class.
+ * Tests encoding against known reference hashes and checks that nearby points share a cell.
+ */
+package com.lastbite.core.geo;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GeohashTest {
+
+    /**
+     * Tests encoding against a well-known reference coordinate.
+     */
+    @Test
+    public void testKnownReferenceHash() {
+        assertEquals("ezs42", Geohash.encode(42.605, -5.603, 5));
+    }
+
+    /**
+     * Tests that the requested precision controls the hash length.
+     */
+    @Test
+    public void testPrecisionControlsLength() {
+        assertEquals(1, Geohash.encode(37.7749, -122.4194, 1).length());
+        assertEquals(12, Geohash.encode(37.7749, -122.4194, 12).length());
+    }
+
+    /**
+     * Tests that two points a few metres apart fall into the same cache cell.
+     */
+    @Test
+    public void testNearbyPointsShareCell() {
+        String a = Geohash.encode(37.77490, -122.41940, 6);
+        String b = Geohash.encode(37.77495, -122.41945, 6);
+        assertEquals(a, b);
+    }
+
+    /**
+     * Tests that a longer hash always extends the shorter one.
+     */
+    @Test
+    public void testLongerHashExtendsShorterHash() {
+        String shortHash = Geohash.encode(40.7128, -74.0060, 5);
+        String longHash = Geohash.encode(40.7128, -74.0060, 9);
+        assertTrue(longHash.startsWith(shortHash));
+    }
+
+    /**
+     * Tests that an invalid precision is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPrecision() {
+        Geohash.encode(0, 0, 0);
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Unit test suite for the LocationFixPolicy class.
+ * Tests the freshness and accuracy limits and which of two fixes is kept.
+ */
+package com.lastbite.core.geo;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LocationFixPolicyTest {
+    private final LocationFixPolicy policy = new LocationFixPolicy(60_000, 500, 50, 5_000);
+
+    /**
+     * Tests the usable and good-enough limits, including fixes without an accuracy.
+     */
+    @Test
+    public void testLimits() {
+        assertTrue(policy.isFresh(60_000));
+        assertFalse(policy.isFresh(60_001));
+
+        assertTrue(policy.isUsable(1_000, 400));
+        assertFalse(policy.isGoodEnough(1_000, 400));
+        assertTrue(policy.isGoodEnough(1_000, 50));
+        assertFalse(policy.isUsable(120_000, 10));
+        assertFalse(policy.isUsable(1_000, Float.NaN));
+        assertFalse(policy.isGoodEnough(1_000, Float.NaN));
+    }
+
+    /**
+     * Tests that freshness beats accuracy, then accuracy beats age.
+     */
+    @Test
+    public void testIsBetter() {
+        assertTrue(policy.isBetter(1_000, 800, 300_000, 5));
+        assertFalse(policy.isBetter(300_000, 5, 1_000, 800));
+
+        assertTrue(policy.isBetter(30_000, 20, 1_000, 200));
+        assertFalse(policy.isBetter(1_000, 200, 30_000, 20));
+        assertTrue(policy.isBetter(1_000, 200, 1_000, Float.NaN));
+
+        assertTrue(policy.isBetter(1_000, 20, 2_000, 20));
+        assertFalse(policy.isBetter(2_000, 20, 2_000, 20));
+    }
+
+    /**
+     * Tests that inconsistent limits are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsGoodAccuracyAboveUsable() {
+        new LocationFixPolicy(60_000, 50, 500, 5_000);
+    }
+}
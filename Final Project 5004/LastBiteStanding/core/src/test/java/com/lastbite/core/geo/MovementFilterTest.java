@@ -0,0 +1,43 @@
+/**
+ * Unit test suite for the MovementFilter class.
+ * Tests that jitter is ignored and that cell changes are reported only on real moves.
+ */
+package com.lastbite.core.geo;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MovementFilterTest {
+    /** Centre of geohash cell "c23nb5", which spans 47.6093..47.6147 N and 122.3437..122.3328 W */
+    private static final double LAT = 47.6120;
+    private static final double LNG = -122.3383;
+
+    /**
+     * Tests that fixes within the minimum displacement or their own accuracy are ignored.
+     */
+    @Test
+    public void testIgnoresJitter() {
+        MovementFilter filter = new MovementFilter(LAT, LNG, 25, 6);
+
+        assertEquals(MovementFilter.Change.NONE, filter.offer(LAT + 0.0001, LNG, 5));
+        assertEquals(MovementFilter.Change.NONE, filter.offer(LAT + 0.0003, LNG, 50));
+        assertEquals(LAT, filter.getAnchorLatitude(), 0);
+
+        assertEquals(MovementFilter.Change.MOVED, filter.offer(LAT + 0.0003, LNG, Double.NaN));
+        assertEquals(LAT + 0.0003, filter.getAnchorLatitude(), 0);
+    }
+
+    /**
+     * Tests that leaving the search cell is reported once, relative to the last anchor.
+     */
+    @Test
+    public void testReportsCellChange() {
+        MovementFilter filter = new MovementFilter(LAT, LNG, 25, 6);
+
+        assertEquals(MovementFilter.Change.MOVED, filter.offer(LAT + 0.001, LNG, 10));
+        assertEquals(MovementFilter.Change.LEFT_CELL, filter.offer(LAT + 0.004, LNG, 10));
+        assertEquals(MovementFilter.Change.MOVED, filter.offer(LAT + 0.0045, LNG, 10));
+        assertEquals(MovementFilter.Change.LEFT_CELL, filter.offer(LAT, LNG, 10));
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Unit test suite for the offline dataset: writes a small dataset with
+ * OfflineDatasetWriter and queries it through OfflineRestaurantIndex.
+ */
+package com.lastbite.core.offline;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OfflineRestaurantIndexTest {
+    /** Centre of the test queries, in downtown Seattle */
+    private static final double LAT = 47.6062;
+    private static final double LNG = -122.3321;
+
+    /** Index over the test dataset */
+    private OfflineRestaurantIndex index;
+
+    /**
+     * Builds a dataset with restaurants near and far from the test centre.
+     */
+    @Before
+    public void setUp() throws IOException {
+        List<OfflineRestaurant> restaurants = Arrays.asList(
+                new OfflineRestaurant("Near Italian", "Italian", 4.2, "1 Pike St", LAT + 0.001, LNG),
+                new OfflineRestaurant("Best Italian", "italian", 4.8, "2 Pine St", LAT, LNG + 0.01),
+                new OfflineRestaurant("Unrated Italian", "Italian", null, "3 Union St", LAT - 0.002, LNG),
+                new OfflineRestaurant("Far Italian", "Italian", 5.0, "Tacoma", 47.2529, -122.4443),
+                new OfflineRestaurant("Ramen Café", "Japanese", 4.6, "4 Main St", LAT + 0.003, LNG - 0.003));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OfflineDatasetWriter.write(restaurants, out);
+        index = new OfflineRestaurantIndex(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    /**
+     * Tests that results are filtered by cuisine and radius and sorted best rated first.
+     */
+    @Test
+    public void testQueryByCuisineWithinRadius() {
+        List<OfflineRestaurant> results = index.query(LAT, LNG, 2000, "Italian", 10);
+
+        assertEquals(3, results.size());
+        assertEquals("Best Italian", results.get(0).getName());
+        assertEquals("Near Italian", results.get(1).getName());
+        assertEquals("Unrated Italian", results.get(2).getName());
+        assertNull(results.get(2).getRating());
+        assertEquals(4.8, results.get(0).getRating(), 0.0001);
+    }
+
+    /**
+     * Tests that the limit keeps only the best results.
+     */
+    @Test
+    public void testLimit() {
+        List<OfflineRestaurant> results = index.query(LAT, LNG, 2000, null, 2);
+
+        assertEquals(2, results.size());
+        assertEquals("Best Italian", results.get(0).getName());
+        assertEquals("Ramen Café", results.get(1).getName());
+    }
+
+    /**
+     * Tests that a larger radius reaches restaurants in other cells.
+     */
+    @Test
+    public void testLargeRadiusReachesOtherCells() {
+        List<OfflineRestaurant> results = index.query(LAT, LNG, 60_000, "Italian", 1);
+
+        assertEquals("Far Italian", results.get(0).getName());
+        assertEquals("Tacoma", results.get(0).getAddress());
+    }
+
+    /**
+     * Tests that unknown cuisines and empty areas return no results.
+     */
+    @Test
+    public void testNoMatches() {
+        assertTrue(index.query(LAT, LNG, 2000, "Ethiopian", 5).isEmpty());
+        assertTrue(index.query(0, 0, 2000, null, 5).isEmpty());
+        assertEquals(5, index.size());
+    }
+
+    /**
+     * Tests that a buffer that is not a dataset is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsForeignData() {
+        new OfflineRestaurantIndex(ByteBuffer.wrap(new byte[64]));
+    }
+
+    /**
+     * Tests that a large dataset still answers with the closest cell's best restaurants.
+     */
+    @Test
+    public void testManyRestaurants() throws IOException {
+        List<OfflineRestaurant> restaurants = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            double lat = LAT - 0.5 + (i % 100) * 0.01;
+            double lng = LNG - 0.5 + (i / 100) * 0.02;
+            restaurants.add(new OfflineRestaurant("R" + i, i % 2 == 0 ? "Thai" : "Indian",
+                    1 + (i % 40) / 10.0, "Street " + i, lat, lng));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OfflineDatasetWriter.write(restaurants, out);
+        OfflineRestaurantIndex large = new OfflineRestaurantIndex(ByteBuffer.wrap(out.toByteArray()));
+
+        List<OfflineRestaurant> results = large.query(LAT, LNG, 3000, "Thai", 3);
+        assertFalse(results.isEmpty());
+        for (int i = 1; i < results.size(); i++) {
+            assertTrue(results.get(i - 1).getRating() >= results.get(i).getRating());
+        }
+        for (OfflineRestaurant restaurant : results) {
+            assertEquals("thai", restaurant.getCuisine());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * Unit test suite for the PhotoSizing class.
+ * Tests the subsampling factor and the bitmap size estimate.
+ */
+package com.lastbite.core.photo;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PhotoSizingTest {
+
+    /**
+     * Tests that the factor is the largest power of two keeping both sides at least as large
+     * as the target.
+     */
+    @Test
+    public void testSampleSize() {
+        assertEquals(4, PhotoSizing.sampleSize(4800, 3200, 1080, 480));
+        assertEquals(2, PhotoSizing.sampleSize(4800, 1000, 1080, 480));
+        assertEquals(1, PhotoSizing.sampleSize(1080, 480, 1080, 480));
+        assertEquals(1, PhotoSizing.sampleSize(400, 300, 1080, 480));
+        assertEquals(1, PhotoSizing.sampleSize(4800, 3200, 0, 0));
+    }
+
+    /**
+     * Tests the memory estimate of a decoded bitmap.
+     */
+    @Test
+    public void testBitmapBytes() {
+        assertEquals(1080L * 480 * 4, PhotoSizing.bitmapBytes(1080, 480));
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * Unit test suite for the RankingEngine class.
+ * Tests group scoring, the scoring strategies, top-k selection and the diversity record.
+ */
+package com.lastbite.core.ranking;
+
+import com.lastbite.core.cuisine.Cuisine;
+import com.lastbite.core.cuisine.CuisinePreferences;
+import com.lastbite.core.cuisine.DietaryFlag;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RankingEngineTest {
+
+    /**
+     * Creates a candidate whose item is its id.
+     *
+     * @param id       The id
+     * @param cuisine  The cuisine key
+     * @param rating   The rating, or NaN
+     * @param distance The distance in metres, or NaN
+     * @return The candidate
+     */
+    private Candidate<String> candidate(String id, String cuisine, double rating, double distance) {
+        return new Candidate<>(id, id, cuisine, rating, distance);
+    }
+
+    /**
+     * Tests that the preference match is averaged over the players, so a cuisine wanted by
+     * more players scores higher.
+     */
+    @Test
+    public void testPreferenceMatchAveragedOverPlayers() {
+        RankingEngine engine = new RankingEngine(Arrays.asList("Italian", "italian", "Thai"))
+                .addStrategy(ScoringStrategies.preferenceMatch(), 1);
+
+        assertEquals(2.0 / 3, engine.score(candidate("a", "italian", 4, 100)), 1e-9);
+        assertEquals(1.0 / 3, engine.score(candidate("b", "thai", 4, 100)), 1e-9);
+        assertEquals(0, engine.score(candidate("c", "mexican", 4, 100)), 1e-9);
+    }
+
+    /**
+     * Tests that lower ranked cuisines score less and that a missing verifiable dietary
+     * constraint rules a restaurant out for that player.
+     */
+    @Test
+    public void testRankedPreferencesAndDietaryFlags() {
+        CuisinePreferences player = CuisinePreferences.of(
+                Arrays.asList(Cuisine.of("Thai"), Cuisine.of("Indian")), DietaryFlag.VEGETARIAN.bit());
+        RankingEngine engine = new RankingEngine(player)
+                .addStrategy(ScoringStrategies.preferenceMatch(), 1);
+        int vegetarian = DietaryFlag.VEGETARIAN.bit();
+
+        assertEquals(1, engine.score(new Candidate<>("a", "a", "thai", 4, 100,
+                Cuisine.of("Thai").bit(), vegetarian)), 1e-9);
+        assertEquals(2.0 / 3, engine.score(new Candidate<>("b", "b", "indian", 4, 100,
+                Cuisine.of("Indian").bit() | Cuisine.of("Greek").bit(), vegetarian)), 1e-9);
+        assertEquals(0, engine.score(new Candidate<>("c", "c", "thai", 4, 100,
+                Cuisine.of("Thai").bit(), 0)), 1e-9);
+    }
+
+    /**
+     * Tests the rating and distance strategies, including unknown values.
+     */
+    @Test
+    public void testRatingAndDistance() {
+        ScoringStrategy rating = ScoringStrategies.rating();
+        ScoringStrategy distance = ScoringStrategies.distance(2000);
+
+        assertEquals(1, rating.score(candidate("a", "x", 5, 0), "x"), 1e-9);
+        assertEquals(0.75, rating.score(candidate("a", "x", 4, 0), "x"), 1e-9);
+        assertEquals(0, rating.score(candidate("a", "x", Double.NaN, 0), "x"), 1e-9);
+        assertEquals(0.5, distance.score(candidate("a", "x", 4, 1000), "x"), 1e-9);
+        assertEquals(0, distance.score(candidate("a", "x", 4, 5000), "x"), 1e-9);
+        assertEquals(0, distance.score(candidate("a", "x", 4, Double.NaN), "x"), 1e-9);
+    }
+
+    /**
+     * Tests that chosen restaurants and already shown cuisines lower the diversity score.
+     */
+    @Test
+    public void testDiversityFollowsChosenDeck() {
+        RankingEngine engine = RankingEngine.withDefaultStrategies(Collections.singletonList("Thai"), 2000);
+        Candidate<String> chosen = candidate("a", "thai", 4, 100);
+        Candidate<String> sameCuisine = candidate("b", "thai", 4, 100);
+        double before = engine.score(sameCuisine);
+
+        engine.markChosen(chosen);
+
+        assertTrue(engine.isChosen("a"));
+        assertFalse(engine.isChosen("b"));
+        assertEquals(before - RankingEngine.DIVERSITY_WEIGHT / 2, engine.score(sameCuisine), 1e-9);
+        assertEquals(before - RankingEngine.DIVERSITY_WEIGHT, engine.score(chosen), 1e-9);
+    }
+
+    /**
+     * Tests that top-k selection returns the best candidates best first, with ties keeping
+     * the earlier candidate.
+     */
+    @Test
+    public void testSelectTop() {
+        RankingEngine engine = new RankingEngine(Collections.singletonList("Thai"))
+                .addStrategy(ScoringStrategies.rating(), 1);
+        List<Candidate<String>> candidates = Arrays.asList(
+                candidate("a", "thai", 3.0, 0),
+                candidate("b", "thai", 4.5, 0),
+                null,
+                candidate("c", "thai", 4.0, 0),
+                candidate("d", "thai", 4.5, 0),
+                candidate("e", "thai", Double.NaN, 0));
+
+        List<Candidate<String>> top = engine.selectTop(candidates, 3);
+
+        assertEquals(3, top.size());
+        assertEquals("b", top.get(0).getItem());
+        assertEquals("d", top.get(1).getItem());
+        assertEquals("c", top.get(2).getItem());
+        assertEquals(5, engine.selectTop(candidates, 10).size());
+        assertEquals("b", engine.selectBest(candidates).getItem());
+        assertTrue(engine.selectTop(candidates, 0).isEmpty());
+        assertNull(engine.selectBest(new ArrayList<>()));
+    }
+
+    /**
+     * Tests that top-k selection agrees with a full sort on random candidates.
+     */
+    @Test
+    public void testSelectTopMatchesFullSort() {
+        Random random = new Random(7);
+        List<String> players = Arrays.asList("Italian", "Thai", "Thai", "Mexican", "Indian",
+                "Greek", "Italian", "Korean", "Thai", "Vegan");
+        String[] cuisines = {"italian", "thai", "mexican", "indian", "greek", "korean", "vegan"};
+        RankingEngine engine = RankingEngine.withDefaultStrategies(players, 20000);
+        List<Candidate<String>> candidates = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            candidates.add(candidate("r" + i, cuisines[random.nextInt(cuisines.length)],
+                    1 + random.nextInt(9) * 0.5, random.nextInt(20) * 1000));
+        }
+
+        List<Candidate<String>> sorted = new ArrayList<>(candidates);
+        sorted.sort((a, b) -> Double.compare(engine.score(b), engine.score(a)));
+
+        assertEquals(sorted.subList(0, 11), engine.selectTop(candidates, 11));
+    }
+
+    /**
+     * Tests that an engine needs at least one player.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoPlayers() {
+        new RankingEngine(new ArrayList<>());
+    }
+}
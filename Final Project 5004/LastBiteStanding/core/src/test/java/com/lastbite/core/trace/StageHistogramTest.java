@@ -0,0 +1,98 @@
+/**
+ * Unit test suite for the StageHistogram and StageTimings classes.
+ * Tests bucket precision, percentiles, concurrent recording and the text report.
+ */
+package com.lastbite.core.trace;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StageHistogramTest {
+
+    /**
+     * Tests that every value falls in a bucket whose upper bound is at most 6.25% above it.
+     */
+    @Test
+    public void testBucketPrecision() {
+        for (long value = 0; value < 1_000_000; value += 7) {
+            int bucket = StageHistogram.bucketOf(value);
+            long upper = StageHistogram.upperBoundOf(bucket);
+            assertTrue(upper >= value);
+            assertTrue(upper <= value + value / 16);
+        }
+        assertEquals(StageHistogram.BUCKET_COUNT - 1, StageHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    /**
+     * Tests percentiles, mean and maximum of a uniform sample.
+     */
+    @Test
+    public void testPercentiles() {
+        StageHistogram histogram = new StageHistogram();
+        assertEquals(-1, histogram.percentileMicros(0.5));
+
+        for (int ms = 1; ms <= 100; ms++) {
+            histogram.recordNanos(ms * 1_000_000L);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(50_500, histogram.getMeanMicros());
+        assertEquals(100_000, histogram.getMaxMicros());
+        long p50 = histogram.percentileMicros(0.5);
+        long p99 = histogram.percentileMicros(0.99);
+        assertTrue(p50 >= 50_000 && p50 <= 53_125);
+        assertTrue(p99 >= 99_000 && p99 <= 100_000);
+        assertEquals(100_000, histogram.percentileMicros(1.0));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(-1, histogram.percentileMicros(0.5));
+    }
+
+    /**
+     * Tests that concurrent recording loses no samples.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        StageHistogram histogram = new StageHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final int offset = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.recordMicros(i + offset);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, histogram.getCount());
+        assertEquals(10_002, histogram.getMaxMicros());
+    }
+
+    /**
+     * Tests that the report lists only stages with samples.
+     */
+    @Test
+    public void testReport() {
+        StageTimings timings = new StageTimings();
+        assertTrue(timings.formatReport().contains("no samples yet"));
+
+        timings.record(TraceStage.TEXT_SEARCH, 250_000_000L);
+
+        String report = timings.formatReport();
+        assertTrue(report.contains("text search"));
+        assertTrue(report.contains("250.0"));
+        assertFalse(report.contains("location"));
+    }
+}
@@ -21,3 +21,6 @@ dependencyResolutionManagement {
 
 rootProject.name = "LastBite Standing"
 include(":app")
+include(":core")
+include(":benchmarks")
+include(":tools:dataset-converter")
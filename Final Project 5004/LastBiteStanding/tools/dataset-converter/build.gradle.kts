@@ -0,0 +1,23 @@
+// Converts a CSV or JSON Lines restaurant dump into the app's binary offline dataset:
+//   ./gradlew :tools:dataset-converter:run --args="dump.csv app/src/main/assets/offline/restaurants.bin"
+plugins {
+    application
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    // The writer comes from the same module the app reads the dataset with
+    implementation(project(":core"))
+}
+
+application {
+    mainClass.set("com.lastbite.tools.DatasetConverter")
+}
+
+tasks.named<JavaExec>("run") {
+    workingDir = rootProject.projectDir
+}
@@ -0,0 +1,264 @@
+/**
+ * Command-line tool that converts a restaurant dump into the app's binary offline dataset.
+ *
+ * <p>Usage: {@code DatasetConverter <input.csv|input.jsonl> <output.bin>}</p>
+ *
+ * <p>Two input formats are accepted, chosen by file extension:</p>
+ * <ul>
+ *   <li>CSV with a header row naming the columns {@code name, cuisine, rating, address, lat, lng}
+ *       in any order. Fields may be quoted with double quotes; quotes inside a quoted field
+ *       are doubled.</li>
+ *   <li>JSON Lines ({@code .jsonl} or {@code .json}): one flat JSON object per line with the
+ *       same keys, e.g. {@code {"name": "Luigi's", "cuisine": "Italian", "rating": 4.5, ...}}.</li>
+ * </ul>
+ *
+ * <p>An empty rating means the restaurant has none. Rows with a missing name or coordinate
+ * are skipped and reported.</p>
+ */
+package com.lastbite.tools;
+
+import com.lastbite.core.offline.OfflineDatasetWriter;
+import com.lastbite.core.offline.OfflineRestaurant;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class DatasetConverter {
+
+    private DatasetConverter() {
+    }
+
+    /**
+     * Runs the conversion.
+     *
+     * @param args The input and output paths
+     * @throws IOException if reading or writing fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: DatasetConverter <input.csv|input.jsonl> <output.bin>");
+            System.exit(2);
+        }
+        Path input = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+
+        List<String> lines = Files.readAllLines(input, StandardCharsets.UTF_8);
+        String fileName = input.getFileName().toString().toLowerCase();
+        List<Map<String, String>> rows = fileName.endsWith(".jsonl") || fileName.endsWith(".json")
+                ? parseJsonLines(lines)
+                : parseCsv(lines);
+
+        List<OfflineRestaurant> restaurants = new ArrayList<>(rows.size());
+        int skipped = 0;
+        for (Map<String, String> row : rows) {
+            OfflineRestaurant restaurant = toRestaurant(row);
+            if (restaurant == null) {
+                skipped++;
+            } else {
+                restaurants.add(restaurant);
+            }
+        }
+
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output))) {
+            OfflineDatasetWriter.write(restaurants, out);
+        }
+        System.out.println("Wrote " + restaurants.size() + " restaurants to " + output
+                + (skipped > 0 ? " (skipped " + skipped + " incomplete rows)" : ""));
+    }
+
+    /**
+     * Builds a restaurant from one parsed row.
+     *
+     * @param row The row's values keyed by column name
+     * @return The restaurant, or null if the row lacks a name or a valid coordinate
+     */
+    static OfflineRestaurant toRestaurant(Map<String, String> row) {
+        String name = row.get("name");
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+        try {
+            double lat = Double.parseDouble(row.get("lat"));
+            double lng = Double.parseDouble(row.get("lng"));
+            String rating = row.get("rating");
+            return new OfflineRestaurant(name, row.getOrDefault("cuisine", ""),
+                    rating == null || rating.isEmpty() ? null : Double.valueOf(rating),
+                    row.getOrDefault("address", ""), lat, lng);
+        } catch (NullPointerException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses CSV lines with a header row.
+     *
+     * @param lines The file's lines
+     * @return One map per data row, keyed by lower-case column name
+     */
+    static List<Map<String, String>> parseCsv(List<String> lines) {
+        List<Map<String, String>> rows = new ArrayList<>();
+        if (lines.isEmpty()) {
+            return rows;
+        }
+        List<String> header = splitCsvLine(lines.get(0));
+        for (int i = 1; i < lines.size(); i++) {
+            if (lines.get(i).trim().isEmpty()) {
+                continue;
+            }
+            List<String> fields = splitCsvLine(lines.get(i));
+            Map<String, String> row = new HashMap<>();
+            for (int column = 0; column < header.size() && column < fields.size(); column++) {
+                row.put(header.get(column).trim().toLowerCase(), fields.get(column).trim());
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Splits one CSV line into fields, honouring double-quoted fields.
+     *
+     * @param line The line
+     * @return The fields
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Parses JSON Lines where each line is a flat object of string, number or null values.
+     *
+     * @param lines The file's lines
+     * @return One map per object; numbers are kept as their literal text
+     */
+    static List<Map<String, String>> parseJsonLines(List<String> lines) {
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("{")) {
+                rows.add(parseFlatObject(trimmed));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Parses one flat JSON object.
+     *
+     * @param json The object text
+     * @return The values keyed by lower-case key; null values are left out
+     */
+    private static Map<String, String> parseFlatObject(String json) {
+        Map<String, String> row = new HashMap<>();
+        int[] pos = {json.indexOf('{') + 1};
+        while (true) {
+            skipWhitespace(json, pos);
+            if (pos[0] >= json.length() || json.charAt(pos[0]) == '}') {
+                return row;
+            }
+            String key = readJsonString(json, pos);
+            skipWhitespace(json, pos);
+            pos[0]++; // ':'
+            skipWhitespace(json, pos);
+            String value;
+            if (json.charAt(pos[0]) == '"') {
+                value = readJsonString(json, pos);
+            } else {
+                int start = pos[0];
+                while (pos[0] < json.length() && ",}".indexOf(json.charAt(pos[0])) < 0) {
+                    pos[0]++;
+                }
+                value = json.substring(start, pos[0]).trim();
+                if (value.equals("null")) {
+                    value = null;
+                }
+            }
+            if (value != null) {
+                row.put(key.toLowerCase(), value);
+            }
+            skipWhitespace(json, pos);
+            if (pos[0] < json.length() && json.charAt(pos[0]) == ',') {
+                pos[0]++;
+            }
+        }
+    }
+
+    /**
+     * Reads a JSON string starting at the opening quote and leaves the position after the
+     * closing quote.
+     *
+     * @param json The JSON text
+     * @param pos  The current position, updated in place
+     * @return The unescaped string
+     */
+    private static String readJsonString(String json, int[] pos) {
+        StringBuilder value = new StringBuilder();
+        pos[0]++;
+        while (json.charAt(pos[0]) != '"') {
+            char c = json.charAt(pos[0]++);
+            if (c == '\\') {
+                char escaped = json.charAt(pos[0]++);
+                switch (escaped) {
+                    case 'n': value.append('\n'); break;
+                    case 't': value.append('\t'); break;
+                    case 'u':
+                        value.append((char) Integer.parseInt(json.substring(pos[0], pos[0] + 4), 16));
+                        pos[0] += 4;
+                        break;
+                    default: value.append(escaped);
+                }
+            } else {
+                value.append(c);
+            }
+        }
+        pos[0]++;
+        return value.toString();
+    }
+
+    /**
+     * Advances the position past whitespace.
+     *
+     * @param json The JSON text
+     * @param pos  The current position, updated in place
+     */
+    private static void skipWhitespace(String json, int[] pos) {
+        while (pos[0] < json.length() && Character.isWhitespace(json.charAt(pos[0]))) {
+            pos[0]++;
+        }
+    }
+}